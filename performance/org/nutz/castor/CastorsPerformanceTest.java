@@ -0,0 +1,66 @@
+package org.nutz.castor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+import org.nutz.lang.Stopwatch;
+
+public class CastorsPerformanceTest {
+
+	static int num = 1000000;
+
+	/**
+	 * 一些常用的转换，覆盖 default-castors.txt 里主要的几类转换器
+	 */
+	static Object[][] cases = new Object[][]{	{"123", int.class},
+												{"123", Integer.class},
+												{"123", long.class},
+												{Integer.valueOf(123), int.class},
+												{Integer.valueOf(123), long.class},
+												{Long.valueOf(123), Integer.class},
+												{Integer.valueOf(123), String.class},
+												{"true", boolean.class},
+												{Boolean.TRUE, String.class},
+												{"2011-01-01 12:00:00", Date.class},
+												{new Timestamp(0), Calendar.class},
+												{new Timestamp(0), Long.class},
+												{new int[]{1, 2, 3}, List.class},
+												{"[1,2,3]", int[].class},
+												{"a", "b".getClass()}};
+
+	/**
+	 * 务必先把log关闭!! 设置为Error或者NONE
+	 */
+	@Test
+	public void test_cast() {
+		Castors cts = Castors.me();
+		// 预热
+		cast(cts, num / 10);
+
+		Stopwatch sw = Stopwatch.begin();
+		int re = cast(cts, num);
+		sw.stop();
+		assertEquals(num, re);
+		System.out.printf(	"Castors: %d casts of %d pairs, %dms, %.1fns/op\n",
+							num,
+							cases.length,
+							sw.getDuration(),
+							sw.getDuration() * 1000000.0 / num);
+	}
+
+	private static int cast(Castors cts, int n) {
+		int re = 0;
+		for (int i = 0; i < n; i++) {
+			Object[] cs = cases[i % cases.length];
+			if (null != cts.castTo(cs[0], (Class<?>) cs[1]))
+				re++;
+		}
+		return re;
+	}
+
+}
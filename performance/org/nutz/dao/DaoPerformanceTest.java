@@ -1,7 +1,10 @@
 package org.nutz.dao;
 
+import static org.junit.Assert.assertEquals;
+
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,6 +12,8 @@ import javax.sql.DataSource;
 
 import org.apache.commons.dbcp.BasicDataSource;
 import org.junit.Test;
+import org.nutz.dao.entity.Entity;
+import org.nutz.dao.entity.RowMaker;
 import org.nutz.dao.impl.NutDao;
 import org.nutz.json.Json;
 import org.nutz.lang.Stopwatch;
@@ -56,6 +61,152 @@ public class DaoPerformanceTest {
 		dao(dao,list);
 	}
 
+	/**
+	 * 一次 fastInsert 100W 条记录，比较分批与不分批时堆内存的峰值
+	 * <p>
+	 * 分批时，峰值应该和插入前基本持平
+	 * <p>
+	 * 务必先把log关闭!! 设置为Error或者NONE
+	 */
+	@Test
+	public void test_dao_batch() throws Throwable {
+		BasicDataSource ds = new BasicDataSource();
+		ds.setDriverClassName("org.h2.Driver");
+		ds.setUsername("sa");
+		ds.setPassword("sa");
+		// 用文件数据库，免得数据本身也占用堆内存
+		ds.setUrl("jdbc:h2:" + System.getProperty("java.io.tmpdir") + "/nutz_batch");
+		ds.setDefaultAutoCommit(false);
+
+		NutDao dao = new NutDao(ds);
+
+		int total = 1000000;
+		List<Pojo> list = new ArrayList<Pojo>(total);
+		for (int i = 0; i < total; i++) {
+			Pojo pojo = new Pojo();
+			pojo.setName("abc" + i);
+			list.add(pojo);
+		}
+
+		dao.create(Pojo.class, true);
+		batch(dao, list, 0);
+		assertEquals(total, dao.count(Pojo.class));
+
+		dao.create(Pojo.class, true);
+		batch(dao, list, 1000);
+		assertEquals(total, dao.count(Pojo.class));
+	}
+
+	/**
+	 * 从结果集生成 10W 个对象，比较逐字段反射(getObject)，预编排的行转换器(getRowMaker)，以及手写 JDBC 代码的耗时
+	 * <p>
+	 * 务必先把log关闭!! 设置为Error或者NONE
+	 */
+	@Test
+	public void test_dao_query() throws Throwable {
+		BasicDataSource ds = new BasicDataSource();
+		ds.setDriverClassName("org.h2.Driver");
+		ds.setUsername("sa");
+		ds.setPassword("sa");
+		ds.setUrl("jdbc:h2:mem:~");
+		ds.setDefaultAutoCommit(false);
+
+		NutDao dao = new NutDao(ds);
+		List<Pojo> list = new ArrayList<Pojo>();
+		for (int i = 0; i < num; i++) {
+			Pojo pojo = new Pojo();
+			pojo.setName("abc" + i);
+			list.add(pojo);
+		}
+		dao.create(Pojo.class, true);
+		dao.fastInsert(list);
+
+		Entity<Pojo> en = dao.getEntity(Pojo.class);
+		Connection conn = ds.getConnection();
+		PreparedStatement ps = conn.prepareStatement("SELECT * FROM tb_pojo");
+		// 前面几轮用来预热
+		for (int i = 0; i < 5; i++) {
+			System.out.println("第" + (i + 1) + "轮");
+			query(ps, en, 0);
+			query(ps, en, 1);
+			query(ps, en, 2);
+		}
+		ps.close();
+		conn.close();
+
+		Stopwatch sw = Stopwatch.begin();
+		assertEquals(num, dao.query(Pojo.class, null, null).size());
+		sw.stop();
+		System.out.printf("Dao 查询%d条,耗时%dms\n", num, sw.getDuration());
+	}
+
+	private static void query(PreparedStatement ps, Entity<Pojo> en, int mode) throws Throwable {
+		Stopwatch sw = Stopwatch.begin();
+		ResultSet rs = ps.executeQuery();
+		RowMaker<Pojo> maker = en.getRowMaker(rs, null);
+		int n = 0;
+		while (rs.next()) {
+			Pojo pojo;
+			if (mode == 0) {
+				pojo = en.getObject(rs, null);
+			} else if (mode == 1) {
+				pojo = maker.make(rs);
+			} else {
+				pojo = new Pojo();
+				pojo.setId(rs.getInt(1));
+				pojo.setName(rs.getString(2));
+			}
+			if (null != pojo.getName())
+				n++;
+		}
+		rs.close();
+		sw.stop();
+		assertEquals(num, n);
+		System.out.printf(	"%s 生成%d个对象,耗时%dms\n",
+							new String[]{"getObject", "RowMaker", "JDBC"}[mode],
+							n,
+							sw.getDuration());
+	}
+
+	public static void batch(NutDao dao, List<Pojo> list, int batchSize) throws Throwable {
+		final Runtime rt = Runtime.getRuntime();
+		final long[] peak = new long[1];
+		final boolean[] running = {true};
+		Thread watcher = new Thread() {
+			public void run() {
+				while (running[0]) {
+					// 先回收一下，这样量出来的才是真正被占用的内存
+					System.gc();
+					peak[0] = Math.max(peak[0], rt.totalMemory() - rt.freeMemory());
+					try {
+						Thread.sleep(50);
+					}
+					catch (InterruptedException e) {}
+				}
+			}
+		};
+		System.gc();
+		long before = rt.totalMemory() - rt.freeMemory();
+
+		int batchesPerCommit = batchSize > 0 ? 10 : 0;
+		dao.setBatchSize(batchSize);
+		dao.setBatchesPerCommit(batchesPerCommit);
+		watcher.start();
+		Stopwatch sw = Stopwatch.begin();
+		dao.fastInsert(list);
+		sw.stop();
+		running[0] = false;
+		watcher.join();
+
+		System.out.printf(	"Dao 批量插入%d条(batchSize=%d,batchesPerCommit=%d),耗时%dms,插入前堆内存%dMB,峰值%dMB\n",
+							list.size(),
+							batchSize,
+							batchesPerCommit,
+							sw.getDuration(),
+							before / 1024 / 1024,
+							peak[0] / 1024 / 1024);
+	}
+
 	public static void dao(Dao dao, List<Pojo> list){
 		Stopwatch sw = Stopwatch.begin();
 		dao.fastInsert(list);
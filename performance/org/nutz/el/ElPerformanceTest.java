@@ -0,0 +1,88 @@
+package org.nutz.el;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.nutz.el.compile.ElCompiler;
+import org.nutz.lang.Lang;
+import org.nutz.lang.Stopwatch;
+import org.nutz.lang.util.Context;
+
+public class ElPerformanceTest {
+
+	static int num = 1000000;
+
+	public static class Item {
+		private int price;
+		private int count;
+
+		public Item(int price, int count) {
+			this.price = price;
+			this.count = count;
+		}
+
+		public int getPrice() {
+			return price;
+		}
+
+		public int getCount() {
+			return count;
+		}
+	}
+
+	/**
+	 * 预编译的表达式：属性访问，算术和三元运算
+	 */
+	@Test
+	public void test_eval() {
+		String exp = "item.price * item.count > 100 ? item.price * item.count - discount : item.price * item.count";
+		runAll(exp, 140);
+	}
+
+	/**
+	 * 纯算术: 常量参与的运算,生成的字节码直接按 int 计算
+	 */
+	@Test
+	public void test_arithmetic() {
+		String exp = "(x + 1) * (x - 1) / 2 + x % 7 * 3 - (x > 10 ? 4 : 2) * 5";
+		runAll(exp, 66);
+	}
+
+	private static void runAll(String exp, int expect) {
+		run("Interpreted", new El(exp), expect);
+		ElCompiler.setBytecode(false);
+		try {
+			run("Tree", new El(exp).optimize(), expect);
+		}
+		finally {
+			ElCompiler.setBytecode(true);
+		}
+		run("Bytecode", new El(exp).optimize(), expect);
+	}
+
+	private static void run(String name, El el, int expect) {
+		Context context = Lang.context();
+		context.set("item", new Item(30, 5));
+		context.set("discount", 10);
+		context.set("x", 12);
+		eval(el, context, num);
+
+		Stopwatch sw = Stopwatch.begin();
+		long re = eval(el, context, num);
+		sw.stop();
+		assertEquals((long) expect * num, re);
+		System.out.printf(	"El.eval(%s): %d times, %dms, %.1fns/op\n",
+							name,
+							num,
+							sw.getDuration(),
+							sw.getDuration() * 1000000.0 / num);
+	}
+
+	private static long eval(El el, Context context, int n) {
+		long re = 0;
+		for (int i = 0; i < n; i++)
+			re += (Integer) el.eval(context);
+		return re;
+	}
+
+}
@@ -0,0 +1,100 @@
+package org.nutz.ioc;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.nutz.ioc.impl.NutIoc;
+import org.nutz.ioc.loader.map.MapLoader;
+import org.nutz.lang.Stopwatch;
+import org.nutz.lang.reflect.FastClasses;
+
+public class IocPerformanceTest {
+
+	static int num = 1000000;
+
+	public static class Pet {
+		private String name;
+		private int age;
+		private boolean male;
+		private Pet friend;
+
+		public Pet(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public int getAge() {
+			return age;
+		}
+
+		public void setMale(boolean male) {
+			this.male = male;
+		}
+
+		public boolean isMale() {
+			return male;
+		}
+
+		public void setFriend(Pet friend) {
+			this.friend = friend;
+		}
+
+		public Pet getFriend() {
+			return friend;
+		}
+	}
+
+	/**
+	 * 非单例对象的创建：构造函数参数，两个常量字段和一个引用字段
+	 */
+	@Test
+	public void test_prototype() {
+		run("FastClass");
+		FastClasses.setEnable(false);
+		try {
+			run("Reflection");
+		}
+		finally {
+			FastClasses.setEnable(true);
+		}
+	}
+
+	private static void run(String name) {
+		String type = "type:'" + Pet.class.getName() + "'";
+		Ioc ioc = new NutIoc(new MapLoader("{"
+											+ "tom:{"
+											+ type
+											+ ",args:['Tom']},"
+											+ "pet:{"
+											+ type
+											+ ",singleton:false,args:['Kitty'],"
+											+ "fields:{age:'3',male:false,friend:{refer:'tom'}}}"
+											+ "}"));
+		get(ioc, num / 10);
+
+		Stopwatch sw = Stopwatch.begin();
+		int re = get(ioc, num);
+		sw.stop();
+		assertEquals(num * 3, re);
+		System.out.printf(	"NutIoc.get(%s): %d prototypes, %dms, %.1fns/op\n",
+							name,
+							num,
+							sw.getDuration(),
+							sw.getDuration() * 1000000.0 / num);
+	}
+
+	private static int get(Ioc ioc, int n) {
+		int re = 0;
+		for (int i = 0; i < n; i++)
+			re += ioc.get(Pet.class, "pet").getAge();
+		return re;
+	}
+
+}
@@ -0,0 +1,61 @@
+package org.nutz.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.junit.Test;
+import org.nutz.lang.Stopwatch;
+import org.nutz.lang.util.NutType;
+
+public class JsonParsingPerformanceTest {
+
+	static int num = 100;
+
+	static int size = 5000;
+
+	/**
+	 * 务必先把log关闭!! 设置为Error或者NONE
+	 */
+	@Test
+	public void test_parse_pojo_list() {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0)
+				sb.append(',');
+			sb.append("{\"id\":").append(i);
+			sb.append(",\"name\":\"pojo").append(i).append('"');
+			sb.append(",\"ok\":").append(i % 2 == 0);
+			sb.append(",\"scores\":[1,2,3]}");
+		}
+		String json = sb.append(']').toString();
+		Type type = NutType.list(Pojo.class);
+
+		parse(type, json, num / 10);
+
+		Stopwatch sw = Stopwatch.begin();
+		parse(type, json, num);
+		sw.stop();
+		System.out.printf(	"Json.fromJson: %d parses of %d pojos, %dms, %.1fns/pojo\n",
+							num,
+							size,
+							sw.getDuration(),
+							sw.getDuration() * 1000000.0 / num / size);
+	}
+
+	private static void parse(Type type, String json, int n) {
+		for (int i = 0; i < n; i++) {
+			List<?> list = (List<?>) Json.fromJson(type, json);
+			assertEquals(size, list.size());
+		}
+	}
+
+	public static class Pojo {
+		public int id;
+		public String name;
+		public boolean ok;
+		public int[] scores;
+	}
+
+}
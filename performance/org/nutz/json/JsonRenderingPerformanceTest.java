@@ -0,0 +1,135 @@
+package org.nutz.json;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.nutz.lang.Stopwatch;
+import org.nutz.lang.reflect.FastClasses;
+
+public class JsonRenderingPerformanceTest {
+
+	static int num = 200;
+
+	static int size = 5000;
+
+	/**
+	 * 务必先把log关闭!! 设置为Error或者NONE
+	 */
+	@Test
+	public void test_render_pojo_list() {
+		List<Object> fasts = new ArrayList<Object>(size);
+		List<Object> reflects = new ArrayList<Object>(size);
+		for (int i = 0; i < size; i++) {
+			fasts.add(new FastPojo(i));
+			reflects.add(new ReflectPojo(i));
+		}
+
+		// FastPojo 的 JsonEntity 会使用 FastClass，ReflectPojo 的只能用反射
+		FastClasses.setEnable(false);
+		render(reflects, num / 10);
+		FastClasses.setEnable(true);
+		render(fasts, num / 10);
+
+		Stopwatch sw = Stopwatch.begin();
+		int len = render(reflects, num);
+		sw.stop();
+		report("Reflection", sw);
+
+		sw = Stopwatch.begin();
+		assertTrue(len == render(fasts, num));
+		sw.stop();
+		report("FastClass", sw);
+	}
+
+	/**
+	 * 比较经过 OutputStreamWriter 编码和直接输出 UTF-8 字节
+	 */
+	@Test
+	public void test_render_to_stream() throws IOException {
+		List<Object> list = new ArrayList<Object>(size);
+		for (int i = 0; i < size; i++)
+			list.add(new FastPojo(i));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		toWriter(list, out, num / 10);
+		toStream(list, out, num / 10);
+
+		Stopwatch sw = Stopwatch.begin();
+		toWriter(list, out, num);
+		sw.stop();
+		report("Writer", sw);
+
+		sw = Stopwatch.begin();
+		toStream(list, out, num);
+		sw.stop();
+		report("OutputStream", sw);
+	}
+
+	private static void toWriter(List<Object> list, ByteArrayOutputStream out, int n)
+			throws IOException {
+		for (int i = 0; i < n; i++) {
+			out.reset();
+			Json.toJson(new OutputStreamWriter(out, "UTF-8"), list, JsonFormat.compact());
+		}
+	}
+
+	private static void toStream(List<Object> list, ByteArrayOutputStream out, int n) {
+		for (int i = 0; i < n; i++) {
+			out.reset();
+			Json.toJson(out, list, JsonFormat.compact());
+		}
+	}
+
+	private static int render(List<Object> list, int n) {
+		int re = 0;
+		for (int i = 0; i < n; i++)
+			re = Json.toJson(list, JsonFormat.compact()).length();
+		return re;
+	}
+
+	private static void report(String name, Stopwatch sw) {
+		System.out.printf(	"%s: %d renders of %d pojos, %dms, %.1fns/pojo\n",
+							name,
+							num,
+							size,
+							sw.getDuration(),
+							sw.getDuration() * 1000000.0 / num / size);
+	}
+
+	public static class FastPojo {
+		private int id;
+		private String name;
+		private boolean ok;
+		public long time = 1234567890L;
+
+		public FastPojo(int id) {
+			this.id = id;
+			this.name = "pojo" + id;
+			this.ok = id % 2 == 0;
+		}
+
+		public int getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public boolean isOk() {
+			return ok;
+		}
+	}
+
+	public static class ReflectPojo extends FastPojo {
+		public ReflectPojo(int id) {
+			super(id);
+		}
+	}
+
+}
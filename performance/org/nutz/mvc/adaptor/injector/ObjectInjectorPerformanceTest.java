@@ -0,0 +1,77 @@
+package org.nutz.mvc.adaptor.injector;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.nutz.lang.Stopwatch;
+import org.nutz.mock.Mock;
+import org.nutz.mock.servlet.MockHttpServletRequest;
+import org.nutz.mvc.adaptor.ParamInjector;
+
+public class ObjectInjectorPerformanceTest {
+
+	static int num = 1000000;
+
+	public static class Address {
+		public String city;
+		public String street;
+		public int zip;
+	}
+
+	public static class Form {
+		public long id;
+		public String name;
+		public int age;
+		public Integer score;
+		public double rate;
+		public boolean ok;
+		public String[] tags;
+		public Address address;
+	}
+
+	/**
+	 * 表单里没有日期，日期的解析比绑定本身慢得多，会掩盖绑定的开销
+	 */
+	@Test
+	public void test_pair_and_navl() {
+		MockHttpServletRequest req = Mock.servlet.request();
+		req.setParameter("f.id", "1024");
+		req.setParameter("f.name", "zozoh");
+		req.setParameter("f.age", "30");
+		req.setParameter("f.score", "98");
+		req.setParameter("f.rate", "0.75");
+		req.setParameter("f.ok", "true");
+		req.setParameterValues("f.tags", new String[]{"a", "b", "c"});
+		req.setParameter("f.address.city", "Beijing");
+		req.setParameter("f.address.street", "Chang'an");
+		req.setParameter("f.address.zip", "100000");
+
+		ObjectPairInjector pair = new ObjectPairInjector("f.", Form.class);
+		Form form = (Form) pair.get(null, req, null, null);
+		assertEquals(30, form.age);
+		run("ObjectPairInjector", pair, req);
+
+		ObjectNavlPairInjector navl = new ObjectNavlPairInjector("f.", Form.class);
+		form = (Form) navl.get(null, req, null, null);
+		assertEquals(100000, form.address.zip);
+		run("ObjectNavlPairInjector", navl, req);
+	}
+
+	private static void run(String name, ParamInjector inj, MockHttpServletRequest req) {
+		get(inj, req, num / 10);
+		Stopwatch sw = Stopwatch.begin();
+		get(inj, req, num);
+		sw.stop();
+		System.out.printf(	"%s: %d forms, %dms, %.1fns/form\n",
+							name,
+							num,
+							sw.getDuration(),
+							sw.getDuration() * 1000000.0 / num);
+	}
+
+	private static void get(ParamInjector inj, MockHttpServletRequest req, int n) {
+		for (int i = 0; i < n; i++)
+			inj.get(null, req, null, null);
+	}
+
+}
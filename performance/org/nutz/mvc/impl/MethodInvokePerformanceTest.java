@@ -0,0 +1,64 @@
+package org.nutz.mvc.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+import org.nutz.lang.Stopwatch;
+import org.nutz.lang.reflect.FastClasses;
+import org.nutz.mvc.ActionContext;
+import org.nutz.mvc.ActionInfo;
+import org.nutz.mvc.impl.processor.MethodInvokeProcessor;
+
+public class MethodInvokePerformanceTest {
+
+	static int num = 10000000;
+
+	public static class Module {
+		public String hello(String name, int age) {
+			return name;
+		}
+	}
+
+	@Test
+	public void test_invoke() throws Throwable {
+		run("FastClass");
+		FastClasses.setEnable(false);
+		try {
+			run("Reflection");
+		}
+		finally {
+			FastClasses.setEnable(true);
+		}
+	}
+
+	private static void run(String name) throws Throwable {
+		Method method = Module.class.getMethod("hello", String.class, int.class);
+		ActionInfo ai = new ActionInfo();
+		ai.setModuleType(Module.class);
+		ai.setMethod(method);
+		MethodInvokeProcessor p = new MethodInvokeProcessor();
+		p.init(null, ai);
+
+		ActionContext ac = new ActionContext();
+		ac.setModule(new Module()).setMethod(method).setMethodArgs(new Object[]{"abc", 12});
+		invoke(p, ac, num / 10);
+		assertEquals("abc", ac.getMethodReturn());
+
+		Stopwatch sw = Stopwatch.begin();
+		invoke(p, ac, num);
+		sw.stop();
+		System.out.printf(	"MethodInvokeProcessor(%s): %d calls, %dms, %.1fns/call\n",
+							name,
+							num,
+							sw.getDuration(),
+							sw.getDuration() * 1000000.0 / num);
+	}
+
+	private static void invoke(MethodInvokeProcessor p, ActionContext ac, int n) throws Throwable {
+		for (int i = 0; i < n; i++)
+			p.process(ac);
+	}
+
+}
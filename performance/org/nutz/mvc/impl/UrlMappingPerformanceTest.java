@@ -0,0 +1,66 @@
+package org.nutz.mvc.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.nutz.lang.Stopwatch;
+import org.nutz.mvc.ActionContext;
+
+public class UrlMappingPerformanceTest {
+
+	static int num = 1000000;
+
+	/**
+	 * 100 个模块，每个模块 15 个静态路径，4 个带 '?' 的路径，1 个带 '*' 的路径，一共 2000 个路径
+	 */
+	@Test
+	public void test_2000_routes() {
+		MappingNode<String> root = new MappingNode<String>();
+		for (int m = 0; m < 100; m++) {
+			for (int a = 0; a < 15; a++)
+				root.add("/module" + m + "/action" + a, "S" + m + "." + a);
+			for (int a = 0; a < 4; a++)
+				root.add("/module" + m + "/item" + a + "/?/edit", "Q" + m + "." + a);
+			root.add("/module" + m + "/files/*", "A" + m);
+		}
+
+		String[] paths = new String[1000];
+		String[] expects = new String[paths.length];
+		for (int i = 0; i < paths.length; i++) {
+			int m = (i * 7) % 100;
+			switch (i % 4) {
+			case 0:
+			case 1:
+				paths[i] = "/module" + m + "/action" + (i % 15);
+				expects[i] = "S" + m + "." + (i % 15);
+				break;
+			case 2:
+				paths[i] = "/Module" + m + "/item" + (i % 4) + "/" + i + "/edit";
+				expects[i] = "Q" + m + "." + (i % 4);
+				break;
+			default:
+				paths[i] = "/module" + m + "/files/a/b/" + i;
+				expects[i] = "A" + m;
+			}
+		}
+
+		ActionContext ac = new ActionContext();
+		for (int i = 0; i < paths.length; i++)
+			assertEquals(expects[i], root.get(ac, paths[i]));
+		get(root, ac, paths, num / 10);
+
+		Stopwatch sw = Stopwatch.begin();
+		get(root, ac, paths, num);
+		sw.stop();
+		System.out.printf(	"MappingNode.get: %d lookups in 2000 routes, %dms, %.1fns/lookup\n",
+							num,
+							sw.getDuration(),
+							sw.getDuration() * 1000000.0 / num);
+	}
+
+	private static void get(MappingNode<String> root, ActionContext ac, String[] paths, int n) {
+		for (int i = 0; i < n; i++)
+			root.get(ac, paths[i % paths.length]);
+	}
+
+}
@@ -0,0 +1,71 @@
+package org.nutz.mvc.view;
+
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+import org.nutz.lang.Stopwatch;
+import org.nutz.lang.Strings;
+import org.nutz.mock.servlet.MockHttpServletRequest;
+import org.nutz.mock.servlet.MockHttpServletResponse;
+
+/**
+ * 比较每次新建 GZIPOutputStream 与 Compression 复用 Deflater 的开销
+ * <p>
+ * 两者的 CPU 时间差不多，都花在压缩本身上。复用的好处是不必每次分配和释放 zlib 的本地内存
+ */
+public class CompressionPerformanceTest {
+
+	static int num = 20000;
+
+	static byte[] data = Strings.dup("{\"id\":1024,\"name\":\"zozoh\",\"ok\":true}, ", 50)
+								.getBytes();
+
+	@Test
+	public void test_gzip() throws Exception {
+		MockHttpServletRequest req = new MockHttpServletRequest();
+		req.setHeader("Accept-Encoding", "gzip");
+		req.setAttribute(Compression.ATTR, new Compression(1024));
+
+		pooled(req, num);
+		fresh(num);
+
+		Stopwatch sw = Stopwatch.begin();
+		pooled(req, num);
+		sw.stop();
+		print("Compression", sw);
+
+		sw = Stopwatch.begin();
+		fresh(num);
+		sw.stop();
+		print("GZIPOutputStream", sw);
+	}
+
+	private static void pooled(MockHttpServletRequest req, int n) throws Exception {
+		for (int i = 0; i < n; i++) {
+			MockHttpServletResponse resp = new MockHttpServletResponse();
+			OutputStream out = Compression.open(req, resp, "text/plain");
+			out.write(data);
+			out.close();
+		}
+	}
+
+	private static void fresh(int n) throws Exception {
+		for (int i = 0; i < n; i++) {
+			MockHttpServletResponse resp = new MockHttpServletResponse();
+			GZIPOutputStream out = new GZIPOutputStream(resp.getOutputStream());
+			out.write(data);
+			out.close();
+		}
+	}
+
+	private static void print(String name, Stopwatch sw) {
+		System.out.printf(	"%s: %d responses of %d bytes, %dms, %.1fus/response\n",
+							name,
+							num,
+							data.length,
+							sw.getDuration(),
+							sw.getDuration() * 1000.0 / num);
+	}
+
+}
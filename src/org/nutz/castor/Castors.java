@@ -8,6 +8,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.nutz.castor.castor.Array2Array;
 import org.nutz.castor.castor.Object2Object;
@@ -133,6 +134,7 @@ public class Castors {
 	 */
 	public synchronized Castors setTypeExtractor(TypeExtractor te) {
 		extractor = te;
+		cache.clear();
 		return this;
 	}
 
@@ -154,6 +156,7 @@ public class Castors {
 		}
 		// build castors
 		this.map = new HashMap<String, Map<String, Castor<?, ?>>>();
+		this.cache.clear();
 		ArrayList<Class<?>> classes = new ArrayList<Class<?>>();
 		for (Iterator<Class<?>> it = paths.iterator(); it.hasNext();) {
 			Class<?> baseClass = it.next();
@@ -218,6 +221,63 @@ public class Castors {
 	 */
 	private Map<String, Map<String, Castor<?, ?>>> map;
 
+	/**
+	 * 缓存每一对类型查找转换器的结果，第一层是源类型，第二层是目标类型
+	 * <p>
+	 * 查找转换器要为两个类型各创建一个 Mirror，再逐个尝试它们所有的父类和接口，<br>
+	 * 而同样的一对类型会被反复地转换，比如每一个数据库字段，每一个请求参数
+	 */
+	private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<Class<?>, Castor<?, ?>>> cache = new ConcurrentHashMap<Class<?>, ConcurrentHashMap<Class<?>, Castor<?, ?>>>();
+
+	/**
+	 * 表示可以直接转型，不需要转换器
+	 */
+	private static final Castor<?, ?> DIRECT = new Castor<Object, Object>() {
+		public Object cast(Object src, Class<?> toType, String... args) {
+			return src;
+		}
+	};
+
+	/**
+	 * 表示找不到转换器
+	 */
+	private static final Castor<?, ?> NONE = new Castor<Object, Object>() {
+		public Object cast(Object src, Class<?> toType, String... args) {
+			throw Lang.impossible();
+		}
+	};
+
+	/**
+	 * 从缓存里取得一对类型的转换器
+	 * 
+	 * @return 转换器，或者 DIRECT，NONE
+	 */
+	private Castor<?, ?> lookup(Class<?> fromType, Class<?> toType) {
+		ConcurrentHashMap<Class<?>, Castor<?, ?>> m2 = cache.get(fromType);
+		if (null == m2) {
+			m2 = new ConcurrentHashMap<Class<?>, Castor<?, ?>>();
+			ConcurrentHashMap<Class<?>, Castor<?, ?>> old = cache.putIfAbsent(fromType, m2);
+			if (null != old)
+				m2 = old;
+		}
+		Castor<?, ?> c = m2.get(toType);
+		if (null == c) {
+			c = resolve(fromType, toType);
+			m2.put(toType, c);
+		}
+		return c;
+	}
+
+	private Castor<?, ?> resolve(Class<?> fromType, Class<?> toType) {
+		if (fromType.getName().equals(toType.getName()))
+			return DIRECT;
+		Mirror<?> from = Mirror.me(fromType, extractor);
+		if (from.canCastToDirectly(toType)) // Use language built-in cases
+			return DIRECT;
+		Castor<?, ?> c = find(from, toType);
+		return null == c ? NONE : c;
+	}
+
 	/**
 	 * 转换一个 POJO 从一个指定的类型到另外的类型
 	 * 
@@ -262,15 +322,12 @@ public class Castors {
 		}
 		if (fromType == toType || toType == null || fromType == null)
 			return (T) src;
-		if (fromType.getName().equals(toType.getName()))
-			return (T) src;
 		if (toType.isAssignableFrom(fromType))
 			return (T) src;
-		Mirror<?> from = Mirror.me(fromType, extractor);
-		if (from.canCastToDirectly(toType)) // Use language built-in cases
+		Castor c = lookup(fromType, toType);
+		if (DIRECT == c)
 			return (T) src;
-		Castor c = find(from, toType);
-		if (null == c)
+		if (NONE == c)
 			throw new FailToCastObjectException(String.format(	"Can not find castor for '%s'=>'%s' in (%d) because:\n%s",
 																fromType.getName(),
 																toType.getName(),
@@ -302,8 +359,15 @@ public class Castors {
 	 *            目标类型
 	 * @return 转换器
 	 */
+	@SuppressWarnings("unchecked")
 	public <F, T> Castor<F, T> find(Class<F> from, Class<T> to) {
-		return find(Mirror.me(from), to);
+		Castor<?, ?> c = lookup(from, to);
+		if (NONE == c)
+			return null;
+		// 虽然可以直接转型，调用者要的还是一个真正的转换器
+		if (DIRECT == c)
+			return find(Mirror.me(from), to);
+		return (Castor<F, T>) c;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -337,7 +401,11 @@ public class Castors {
 	 * @throws FailToCastObjectException
 	 *             如果没有找到转换器，或者转换失败
 	 */
+	@SuppressWarnings("unchecked")
 	public <T> T castTo(Object src, Class<T> toType) throws FailToCastObjectException {
+		// 已经是目标类型了，就不用再找转换器了
+		if (null != src && null != toType && toType.isInstance(src))
+			return (T) src;
 		return cast(src, null == src ? null : src.getClass(), toType);
 	}
 
@@ -353,9 +421,9 @@ public class Castors {
 	 * @return 是否可以转换
 	 */
 	public boolean canCast(Class<?> fromType, Class<?> toType) {
-		if (Mirror.me(fromType).canCastToDirectly(toType))
+		Castor<?, ?> castor = lookup(fromType, toType);
+		if (DIRECT == castor)
 			return true;
-		Castor<?, ?> castor = this.find(fromType, toType);
 		return !(castor instanceof Object2Object);
 	}
 
@@ -7,6 +7,8 @@ import org.nutz.dao.entity.Entity;
 import org.nutz.dao.entity.Record;
 import org.nutz.dao.pager.Pager;
 import org.nutz.dao.sql.Sql;
+import org.nutz.dao.util.cri.SqlExpression;
+import org.nutz.lang.Each;
 
 /**
  * Nutz.Dao 核心接口。 封装了所有的数据库操作
@@ -332,6 +334,53 @@ public interface Dao {
 	 */
 	<T> List<T> query(Class<T> classOfT, Condition cnd, Pager pager);
 
+	/**
+	 * 查询一页对象，同时统计符合条件的记录总数，并设置到翻页信息里
+	 * <p>
+	 * 如果数据库支持（比如 Postgresql 的 COUNT(*) OVER()，MySQL 的 SQL_CALC_FOUND_ROWS），<br>
+	 * 数据和总数在同一次查询中得到，否则会再执行一条 COUNT 语句
+	 * 
+	 * @param classOfT
+	 *            对象类型
+	 * @param cnd
+	 *            WHERE 条件。如果为 null，将获取全部数据，顺序为数据库原生顺序
+	 * @param pager
+	 *            翻页信息。如果为 null，则一次全部返回
+	 * @return 本页数据以及翻页信息
+	 * 
+	 * @see org.nutz.dao.jdbc.JdbcExpert#formatQueryWithCount(org.nutz.dao.sql.Pojo)
+	 */
+	<T> QueryResult queryPage(Class<T> classOfT, Condition cnd, Pager pager);
+
+	/**
+	 * 按照某个字段的顺序，查询排在给定值之后的一组对象（键集翻页）
+	 * <p>
+	 * 与用 OFFSET 翻页不同，数据库可以直接利用这个字段的索引定位到上一页的末尾，<br>
+	 * 不论翻到多后面，查询的代价都一样。调用者只要记住上一页最后一个对象的字段值，作为下一次的 last 参数。
+	 * <p>
+	 * 这个字段的值最好是唯一的，否则值相同的记录可能会被跳过
+	 * 
+	 * @param classOfT
+	 *            对象类型
+	 * @param exp
+	 *            附加的条件，可以为 null
+	 * @param orderBy
+	 *            排序字段的名称
+	 * @param desc
+	 *            是否倒序
+	 * @param last
+	 *            上一页最后一个对象的字段值，为 null 表示查询第一页
+	 * @param size
+	 *            最多返回多少个对象
+	 * @return 对象列表
+	 */
+	<T> List<T> querySeek(Class<T> classOfT,
+							SqlExpression exp,
+							String orderBy,
+							boolean desc,
+							Object last,
+							int size);
+
 	/**
 	 * 查询出一组记录。
 	 * 
@@ -350,6 +399,85 @@ public interface Dao {
 	 */
 	List<Record> query(String tableName, Condition cnd, Pager pager);
 
+	/**
+	 * 遍历一组对象。同 query 不同，它每从结果集里读出一个对象，就交给回调处理，<br>
+	 * 而不会把所有的对象都积攒在一个列表里，所以适合用来遍历很大的结果集
+	 * <p>
+	 * 回调可以抛出 ExitLoop (或者调用 Lang.Break()) 来提前结束遍历。回调的 length 参数永远为 -1
+	 * 
+	 * @param classOfT
+	 *            对象类型
+	 * @param cnd
+	 *            WHERE 条件。如果为 null，将遍历全部数据，顺序为数据库原生顺序
+	 * @param pager
+	 *            翻页信息。如果为 null，则遍历全部结果
+	 * @param callback
+	 *            处理每个对象的回调
+	 * @return 共遍历了多少个对象
+	 * 
+	 * @see org.nutz.lang.Each
+	 * @see org.nutz.lang.ExitLoop
+	 */
+	<T> int each(Class<T> classOfT, Condition cnd, Pager pager, Each<T> callback);
+
+	/**
+	 * 遍历一组对象，不分页
+	 * 
+	 * @see #each(Class, Condition, Pager, Each)
+	 */
+	<T> int each(Class<T> classOfT, Condition cnd, Each<T> callback);
+
+	/**
+	 * 遍历一组记录。每读出一条记录，就交给回调处理
+	 * 
+	 * @param tableName
+	 *            表名 - 格式同 query(String, Condition, Pager)
+	 * @param cnd
+	 *            条件
+	 * @param pager
+	 *            翻页信息
+	 * @param callback
+	 *            处理每条记录的回调
+	 * @return 共遍历了多少条记录
+	 * 
+	 * @see #query(String, Condition, Pager)
+	 * @see #each(Class, Condition, Pager, Each)
+	 */
+	int each(String tableName, Condition cnd, Pager pager, Each<Record> callback);
+
+	/**
+	 * 遍历一组记录，不分页
+	 * 
+	 * @see #each(String, Condition, Pager, Each)
+	 */
+	int each(String tableName, Condition cnd, Each<Record> callback);
+
+	/**
+	 * 打开一个查询游标。游标每次只从结果集里读取并映射一个对象
+	 * <p>
+	 * <b style=color:red>请注意：</b> 游标在遍历完毕或者被关闭前，会一直占用一个数据库连接， 请务必在 finally 块中关闭它
+	 * 
+	 * @param classOfT
+	 *            对象类型
+	 * @param cnd
+	 *            WHERE 条件。如果为 null，将遍历全部数据
+	 * @return 游标
+	 */
+	<T> DaoCursor<T> cursor(Class<T> classOfT, Condition cnd);
+
+	/**
+	 * 打开一个查询记录的游标
+	 * 
+	 * @param tableName
+	 *            表名 - 格式同 query(String, Condition, Pager)
+	 * @param cnd
+	 *            条件
+	 * @return 游标
+	 * 
+	 * @see #cursor(Class, Condition)
+	 */
+	DaoCursor<Record> cursor(String tableName, Condition cnd);
+
 	/**
 	 * 根据对象 ID 删除一个对象。它只会删除这个对象，关联对象不会被删除。
 	 * <p>
@@ -539,9 +667,12 @@ public interface Dao {
 
 	/**
 	 * 根据一个正则表达式，获取对象所有的关联字段
+	 * <p>
+	 * 如果传入的是一组对象（集合或者数组），那么每个关联字段只会执行一条 IN 查询，<br>
+	 * 而不是每个对象一条查询。关联键太多时，会按照数据库允许的参数个数分批查询
 	 * 
 	 * @param obj
-	 *            数据对象
+	 *            数据对象，也可以是一组数据对象
 	 * @param regex
 	 *            正则表达式，描述了什么样的关联字段将被关注。如果为 null，则表示全部的关联字段都会被查询
 	 * @return 更新后的数据对象本身
@@ -621,6 +752,18 @@ public interface Dao {
 	 */
 	<T> Entity<T> getEntity(Class<T> classOfT);
 
+	/**
+	 * 预先创建一个包（包括子包）下所有声明了 '@Table' 的实体
+	 * <p>
+	 * 实体通常在第一次被用到时才创建，而创建时需要访问数据库检查字段。<br>
+	 * 在应用启动时调用这个函数，可以利用多个线程并行地把它们都准备好
+	 * 
+	 * @param packageName
+	 *            包名
+	 * @return 创建的实体数量
+	 */
+	int preloadEntities(String packageName);
+
 	/**
 	 * 根据条件，计算某个对象在数据库中有多少条记录
 	 * 
@@ -0,0 +1,38 @@
+package org.nutz.dao;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * 一个只能向前移动的查询游标。
+ * <p>
+ * 每次调用 next() 才会从结果集中读取并映射一条记录，所以无论结果有多大，都不会在内存中积攒对象。
+ * <p>
+ * 游标会占用一个数据库连接，直到遍历完毕或者被关闭。所以请务必在 finally 块中调用 close()
+ * 
+ * <pre>
+ * DaoCursor&lt;Pet&gt; cursor = dao.cursor(Pet.class, null);
+ * try {
+ * 	while (cursor.hasNext()) {
+ * 		Pet pet = cursor.next();
+ * 		...
+ * 	}
+ * }
+ * finally {
+ * 	cursor.close();
+ * }
+ * </pre>
+ * 
+ * @param <T>
+ *            游标返回的对象类型
+ * 
+ * @see org.nutz.dao.Dao#cursor(Class, Condition)
+ */
+public interface DaoCursor<T> extends Iterator<T>, Closeable {
+
+	/**
+	 * 释放游标占用的结果集，语句以及连接。可以重复调用
+	 */
+	void close();
+
+}
@@ -52,12 +52,14 @@ public abstract class Sqls {
 	 * <li>变量： 格式为 <b>$XXXX</b>，在执行前，会被预先替换
 	 * <li>参数： 格式为<b>@XXXX</b>，在执行前，会替换为 '?'，用以构建 PreparedStatement
 	 * </ul>
+	 * 解析后的语句模板会被缓存，同样的语句再次创建时，不会重新解析
 	 * 
 	 * @param sql
 	 *            Sql 语句
 	 * @return Sql 对象
 	 * 
 	 * @see org.nutz.dao.sql.Sql
+	 * @see org.nutz.dao.impl.sql.SqlLiteralCache
 	 */
 	public static Sql create(String sql) {
 		return sqlBorning.born(Lang.array(sql));
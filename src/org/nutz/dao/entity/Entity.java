@@ -65,6 +65,20 @@ public interface Entity<T> {
 	 */
 	T getObject(ResultSet rs, FieldMatcher matcher);
 
+	/**
+	 * 为一个结果集准备一个行转换器
+	 * <p>
+	 * 转换器预先根据结果集的元数据确定每个字段对应的列，并尽量避免反射调用。<br>
+	 * 如果要从同一个结果集生成很多对象，用它会比逐行调用 getObject 快
+	 * 
+	 * @param rs
+	 *            结果集
+	 * @param matcher
+	 *            字段匹配器。如果为null，则获取实体的全部字段
+	 * @return 行转换器
+	 */
+	RowMaker<T> getRowMaker(ResultSet rs, FieldMatcher matcher);
+
 	/**
 	 * 根据实体的 Java 字段名获取一个实体字段对象
 	 * 
@@ -0,0 +1,22 @@
+package org.nutz.dao.entity;
+
+import java.sql.ResultSet;
+
+/**
+ * 将结果集的当前行转换成一个实体对象
+ * <p>
+ * 它是针对某一个结果集准备的：列的位置在创建时已经确定，<br>
+ * 因此只能用于创建它的那个结果集（或者列完全相同的结果集）
+ * 
+ * @see org.nutz.dao.entity.Entity#getRowMaker(ResultSet, org.nutz.dao.FieldMatcher)
+ */
+public interface RowMaker<T> {
+
+	/**
+	 * @param rs
+	 *            结果集，游标已经指向要转换的行
+	 * @return 实体对象
+	 */
+	T make(ResultSet rs);
+
+}
@@ -18,6 +18,7 @@ import org.nutz.dao.jdbc.Jdbcs;
 import org.nutz.dao.sql.DaoStatement;
 import org.nutz.dao.sql.PojoMaker;
 import org.nutz.dao.sql.Sql;
+import org.nutz.dao.sql.SqlContext;
 import org.nutz.log.Log;
 import org.nutz.log.Logs;
 
@@ -60,6 +61,21 @@ public class DaoSupport {
 	 */
 	protected EntityHolder holder;
 
+	/**
+	 * 查询语句默认的 fetchSize，小于等于 0 表示采用驱动的默认值
+	 */
+	private int fetchSize;
+
+	/**
+	 * 批量执行语句时，每批的默认行数，小于等于 0 表示不分批
+	 */
+	private int batchSize;
+
+	/**
+	 * 分批执行语句时，默认每执行多少批提交一次，小于等于 0 表示执行完毕再提交
+	 */
+	private int batchesPerCommit;
+
 	/**
 	 * 数据库的描述
 	 */
@@ -129,6 +145,42 @@ public class DaoSupport {
 		this.pojoMaker = pojoMaker;
 	}
 
+	/**
+	 * 设置查询语句默认的 fetchSize，即驱动每次从数据库取回多少行。
+	 * <p>
+	 * 在用 each 或者 cursor 遍历很大的结果集时，设置一个合适的值，可以让驱动不必一次把结果集全部读到内存里。<br>
+	 * 这个值只对自身的 SqlContext 没有设置过 fetchSize 的语句有效
+	 * 
+	 * @param fetchSize
+	 *            每次取回的行数，小于等于 0 表示采用驱动的默认值
+	 */
+	public void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * 设置批量执行语句（比如 fastInsert 一个很大的集合）时，每批的行数。
+	 * <p>
+	 * 执行器会每 batchSize 行调用一次 executeBatch，而不是把所有的行都攒在一起， 以免占用过多的内存。<br>
+	 * 这个值只对自身的 SqlContext 没有设置过批量大小的语句有效
+	 * 
+	 * @param batchSize
+	 *            每批的行数，小于等于 0 表示不分批
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * 设置分批执行语句时，每执行多少批就提交一次事务
+	 * 
+	 * @param batchesPerCommit
+	 *            批数，小于等于 0 表示全部执行完毕再提交
+	 */
+	public void setBatchesPerCommit(int batchesPerCommit) {
+		this.batchesPerCommit = batchesPerCommit;
+	}
+
 	/**
 	 * @return 当前的 JDBC 专家类
 	 */
@@ -178,6 +230,7 @@ public class DaoSupport {
 		runner.run(dataSource, new ConnCallback() {
 			public void invoke(Connection conn) throws Exception {
 				for (DaoStatement st : sts) {
+					_setContextDefaults(st.getContext());
 					executor.exec(conn, st);
 					re[0] += st.getUpdateCount();
 				}
@@ -186,6 +239,15 @@ public class DaoSupport {
 		return re[0];
 	}
 
+	protected void _setContextDefaults(SqlContext context) {
+		if (fetchSize > 0 && context.getFetchSize() <= 0)
+			context.setFetchSize(fetchSize);
+		if (batchSize > 0 && context.getBatchSize() <= 0)
+			context.setBatchSize(batchSize);
+		if (batchesPerCommit > 0 && context.getBatchesPerCommit() <= 0)
+			context.setBatchesPerCommit(batchesPerCommit);
+	}
+
 	/**
 	 * 子类可以重写这个类，用来扩展成其他的实体配置方式
 	 * 
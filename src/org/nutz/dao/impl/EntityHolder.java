@@ -4,6 +4,10 @@ import java.sql.Connection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import org.nutz.dao.ConnCallback;
 import org.nutz.dao.entity.Entity;
@@ -20,6 +24,13 @@ import org.nutz.lang.inject.InjectToMap;
 
 /**
  * 封装一些获取实体对象的帮助函数
+ * <p>
+ * 已经创建好的实体保存在 ConcurrentHashMap 里，读取不需要加锁。<br>
+ * 每个类型第一次被用到时，由一个 FutureTask 负责创建，同时访问这个类型的其他线程等待它的结果，<br>
+ * 而不同的类型可以在不同的线程里同时创建。
+ * <p>
+ * 创建实体时，关联字段会要求得到对方的实体，实体之间可能互相关联。<br>
+ * 因此创建过程中的实体先放在当前线程自己的表里，整个创建过程结束后才一起公布出去。
  * 
  * @author zozoh(zozohtnt@gmail.com)
  */
@@ -30,15 +41,32 @@ public class EntityHolder {
 
 	private DaoSupport support;
 
-	private Map<Class<?>, Entity<?>> map;
+	private ConcurrentHashMap<Class<?>, Entity<?>> map;
+
+	/**
+	 * 正在创建的实体
+	 */
+	private ConcurrentHashMap<Class<?>, FutureTask<Entity<?>>> makings;
+
+	/**
+	 * 当前线程正在创建，但是还没有公布出去的实体
+	 */
+	private ThreadLocal<Map<Class<?>, Entity<?>>> partials;
 
 	public EntityHolder(DaoSupport support) {
 		this.support = support;
-		this.map = new HashMap<Class<?>, Entity<?>>();
+		this.map = new ConcurrentHashMap<Class<?>, Entity<?>>();
+		this.makings = new ConcurrentHashMap<Class<?>, FutureTask<Entity<?>>>();
+		this.partials = new ThreadLocal<Map<Class<?>, Entity<?>>>();
 	}
 
 	public void set(Entity<?> en) {
-		this.map.put(en.getType(), en);
+		Map<Class<?>, Entity<?>> ps = partials.get();
+		// 正在创建的过程中，先只让当前线程看到它
+		if (null != ps)
+			ps.put(en.getType(), en);
+		else
+			this.map.put(en.getType(), en);
 	}
 
 	/**
@@ -51,16 +79,72 @@ public class EntityHolder {
 	@SuppressWarnings("unchecked")
 	public <T> Entity<T> getEntity(Class<T> classOfT) {
 		Entity<?> re = map.get(classOfT);
-		if (null == re) {
-			synchronized (map) {
-				re = map.get(classOfT);
-				if (null == re) {
-					re = maker.make(classOfT);
-					map.put(classOfT, re);
-				}
+		if (null != re)
+			return (Entity<T>) re;
+
+		// 在创建别的实体的过程中需要这个实体
+		Map<Class<?>, Entity<?>> ps = partials.get();
+		if (null != ps) {
+			re = ps.get(classOfT);
+			if (null != re)
+				return (Entity<T>) re;
+			// 别的线程已经创建好了，但是还没来得及放到 map 里
+			FutureTask<Entity<?>> ft = makings.get(classOfT);
+			if (null != ft && ft.isDone())
+				return (Entity<T>) waitFor(ft);
+			// 不能等待别的线程，对方可能也在等待自己，那就自己创建一个
+			return (Entity<T>) make(classOfT);
+		}
+
+		// 每个类型只由一个线程创建，其他线程等它的结果
+		final Class<T> type = classOfT;
+		FutureTask<Entity<?>> ft = new FutureTask<Entity<?>>(new Callable<Entity<?>>() {
+			public Entity<?> call() throws Exception {
+				return make(type);
 			}
+		});
+		FutureTask<Entity<?>> old = makings.putIfAbsent(classOfT, ft);
+		if (null == old) {
+			ft.run();
+			makings.remove(classOfT, ft);
+		} else {
+			ft = old;
+		}
+		return (Entity<T>) waitFor(ft);
+	}
+
+	private Entity<?> make(Class<?> type) {
+		Map<Class<?>, Entity<?>> ps = partials.get();
+		// 嵌套的创建，交给最外层去公布
+		if (null != ps) {
+			Entity<?> en = maker.make(type);
+			ps.put(type, en);
+			return en;
+		}
+		ps = new HashMap<Class<?>, Entity<?>>();
+		partials.set(ps);
+		try {
+			ps.put(type, maker.make(type));
+		}
+		finally {
+			partials.remove();
+		}
+		// 公布所有创建好的实体，如果别的线程抢先了，以它的为准
+		for (Entity<?> en : ps.values())
+			map.putIfAbsent(en.getType(), en);
+		return map.get(type);
+	}
+
+	private static Entity<?> waitFor(FutureTask<Entity<?>> ft) {
+		try {
+			return ft.get();
+		}
+		catch (InterruptedException e) {
+			throw Lang.wrapThrow(e);
+		}
+		catch (ExecutionException e) {
+			throw Lang.wrapThrow(e.getCause());
 		}
-		return (Entity<T>) re;
 	}
 
 	@SuppressWarnings({"rawtypes", "unchecked"})
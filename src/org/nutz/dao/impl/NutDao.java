@@ -4,21 +4,34 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.sql.DataSource;
 
 import org.nutz.dao.Chain;
+import org.nutz.dao.Cnd;
 import org.nutz.dao.Condition;
 import org.nutz.dao.ConnCallback;
 import org.nutz.dao.Dao;
+import org.nutz.dao.DaoCursor;
 import org.nutz.dao.FieldFilter;
 import org.nutz.dao.FieldMatcher;
+import org.nutz.dao.QueryResult;
 import org.nutz.dao.SqlManager;
 import org.nutz.dao.Sqls;
 import org.nutz.dao.entity.Entity;
 import org.nutz.dao.entity.LinkVisitor;
 import org.nutz.dao.entity.Record;
+import org.nutz.dao.entity.RowMaker;
+import org.nutz.dao.entity.annotation.Table;
+import org.nutz.dao.impl.link.DoBatchFetchLinkVisitor;
 import org.nutz.dao.impl.link.DoClearRelationByHostFieldLinkVisitor;
 import org.nutz.dao.impl.link.DoClearRelationByLinkedFieldLinkVisitor;
 import org.nutz.dao.impl.link.DoClearLinkVisitor;
@@ -28,6 +41,8 @@ import org.nutz.dao.impl.link.DoInsertLinkVisitor;
 import org.nutz.dao.impl.link.DoInsertRelationLinkVisitor;
 import org.nutz.dao.impl.link.DoUpdateLinkVisitor;
 import org.nutz.dao.impl.link.DoUpdateRelationLinkVisitor;
+import org.nutz.dao.impl.sql.pojo.PojoEachEntityCallback;
+import org.nutz.dao.impl.sql.pojo.PojoEachRecordCallback;
 import org.nutz.dao.impl.sql.pojo.PojoFetchEntityCallback;
 import org.nutz.dao.impl.sql.pojo.PojoFetchIntCallback;
 import org.nutz.dao.impl.sql.pojo.PojoFetchRecordCallback;
@@ -36,16 +51,19 @@ import org.nutz.dao.impl.sql.pojo.PojoQueryRecordCallback;
 import org.nutz.dao.pager.Pager;
 import org.nutz.dao.sql.Criteria;
 import org.nutz.dao.sql.DaoStatement;
+import org.nutz.dao.sql.OrderBy;
 import org.nutz.dao.sql.Pojo;
 import org.nutz.dao.sql.PojoCallback;
 import org.nutz.dao.sql.Sql;
 import org.nutz.dao.util.Daos;
 import org.nutz.dao.util.Pojos;
+import org.nutz.dao.util.cri.SqlExpression;
 import org.nutz.lang.Each;
 import org.nutz.lang.ExitLoop;
 import org.nutz.lang.Lang;
 import org.nutz.lang.LoopException;
 import org.nutz.lang.Strings;
+import org.nutz.resource.Scans;
 
 public class NutDao extends DaoSupport implements Dao {
 
@@ -316,6 +334,81 @@ public class NutDao extends DaoSupport implements Dao {
 		return pojo.getList(classOfT);
 	}
 
+	public <T> QueryResult queryPage(Class<T> classOfT, Condition cnd, Pager pager) {
+		if (null == pager)
+			return new QueryResult(query(classOfT, cnd, null), null);
+
+		final Entity<T> en = holder.getEntity(classOfT);
+		Pojo pojo = pojoMaker.makeQuery(en)
+								.append(Pojos.Items.cnd(cnd))
+								.addParamsBy("*")
+								.setPager(pager)
+								.setAfter(_pojo_queryEntity);
+		Pojo counter = expert.formatQueryWithCount(pojo);
+		int total = -1;
+		// 数据库不支持，只好另外查一下总数
+		if (null == counter) {
+			expert.formatQuery(pojo);
+			_exec(pojo);
+		}
+		// 总数在每一行里
+		else if (counter == pojo) {
+			final int[] re = {-1};
+			pojo.setAfter(new PojoCallback() {
+				public Object invoke(Connection conn, ResultSet rs, Pojo pojo) throws SQLException {
+					List<T> list = new ArrayList<T>(pojo.getContext().getPager().getPageSize());
+					RowMaker<T> maker = null;
+					while (rs.next()) {
+						if (null == maker) {
+							maker = en.getRowMaker(rs, pojo.getContext().getFieldMatcher());
+							re[0] = rs.getInt(Pojos.TOTAL_COUNT);
+						}
+						list.add(maker.make(rs));
+					}
+					return list;
+				}
+			});
+			_exec(pojo);
+			total = re[0];
+		}
+		// 紧接着用另外一条语句取出总数
+		else {
+			_exec(pojo, counter);
+			total = counter.getInt();
+		}
+
+		// 本页没有数据时，看不出总数，除非是第一页
+		if (total < 0 && pager.getOffset() == 0 && pojo.getList(classOfT).isEmpty())
+			total = 0;
+		if (total < 0)
+			total = count(classOfT, cnd);
+		pager.setRecordCount(total);
+		return new QueryResult(pojo.getList(classOfT), pager);
+	}
+
+	public <T> List<T> querySeek(	Class<T> classOfT,
+									SqlExpression exp,
+									String orderBy,
+									boolean desc,
+									Object last,
+									int size) {
+		Cnd cnd = null;
+		if (null != last) {
+			cnd = Cnd.where(orderBy, desc ? "<" : ">", last);
+			if (null != exp)
+				cnd.and(exp);
+		} else if (null != exp) {
+			cnd = Cnd.where(exp);
+		}
+		OrderBy ob = null == cnd ? Cnd.orderBy() : cnd;
+		if (desc)
+			ob.desc(orderBy);
+		else
+			ob.asc(orderBy);
+		// 总是取第一页，不需要 OFFSET
+		return query(classOfT, ob, new Pager().setPageSize(size));
+	}
+
 	public List<Record> query(String tableName, Condition cnd, Pager pager) {
 		Pojo pojo = pojoMaker.makeQuery(tableName)
 								.addParamsBy("*")
@@ -327,6 +420,63 @@ public class NutDao extends DaoSupport implements Dao {
 		return pojo.getList(Record.class);
 	}
 
+	public <T> int each(Class<T> classOfT, Condition cnd, Pager pager, Each<T> callback) {
+		Pojo pojo = pojoMaker.makeQuery(holder.getEntity(classOfT))
+								.append(Pojos.Items.cnd(cnd))
+								.addParamsBy("*")
+								.setPager(pager)
+								.setAfter(new PojoEachEntityCallback(callback));
+		expert.formatQuery(pojo);
+		_exec(pojo);
+		return pojo.getInt();
+	}
+
+	public <T> int each(Class<T> classOfT, Condition cnd, Each<T> callback) {
+		return each(classOfT, cnd, null, callback);
+	}
+
+	public int each(String tableName, Condition cnd, Pager pager, Each<Record> callback) {
+		Pojo pojo = pojoMaker.makeQuery(tableName)
+								.addParamsBy("*")
+								.setPager(pager)
+								.append(Pojos.Items.cnd(cnd));
+		expert.formatQuery(pojo);
+		pojo.setAfter(new PojoEachRecordCallback(callback));
+		_exec(pojo);
+		return pojo.getInt();
+	}
+
+	public int each(String tableName, Condition cnd, Each<Record> callback) {
+		return each(tableName, cnd, null, callback);
+	}
+
+	public <T> DaoCursor<T> cursor(Class<T> classOfT, Condition cnd) {
+		final Entity<T> en = holder.getEntity(classOfT);
+		Pojo pojo = pojoMaker.makeQuery(en).append(Pojos.Items.cnd(cnd)).addParamsBy("*");
+		expert.formatQuery(pojo);
+		_setContextDefaults(pojo.getContext());
+		return new NutDaoCursor<T>() {
+			private RowMaker<T> maker;
+
+			protected T createObject(ResultSet rs) {
+				if (null == maker)
+					maker = en.getRowMaker(rs, null);
+				return maker.make(rs);
+			}
+		}.open(dataSource, pojo);
+	}
+
+	public DaoCursor<Record> cursor(String tableName, Condition cnd) {
+		Pojo pojo = pojoMaker.makeQuery(tableName).addParamsBy("*").append(Pojos.Items.cnd(cnd));
+		expert.formatQuery(pojo);
+		_setContextDefaults(pojo.getContext());
+		return new NutDaoCursor<Record>() {
+			protected Record createObject(ResultSet rs) {
+				return Record.create(rs);
+			}
+		}.open(dataSource, pojo);
+	}
+
 	public <T> T fetch(Class<T> classOfT, long id) {
 		Entity<T> en = holder.getEntity(classOfT);
 		Pojo pojo = pojoMaker.makeQuery(en)
@@ -395,9 +545,16 @@ public class NutDao extends DaoSupport implements Dao {
 		EntityOperator opt = this._optBy(obj);
 		if (null == opt)
 			return null;
-		opt.entity.visitMany(obj, regex, doFetch(opt));
-		opt.entity.visitManyMany(obj, regex, doFetch(opt));
-		opt.entity.visitOne(obj, regex, doFetch(opt));
+		// 一组对象，每个关联字段用 IN 查询一起获取
+		if (obj instanceof Collection<?> || obj.getClass().isArray()) {
+			opt.entity.visitMany(obj, regex, doBatchFetch(opt));
+			opt.entity.visitManyMany(obj, regex, doBatchFetch(opt));
+			opt.entity.visitOne(obj, regex, doBatchFetch(opt));
+		} else {
+			opt.entity.visitMany(obj, regex, doFetch(opt));
+			opt.entity.visitManyMany(obj, regex, doFetch(opt));
+			opt.entity.visitOne(obj, regex, doFetch(opt));
+		}
 		opt.exec();
 		return obj;
 	}
@@ -439,6 +596,39 @@ public class NutDao extends DaoSupport implements Dao {
 		return holder.getEntity(classOfT);
 	}
 
+	public int preloadEntities(String packageName) {
+		List<Class<?>> types = new ArrayList<Class<?>>();
+		for (Class<?> type : Scans.me().scanPackage(packageName))
+			if (null != type.getAnnotation(Table.class))
+				types.add(type);
+		if (types.isEmpty())
+			return 0;
+
+		int n = Math.min(types.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService es = Executors.newFixedThreadPool(n);
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>(types.size());
+			for (final Class<?> type : types)
+				futures.add(es.submit(new Callable<Object>() {
+					public Object call() throws Exception {
+						return holder.getEntity(type);
+					}
+				}));
+			for (Future<?> f : futures)
+				f.get();
+		}
+		catch (InterruptedException e) {
+			throw Lang.wrapThrow(e);
+		}
+		catch (ExecutionException e) {
+			throw Lang.wrapThrow(e.getCause());
+		}
+		finally {
+			es.shutdownNow();
+		}
+		return types.size();
+	}
+
 	public int count(Class<?> classOfT, Condition cnd) {
 		Entity<?> en = holder.getEntity(classOfT);
 		return _count(en, en.getViewName(), cnd);
@@ -617,6 +807,10 @@ public class NutDao extends DaoSupport implements Dao {
 		return new DoFetchLinkVisitor().opt(opt);
 	}
 
+	private LinkVisitor doBatchFetch(EntityOperator opt) {
+		return new DoBatchFetchLinkVisitor(expert.getMaxParamCount()).opt(opt);
+	}
+
 	// ==========================================================
 	// 下面几个是快速创建实体操作对象的帮助函数
 
@@ -0,0 +1,165 @@
+package org.nutz.dao.impl;
+
+import static java.lang.String.format;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.NoSuchElementException;
+
+import javax.sql.DataSource;
+
+import org.nutz.dao.DaoCursor;
+import org.nutz.dao.DaoException;
+import org.nutz.dao.jdbc.ValueAdaptor;
+import org.nutz.dao.sql.DaoStatement;
+import org.nutz.dao.util.Daos;
+import org.nutz.lang.Lang;
+import org.nutz.log.Log;
+import org.nutz.log.Logs;
+import org.nutz.trans.Trans;
+import org.nutz.trans.Transaction;
+
+/**
+ * 基于 TYPE_FORWARD_ONLY 结果集的游标实现
+ * <p>
+ * 如果当前线程有事务，使用事务的连接，并且关闭时不会关闭这个连接。<br>
+ * 否则自己从数据源获取一个连接，并关闭自动提交（某些数据库，比如 Postgresql，只有这样 fetchSize 才有效）
+ */
+public abstract class NutDaoCursor<T> implements DaoCursor<T> {
+
+	private static final Log log = Logs.get();
+
+	private Connection conn;
+
+	private boolean ownConn;
+
+	private boolean oldAutoCommit;
+
+	private PreparedStatement pstat;
+
+	private ResultSet rs;
+
+	/**
+	 * 结果集的游标是否已经移动到了下一条，但是还没被 next() 取走
+	 */
+	private boolean fetched;
+
+	private boolean hasRow;
+
+	/**
+	 * 打开游标
+	 * 
+	 * @param dataSource
+	 *            数据源
+	 * @param st
+	 *            查询语句，如果有多行参数，只有第一行有效
+	 * @return 自身
+	 */
+	public NutDaoCursor<T> open(DataSource dataSource, DaoStatement st) {
+		try {
+			Transaction t = Trans.get();
+			if (null != t) {
+				conn = t.getConnection(dataSource);
+			} else {
+				conn = dataSource.getConnection();
+				ownConn = true;
+				oldAutoCommit = conn.getAutoCommit();
+				conn.setAutoCommit(false);
+			}
+
+			String sql = st.toPreparedStatement();
+			if (log.isDebugEnabled())
+				log.debug(st);
+
+			pstat = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			if (st.getContext().getFetchSize() > 0)
+				pstat.setFetchSize(st.getContext().getFetchSize());
+			if (st.getParamRowCount() > 0) {
+				ValueAdaptor[] adaptors = st.getAdaptors();
+				Object[] params = st.getParamMatrix(0, 1)[0];
+				for (int i = 0; i < params.length; i++)
+					adaptors[i].set(pstat, params[i], i + 1);
+			}
+			rs = pstat.executeQuery();
+		}
+		catch (SQLException e) {
+			close();
+			throw new DaoException(format(	"!Nutz SQL Error: '%s'\nPreparedStatement: \n'%s'",
+											st.toString(),
+											st.toPreparedStatement()), e);
+		}
+		return this;
+	}
+
+	public boolean hasNext() {
+		if (null == rs)
+			return false;
+		if (!fetched) {
+			try {
+				hasRow = rs.next();
+			}
+			catch (SQLException e) {
+				close();
+				throw new DaoException(e);
+			}
+			fetched = true;
+			// 遍历完毕，就地释放资源
+			if (!hasRow)
+				close();
+		}
+		return hasRow;
+	}
+
+	public T next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		fetched = false;
+		try {
+			return createObject(rs);
+		}
+		catch (RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+	public void remove() {
+		throw Lang.noImplement();
+	}
+
+	public void close() {
+		Daos.safeClose(pstat, rs);
+		rs = null;
+		pstat = null;
+		if (ownConn && null != conn) {
+			try {
+				conn.commit();
+				conn.setAutoCommit(oldAutoCommit);
+			}
+			catch (SQLException e) {
+				if (log.isWarnEnabled())
+					log.warn("Fail to restore autoCommit", e);
+			}
+			try {
+				conn.close();
+			}
+			catch (SQLException e) {
+				if (log.isWarnEnabled())
+					log.warn("Fail to close connection!", e);
+			}
+		}
+		conn = null;
+	}
+
+	/**
+	 * 子类实现这个函数，将结果集的当前行转换成对象
+	 * 
+	 * @param rs
+	 *            结果集
+	 * @return 对象
+	 */
+	protected abstract T createObject(ResultSet rs);
+
+}
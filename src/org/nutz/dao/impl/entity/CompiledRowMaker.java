@@ -0,0 +1,221 @@
+package org.nutz.dao.impl.entity;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.nutz.castor.Castors;
+import org.nutz.dao.FieldMatcher;
+import org.nutz.dao.entity.MappingField;
+import org.nutz.dao.entity.RowMaker;
+import org.nutz.dao.impl.entity.field.AbstractEntityField;
+import org.nutz.dao.jdbc.ValueAdaptor;
+import org.nutz.dao.jdbc.ValueAdaptor2;
+import org.nutz.lang.Lang;
+import org.nutz.lang.Mirror;
+import org.nutz.lang.born.Borning;
+import org.nutz.lang.inject.InjectByField;
+import org.nutz.lang.inject.InjectBySetter;
+import org.nutz.lang.inject.Injecting;
+import org.nutz.lang.reflect.FastClass;
+import org.nutz.lang.reflect.FastClasses;
+
+/**
+ * 根据结果集的元数据预先编排好的行转换器
+ * <p>
+ * <ul>
+ * <li>每个字段对应的列下标只在创建时查找一次，取值时按下标读取。自定义的适配器没有实现 ValueAdaptor2 的，仍然按列名读取
+ * <li>创建对象，以及调用 setter 或者设置 public 字段，都通过 FastClass 完成
+ * <li>不能快速访问的字段，退回到字段本身的 setValue
+ * </ul>
+ */
+class CompiledRowMaker<T> implements RowMaker<T> {
+
+	private static final int NONE = 0;
+
+	private static final int BY_SETTER = 1;
+
+	private static final int BY_FIELD = 2;
+
+	private FastClass fc;
+
+	private int bornIndex;
+
+	private Borning<T> borning;
+
+	private MappingField[] fields;
+
+	private ValueAdaptor[] adaptors;
+
+	/**
+	 * 可以按下标取值的适配器，不能的为 null
+	 */
+	private ValueAdaptor2[] indexedAdaptors;
+
+	private int[] columns;
+
+	private int[] modes;
+
+	private int[] indexes;
+
+	private Class<?>[] valueTypes;
+
+	/**
+	 * 值的实际类型，对于原生类型，是它的包装类型
+	 */
+	private Class<?>[] boxedTypes;
+
+	CompiledRowMaker(	NutEntity<T> en,
+						Borning<T> borning,
+						ResultSet rs,
+						FieldMatcher matcher) throws SQLException {
+		this.borning = borning;
+		this.fc = FastClasses.get(en.getType());
+		this.bornIndex = -1;
+		if (null != fc) {
+			try {
+				Constructor<T> c = en.getType().getConstructor();
+				bornIndex = fc.indexOf(c);
+			}
+			catch (NoSuchMethodException e) {}
+		}
+
+		// 找到每个字段对应的列
+		Map<String, Integer> labels = new HashMap<String, Integer>();
+		ResultSetMetaData meta = rs.getMetaData();
+		for (int i = meta.getColumnCount(); i > 0; i--)
+			labels.put(meta.getColumnLabel(i).toUpperCase(), i);
+
+		List<MappingField> list = new ArrayList<MappingField>(en.getMappingFields().size());
+		List<Integer> cols = new ArrayList<Integer>(list.size());
+		for (MappingField fld : en.getMappingFields()) {
+			if (null != matcher && !matcher.match(fld.getName()))
+				continue;
+			Integer col = labels.get(fld.getColumnName().toUpperCase());
+			// 结果集里没有的列，getObject 也会忽略它
+			if (null == col)
+				continue;
+			list.add(fld);
+			cols.add(col);
+		}
+
+		int len = list.size();
+		fields = list.toArray(new MappingField[len]);
+		adaptors = new ValueAdaptor[len];
+		indexedAdaptors = new ValueAdaptor2[len];
+		columns = new int[len];
+		modes = new int[len];
+		indexes = new int[len];
+		valueTypes = new Class<?>[len];
+		boxedTypes = new Class<?>[len];
+		for (int i = 0; i < len; i++) {
+			adaptors[i] = fields[i].getAdaptor();
+			if (adaptors[i] instanceof ValueAdaptor2)
+				indexedAdaptors[i] = (ValueAdaptor2) adaptors[i];
+			columns[i] = cols.get(i);
+			evalAccess(i, en.getType());
+		}
+	}
+
+	/**
+	 * 判断一个字段能否通过 FastClass 设值
+	 */
+	private void evalAccess(int i, Class<?> type) {
+		modes[i] = NONE;
+		if (null == fc || !(fields[i] instanceof AbstractEntityField))
+			return;
+		Injecting inj = ((AbstractEntityField) fields[i]).getInjecting();
+		Method setter = null;
+		if (inj instanceof InjectBySetter) {
+			setter = ((InjectBySetter) inj).getSetter();
+		} else if (inj instanceof InjectByField) {
+			Field f = ((InjectByField) inj).getField();
+			int index = Modifier.isFinal(f.getModifiers()) ? -1 : fc.indexOf(f);
+			if (index >= 0) {
+				modes[i] = BY_FIELD;
+				indexes[i] = index;
+				setType(i, f.getType());
+				return;
+			}
+			// 私有字段，看看有没有 public 的 setter
+			try {
+				setter = Mirror.me(type).getSetter(f);
+			}
+			catch (NoSuchMethodException e) {}
+		}
+		if (null != setter) {
+			int index = fc.indexOf(setter);
+			if (index >= 0) {
+				modes[i] = BY_SETTER;
+				indexes[i] = index;
+				setType(i, setter.getParameterTypes()[0]);
+			}
+		}
+	}
+
+	private void setType(int i, Class<?> valueType) {
+		valueTypes[i] = valueType;
+		boxedTypes[i] = valueType.isPrimitive()	? Mirror.me(valueType).getWrapperClass()
+												: valueType;
+	}
+
+	public T make(ResultSet rs) {
+		T re = bornIndex >= 0 ? born() : borning.born(new Object[]{});
+		for (int i = 0; i < fields.length; i++) {
+			Object v;
+			try {
+				if (null != indexedAdaptors[i])
+					v = indexedAdaptors[i].get(rs, columns[i]);
+				else
+					v = adaptors[i].get(rs, fields[i].getColumnName());
+			}
+			catch (SQLException e) {
+				continue;
+			}
+			switch (modes[i]) {
+			case BY_SETTER:
+				fc.invoke(re, indexes[i], cast(i, v));
+				break;
+			case BY_FIELD:
+				fc.setField(re, indexes[i], cast(i, v));
+				break;
+			default:
+				fields[i].setValue(re, v);
+			}
+		}
+		return re;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T born() {
+		return (T) fc.born(bornIndex);
+	}
+
+	private Object cast(int i, Object v) {
+		if (null == v) {
+			if (valueTypes[i].isPrimitive())
+				return Castors.me().castTo(null, valueTypes[i]);
+			return null;
+		}
+		if (boxedTypes[i].isInstance(v))
+			return v;
+		try {
+			return Castors.me().castTo(v, valueTypes[i]);
+		}
+		catch (Exception e) {
+			throw Lang.makeThrow(	"Fail to set '%s' to field %s : %s",
+									v,
+									fields[i],
+									Lang.unwrapThrow(e).getMessage());
+		}
+	}
+
+}
@@ -1,6 +1,7 @@
 package org.nutz.dao.impl.entity;
 
 import java.sql.ResultSet;
+import java.sql.SQLException;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -14,6 +15,7 @@ import org.nutz.dao.entity.LinkField;
 import org.nutz.dao.entity.LinkVisitor;
 import org.nutz.dao.entity.MappingField;
 import org.nutz.dao.entity.PkType;
+import org.nutz.dao.entity.RowMaker;
 import org.nutz.dao.sql.Pojo;
 import org.nutz.lang.Lang;
 import org.nutz.lang.Mirror;
@@ -183,6 +185,22 @@ public class NutEntity<T> implements Entity<T> {
 		return re;
 	}
 
+	public RowMaker<T> getRowMaker(ResultSet rs, FieldMatcher matcher) {
+		// 构造时创建对象，没什么可以预先准备的
+		if (null != bornByRS)
+			return new RowMaker<T>() {
+				public T make(ResultSet rs) {
+					return bornByRS.born(Lang.array(rs));
+				}
+			};
+		try {
+			return new CompiledRowMaker<T>(this, bornByDefault, rs, matcher);
+		}
+		catch (SQLException e) {
+			throw Lang.wrapThrow(e);
+		}
+	}
+
 	/**
 	 * 当所有字段增加完成，这个方法必须被调用，用来搜索复合主键
 	 * 
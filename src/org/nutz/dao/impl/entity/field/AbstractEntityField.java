@@ -61,6 +61,10 @@ public abstract class AbstractEntityField implements EntityField {
 		this.name = name;
 	}
 
+	public Injecting getInjecting() {
+		return injecting;
+	}
+
 	public void setInjecting(Injecting injecting) {
 		this.injecting = injecting;
 	}
@@ -72,6 +72,14 @@ public class SqlFieldMacro extends NutPojo {
 		return sql.getParamMatrix();
 	}
 
+	public int getParamRowCount() {
+		return sql.getParamRowCount();
+	}
+
+	public Object[][] getParamMatrix(int from, int len) {
+		return sql.getParamMatrix(from, len);
+	}
+
 	public String toPreparedStatement() {
 		return _parseSQL(sql.duplicate()).toPreparedStatement();
 	}
@@ -2,10 +2,10 @@ package org.nutz.dao.impl.jdbc;
 
 import java.io.File;
 
-import org.nutz.dao.jdbc.ValueAdaptor;
+import org.nutz.dao.jdbc.ValueAdaptor2;
 import org.nutz.filepool.FilePool;
 
-abstract class AbstractFileValueAdaptor implements ValueAdaptor {
+abstract class AbstractFileValueAdaptor implements ValueAdaptor2 {
 
 	private FilePool pool;
 
@@ -20,10 +20,12 @@ import org.nutz.dao.jdbc.JdbcExpertConfigFile;
 import org.nutz.dao.jdbc.Jdbcs;
 import org.nutz.dao.jdbc.ValueAdaptor;
 import org.nutz.dao.sql.DaoStatement;
+import org.nutz.dao.sql.PItem;
 import org.nutz.dao.sql.Pojo;
 import org.nutz.dao.sql.Sql;
 import org.nutz.dao.sql.SqlType;
 import org.nutz.dao.util.Daos;
+import org.nutz.dao.util.Pojos;
 import org.nutz.lang.Lang;
 import org.nutz.lang.Mirror;
 import org.nutz.lang.Strings;
@@ -128,9 +130,38 @@ public abstract class AbstractJdbcExpert implements JdbcExpert {
 		return this.conf.getConfig();
 	}
 
+	/**
+	 * 默认为 1000，这也是 Oracle 对 IN (...) 中元素个数的限制
+	 */
+	public int getMaxParamCount() {
+		return 1000;
+	}
+
+	/**
+	 * 默认不支持，由调用者另外统计记录总数
+	 */
+	public Pojo formatQueryWithCount(Pojo pojo) {
+		return null;
+	}
+
 	// ====================================================================
 	// 下面是提供给子类使用的一些帮助函数
 
+	/**
+	 * 将查询语句开头的 SELECT 替换成给定的内容
+	 * 
+	 * @return false 表示语句不是以 SELECT 开头的，没有替换
+	 */
+	protected boolean replaceSelect(Pojo pojo, String str) {
+		PItem pi = pojo.getItem(0);
+		StringBuilder sb = new StringBuilder();
+		pi.joinSql(pojo.getEntity(), sb);
+		if (!sb.toString().trim().equalsIgnoreCase("SELECT"))
+			return false;
+		pojo.setItem(0, Pojos.Items.wrap(str));
+		return true;
+	}
+
 	protected String createResultSetMetaSql(Entity<?> en) {
 		return "SELECT * FROM " + en.getViewName();
 	}
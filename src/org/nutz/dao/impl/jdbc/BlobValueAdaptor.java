@@ -24,6 +24,12 @@ public class BlobValueAdaptor extends AbstractFileValueAdaptor {
 		return new SimpleBlob(f);
 	}
 
+	public Object get(ResultSet rs, int colIndex) throws SQLException {
+		File f = this.createTempFile();
+		Files.write(f, rs.getBlob(colIndex).getBinaryStream());
+		return new SimpleBlob(f);
+	}
+
 	public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 		if (null == obj) {
 			stat.setNull(i, Types.BLOB);
@@ -24,6 +24,12 @@ public class ClobValueAdaptor extends AbstractFileValueAdaptor {
 		return new SimpleClob(f);
 	}
 
+	public Object get(ResultSet rs, int colIndex) throws SQLException {
+		File f = this.createTempFile();
+		Files.write(f, rs.getClob(colIndex).getAsciiStream());
+		return new SimpleClob(f);
+	}
+
 	public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 		if (null == obj) {
 			stat.setNull(i, Types.CLOB);
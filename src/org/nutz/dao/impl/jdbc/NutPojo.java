@@ -7,7 +7,6 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 
 import org.nutz.dao.Chain;
@@ -31,7 +30,7 @@ public class NutPojo extends NutStatement implements Pojo {
 	/**
 	 * 参数表
 	 */
-	private LinkedList<Object> params;
+	private ArrayList<Object> params;
 
 	/**
 	 * 缓存语句共包括的参数数量
@@ -50,7 +49,7 @@ public class NutPojo extends NutStatement implements Pojo {
 
 	public NutPojo() {
 		super();
-		params = new LinkedList<Object>();
+		params = new ArrayList<Object>();
 		items = new ArrayList<PItem>(6);
 		_pmnum = -1;
 		append(Pojos.Items.sqlType());
@@ -65,6 +64,19 @@ public class NutPojo extends NutStatement implements Pojo {
 	}
 
 	public Object[][] getParamMatrix() {
+		return getParamMatrix(0, getParamRowCount());
+	}
+
+	public int getParamRowCount() {
+		/*
+		 * 木有参数对象，但是有参数，那么元素们会给出一行参数
+		 */
+		if (_params_count() > 0 && params.isEmpty())
+			return 1;
+		return params.size();
+	}
+
+	public Object[][] getParamMatrix(int from, int len) {
 		Object[][] re;
 		/*
 		 * 木有参数对象，但是有参数，循环一下，看看元素们会给出什么样的参数
@@ -79,13 +91,12 @@ public class NutPojo extends NutStatement implements Pojo {
 		 * 依照参数列表循环获取参数矩阵
 		 */
 		else {
-			re = new Object[params.size()][_params_count()];
-			int row = 0;
-			for (Object obj : params) {
+			re = new Object[len][_params_count()];
+			for (int row = 0; row < len; row++) {
+				Object obj = params.get(from + row);
 				int i = 0;
 				for (PItem item : items)
 					i = item.joinParams(getEntity(), obj, re[row], i);
-				row++;
 			}
 		}
 		return re;
@@ -154,7 +165,7 @@ public class NutPojo extends NutStatement implements Pojo {
 	}
 
 	public Object getLastParams() {
-		return params.isEmpty() ? null : params.getLast();
+		return params.isEmpty() ? null : params.get(params.size() - 1);
 	}
 
 	public List<Object> params() {
@@ -3,6 +3,7 @@ package org.nutz.dao.impl.jdbc.h2;
 import org.nutz.dao.DB;
 import org.nutz.dao.impl.jdbc.psql.PsqlJdbcExpert;
 import org.nutz.dao.jdbc.JdbcExpertConfigFile;
+import org.nutz.dao.sql.Pojo;
 
 public class H2JdbcExpert extends PsqlJdbcExpert {
 
@@ -15,4 +16,12 @@ public class H2JdbcExpert extends PsqlJdbcExpert {
 		return DB.H2.name();
 	}
 
+	/**
+	 * H2 1.3 还不支持窗口函数
+	 */
+	@Override
+	public Pojo formatQueryWithCount(Pojo pojo) {
+		return null;
+	}
+
 }
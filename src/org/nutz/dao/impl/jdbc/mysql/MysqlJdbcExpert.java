@@ -10,9 +10,11 @@ import org.nutz.dao.entity.MappingField;
 import org.nutz.dao.entity.PkType;
 import org.nutz.dao.entity.annotation.ColType;
 import org.nutz.dao.impl.jdbc.AbstractJdbcExpert;
+import org.nutz.dao.impl.sql.pojo.PojoFetchIntCallback;
 import org.nutz.dao.jdbc.JdbcExpertConfigFile;
 import org.nutz.dao.pager.Pager;
 import org.nutz.dao.sql.Pojo;
+import org.nutz.dao.sql.SqlType;
 import org.nutz.dao.util.Pojos;
 
 public class MysqlJdbcExpert extends AbstractJdbcExpert {
@@ -36,6 +38,19 @@ public class MysqlJdbcExpert extends AbstractJdbcExpert {
 			pojo.append(Pojos.Items.wrapf(" LIMIT %d, %d", pager.getOffset(), pager.getPageSize()));
 	}
 
+	/**
+	 * SQL_CALC_FOUND_ROWS 让 MySQL 在执行 LIMIT 查询时顺便记下总数，<br>
+	 * 紧接着在同一个连接上用 FOUND_ROWS() 取出来，不用再扫描一遍
+	 */
+	@Override
+	public Pojo formatQueryWithCount(Pojo pojo) {
+		if (!replaceSelect(pojo, "SELECT SQL_CALC_FOUND_ROWS"))
+			return null;
+		formatQuery(pojo);
+		return createPojo(SqlType.SELECT).append(Pojos.Items.wrap("FOUND_ROWS()"))
+											.setAfter(new PojoFetchIntCallback());
+	}
+
 	@Override
 	protected String evalFieldType(MappingField mf) {
 		// Mysql 的精度是按照 bit
@@ -5,19 +5,24 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 
-import org.nutz.dao.jdbc.ValueAdaptor;
+import org.nutz.dao.jdbc.ValueAdaptor2;
 
 /**
  * 对 Oracle，Types.BOOLEAN 对于 setNull 是不工作的 其他的数据库都没有这个问题，<br>
  * 所以，只好把类型设成 INTEGER了
  */
-public class OracleBooleanAdaptor implements ValueAdaptor {
+public class OracleBooleanAdaptor implements ValueAdaptor2 {
 
 	public Object get(ResultSet rs, String colName) throws SQLException {
 		boolean re = rs.getBoolean(colName);
 		return rs.wasNull() ? null : re;
 	}
 
+	public Object get(ResultSet rs, int colIndex) throws SQLException {
+		boolean re = rs.getBoolean(colIndex);
+		return rs.wasNull() ? null : re;
+	}
+
 	public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 		if (null == obj) {
 			stat.setNull(i, Types.INTEGER);
@@ -34,6 +34,17 @@ public class PsqlJdbcExpert extends AbstractJdbcExpert {
 											pager.getOffset()));
 	}
 
+	/**
+	 * 用窗口函数让每一行都带上记录总数，它在 LIMIT 之前计算
+	 */
+	@Override
+	public Pojo formatQueryWithCount(Pojo pojo) {
+		if (!replaceSelect(pojo, "SELECT COUNT(*) OVER() AS " + Pojos.TOTAL_COUNT + ","))
+			return null;
+		formatQuery(pojo);
+		return pojo;
+	}
+
 	public boolean createEntity(Dao dao, Entity<?> en) {
 		StringBuilder sb = new StringBuilder("CREATE TABLE " + en.getTableName() + "(");
 		// 创建字段
@@ -10,6 +10,7 @@ import org.nutz.dao.entity.MappingField;
 import org.nutz.dao.entity.PkType;
 import org.nutz.dao.impl.jdbc.mysql.MysqlJdbcExpert;
 import org.nutz.dao.jdbc.JdbcExpertConfigFile;
+import org.nutz.dao.sql.Pojo;
 
 /**
  *
@@ -26,6 +27,22 @@ public class SQLieJdbcExpert extends MysqlJdbcExpert {
 		return DB.SQLITE.name();
 	}
 
+	/**
+	 * SQLite 默认最多 999 个参数
+	 */
+	@Override
+	public int getMaxParamCount() {
+		return 999;
+	}
+
+	/**
+	 * SQLite 不支持 MySQL 的 SQL_CALC_FOUND_ROWS，使用单独的计数查询
+	 */
+	@Override
+	public Pojo formatQueryWithCount(Pojo pojo) {
+		return null;
+	}
+
 	@Override
 	public boolean createEntity(Dao dao, Entity<?> en) {
 		StringBuilder sb = new StringBuilder("CREATE TABLE " + en.getTableName() + "(");
@@ -29,6 +29,13 @@ public class Sqlserver2005JdbcExpert extends AbstractJdbcExpert {
 		return DB.SQLSERVER.name();
 	}
 
+	/**
+	 * SQL Server 最多 2100 个参数，留一些给其他的条件
+	 */
+	public int getMaxParamCount() {
+		return 2000;
+	}
+
 	public boolean createEntity(Dao dao, Entity<?> en) {
 		StringBuilder sb = new StringBuilder("CREATE TABLE " + en.getTableName() + "(");
 		// 创建字段
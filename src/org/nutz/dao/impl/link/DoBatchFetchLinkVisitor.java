@@ -0,0 +1,252 @@
+package org.nutz.dao.impl.link;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.nutz.dao.Cnd;
+import org.nutz.dao.Condition;
+import org.nutz.dao.Sqls;
+import org.nutz.dao.entity.LinkField;
+import org.nutz.dao.entity.LinkType;
+import org.nutz.dao.impl.AbstractLinkVisitor;
+import org.nutz.dao.impl.entity.field.ManyManyLinkField;
+import org.nutz.dao.impl.sql.pojo.PojoQueryEntityCallback;
+import org.nutz.dao.sql.Pojo;
+import org.nutz.dao.sql.PojoCallback;
+import org.nutz.dao.sql.SqlType;
+import org.nutz.dao.util.Pojos;
+import org.nutz.dao.util.cri.SimpleCriteria;
+import org.nutz.lang.Each;
+import org.nutz.lang.ExitLoop;
+import org.nutz.lang.Lang;
+import org.nutz.lang.LoopException;
+
+/**
+ * 为一组宿主对象一起获取关联对象
+ * <p>
+ * 与 DoFetchLinkVisitor 为每个宿主对象执行一条查询不同，它收集所有宿主的关联键，<br>
+ * 对每个关联字段执行 WHERE xxx IN (...) 查询，再把结果按关联键分配给各个宿主。<br>
+ * 关联键太多时，会按照数据库允许的参数个数分成几条语句
+ * <p>
+ * 传给 visit 的对象是宿主对象的集合或者数组
+ */
+public class DoBatchFetchLinkVisitor extends AbstractLinkVisitor {
+
+	private int chunkSize;
+
+	public DoBatchFetchLinkVisitor(int chunkSize) {
+		this.chunkSize = chunkSize > 0 ? chunkSize : 1000;
+	}
+
+	public void visit(Object obj, LinkField lnk) {
+		final List<Object> hosts = new ArrayList<Object>(Lang.length(obj));
+		Lang.each(obj, new Each<Object>() {
+			public void invoke(int i, Object ele, int length) throws ExitLoop, LoopException {
+				if (null != ele)
+					hosts.add(ele);
+			}
+		});
+		if (hosts.isEmpty())
+			return;
+
+		Linking linking = new Linking(lnk, hosts);
+
+		// 链接对方全部内容，一条查询就够了
+		if (null == lnk.getHostField()) {
+			addQuery(lnk, hosts.get(0), null, linking, true);
+			return;
+		}
+
+		// 收集关联键
+		Set<Object> keys = new LinkedHashSet<Object>();
+		for (Object host : hosts) {
+			Object v = lnk.getHostField().getValue(host);
+			if (null != v)
+				keys.add(v);
+		}
+		if (keys.isEmpty()) {
+			linking.done();
+			return;
+		}
+
+		List<Object> all = new ArrayList<Object>(keys);
+		for (int from = 0; from < all.size(); from += chunkSize) {
+			List<Object> chunk = all.subList(from, Math.min(from + chunkSize, all.size()));
+			boolean last = from + chunkSize >= all.size();
+			if (LinkType.MANYMANY == lnk.getLinkType()) {
+				addManyManyQuery((ManyManyLinkField) lnk, hosts.get(0), chunk, linking, last);
+			} else {
+				Cnd cnd = Cnd.where(lnk.getLinkedField().getName(), "IN", chunk);
+				addQuery(lnk, hosts.get(0), cnd, linking, last);
+			}
+		}
+	}
+
+	private void addQuery(	LinkField lnk,
+							Object refer,
+							Condition cnd,
+							final Linking linking,
+							final boolean last) {
+		Pojo pojo = opt.maker().makeQuery(lnk.getLinkedEntity());
+		pojo.setOperatingObject(refer);
+		pojo.append(Pojos.Items.cnd(cnd));
+		pojo.setAfter(new PojoCallback() {
+			public Object invoke(Connection conn, ResultSet rs, Pojo pojo) throws SQLException {
+				List<?> list = (List<?>) new PojoQueryEntityCallback().invoke(conn, rs, pojo);
+				linking.add(list);
+				if (last)
+					linking.done();
+				return list;
+			}
+		});
+		opt.add(pojo);
+	}
+
+	/**
+	 * 多对多需要两条语句：先从中间表里查出关联关系，再查出关联对象
+	 */
+	private void addManyManyQuery(	ManyManyLinkField lnk,
+									Object refer,
+									List<Object> chunk,
+									final Linking linking,
+									boolean last) {
+		StringBuilder sb = new StringBuilder();
+		for (Object key : chunk)
+			sb.append(Sqls.formatFieldValue(key)).append(',');
+		sb.setLength(sb.length() - 1);
+
+		// 语句会自带 SELECT 关键字
+		Pojo rel = opt.maker().makePojo(SqlType.SELECT);
+		rel.setEntity(lnk.getEntity());
+		rel.setOperatingObject(refer);
+		rel.append(Pojos.Items.wrapf(	"%s,%s FROM %s WHERE %s IN (%s)",
+										lnk.getFromColumnName(),
+										lnk.getToColumnName(),
+										lnk.getRelationName(),
+										lnk.getFromColumnName(),
+										sb));
+		rel.setAfter(new PojoCallback() {
+			public Object invoke(Connection conn, ResultSet rs, Pojo pojo) throws SQLException {
+				while (rs.next())
+					linking.relate(rs.getObject(1), rs.getObject(2));
+				return null;
+			}
+		});
+		opt.add(rel);
+
+		SimpleCriteria cri = Cnd.cri();
+		cri.where().andInBySql(	lnk.getLinkedField().getColumnName(),
+								"SELECT %s FROM %s WHERE %s IN (%s)",
+								lnk.getToColumnName(),
+								lnk.getRelationName(),
+								lnk.getFromColumnName(),
+								sb);
+		addQuery(lnk, refer, cri, linking, last);
+	}
+
+	/**
+	 * 统一关联键的类型，比如数据库返回的 Integer 和 Java 字段里的 Long 应该被认为是同一个键
+	 */
+	private static Object key(Object v) {
+		if (null == v)
+			return null;
+		if (v instanceof Number)
+			return ((Number) v).longValue();
+		return v.toString();
+	}
+
+	/**
+	 * 记录一个关联字段所有查询的结果，在最后一条查询完成后分配给各个宿主
+	 */
+	private static class Linking {
+
+		private LinkField lnk;
+
+		private List<Object> hosts;
+
+		private List<Object> linkeds;
+
+		/**
+		 * 多对多的关联关系：宿主的键 => 关联对象的键
+		 */
+		private Map<Object, List<Object>> relations;
+
+		Linking(LinkField lnk, List<Object> hosts) {
+			this.lnk = lnk;
+			this.hosts = hosts;
+			this.linkeds = new ArrayList<Object>();
+			this.relations = new HashMap<Object, List<Object>>();
+		}
+
+		void relate(Object from, Object to) {
+			Object k = key(from);
+			List<Object> tos = relations.get(k);
+			if (null == tos) {
+				tos = new ArrayList<Object>();
+				relations.put(k, tos);
+			}
+			tos.add(key(to));
+		}
+
+		void add(List<?> list) {
+			linkeds.addAll(list);
+		}
+
+		void done() {
+			// 链接对方全部内容
+			if (null == lnk.getHostField()) {
+				for (Object host : hosts)
+					lnk.setValue(host, new ArrayList<Object>(linkeds));
+				return;
+			}
+
+			// 按关联对象的键分组
+			Map<Object, List<Object>> groups = new HashMap<Object, List<Object>>();
+			for (Object linked : linkeds) {
+				Object k = key(lnk.getLinkedField().getValue(linked));
+				List<Object> list = groups.get(k);
+				if (null == list) {
+					list = new ArrayList<Object>();
+					groups.put(k, list);
+				}
+				// 多对多时，同一个对象可能被几批查询重复查到
+				else if (LinkType.MANYMANY == lnk.getLinkType()) {
+					continue;
+				}
+				list.add(linked);
+			}
+
+			for (Object host : hosts) {
+				Object k = key(lnk.getHostField().getValue(host));
+				List<Object> list = new ArrayList<Object>();
+				if (null != k) {
+					if (LinkType.MANYMANY == lnk.getLinkType()) {
+						List<Object> tos = relations.get(k);
+						if (null != tos)
+							for (Object to : tos) {
+								List<Object> ones = groups.get(to);
+								if (null != ones)
+									list.addAll(ones);
+							}
+					} else {
+						List<Object> ones = groups.get(k);
+						if (null != ones)
+							list.addAll(ones);
+					}
+				}
+				if (LinkType.ONE == lnk.getLinkType())
+					lnk.setValue(host, list.isEmpty() ? null : list.get(0));
+				else
+					lnk.setValue(host, list);
+			}
+		}
+	}
+
+}
@@ -3,7 +3,7 @@ package org.nutz.dao.impl.sql;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.nutz.dao.Condition;
@@ -36,13 +36,13 @@ public class NutSql extends NutStatement implements Sql {
 	private NutSql() {
 		super();
 		vars = new SimpleVarSet();
-		rows = new LinkedList<VarSet>();
+		rows = new ArrayList<VarSet>();
 		this.addBatch();
 	}
 
 	public NutSql(String sql) {
 		this();
-		this.literal = new SqlLiteral().valueOf(sql);
+		this.literal = SqlLiteralCache.get(sql);
 		this.setSqlType(this.literal.getType());
 		// 根据字面量，构造一个参数的适配器数组
 		adaptors = new ValueAdaptor[literal.getParamIndexes().getOrders().size()];
@@ -104,10 +104,18 @@ public class NutSql extends NutStatement implements Sql {
 	}
 
 	public Object[][] getParamMatrix() {
-		Object[][] re = new Object[rows.size()][adaptors.length];
-		int i = 0;
-		for (VarSet row : rows) {
-			Object[] cols = re[i++];
+		return getParamMatrix(0, rows.size());
+	}
+
+	public int getParamRowCount() {
+		return rows.size();
+	}
+
+	public Object[][] getParamMatrix(int from, int len) {
+		Object[][] re = new Object[len][adaptors.length];
+		for (int i = 0; i < len; i++) {
+			VarSet row = rows.get(from + i);
+			Object[] cols = re[i];
 			for (String name : literal.getParamIndexes().names()) {
 				Object value = row.get(name);
 				int[] is = literal.getParamIndexes().getOrderIndex(name);
@@ -0,0 +1,103 @@
+package org.nutz.dao.impl.sql;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 缓存解析过的 SQL 模板
+ * <p>
+ * 同样的 SQL 文本（比如 .sqls 文件里定义的语句）每次创建 NutSql 都要重新扫描一遍字符，<br>
+ * 建立占位符索引并判断语句类型。解析后的 SqlLiteral 是不会被修改的，因此可以被所有线程共享，<br>
+ * 每个 NutSql 只需要持有自己的变量和参数。
+ * <p>
+ * 缓存的大小是有限的，超出时会随便淘汰掉一条，默认最多 1000 条。设置为 0 则关闭缓存
+ */
+public abstract class SqlLiteralCache {
+
+	private static final ConcurrentHashMap<String, SqlLiteral> cache = new ConcurrentHashMap<String, SqlLiteral>();
+
+	private static final AtomicLong hits = new AtomicLong();
+
+	private static final AtomicLong misses = new AtomicLong();
+
+	private static volatile int maxSize = 1000;
+
+	static SqlLiteral get(String sql) {
+		if (null == sql || maxSize <= 0)
+			return new SqlLiteral().valueOf(sql);
+		SqlLiteral re = cache.get(sql);
+		if (null != re) {
+			hits.incrementAndGet();
+			return re;
+		}
+		misses.incrementAndGet();
+		re = new SqlLiteral().valueOf(sql);
+		// 超出了大小，淘汰掉一些
+		if (cache.size() >= maxSize) {
+			Iterator<String> it = cache.keySet().iterator();
+			while (cache.size() >= maxSize && it.hasNext()) {
+				it.next();
+				it.remove();
+			}
+		}
+		cache.put(sql, re);
+		return re;
+	}
+
+	/**
+	 * @param maxSize
+	 *            缓存的最大条数，0 表示关闭缓存
+	 */
+	public static void setMaxSize(int maxSize) {
+		SqlLiteralCache.maxSize = maxSize;
+		if (maxSize <= 0)
+			cache.clear();
+	}
+
+	public static int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return 当前缓存的条数
+	 */
+	public static int size() {
+		return cache.size();
+	}
+
+	/**
+	 * @return 命中次数
+	 */
+	public static long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return 未命中次数
+	 */
+	public static long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * 清除缓存以及计数
+	 */
+	public static void clear() {
+		cache.clear();
+		hits.set(0);
+		misses.set(0);
+	}
+
+	public static String dump() {
+		long h = hits.get();
+		long m = misses.get();
+		return String.format(	"SqlLiteralCache: size=%d/%d, hits=%d, misses=%d, hit rate=%.2f%%",
+								cache.size(),
+								maxSize,
+								h,
+								m,
+								h + m == 0 ? 0 : h * 100.0 / (h + m));
+	}
+
+}
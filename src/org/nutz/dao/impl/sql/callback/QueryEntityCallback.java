@@ -5,6 +5,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 
 import org.nutz.dao.entity.Entity;
+import org.nutz.dao.entity.RowMaker;
 
 import org.nutz.dao.pager.ResultSetLooping;
 import org.nutz.dao.sql.SqlContext;
@@ -15,8 +16,12 @@ public class QueryEntityCallback extends EntityCallback {
 	protected Object process(final ResultSet rs, final Entity<?> entity, final SqlContext context)
 			throws SQLException {
 		return new ResultSetLooping() {
+			private RowMaker<?> maker;
+
 			protected Object createObject(ResultSet rs, SqlContext context) {
-				return entity.getObject(rs, context.getFieldMatcher());
+				if (null == maker)
+					maker = entity.getRowMaker(rs, context.getFieldMatcher());
+				return maker.make(rs);
 			}
 		}.doLoop(rs, context);
 	}
@@ -0,0 +1,38 @@
+package org.nutz.dao.impl.sql.pojo;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.nutz.dao.entity.RowMaker;
+import org.nutz.dao.pager.ResultSetLooping;
+import org.nutz.dao.sql.Pojo;
+import org.nutz.dao.sql.PojoCallback;
+import org.nutz.dao.sql.SqlContext;
+import org.nutz.lang.Each;
+
+/**
+ * 将结果集的每一行转换成实体对象，逐个交给回调，返回共遍历的对象数量
+ */
+public class PojoEachEntityCallback implements PojoCallback {
+
+	private Each<Object> callback;
+
+	@SuppressWarnings("unchecked")
+	public PojoEachEntityCallback(Each<?> callback) {
+		this.callback = (Each<Object>) callback;
+	}
+
+	public Object invoke(Connection conn, ResultSet rs, final Pojo pojo) throws SQLException {
+		return new ResultSetLooping() {
+			private RowMaker<?> maker;
+
+			protected Object createObject(ResultSet rs, SqlContext context) {
+				if (null == maker)
+					maker = pojo.getEntity().getRowMaker(rs, context.getFieldMatcher());
+				return maker.make(rs);
+			}
+		}.doEach(rs, pojo.getContext(), callback);
+	}
+
+}
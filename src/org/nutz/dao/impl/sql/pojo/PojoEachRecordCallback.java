@@ -0,0 +1,34 @@
+package org.nutz.dao.impl.sql.pojo;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.nutz.dao.entity.Record;
+import org.nutz.dao.pager.ResultSetLooping;
+import org.nutz.dao.sql.Pojo;
+import org.nutz.dao.sql.PojoCallback;
+import org.nutz.dao.sql.SqlContext;
+import org.nutz.lang.Each;
+
+/**
+ * 将结果集的每一行转换成 Record，逐个交给回调，返回共遍历的记录数量
+ */
+public class PojoEachRecordCallback implements PojoCallback {
+
+	private Each<Object> callback;
+
+	@SuppressWarnings("unchecked")
+	public PojoEachRecordCallback(Each<?> callback) {
+		this.callback = (Each<Object>) callback;
+	}
+
+	public Object invoke(Connection conn, ResultSet rs, Pojo pojo) throws SQLException {
+		return new ResultSetLooping() {
+			protected Object createObject(ResultSet rs, SqlContext context) {
+				return Record.create(rs);
+			}
+		}.doEach(rs, pojo.getContext(), callback);
+	}
+
+}
@@ -4,6 +4,7 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
+import org.nutz.dao.entity.RowMaker;
 import org.nutz.dao.pager.ResultSetLooping;
 import org.nutz.dao.sql.Pojo;
 import org.nutz.dao.sql.PojoCallback;
@@ -13,8 +14,12 @@ public class PojoQueryEntityCallback implements PojoCallback {
 
 	public Object invoke(Connection conn, ResultSet rs, final Pojo pojo) throws SQLException {
 		return new ResultSetLooping() {
+			private RowMaker<?> maker;
+
 			protected Object createObject(ResultSet rs, SqlContext context) {
-				return pojo.getEntity().getObject(rs, context.getFieldMatcher());
+				if (null == maker)
+					maker = pojo.getEntity().getRowMaker(rs, context.getFieldMatcher());
+				return maker.make(rs);
 			}
 		}.doLoop(rs, pojo.getContext());
 	}
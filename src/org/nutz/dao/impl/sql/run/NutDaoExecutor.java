@@ -12,18 +12,23 @@ import org.nutz.dao.DaoException;
 import org.nutz.dao.impl.DaoExecutor;
 import org.nutz.dao.jdbc.ValueAdaptor;
 import org.nutz.dao.sql.DaoStatement;
+import org.nutz.dao.sql.SqlContext;
 import org.nutz.dao.util.Daos;
 import org.nutz.lang.Lang;
 import org.nutz.log.Log;
 import org.nutz.log.Logs;
+import org.nutz.trans.StatementCache;
+import org.nutz.trans.Trans;
+import org.nutz.trans.Transaction;
 
 public class NutDaoExecutor implements DaoExecutor {
 
 	private static final Log log = Logs.get();
 
 	public void exec(Connection conn, DaoStatement st) {
-		// 这个变量声明，后面两 case 要用到
+		// 这两个变量声明，后面两 case 要用到
 		Object[][] paramMatrix;
+		int rowCount;
 
 		// 在这个块里执行语句
 		try {
@@ -37,7 +42,8 @@ public class NutDaoExecutor implements DaoExecutor {
 			switch (st.getSqlType()) {
 			// 查询
 			case SELECT:
-				paramMatrix = st.getParamMatrix();
+				rowCount = st.getParamRowCount();
+				paramMatrix = rowCount > 0 ? st.getParamMatrix(0, 1) : null;
 
 				// 木有参数，直接运行
 				if (null == paramMatrix || paramMatrix.length == 0 || paramMatrix[0].length == 0) {
@@ -74,10 +80,10 @@ public class NutDaoExecutor implements DaoExecutor {
 					String sql = st.toPreparedStatement();
 
 					// 打印调试信息
-					if (paramMatrix.length > 1) {
+					if (rowCount > 1) {
 						if (log.isWarnEnabled())
 							log.warnf(	"Drop last %d rows parameters for:\n%s",
-										paramMatrix.length - 1,
+										rowCount - 1,
 										st);
 					} else if (log.isDebugEnabled()) {
 						log.debug(st);
@@ -85,14 +91,20 @@ public class NutDaoExecutor implements DaoExecutor {
 
 					// 准备运行语句
 					ValueAdaptor[] adaptors = st.getAdaptors();
+					StatementCache cache = _cache(conn);
+					int rsType = st.getContext().getResultSetType();
 
+					boolean statIsClosed = false;
 					PreparedStatement pstat = null;
 					ResultSet rs = null;
 					try {
 						// 创建语句并设置参数
-						pstat = conn.prepareStatement(	sql,
-														st.getContext().getResultSetType(),
-														ResultSet.CONCUR_READ_ONLY);
+						pstat = _prepare(conn, cache, sql, rsType);
+						if (st.getContext().getFetchSize() > 0)
+							pstat.setFetchSize(st.getContext().getFetchSize());
+						// 缓存的语句可能被之前的执行设置过
+						else if (null != cache)
+							pstat.setFetchSize(0);
 						for (int i = 0; i < paramMatrix[0].length; i++) {
 							adaptors[i].set(pstat, paramMatrix[0][i], i + 1);
 						}
@@ -100,9 +112,14 @@ public class NutDaoExecutor implements DaoExecutor {
 
 						// 执行回调
 						st.onAfter(conn, rs);
+
+						Daos.safeClose(rs);
+						_release(cache, sql, rsType, pstat);
+						statIsClosed = true;
 					}
 					finally {
-						Daos.safeClose(pstat, rs);
+						if (!statIsClosed)
+							Daos.safeClose(pstat, rs);
 					}
 
 					// 打印更详细的调试信息
@@ -115,14 +132,14 @@ public class NutDaoExecutor implements DaoExecutor {
 			case DELETE:
 			case UPDATE:
 			case INSERT:
-				paramMatrix = st.getParamMatrix();
+				rowCount = st.getParamRowCount();
 				// 木有参数，直接运行
-				if (null == paramMatrix || paramMatrix.length == 0) {
+				if (rowCount == 0) {
 					_runStatement(conn, st);
 				}
 				// 有参数，用缓冲语句
 				else {
-					_runPreparedStatement(conn, st, paramMatrix);
+					_runPreparedStatement(conn, st, rowCount);
 				}
 				// 运行回调
 				st.onAfter(conn, null);
@@ -153,11 +170,12 @@ public class NutDaoExecutor implements DaoExecutor {
 
 	}
 
-	private void _runPreparedStatement(Connection conn, DaoStatement st, Object[][] paramMatrix)
+	private void _runPreparedStatement(Connection conn, DaoStatement st, int rowCount)
 			throws SQLException {
 		ValueAdaptor[] adaptors = st.getAdaptors();
-		if (adaptors.length != paramMatrix[0].length)
-			throw Lang.makeThrow("DaoStatement adaptor MUST same width with param matrix.");
+		SqlContext context = st.getContext();
+
+		StatementCache cache = _cache(conn);
 
 		boolean statIsClosed = false;
 		String sql = st.toPreparedStatement();
@@ -169,42 +187,58 @@ public class NutDaoExecutor implements DaoExecutor {
 
 		try {
 			// 创建 SQL 语句
-			pstat = conn.prepareStatement(sql);
+			pstat = _prepare(conn, cache, sql, ResultSet.TYPE_FORWARD_ONLY);
 
 			// 就一条记录，不要批了吧
-			if (paramMatrix.length == 1) {
+			if (rowCount == 1) {
+				Object[][] paramMatrix = st.getParamMatrix(0, 1);
+				_checkWidth(adaptors, paramMatrix);
 				for (int i = 0; i < paramMatrix[0].length; i++) {
 					adaptors[i].set(pstat, paramMatrix[0][i], i + 1);
 				}
 				pstat.execute();
 
-				st.getContext().setUpdateCount(pstat.getUpdateCount());
-				pstat.close();
+				context.setUpdateCount(pstat.getUpdateCount());
+				_release(cache, sql, ResultSet.TYPE_FORWARD_ONLY, pstat);
 				statIsClosed = true;
 			}
-			// 恩，批
+			// 恩，批，每 batchSize 行执行一次，免得参数矩阵和驱动的缓冲把内存撑爆
 			else {
+				int batchSize = context.getBatchSize();
+				if (batchSize <= 0 || batchSize > rowCount)
+					batchSize = rowCount;
+				int batchesPerCommit = context.getBatchesPerCommit();
+
 				boolean oldAutoCommit = conn.getAutoCommit();
 				conn.setAutoCommit(false);
-				for (Object[] params : paramMatrix) {
-					for (int i = 0; i < params.length; i++) {
-						adaptors[i].set(pstat, params[i], i + 1);
+				int sum = 0;
+				int batchCount = 0;
+				for (int from = 0; from < rowCount; from += batchSize) {
+					int len = Math.min(batchSize, rowCount - from);
+					Object[][] paramMatrix = st.getParamMatrix(from, len);
+					if (from == 0)
+						_checkWidth(adaptors, paramMatrix);
+					for (Object[] params : paramMatrix) {
+						for (int i = 0; i < params.length; i++) {
+							adaptors[i].set(pstat, params[i], i + 1);
+						}
+						pstat.addBatch();
 					}
-					pstat.addBatch();//需要配置一下batchSize,嘻嘻,不然分分钟爆内存!!
+					// 计算总共影响的行数
+					sum += _sumUpdateCounts(pstat.executeBatch());
+					batchCount++;
+
+					// 中途提交
+					if (batchesPerCommit > 0 && batchCount % batchesPerCommit == 0)
+						conn.commit();
 				}
-				int[] counts = pstat.executeBatch();
 
-				pstat.close();
+				_release(cache, sql, ResultSet.TYPE_FORWARD_ONLY, pstat);
 				statIsClosed = true;
 				conn.commit();
 				conn.setAutoCommit(oldAutoCommit);
 
-				// 计算总共影响的行数
-				int sum = 0;
-				for (int i : counts)
-					sum += i;
-
-				st.getContext().setUpdateCount(sum);
+				context.setUpdateCount(sum);
 			}
 		}
 		finally {
@@ -217,6 +251,57 @@ public class NutDaoExecutor implements DaoExecutor {
 			log.trace("...DONE");
 	}
 
+	/**
+	 * @return 当前事务为这个连接准备的语句缓存，没有事务或者没有开启缓存时返回 null
+	 */
+	private static StatementCache _cache(Connection conn) {
+		Transaction t = Trans.get();
+		return null == t ? null : t.getStatementCache(conn);
+	}
+
+	private static PreparedStatement _prepare(	Connection conn,
+												StatementCache cache,
+												String sql,
+												int rsType) throws SQLException {
+		if (null == cache)
+			return conn.prepareStatement(sql, rsType, ResultSet.CONCUR_READ_ONLY);
+		return cache.prepare(sql, rsType, ResultSet.CONCUR_READ_ONLY);
+	}
+
+	/**
+	 * 用完的语句，有缓存就放回缓存，否则关闭
+	 */
+	private static void _release(	StatementCache cache,
+									String sql,
+									int rsType,
+									PreparedStatement pstat) throws SQLException {
+		if (null == cache)
+			pstat.close();
+		else
+			cache.release(sql, rsType, ResultSet.CONCUR_READ_ONLY, pstat);
+	}
+
+	private static void _checkWidth(ValueAdaptor[] adaptors, Object[][] paramMatrix) {
+		if (adaptors.length != paramMatrix[0].length)
+			throw Lang.makeThrow("DaoStatement adaptor MUST same width with param matrix.");
+	}
+
+	/**
+	 * 累加 executeBatch 返回的影响行数。
+	 * <p>
+	 * 某些驱动（比如 Oracle）对每一行都返回 SUCCESS_NO_INFO，这时按影响了一行计算
+	 */
+	private static int _sumUpdateCounts(int[] counts) {
+		int sum = 0;
+		for (int i : counts) {
+			if (i > 0)
+				sum += i;
+			else if (i == Statement.SUCCESS_NO_INFO)
+				sum++;
+		}
+		return sum;
+	}
+
 	private void _runStatement(Connection conn, DaoStatement st) throws SQLException {
 		boolean statIsClosed = false;
 		Statement stat = null;
@@ -90,4 +90,27 @@ public interface JdbcExpert {
 	 */
 	void formatQuery(Pojo pojo);
 
+	/**
+	 * 一条语句里最多能有多少个参数。批量获取关联对象时，会根据它把 IN (...) 查询分成几条执行
+	 * 
+	 * @return 参数个数的上限
+	 */
+	int getMaxParamCount();
+
+	/**
+	 * 改造一条分页查询语句，让它在查出本页数据的同时，也能得到符合条件的记录总数
+	 * <ul>
+	 * <li>返回 null，表示数据库不支持，语句不会被修改
+	 * <li>返回语句本身，表示结果集的每一行都带有一个名为 Pojos.TOTAL_COUNT 的列，值为记录总数
+	 * <li>返回另外一条语句，表示要在同一个连接上紧接着执行它，它的 getInt() 就是记录总数
+	 * </ul>
+	 * 只要不返回 null，语句都已经按照翻页信息格式化过了，不需要再调用 formatQuery
+	 * 
+	 * @param pojo
+	 *            Dao 查询语句
+	 * @return 怎样得到记录总数
+	 * @see org.nutz.dao.Dao#queryPage(Class, org.nutz.dao.Condition, org.nutz.dao.pager.Pager)
+	 */
+	Pojo formatQueryWithCount(Pojo pojo);
+
 }
@@ -221,11 +221,15 @@ public abstract class Jdbcs {
 		/**
 		 * 空值适配器
 		 */
-		public static final ValueAdaptor asNull = new ValueAdaptor() {
+		public static final ValueAdaptor asNull = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				return null;
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				return null;
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				stat.setNull(i, Types.NULL);
 			};
@@ -235,11 +239,15 @@ public abstract class Jdbcs {
 		/**
 		 * 字符串适配器
 		 */
-		public static final ValueAdaptor asString = new ValueAdaptor() {
+		public static final ValueAdaptor asString = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				return rs.getString(colName);
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				return rs.getString(colIndex);
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				if (null == obj) {
 					stat.setString(i, null);
@@ -252,7 +260,7 @@ public abstract class Jdbcs {
 		/**
 		 * 字符适配器
 		 */
-		public static final ValueAdaptor asChar = new ValueAdaptor() {
+		public static final ValueAdaptor asChar = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				String re = Strings.trim(rs.getString(colName));
 				if (re == null || re.length() == 0)
@@ -260,6 +268,13 @@ public abstract class Jdbcs {
 				return re;
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				String re = Strings.trim(rs.getString(colIndex));
+				if (re == null || re.length() == 0)
+					return null;
+				return re;
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				if (null == obj) {
 					stat.setString(i, null);
@@ -281,12 +296,17 @@ public abstract class Jdbcs {
 		/**
 		 * 整型适配器
 		 */
-		public static final ValueAdaptor asInteger = new ValueAdaptor() {
+		public static final ValueAdaptor asInteger = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				int re = rs.getInt(colName);
 				return rs.wasNull() ? null : re;
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				int re = rs.getInt(colIndex);
+				return rs.wasNull() ? null : re;
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				if (null == obj) {
 					stat.setNull(i, Types.INTEGER);
@@ -304,11 +324,15 @@ public abstract class Jdbcs {
 		/**
 		 * 大数适配器
 		 */
-		public static final ValueAdaptor asBigDecimal = new ValueAdaptor() {
+		public static final ValueAdaptor asBigDecimal = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				return rs.getBigDecimal(colName);
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				return rs.getBigDecimal(colIndex);
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				if (null == obj) {
 					stat.setNull(i, Types.BIGINT);
@@ -331,12 +355,17 @@ public abstract class Jdbcs {
 		 * 对 Oracle，Types.BOOLEAN 对于 setNull 是不工作的 因此 OracleExpert 会用一个新的
 		 * Adaptor 处理自己这种特殊情况
 		 */
-		public static final ValueAdaptor asBoolean = new ValueAdaptor() {
+		public static final ValueAdaptor asBoolean = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				boolean re = rs.getBoolean(colName);
 				return rs.wasNull() ? null : re;
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				boolean re = rs.getBoolean(colIndex);
+				return rs.wasNull() ? null : re;
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				if (null == obj) {
 					stat.setNull(i, Types.BOOLEAN);
@@ -358,12 +387,17 @@ public abstract class Jdbcs {
 		/**
 		 * 长整适配器
 		 */
-		public static final ValueAdaptor asLong = new ValueAdaptor() {
+		public static final ValueAdaptor asLong = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				long re = rs.getLong(colName);
 				return rs.wasNull() ? null : re;
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				long re = rs.getLong(colIndex);
+				return rs.wasNull() ? null : re;
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				if (null == obj) {
 					stat.setNull(i, Types.INTEGER);
@@ -381,12 +415,17 @@ public abstract class Jdbcs {
 		/**
 		 * 字节适配器
 		 */
-		public static final ValueAdaptor asByte = new ValueAdaptor() {
+		public static final ValueAdaptor asByte = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				byte re = rs.getByte(colName);
 				return rs.wasNull() ? null : re;
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				byte re = rs.getByte(colIndex);
+				return rs.wasNull() ? null : re;
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				if (null == obj) {
 					stat.setNull(i, Types.TINYINT);
@@ -404,12 +443,17 @@ public abstract class Jdbcs {
 		/**
 		 * 短整型适配器
 		 */
-		public static final ValueAdaptor asShort = new ValueAdaptor() {
+		public static final ValueAdaptor asShort = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				short re = rs.getShort(colName);
 				return rs.wasNull() ? null : re;
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				short re = rs.getShort(colIndex);
+				return rs.wasNull() ? null : re;
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				if (null == obj) {
 					stat.setNull(i, Types.SMALLINT);
@@ -427,12 +471,17 @@ public abstract class Jdbcs {
 		/**
 		 * 浮点适配器
 		 */
-		public static final ValueAdaptor asFloat = new ValueAdaptor() {
+		public static final ValueAdaptor asFloat = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				float re = rs.getFloat(colName);
 				return rs.wasNull() ? null : re;
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				float re = rs.getFloat(colIndex);
+				return rs.wasNull() ? null : re;
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				if (null == obj) {
 					stat.setNull(i, Types.FLOAT);
@@ -450,12 +499,17 @@ public abstract class Jdbcs {
 		/**
 		 * 双精度浮点适配器
 		 */
-		public static final ValueAdaptor asDouble = new ValueAdaptor() {
+		public static final ValueAdaptor asDouble = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				double re = rs.getDouble(colName);
 				return rs.wasNull() ? null : re;
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				double re = rs.getDouble(colIndex);
+				return rs.wasNull() ? null : re;
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				if (null == obj) {
 					stat.setNull(i, Types.DOUBLE);
@@ -473,7 +527,7 @@ public abstract class Jdbcs {
 		/**
 		 * 日历适配器
 		 */
-		public static final ValueAdaptor asCalendar = new ValueAdaptor() {
+		public static final ValueAdaptor asCalendar = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				Timestamp ts = rs.getTimestamp(colName);
 				if (null == ts)
@@ -483,6 +537,15 @@ public abstract class Jdbcs {
 				return c;
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				Timestamp ts = rs.getTimestamp(colIndex);
+				if (null == ts)
+					return null;
+				Calendar c = Calendar.getInstance();
+				c.setTimeInMillis(ts.getTime());
+				return c;
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				if (null == obj) {
 					stat.setNull(i, Types.TIMESTAMP);
@@ -500,11 +563,15 @@ public abstract class Jdbcs {
 		/**
 		 * 时间戳适配器
 		 */
-		public static final ValueAdaptor asTimestamp = new ValueAdaptor() {
+		public static final ValueAdaptor asTimestamp = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				return rs.getTimestamp(colName);
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				return rs.getTimestamp(colIndex);
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				if (null == obj) {
 					stat.setNull(i, Types.TIMESTAMP);
@@ -522,12 +589,17 @@ public abstract class Jdbcs {
 		/**
 		 * 日期适配器
 		 */
-		public static final ValueAdaptor asDate = new ValueAdaptor() {
+		public static final ValueAdaptor asDate = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				Timestamp ts = rs.getTimestamp(colName);
 				return null == ts ? null : new java.util.Date(ts.getTime());
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				Timestamp ts = rs.getTimestamp(colIndex);
+				return null == ts ? null : new java.util.Date(ts.getTime());
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				Timestamp v;
 				if (null == obj) {
@@ -545,11 +617,15 @@ public abstract class Jdbcs {
 		/**
 		 * Sql 日期适配器
 		 */
-		public static final ValueAdaptor asSqlDate = new ValueAdaptor() {
+		public static final ValueAdaptor asSqlDate = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				return rs.getDate(colName);
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				return rs.getDate(colIndex);
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				if (null == obj) {
 					stat.setNull(i, Types.DATE);
@@ -567,11 +643,15 @@ public abstract class Jdbcs {
 		/**
 		 * Sql 时间适配器
 		 */
-		public static final ValueAdaptor asSqlTime = new ValueAdaptor() {
+		public static final ValueAdaptor asSqlTime = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				return rs.getTime(colName);
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				return rs.getTime(colIndex);
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				java.sql.Time v;
 				if (null == obj) {
@@ -589,12 +669,17 @@ public abstract class Jdbcs {
 		/**
 		 * 数字枚举适配器
 		 */
-		public static final ValueAdaptor asEnumInt = new ValueAdaptor() {
+		public static final ValueAdaptor asEnumInt = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				int re = rs.getInt(colName);
 				return rs.wasNull() ? null : re;
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				int re = rs.getInt(colIndex);
+				return rs.wasNull() ? null : re;
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				if (null == obj) {
 					stat.setNull(i, Types.INTEGER);
@@ -612,11 +697,15 @@ public abstract class Jdbcs {
 		/**
 		 * 字符枚举适配器
 		 */
-		public static final ValueAdaptor asEnumChar = new ValueAdaptor() {
+		public static final ValueAdaptor asEnumChar = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				return rs.getString(colName);
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				return rs.getString(colIndex);
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				if (null == obj) {
 					stat.setString(i, null);
@@ -630,11 +719,15 @@ public abstract class Jdbcs {
 		/**
 		 * 默认对象适配器
 		 */
-		public static final ValueAdaptor asObject = new ValueAdaptor() {
+		public static final ValueAdaptor asObject = new ValueAdaptor2() {
 			public Object get(ResultSet rs, String colName) throws SQLException {
 				return rs.getObject(colName);
 			}
 
+			public Object get(ResultSet rs, int colIndex) throws SQLException {
+				return rs.getObject(colIndex);
+			}
+
 			public void set(PreparedStatement stat, Object obj, int i) throws SQLException {
 				if (null == obj) {
 					stat.setString(i, null);
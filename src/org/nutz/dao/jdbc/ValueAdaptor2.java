@@ -0,0 +1,29 @@
+package org.nutz.dao.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 可以按列的下标取值的适配器
+ * <p>
+ * 按列名取值时，JDBC 驱动每次都要查找列的位置。在逐行读取大量记录时，预先确定好列的下标，<br>
+ * 再按下标取值会更快。Nutz 内置的适配器都实现了这个接口，自定义的适配器可以只实现 ValueAdaptor，<br>
+ * 这时仍然按列名取值
+ *
+ * @see org.nutz.dao.jdbc.ValueAdaptor
+ */
+public interface ValueAdaptor2 extends ValueAdaptor {
+
+	/**
+	 * 从结果集里获取一个字段的值
+	 *
+	 * @param rs
+	 *            结果集
+	 * @param colIndex
+	 *            列的下标，从 1 开始
+	 * @return 字段值
+	 * @throws SQLException
+	 */
+	Object get(ResultSet rs, int colIndex) throws SQLException;
+
+}
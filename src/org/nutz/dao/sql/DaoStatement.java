@@ -55,6 +55,27 @@ public interface DaoStatement {
 	 */
 	Object[][] getParamMatrix();
 
+	/**
+	 * @return 参数矩阵的行数，即本语句需要执行的次数
+	 */
+	int getParamRowCount();
+
+	/**
+	 * 获取参数矩阵的一个片段。
+	 * <p>
+	 * 执行器批量执行大量数据时，会通过这个函数分段获取参数，<br>
+	 * 以避免一次性在内存中构建整个参数矩阵
+	 *
+	 * @param from
+	 *            起始行（包括）
+	 * @param len
+	 *            行数
+	 * @return 参数矩阵的片段，下标意义同 getParamMatrix()
+	 *
+	 * @see #getParamMatrix()
+	 */
+	Object[][] getParamMatrix(int from, int len);
+
 	/**
 	 * 将 Dao 语句转换为 JDBC SQL 缓冲语句
 	 * 
@@ -21,6 +21,10 @@ public class SqlContext {
 
 	private int resultSetType;
 
+	private int batchSize;
+
+	private int batchesPerCommit;
+
 	private Pager pager;
 
 	private Map<String, Object> attrs;
@@ -93,6 +97,28 @@ public class SqlContext {
 		this.resultSetType = resultSetType;
 	}
 
+	/**
+	 * @return 批量执行时，每次 executeBatch 的最大行数。小于等于 0 表示不分批
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * @return 分批执行时，每执行多少批提交一次。小于等于 0 表示全部执行完毕再提交
+	 */
+	public int getBatchesPerCommit() {
+		return batchesPerCommit;
+	}
+
+	public void setBatchesPerCommit(int batchesPerCommit) {
+		this.batchesPerCommit = batchesPerCommit;
+	}
+
 	public Pager getPager() {
 		return pager;
 	}
@@ -38,6 +38,13 @@ import org.nutz.lang.Strings;
 
 public abstract class Pojos {
 
+	/**
+	 * 分页查询时，存放记录总数的列名
+	 * 
+	 * @see org.nutz.dao.jdbc.JdbcExpert#formatQueryWithCount(Pojo)
+	 */
+	public static final String TOTAL_COUNT = "NUTZ_TOTAL_COUNT_";
+
 	// ==========================================================
 	// 以下是创建 POJO 语句元素的帮助方法
 	public static class Items {
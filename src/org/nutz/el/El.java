@@ -1,13 +1,43 @@
 package org.nutz.el;
 
+import java.util.Iterator;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.nutz.el.arithmetic.ShuntingYard;
 import org.nutz.el.arithmetic.RPN;
+import org.nutz.el.compile.ElCompiler;
+import org.nutz.el.compile.ElNode;
 import org.nutz.lang.util.Context;
 
+/**
+ * EL 表达式
+ * <p>
+ * 预编译后的表达式在计算的时候不保存任何状态,context 作为参数一路传给各个操作符,<br>
+ * 所以一个 El 对象可以被多个线程同时使用.
+ * <p>
+ * 静态的 eval(Context, String) 会把编译好的表达式缓存起来,同样的表达式不再重复解析.<br>
+ * 缓存的大小是有限的,超出时会随便淘汰掉一条,默认最多 1000 条.设置为 0 则关闭缓存
+ * <p>
+ * 反复计算的表达式可以调用 optimize() 把操作树编译成执行树,执行树默认还会生成为字节码,参见 ElCompiler.<br>
+ * El.setOptimize(true) 以后,缓存的表达式都会被编译
+ */
 public class El {
+
+	private static final ConcurrentHashMap<String, El> cache = new ConcurrentHashMap<String, El>();
+
+	private static final AtomicLong hits = new AtomicLong();
+
+	private static final AtomicLong misses = new AtomicLong();
+
+	private static volatile int cacheSize = 1000;
+
+	private static volatile boolean optimize;
+
 	private RPN rc = null;
+
+	private volatile ElNode node;
 	
 	public El(){}
 	/**
@@ -22,12 +52,30 @@ public class El {
 	 * 解析预编译后的EL表达式
 	 */
 	public Object eval(Context context) {
+		ElNode n = node;
+		if(n != null){
+			return n.eval(context);
+		}
 		if(rc == null){
 			throw new ElException("没有进行预编译!");
 		}
 		return rc.calculate(context);
 	}
 
+	/**
+	 * 把预编译的操作树编译成执行树,以后的计算都通过执行树进行
+	 * @return 自身
+	 */
+	public El optimize() {
+		if(rc == null){
+			throw new ElException("没有进行预编译!");
+		}
+		if(node == null){
+			node = ElCompiler.compile(rc.fetchRoot());
+		}
+		return this;
+	}
+
 	/**
 	 * 对参数代表的表达式进行运算
 	 */
@@ -37,10 +85,87 @@ public class El {
 	}
 
 	public static Object eval(Context context, String val) {
-		ShuntingYard sy = new ShuntingYard();
-		RPN rc = new RPN();
-		Queue<Object> rpn = sy.parseToRPN(val);
-		return rc.calculate(context, rpn);
+		if (cacheSize <= 0) {
+			ShuntingYard sy = new ShuntingYard();
+			RPN rc = new RPN();
+			Queue<Object> rpn = sy.parseToRPN(val);
+			return rc.calculate(context, rpn);
+		}
+		return compile(val).eval(context);
+	}
+
+	/**
+	 * 取得一个预编译的表达式,如果缓存里没有,编译并缓存它
+	 */
+	public static El compile(String val) {
+		if (cacheSize <= 0)
+			return new El(val);
+		El el = cache.get(val);
+		if (null != el) {
+			hits.incrementAndGet();
+			return el;
+		}
+		misses.incrementAndGet();
+		el = new El(val);
+		if (optimize)
+			el.optimize();
+		// 超出了大小,淘汰掉一些
+		if (cache.size() >= cacheSize) {
+			Iterator<String> it = cache.keySet().iterator();
+			while (cache.size() >= cacheSize && it.hasNext()) {
+				it.next();
+				it.remove();
+			}
+		}
+		cache.put(val, el);
+		return el;
+	}
+
+	/**
+	 * @param size
+	 *            缓存的最大条数,0 表示关闭缓存
+	 */
+	public static void setCacheSize(int size) {
+		cacheSize = size;
+		if (size <= 0)
+			cache.clear();
+	}
+
+	public static int getCacheSize() {
+		return cacheSize;
+	}
+
+	/**
+	 * @param optimize
+	 *            缓存的表达式是否编译成执行树,改变以后会清除缓存
+	 */
+	public static void setOptimize(boolean optimize) {
+		El.optimize = optimize;
+		cache.clear();
+	}
+
+	public static boolean isOptimize() {
+		return optimize;
+	}
+
+	/**
+	 * 清除缓存以及计数
+	 */
+	public static void clearCache() {
+		cache.clear();
+		hits.set(0);
+		misses.set(0);
+	}
+
+	public static String dumpCache() {
+		long h = hits.get();
+		long m = misses.get();
+		return String.format(	"El cache: size=%d/%d, hits=%d, misses=%d, hit rate=%.2f%%",
+								cache.size(),
+								cacheSize,
+								h,
+								m,
+								h + m == 0 ? 0 : h * 100.0 / (h + m));
 	}
 	
 	
@@ -2,6 +2,8 @@ package org.nutz.el;
 
 import java.util.Queue;
 
+import org.nutz.lang.util.Context;
+
 /**
  * 操作符
  * @author juqkai(juqkai@gmail.com)
@@ -23,7 +25,8 @@ public interface Operator {
 
 	/**
 	 * 计算
+	 * @param context 变量的上下文,操作符本身不保存它,所以编译好的操作树可以被多个线程同时使用
 	 */
-	public Object calculate();
+	public Object calculate(Context context);
 
 }
@@ -4,7 +4,6 @@ import java.util.Deque;
 import java.util.LinkedList;
 import java.util.Queue;
 
-import org.nutz.el.ElCache;
 import org.nutz.el.Operator;
 import org.nutz.el.obj.IdentifierObj;
 import org.nutz.lang.util.Context;
@@ -17,9 +16,7 @@ import org.nutz.lang.util.Context;
  *
  */
 public class RPN {
-	//存放context
-	private final ElCache ec = new ElCache();
-	//预编译后的对象
+	//预编译后的对象,编译以后不再改变,context 在计算的时候传入,所以可以被多个线程同时使用
 	private Deque<Object> el;
 	
 	public RPN() {}
@@ -35,32 +32,37 @@ public class RPN {
 	 * 执行已经预编译的EL
 	 */
 	public Object calculate(Context context){
-		ec.setContext(context);
-		return calculate(el);
+		return calculate(context, el);
 	}
 	/**
 	 * 根据逆波兰表达式进行计算
 	 */
 	public Object calculate(Context context, Queue<Object> rpn) {
-		ec.setContext(context);
 		Deque<Object> operand = OperatorTree(rpn);
-		return calculate(operand);
+		return calculate(context, operand);
 	}
 	
 	/**
 	 * 计算
 	 */
-	private Object calculate(Deque<Object> el2){
+	private Object calculate(Context context, Deque<Object> el2){
 		if(el2.peek() instanceof Operator){
 			Operator obj = (Operator) el2.peek();
-			return obj.calculate();
+			return obj.calculate(context);
 		}
 		if(el2.peek() instanceof IdentifierObj){
-			return ((IdentifierObj) el2.peek()).fetchVal();
+			return ((IdentifierObj) el2.peek()).fetchVal(context);
 		}
 		return el2.peek();
 	}
 	
+	/**
+	 * 取得预编译后的操作树的根
+	 */
+	public Object fetchRoot(){
+		return el.peek();
+	}
+	
 	/**
 	 * 预先编译
 	 */
@@ -80,9 +82,6 @@ public class RPN {
 				operand.addFirst(opt);
 				continue;
 			}
-			if(rpn.peek() instanceof IdentifierObj){
-				((IdentifierObj) rpn.peek()).setEc(ec);
-			}
 			operand.addFirst(rpn.poll());
 		}
 		return operand;
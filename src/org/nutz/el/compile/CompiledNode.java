@@ -0,0 +1,72 @@
+package org.nutz.el.compile;
+
+import org.nutz.el.ElException;
+import org.nutz.lang.util.Context;
+
+/**
+ * 由 ElClassMaker 生成的类的父类
+ * <p>
+ * 生成的类在另外一个 ClassLoader 里,访问不到本包的执行树节点,所以字节码不能直接处理的操作,<br>
+ * 都通过这里的方法交给执行树的节点计算。参数 index 是节点在 nodes 里的下标
+ */
+public abstract class CompiledNode extends ElNode {
+
+	private ElNode[] nodes;
+
+	void init(ElNode[] nodes) {
+		this.nodes = nodes;
+	}
+
+	/**
+	 * 整个交给节点计算
+	 */
+	protected final Object delegate(int index, Context context) {
+		return nodes[index].eval(context);
+	}
+
+	protected final Object property(int index, Object obj) {
+		return ((PropertyNode) nodes[index]).get(obj);
+	}
+
+	protected final Object invoke(int index, Object obj, Object[] args) {
+		return ((MethodNode) nodes[index]).invoke(obj, args);
+	}
+
+	protected final Object index(int index, Object lval, Object rval) {
+		return ((ElCompiler.Index) nodes[index]).get(lval, rval);
+	}
+
+	protected static Object arg(Context context, Object val) {
+		return MethodNode.arg(context, val);
+	}
+
+	protected static Object calculate(int op, Object lval, Object rval) {
+		return NumberNode.calculate(op, lval, rval);
+	}
+
+	protected static boolean compare(int op, Object lval, Object rval) {
+		return (Boolean) NumberNode.calculate(op, lval, rval);
+	}
+
+	protected static boolean equal(Object lval, Object rval) {
+		return ElCompiler.Equal.equal(lval, rval);
+	}
+
+	protected static Object negative(Object rval) {
+		return ElCompiler.Negative.negative(rval);
+	}
+
+	protected static Object complement(Object rval) {
+		return ElCompiler.Complement.complement(rval);
+	}
+
+	/**
+	 * 逻辑运算的操作数必须是 Boolean
+	 */
+	protected static boolean bool(Object val, String msg) {
+		if (val instanceof Boolean)
+			return (Boolean) val;
+		throw new ElException(msg);
+	}
+
+}
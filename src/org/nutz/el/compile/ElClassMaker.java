@@ -0,0 +1,682 @@
+package org.nutz.el.compile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.nutz.aop.DefaultClassDefiner;
+import org.nutz.el.compile.ElCompiler.Complement;
+import org.nutz.el.compile.ElCompiler.Const;
+import org.nutz.el.compile.ElCompiler.Equal;
+import org.nutz.el.compile.ElCompiler.Index;
+import org.nutz.el.compile.ElCompiler.Logic;
+import org.nutz.el.compile.ElCompiler.Negative;
+import org.nutz.el.compile.ElCompiler.Not;
+import org.nutz.el.compile.ElCompiler.Ternary;
+import org.nutz.el.compile.ElCompiler.Var;
+import org.nutz.lang.util.Context;
+import org.nutz.repo.org.objectweb.asm.ClassWriter;
+import org.nutz.repo.org.objectweb.asm.Label;
+import org.nutz.repo.org.objectweb.asm.MethodVisitor;
+import org.nutz.repo.org.objectweb.asm.Opcodes;
+import org.nutz.repo.org.objectweb.asm.Type;
+
+/**
+ * 用 ASM 把一个表达式的执行树生成为 CompiledNode 的子类
+ * <p>
+ * 整个表达式在一个 eval 方法里计算,不再逐个节点地调用。编译的时候就能确定类型的操作数(常量,以及它们的运算结果),<br>
+ * 直接生成 int,long,float,double 的算术和比较指令,中间结果不装箱。类型不确定的操作数先用 instanceof 判断,<br>
+ * 类型符合的话同样直接计算,否则调用 NumberNode 按实际的类型计算。
+ * <p>
+ * 属性,方法,下标交给对应的执行树节点(它们有内联缓存),不认识的节点整个交给执行树计算,计算的结果与执行树相同。
+ * <p>
+ * 与 FastClassMaker 一样,生成的类版本为 1.5,不必计算 StackMapTable
+ */
+class ElClassMaker implements Opcodes {
+
+	private static final String SUPER_NAME = Type.getInternalName(CompiledNode.class);
+
+	private static final String CONTEXT = Type.getInternalName(Context.class);
+
+	private static final AtomicInteger count = new AtomicInteger();
+
+	// 栈上的值的类型,数字的类型越大,精度越高
+	private static final int OBJECT = 0;
+	private static final int BOOLEAN = 1;
+	private static final int INT = 2;
+	private static final int LONG = 3;
+	private static final int FLOAT = 4;
+	private static final int DOUBLE = 5;
+
+	private ElNode root;
+
+	private String myName;
+
+	private List<ElNode> nodes;
+
+	private MethodVisitor mv;
+
+	private int locals;
+
+	ElClassMaker(ElNode root) {
+		this.root = root;
+		this.myName = SUPER_NAME + "$" + count.incrementAndGet();
+		this.nodes = new ArrayList<ElNode>();
+	}
+
+	/**
+	 * 定义并实例化生成的类
+	 */
+	CompiledNode make() throws Exception {
+		byte[] bytes = toByteArray();
+		DefaultClassDefiner cd = new DefaultClassDefiner(CompiledNode.class.getClassLoader());
+		Class<?> klass = cd.define(myName.replace('/', '.'), bytes);
+		CompiledNode node = (CompiledNode) klass.newInstance();
+		node.init(nodes.toArray(new ElNode[nodes.size()]));
+		return node;
+	}
+
+	byte[] toByteArray() {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(V1_5, ACC_PUBLIC + ACC_SUPER + ACC_FINAL, myName, null, SUPER_NAME, null);
+
+		mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, SUPER_NAME, "<init>", "()V");
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// Object eval(Context context)
+		mv = cw.visitMethod(ACC_PUBLIC, "eval", "(L" + CONTEXT + ";)Ljava/lang/Object;", null, null);
+		mv.visitCode();
+		locals = 2;
+		box(emit(root));
+		mv.visitInsn(ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	/**
+	 * 编译的时候能确定的节点的值的类型,必须与 emit 的返回值一致
+	 */
+	private static int kind(ElNode n) {
+		if (n instanceof Const)
+			return kindOf(((Const) n).value);
+		if (n instanceof NumberNode) {
+			NumberNode nn = (NumberNode) n;
+			if (isCompare(nn.op))
+				return BOOLEAN;
+			int lk = kind(nn.left);
+			int rk = kind(nn.right);
+			if (nn.op >= NumberNode.BIT_AND)
+				return lk == INT && rk == INT ? INT : OBJECT;
+			return lk >= INT && rk >= INT ? Math.max(lk, rk) : OBJECT;
+		}
+		if (n instanceof Equal || n instanceof Logic || n instanceof Not)
+			return BOOLEAN;
+		if (n instanceof Negative) {
+			int k = kind(((Negative) n).right);
+			return k >= INT ? k : OBJECT;
+		}
+		if (n instanceof Complement)
+			return kind(((Complement) n).right) == INT ? INT : OBJECT;
+		if (n instanceof Ternary) {
+			int k = kind(((Ternary) n).yes);
+			return k == kind(((Ternary) n).no) ? k : OBJECT;
+		}
+		return OBJECT;
+	}
+
+	private static int kindOf(Object val) {
+		if (val instanceof Integer)
+			return INT;
+		if (val instanceof Long)
+			return LONG;
+		if (val instanceof Float)
+			return FLOAT;
+		if (val instanceof Double)
+			return DOUBLE;
+		if (val instanceof Boolean)
+			return BOOLEAN;
+		return OBJECT;
+	}
+
+	private static boolean isCompare(int op) {
+		return op >= NumberNode.LT && op <= NumberNode.GTE;
+	}
+
+	/**
+	 * 生成计算一个节点的指令,计算的结果留在栈顶
+	 *
+	 * @return 结果的类型
+	 */
+	private int emit(ElNode n) {
+		if (n instanceof Const)
+			return emitConst((Const) n);
+		if (n instanceof Var) {
+			emitVar(((Var) n).name);
+			return OBJECT;
+		}
+		if (n instanceof NumberNode)
+			return emitNumber((NumberNode) n);
+		if (n instanceof Equal)
+			return emitEqual((Equal) n);
+		if (n instanceof Logic)
+			return emitLogic((Logic) n);
+		if (n instanceof Not) {
+			emitBool(((Not) n).right, "'!'操作符操作失败!");
+			mv.visitInsn(ICONST_1);
+			mv.visitInsn(IXOR);
+			return BOOLEAN;
+		}
+		if (n instanceof Negative)
+			return emitNegative((Negative) n);
+		if (n instanceof Complement)
+			return emitComplement((Complement) n);
+		if (n instanceof Ternary)
+			return emitTernary((Ternary) n);
+		if (n instanceof PropertyNode) {
+			mv.visitVarInsn(ALOAD, 0);
+			pushInt(add(n));
+			box(emit(((PropertyNode) n).target));
+			mv.visitMethodInsn(	INVOKEVIRTUAL,
+								SUPER_NAME,
+								"property",
+								"(ILjava/lang/Object;)Ljava/lang/Object;");
+			return OBJECT;
+		}
+		if (n instanceof MethodNode)
+			return emitMethod((MethodNode) n);
+		if (n instanceof Index) {
+			mv.visitVarInsn(ALOAD, 0);
+			pushInt(add(n));
+			box(emit(((Index) n).left));
+			box(emit(((Index) n).right));
+			mv.visitMethodInsn(	INVOKEVIRTUAL,
+								SUPER_NAME,
+								"index",
+								"(ILjava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;");
+			return OBJECT;
+		}
+		return delegate(n);
+	}
+
+	/**
+	 * 整个节点交给执行树计算
+	 */
+	private int delegate(ElNode n) {
+		mv.visitVarInsn(ALOAD, 0);
+		pushInt(add(n));
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitMethodInsn(INVOKEVIRTUAL, SUPER_NAME, "delegate", "(IL"
+																	+ CONTEXT
+																	+ ";)Ljava/lang/Object;");
+		return OBJECT;
+	}
+
+	private int add(ElNode n) {
+		nodes.add(n);
+		return nodes.size() - 1;
+	}
+
+	private int emitConst(Const c) {
+		Object val = c.value;
+		int k = kindOf(val);
+		if (null == val)
+			mv.visitInsn(ACONST_NULL);
+		else if (k == INT)
+			pushInt((Integer) val);
+		else if (k == BOOLEAN)
+			mv.visitInsn((Boolean) val ? ICONST_1 : ICONST_0);
+		else if (k != OBJECT || val instanceof String)
+			mv.visitLdcInsn(val);
+		else
+			return delegate(c);
+		return k;
+	}
+
+	/**
+	 * 与 Var 对应: context 里有这个名字才取值,否则为 null
+	 */
+	private void emitVar(String name) {
+		Label nul = new Label();
+		Label end = new Label();
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitJumpInsn(IFNULL, nul);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitLdcInsn(name);
+		mv.visitMethodInsn(INVOKEINTERFACE, CONTEXT, "has", "(Ljava/lang/String;)Z");
+		mv.visitJumpInsn(IFEQ, nul);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitLdcInsn(name);
+		mv.visitMethodInsn(INVOKEINTERFACE, CONTEXT, "get", "(Ljava/lang/String;)Ljava/lang/Object;");
+		mv.visitJumpInsn(GOTO, end);
+		mv.visitLabel(nul);
+		mv.visitInsn(ACONST_NULL);
+		mv.visitLabel(end);
+	}
+
+	private int emitNumber(NumberNode n) {
+		int op = n.op;
+		boolean bit = op >= NumberNode.BIT_AND;
+		boolean compare = isCompare(op);
+		int lk = kind(n.left);
+		int rk = kind(n.right);
+
+		// 两边的类型都确定了,直接计算
+		if (bit ? lk == INT && rk == INT : lk >= INT && rk >= INT) {
+			int k = Math.max(lk, rk);
+			convert(emit(n.left), k);
+			convert(emit(n.right), k);
+			return operate(op, k);
+		}
+
+		// 否则先算出两边的值,保存在本地变量里
+		int lvar = store(emit(n.left));
+		int rvar = store(emit(n.right));
+		Label slow = new Label();
+		Label end = new Label();
+
+		// 类型不确定的一边,判断一下是不是按照另外一边的类型(都不确定就按 int)计算,是的话直接计算
+		if (!bit && lk != BOOLEAN && rk != BOOLEAN) {
+			int k = lk >= INT ? lk : (rk >= INT ? rk : INT);
+			if (lk == OBJECT)
+				guard(lvar, k, slow);
+			if (rk == OBJECT)
+				guard(rvar, k, slow);
+			loadAs(lvar, lk, k);
+			loadAs(rvar, rk, k);
+			operate(op, k);
+			if (!compare)
+				box(k);
+			mv.visitJumpInsn(GOTO, end);
+		}
+
+		// 交给 NumberNode 按实际的类型计算
+		mv.visitLabel(slow);
+		pushInt(op);
+		load(lvar, lk);
+		box(lk);
+		load(rvar, rk);
+		box(rk);
+		if (compare)
+			mv.visitMethodInsn(	INVOKESTATIC,
+								SUPER_NAME,
+								"compare",
+								"(ILjava/lang/Object;Ljava/lang/Object;)Z");
+		else
+			mv.visitMethodInsn(	INVOKESTATIC,
+								SUPER_NAME,
+								"calculate",
+								"(ILjava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;");
+		mv.visitLabel(end);
+		return compare ? BOOLEAN : OBJECT;
+	}
+
+	/**
+	 * 本地变量里的对象可以按照 k 计算(与 NumberNode 的规则相同)的话继续,否则跳到 slow
+	 */
+	private void guard(int var, int k, Label slow) {
+		mv.visitVarInsn(ALOAD, var);
+		mv.visitTypeInsn(INSTANCEOF, k == INT ? "java/lang/Integer" : "java/lang/Number");
+		mv.visitJumpInsn(IFEQ, slow);
+		if (k == LONG || k == FLOAT) {
+			mv.visitVarInsn(ALOAD, var);
+			mv.visitTypeInsn(INSTANCEOF, "java/lang/Double");
+			mv.visitJumpInsn(IFNE, slow);
+		}
+		if (k == LONG) {
+			mv.visitVarInsn(ALOAD, var);
+			mv.visitTypeInsn(INSTANCEOF, "java/lang/Float");
+			mv.visitJumpInsn(IFNE, slow);
+		}
+	}
+
+	/**
+	 * 对栈顶的两个 k 类型的值进行计算
+	 *
+	 * @return 结果的类型
+	 */
+	private int operate(int op, int k) {
+		if (isCompare(op)) {
+			// 与 javac 一样,NaN 参与的比较都为 false
+			int cond;
+			if (op == NumberNode.LT)
+				cond = IFLT;
+			else if (op == NumberNode.LTE)
+				cond = IFLE;
+			else if (op == NumberNode.GT)
+				cond = IFGT;
+			else
+				cond = IFGE;
+			boolean less = op == NumberNode.LT || op == NumberNode.LTE;
+			if (k == INT)
+				cond += IF_ICMPLT - IFLT;
+			else if (k == LONG)
+				mv.visitInsn(LCMP);
+			else if (k == FLOAT)
+				mv.visitInsn(less ? FCMPG : FCMPL);
+			else
+				mv.visitInsn(less ? DCMPG : DCMPL);
+			pushCondition(cond);
+			return BOOLEAN;
+		}
+		int opcode;
+		switch (op) {
+		case NumberNode.PLUS:
+			opcode = IADD;
+			break;
+		case NumberNode.SUB:
+			opcode = ISUB;
+			break;
+		case NumberNode.MUL:
+			opcode = IMUL;
+			break;
+		case NumberNode.DIV:
+			opcode = IDIV;
+			break;
+		case NumberNode.MOD:
+			opcode = IREM;
+			break;
+		case NumberNode.BIT_AND:
+			opcode = IAND;
+			break;
+		case NumberNode.BIT_OR:
+			opcode = IOR;
+			break;
+		case NumberNode.BIT_XOR:
+			opcode = IXOR;
+			break;
+		case NumberNode.LEFT_SHIFT:
+			opcode = ISHL;
+			break;
+		case NumberNode.RIGHT_SHIFT:
+			opcode = ISHR;
+			break;
+		default:
+			opcode = IUSHR;
+		}
+		// IADD,LADD,FADD,DADD 等指令是连续的
+		mv.visitInsn(opcode + k - INT);
+		return k;
+	}
+
+	/**
+	 * 条件跳转成立的时候栈顶为 true,否则为 false
+	 */
+	private void pushCondition(int cond) {
+		Label yes = new Label();
+		Label end = new Label();
+		mv.visitJumpInsn(cond, yes);
+		mv.visitInsn(ICONST_0);
+		mv.visitJumpInsn(GOTO, end);
+		mv.visitLabel(yes);
+		mv.visitInsn(ICONST_1);
+		mv.visitLabel(end);
+	}
+
+	private int emitEqual(Equal n) {
+		int lk = kind(n.left);
+		int rk = kind(n.right);
+		// 浮点数的 equals 与 == 不同(NaN,0.0 和 -0.0),只有整数和布尔值直接比较
+		if (lk == rk && (lk == INT || lk == LONG || lk == BOOLEAN)) {
+			emit(n.left);
+			emit(n.right);
+			if (lk == LONG) {
+				mv.visitInsn(LCMP);
+				pushCondition(IFEQ);
+			} else {
+				pushCondition(IF_ICMPEQ);
+			}
+		} else {
+			box(emit(n.left));
+			box(emit(n.right));
+			mv.visitMethodInsn(	INVOKESTATIC,
+								SUPER_NAME,
+								"equal",
+								"(Ljava/lang/Object;Ljava/lang/Object;)Z");
+		}
+		if (n.not) {
+			mv.visitInsn(ICONST_1);
+			mv.visitInsn(IXOR);
+		}
+		return BOOLEAN;
+	}
+
+	/**
+	 * 与 Logic 对应,左边的值已经能决定结果的话,右边不计算
+	 */
+	private int emitLogic(Logic n) {
+		Label shortcut = new Label();
+		Label end = new Label();
+		emitBool(n.left, "操作数类型错误!");
+		mv.visitJumpInsn(n.or ? IFNE : IFEQ, shortcut);
+		emitBool(n.right, "操作数类型错误!");
+		mv.visitJumpInsn(GOTO, end);
+		mv.visitLabel(shortcut);
+		mv.visitInsn(n.or ? ICONST_1 : ICONST_0);
+		mv.visitLabel(end);
+		return BOOLEAN;
+	}
+
+	/**
+	 * 计算一个必须为布尔值的节点,不是 Boolean 的时候抛出 ElException
+	 */
+	private void emitBool(ElNode n, String msg) {
+		int k = emit(n);
+		if (k == BOOLEAN)
+			return;
+		box(k);
+		mv.visitLdcInsn(msg);
+		mv.visitMethodInsn(INVOKESTATIC, SUPER_NAME, "bool", "(Ljava/lang/Object;Ljava/lang/String;)Z");
+	}
+
+	/**
+	 * 与 Negative 对应,按 0 - x 计算
+	 */
+	private int emitNegative(Negative n) {
+		int k = kind(n.right);
+		if (k >= INT) {
+			if (k == INT)
+				mv.visitInsn(ICONST_0);
+			else if (k == LONG)
+				mv.visitInsn(LCONST_0);
+			else if (k == FLOAT)
+				mv.visitInsn(FCONST_0);
+			else
+				mv.visitInsn(DCONST_0);
+			emit(n.right);
+			mv.visitInsn(ISUB + k - INT);
+			return k;
+		}
+		box(emit(n.right));
+		mv.visitMethodInsn(INVOKESTATIC, SUPER_NAME, "negative", "(Ljava/lang/Object;)Ljava/lang/Object;");
+		return OBJECT;
+	}
+
+	private int emitComplement(Complement n) {
+		if (kind(n.right) == INT) {
+			emit(n.right);
+			mv.visitInsn(ICONST_M1);
+			mv.visitInsn(IXOR);
+			return INT;
+		}
+		box(emit(n.right));
+		mv.visitMethodInsn(	INVOKESTATIC,
+							SUPER_NAME,
+							"complement",
+							"(Ljava/lang/Object;)Ljava/lang/Object;");
+		return OBJECT;
+	}
+
+	private int emitTernary(Ternary n) {
+		int k = kind(n);
+		Label no = new Label();
+		Label end = new Label();
+		int tk = emit(n.test);
+		if (tk != BOOLEAN) {
+			box(tk);
+			mv.visitTypeInsn(CHECKCAST, "java/lang/Boolean");
+			mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Boolean", "booleanValue", "()Z");
+		}
+		mv.visitJumpInsn(IFEQ, no);
+		int yk = emit(n.yes);
+		if (k == OBJECT)
+			box(yk);
+		mv.visitJumpInsn(GOTO, end);
+		mv.visitLabel(no);
+		int nk = emit(n.no);
+		if (k == OBJECT)
+			box(nk);
+		mv.visitLabel(end);
+		return k;
+	}
+
+	/**
+	 * 与 MethodNode 对应,先计算参数,再计算对象
+	 */
+	private int emitMethod(MethodNode n) {
+		int args = locals++;
+		pushInt(n.args.length);
+		mv.visitTypeInsn(ANEWARRAY, "java/lang/Object");
+		mv.visitVarInsn(ASTORE, args);
+		for (int i = 0; i < n.args.length; i++) {
+			mv.visitVarInsn(ALOAD, args);
+			pushInt(i);
+			mv.visitVarInsn(ALOAD, 1);
+			box(emit(n.args[i]));
+			mv.visitMethodInsn(INVOKESTATIC, SUPER_NAME, "arg", "(L"
+																+ CONTEXT
+																+ ";Ljava/lang/Object;)Ljava/lang/Object;");
+			mv.visitInsn(AASTORE);
+		}
+		mv.visitVarInsn(ALOAD, 0);
+		pushInt(add(n));
+		box(emit(n.target));
+		mv.visitVarInsn(ALOAD, args);
+		mv.visitMethodInsn(	INVOKEVIRTUAL,
+							SUPER_NAME,
+							"invoke",
+							"(ILjava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;");
+		return OBJECT;
+	}
+
+	/**
+	 * 把栈顶的值保存到一个新的本地变量里
+	 */
+	private int store(int k) {
+		int var = locals;
+		locals += k == LONG || k == DOUBLE ? 2 : 1;
+		mv.visitVarInsn(typed(ISTORE, k), var);
+		return var;
+	}
+
+	private void load(int var, int k) {
+		mv.visitVarInsn(typed(ILOAD, k), var);
+	}
+
+	/**
+	 * 读取本地变量,并转换成 k 类型。类型不确定的值已经通过 guard 检查过了
+	 */
+	private void loadAs(int var, int kind, int k) {
+		load(var, kind);
+		if (kind != OBJECT) {
+			convert(kind, k);
+		} else if (k == INT) {
+			mv.visitTypeInsn(CHECKCAST, "java/lang/Integer");
+			mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Integer", "intValue", "()I");
+		} else {
+			mv.visitTypeInsn(CHECKCAST, "java/lang/Number");
+			mv.visitMethodInsn(	INVOKEVIRTUAL,
+								"java/lang/Number",
+								primitive(k).getName() + "Value",
+								"()" + Type.getDescriptor(primitive(k)));
+		}
+	}
+
+	/**
+	 * ILOAD,LLOAD,FLOAD,DLOAD,ALOAD (以及对应的 STORE) 指令是连续的
+	 */
+	private static int typed(int opcode, int k) {
+		switch (k) {
+		case LONG:
+			return opcode + 1;
+		case FLOAT:
+			return opcode + 2;
+		case DOUBLE:
+			return opcode + 3;
+		case OBJECT:
+			return opcode + 4;
+		default:
+			return opcode;
+		}
+	}
+
+	/**
+	 * 把栈顶的数字转换成精度更高的类型
+	 */
+	private void convert(int from, int to) {
+		if (from == to)
+			return;
+		if (from == INT)
+			mv.visitInsn(to == LONG ? I2L : (to == FLOAT ? I2F : I2D));
+		else if (from == LONG)
+			mv.visitInsn(to == FLOAT ? L2F : L2D);
+		else
+			mv.visitInsn(F2D);
+	}
+
+	/**
+	 * 将栈顶的原生类型值包装成对象
+	 */
+	private void box(int k) {
+		if (k == OBJECT)
+			return;
+		Class<?> type = primitive(k);
+		String wrapper;
+		if (k == INT)
+			wrapper = "java/lang/Integer";
+		else if (k == BOOLEAN)
+			wrapper = "java/lang/Boolean";
+		else
+			wrapper = "java/lang/" + Character.toUpperCase(type.getName().charAt(0))
+						+ type.getName().substring(1);
+		mv.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", "("
+																+ Type.getDescriptor(type)
+																+ ")L"
+																+ wrapper
+																+ ";");
+	}
+
+	private static Class<?> primitive(int k) {
+		switch (k) {
+		case BOOLEAN:
+			return boolean.class;
+		case INT:
+			return int.class;
+		case LONG:
+			return long.class;
+		case FLOAT:
+			return float.class;
+		default:
+			return double.class;
+		}
+	}
+
+	private void pushInt(int n) {
+		if (n >= -1 && n <= 5)
+			mv.visitInsn(ICONST_0 + n);
+		else if (n >= Byte.MIN_VALUE && n <= Byte.MAX_VALUE)
+			mv.visitIntInsn(BIPUSH, n);
+		else if (n >= Short.MIN_VALUE && n <= Short.MAX_VALUE)
+			mv.visitIntInsn(SIPUSH, n);
+		else
+			mv.visitLdcInsn(n);
+	}
+
+}
@@ -0,0 +1,530 @@
+package org.nutz.el.compile;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.nutz.el.ElException;
+import org.nutz.el.Operator;
+import org.nutz.el.obj.IdentifierObj;
+import org.nutz.el.opt.RunMethod;
+import org.nutz.el.opt.TwoTernary;
+import org.nutz.el.opt.arithmetic.DivOpt;
+import org.nutz.el.opt.arithmetic.ModOpt;
+import org.nutz.el.opt.arithmetic.MulOpt;
+import org.nutz.el.opt.arithmetic.NegativeOpt;
+import org.nutz.el.opt.arithmetic.PlusOpt;
+import org.nutz.el.opt.arithmetic.SubOpt;
+import org.nutz.el.opt.bit.BitAnd;
+import org.nutz.el.opt.bit.BitNot;
+import org.nutz.el.opt.bit.BitOr;
+import org.nutz.el.opt.bit.BitXro;
+import org.nutz.el.opt.bit.LeftShift;
+import org.nutz.el.opt.bit.RightShift;
+import org.nutz.el.opt.bit.UnsignedLeftShift;
+import org.nutz.el.opt.custom.CustomMake;
+import org.nutz.el.opt.logic.AndOpt;
+import org.nutz.el.opt.logic.EQOpt;
+import org.nutz.el.opt.logic.GTEOpt;
+import org.nutz.el.opt.logic.GTOpt;
+import org.nutz.el.opt.logic.LTEOpt;
+import org.nutz.el.opt.logic.LTOpt;
+import org.nutz.el.opt.logic.NEQOpt;
+import org.nutz.el.opt.logic.NotOpt;
+import org.nutz.el.opt.logic.OrOpt;
+import org.nutz.el.opt.logic.QuestionOpt;
+import org.nutz.el.opt.logic.QuestionSelectOpt;
+import org.nutz.el.opt.object.AccessOpt;
+import org.nutz.el.opt.object.ArrayOpt;
+import org.nutz.el.opt.object.CommaOpt;
+import org.nutz.el.opt.object.FetchArrayOpt;
+import org.nutz.el.opt.object.InvokeMethodOpt;
+import org.nutz.el.opt.object.MethodOpt;
+import org.nutz.lang.util.Context;
+import org.nutz.log.Log;
+import org.nutz.log.Logs;
+
+/**
+ * 把预编译的操作树编译成执行树
+ * <p>
+ * 操作树每次计算都要判断操作数的类型,访问属性和调用方法都要按名字查找。执行树在编译的时候就确定了<br>
+ * 每个节点怎么计算,并且:
+ * <ul>
+ * <li>操作数都是常量的运算,在编译的时候就算好
+ * <li>两边都是 Integer 的算术和比较,直接按 int 计算
+ * <li>属性和方法调用按对象类型缓存找到的 getter 和方法,通过 FastClass 调用
+ * </ul>
+ * 计算的结果与操作树相同。不认识的操作符仍然交给操作树计算
+ * <p>
+ * 执行树默认还会被进一步生成为字节码,每个表达式一个类,参见 ElClassMaker。不能生成的时候使用执行树
+ *
+ * @see org.nutz.el.El#optimize()
+ */
+public abstract class ElCompiler {
+
+	private static final Log log = Logs.getLog(ElCompiler.class);
+
+	private static volatile boolean bytecode = true;
+
+	/**
+	 * 是否把执行树生成为字节码,关闭后 compile 只返回执行树
+	 */
+	public static void setBytecode(boolean bytecode) {
+		ElCompiler.bytecode = bytecode;
+	}
+
+	public static boolean isBytecode() {
+		return bytecode;
+	}
+
+	/**
+	 * @param root
+	 *            操作树的根,可以是操作符,标识符或者常量
+	 */
+	public static ElNode compile(Object root) {
+		ElNode node = compileTree(root);
+		// 常量,以及整个交给操作树计算的表达式,生成字节码也快不了
+		if (!bytecode || node.isConst() || node instanceof Fallback)
+			return node;
+		try {
+			return new ElClassMaker(node).make();
+		}
+		catch (Throwable e) {
+			if (log.isInfoEnabled())
+				log.infof("Fail to make class for El, use the execution tree : %s", e);
+			return node;
+		}
+	}
+
+	private static ElNode compileTree(Object root) {
+		if (root instanceof Operator)
+			return compileOperator((Operator) root);
+		if (root instanceof IdentifierObj)
+			return new Var(((IdentifierObj) root).getVal());
+		return new Const(root);
+	}
+
+	/**
+	 * 与 AbstractOpt.calculateItem 对应
+	 */
+	private static ElNode compileItem(Object obj) {
+		if (null == obj || obj instanceof Number || obj instanceof Boolean || obj instanceof String)
+			return new Const(obj);
+		if (obj instanceof IdentifierObj)
+			return new Var(((IdentifierObj) obj).getVal());
+		if (obj instanceof Operator)
+			return compileOperator((Operator) obj);
+		return new Unknown(obj);
+	}
+
+	/**
+	 * 与 AccessOpt.fetchVar 对应
+	 */
+	private static ElNode compileTarget(Object obj) {
+		if (obj instanceof Operator)
+			return compileOperator((Operator) obj);
+		if (obj instanceof IdentifierObj)
+			return new Var(((IdentifierObj) obj).getVal());
+		return new Const(obj);
+	}
+
+	private static ElNode compileOperator(Operator opt) {
+		if (opt instanceof TwoTernary) {
+			TwoTernary tt = (TwoTernary) opt;
+			int op = numberOp(opt);
+			if (op >= 0) {
+				ElNode left = compileItem(tt.fetchLeft());
+				ElNode right = compileItem(tt.fetchRight());
+				return fold(new NumberNode(op, left, right), left, right);
+			}
+			if (opt instanceof EQOpt || opt instanceof NEQOpt) {
+				ElNode left = compileItem(tt.fetchLeft());
+				ElNode right = compileItem(tt.fetchRight());
+				return fold(new Equal(opt instanceof NEQOpt, left, right), left, right);
+			}
+			if (opt instanceof AndOpt || opt instanceof OrOpt) {
+				ElNode left = compileItem(tt.fetchLeft());
+				ElNode right = compileItem(tt.fetchRight());
+				return fold(new Logic(opt instanceof OrOpt, left, right), left, right);
+			}
+			if (opt instanceof QuestionSelectOpt)
+				return compileTernary((QuestionSelectOpt) opt);
+			if (opt instanceof AccessOpt)
+				return new PropertyNode(compileTarget(tt.fetchLeft()), tt.fetchRight().toString());
+			if (opt instanceof MethodOpt)
+				return compileMethod((MethodOpt) opt);
+			if (opt instanceof ArrayOpt)
+				return new Index(	compileItem(tt.fetchLeft()),
+									compileItem(tt.fetchRight()),
+									String.valueOf(tt.fetchRight()));
+		}
+		if (opt instanceof NotOpt) {
+			ElNode right = compileItem(((NotOpt) opt).fetchRight());
+			return fold(new Not(right), right);
+		}
+		if (opt instanceof NegativeOpt) {
+			ElNode right = compileItem(((NegativeOpt) opt).fetchRight());
+			return fold(new Negative(right), right);
+		}
+		if (opt instanceof BitNot) {
+			ElNode right = compileItem(((BitNot) opt).fetchRight());
+			return fold(new Complement(right), right);
+		}
+		if (opt instanceof FetchArrayOpt) {
+			Object left = ((FetchArrayOpt) opt).fetchLeft();
+			return left instanceof ArrayOpt ? compileOperator((ArrayOpt) left) : new Const(null);
+		}
+		if (opt instanceof InvokeMethodOpt) {
+			Object left = ((InvokeMethodOpt) opt).fetchLeft();
+			return left instanceof MethodOpt ? compileOperator((MethodOpt) left) : new Const(null);
+		}
+		return new Fallback(opt);
+	}
+
+	private static int numberOp(Operator opt) {
+		if (opt instanceof PlusOpt)
+			return NumberNode.PLUS;
+		if (opt instanceof SubOpt)
+			return NumberNode.SUB;
+		if (opt instanceof MulOpt)
+			return NumberNode.MUL;
+		if (opt instanceof DivOpt)
+			return NumberNode.DIV;
+		if (opt instanceof ModOpt)
+			return NumberNode.MOD;
+		if (opt instanceof LTOpt)
+			return NumberNode.LT;
+		if (opt instanceof LTEOpt)
+			return NumberNode.LTE;
+		if (opt instanceof GTOpt)
+			return NumberNode.GT;
+		if (opt instanceof GTEOpt)
+			return NumberNode.GTE;
+		if (opt instanceof BitAnd)
+			return NumberNode.BIT_AND;
+		if (opt instanceof BitOr)
+			return NumberNode.BIT_OR;
+		if (opt instanceof BitXro)
+			return NumberNode.BIT_XOR;
+		if (opt instanceof LeftShift)
+			return NumberNode.LEFT_SHIFT;
+		if (opt instanceof RightShift)
+			return NumberNode.RIGHT_SHIFT;
+		if (opt instanceof UnsignedLeftShift)
+			return NumberNode.UNSIGNED_RIGHT_SHIFT;
+		return -1;
+	}
+
+	/**
+	 * 与 QuestionSelectOpt 对应,'?' 左边不是操作符的时候,交给操作树报错
+	 */
+	private static ElNode compileTernary(QuestionSelectOpt opt) {
+		if (!(opt.fetchLeft() instanceof QuestionOpt))
+			return new Fallback(opt);
+		QuestionOpt qo = (QuestionOpt) opt.fetchLeft();
+		if (!(qo.fetchLeft() instanceof Operator))
+			return new Fallback(opt);
+		ElNode test = compileOperator((Operator) qo.fetchLeft());
+		ElNode yes = compileItem(qo.fetchRight());
+		ElNode no = compileItem(opt.fetchRight());
+		if (test.isConst() && test.eval(null) instanceof Boolean)
+			return (Boolean) test.eval(null) ? yes : no;
+		return new Ternary(test, yes, no);
+	}
+
+	/**
+	 * 与 MethodOpt 对应,左边是访问符的时候调用对象的方法,否则调用自定义函数
+	 */
+	private static ElNode compileMethod(MethodOpt opt) {
+		List<ElNode> args = new ArrayList<ElNode>();
+		Object right = opt.fetchRight();
+		if (right instanceof CommaOpt)
+			compileParams((CommaOpt) right, args);
+		else if (null != right)
+			args.add(compileItem(right));
+		ElNode[] params = args.toArray(new ElNode[args.size()]);
+
+		Object left = opt.fetchLeft();
+		if (left instanceof AccessOpt) {
+			AccessOpt ao = (AccessOpt) left;
+			return new MethodNode(compileTarget(ao.fetchLeft()), ao.fetchRight().toString(), params);
+		}
+		RunMethod func = CustomMake.make(left.toString());
+		if (null == func)
+			return new Fallback(opt);
+		return new Func(func, params);
+	}
+
+	/**
+	 * 与 CommaOpt 对应,只展开左边的逗号
+	 */
+	private static void compileParams(CommaOpt comma, List<ElNode> args) {
+		if (comma.fetchLeft() instanceof CommaOpt)
+			compileParams((CommaOpt) comma.fetchLeft(), args);
+		else
+			args.add(compileItem(comma.fetchLeft()));
+		args.add(compileItem(comma.fetchRight()));
+	}
+
+	/**
+	 * 操作数都是常量的话,在编译的时候就算好。计算出错的就留到执行的时候再报错
+	 */
+	private static ElNode fold(ElNode node, ElNode... children) {
+		for (ElNode child : children)
+			if (!child.isConst())
+				return node;
+		try {
+			return new Const(node.eval(null));
+		}
+		catch (RuntimeException e) {
+			return node;
+		}
+	}
+
+	static class Const extends ElNode {
+
+		final Object value;
+
+		Const(Object value) {
+			this.value = value;
+		}
+
+		public Object eval(Context context) {
+			return value;
+		}
+
+		public boolean isConst() {
+			return true;
+		}
+	}
+
+	/**
+	 * 与 IdentifierObj 对应
+	 */
+	static class Var extends ElNode {
+
+		final String name;
+
+		Var(String name) {
+			this.name = name;
+		}
+
+		public Object eval(Context context) {
+			if (null != context && context.has(name))
+				return context.get(name);
+			return null;
+		}
+	}
+
+	private static class Unknown extends ElNode {
+
+		private final Object obj;
+
+		Unknown(Object obj) {
+			this.obj = obj;
+		}
+
+		public Object eval(Context context) {
+			throw new ElException("未知计算类型!" + obj);
+		}
+	}
+
+	/**
+	 * 交给操作树计算
+	 */
+	static class Fallback extends ElNode {
+
+		private final Operator opt;
+
+		Fallback(Operator opt) {
+			this.opt = opt;
+		}
+
+		public Object eval(Context context) {
+			return opt.calculate(context);
+		}
+	}
+
+	static class Equal extends ElNode {
+
+		final boolean not;
+
+		final ElNode left;
+
+		final ElNode right;
+
+		Equal(boolean not, ElNode left, ElNode right) {
+			this.not = not;
+			this.left = left;
+			this.right = right;
+		}
+
+		public Object eval(Context context) {
+			boolean re = equal(left.eval(context), right.eval(context));
+			return not ? !re : re;
+		}
+
+		static boolean equal(Object lval, Object rval) {
+			return lval == rval || lval.equals(rval);
+		}
+	}
+
+	static class Logic extends ElNode {
+
+		final boolean or;
+
+		final ElNode left;
+
+		final ElNode right;
+
+		Logic(boolean or, ElNode left, ElNode right) {
+			this.or = or;
+			this.left = left;
+			this.right = right;
+		}
+
+		public Object eval(Context context) {
+			Object lval = left.eval(context);
+			if (!(lval instanceof Boolean))
+				throw new ElException("操作数类型错误!");
+			if ((Boolean) lval == or)
+				return or;
+			Object rval = right.eval(context);
+			if (!(rval instanceof Boolean))
+				throw new ElException("操作数类型错误!");
+			return rval;
+		}
+	}
+
+	static class Not extends ElNode {
+
+		final ElNode right;
+
+		Not(ElNode right) {
+			this.right = right;
+		}
+
+		public Object eval(Context context) {
+			Object rval = right.eval(context);
+			if (rval instanceof Boolean)
+				return !(Boolean) rval;
+			throw new ElException("'!'操作符操作失败!");
+		}
+	}
+
+	static class Negative extends ElNode {
+
+		final ElNode right;
+
+		Negative(ElNode right) {
+			this.right = right;
+		}
+
+		public Object eval(Context context) {
+			return negative(right.eval(context));
+		}
+
+		static Object negative(Object rval) {
+			if (rval instanceof Double)
+				return 0 - (Double) rval;
+			if (rval instanceof Float)
+				return 0 - (Float) rval;
+			if (rval instanceof Long)
+				return 0 - (Long) rval;
+			return 0 - (Integer) rval;
+		}
+	}
+
+	static class Complement extends ElNode {
+
+		final ElNode right;
+
+		Complement(ElNode right) {
+			this.right = right;
+		}
+
+		public Object eval(Context context) {
+			return complement(right.eval(context));
+		}
+
+		static Object complement(Object rval) {
+			return ~(Integer) rval;
+		}
+	}
+
+	static class Ternary extends ElNode {
+
+		final ElNode test;
+
+		final ElNode yes;
+
+		final ElNode no;
+
+		Ternary(ElNode test, ElNode yes, ElNode no) {
+			this.test = test;
+			this.yes = yes;
+			this.no = no;
+		}
+
+		public Object eval(Context context) {
+			return (Boolean) test.eval(context) ? yes.eval(context) : no.eval(context);
+		}
+	}
+
+	/**
+	 * 与 ArrayOpt 对应
+	 */
+	static class Index extends ElNode {
+
+		final ElNode left;
+
+		final ElNode right;
+
+		final String key;
+
+		Index(ElNode left, ElNode right, String key) {
+			this.left = left;
+			this.right = right;
+			this.key = key;
+		}
+
+		public Object eval(Context context) {
+			return get(left.eval(context), right.eval(context));
+		}
+
+		Object get(Object lval, Object rval) {
+			if (lval instanceof Map<?, ?>) {
+				Map<?, ?> map = (Map<?, ?>) lval;
+				if (map.containsKey(key))
+					return map.get(key);
+			}
+			return Array.get(lval, (Integer) rval);
+		}
+	}
+
+	/**
+	 * 自定义函数
+	 */
+	private static class Func extends ElNode {
+
+		private final RunMethod func;
+
+		private final ElNode[] args;
+
+		Func(RunMethod func, ElNode[] args) {
+			this.func = func;
+			this.args = args;
+		}
+
+		public Object eval(Context context) {
+			List<Object> vals = new ArrayList<Object>(args.length);
+			for (ElNode arg : args) {
+				Object val = arg.eval(context);
+				vals.add(val instanceof Operator ? ((Operator) val).calculate(context) : val);
+			}
+			return func.run(vals);
+		}
+	}
+
+}
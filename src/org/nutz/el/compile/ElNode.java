@@ -0,0 +1,26 @@
+package org.nutz.el.compile;
+
+import org.nutz.lang.util.Context;
+
+/**
+ * 编译后的执行树的节点
+ * <p>
+ * 节点在编译以后就不再改变(除了线程安全的内联缓存),context 在计算的时候传入,所以可以被多个线程同时使用
+ *
+ * @see org.nutz.el.compile.ElCompiler
+ */
+public abstract class ElNode {
+
+	/**
+	 * 计算
+	 */
+	public abstract Object eval(Context context);
+
+	/**
+	 * @return 是否为常量,常量节点的值在编译的时候就确定了
+	 */
+	public boolean isConst() {
+		return false;
+	}
+
+}
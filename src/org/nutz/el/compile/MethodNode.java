@@ -0,0 +1,151 @@
+package org.nutz.el.compile;
+
+import java.lang.reflect.Method;
+
+import org.nutz.el.Operator;
+import org.nutz.lang.InvokingException;
+import org.nutz.lang.Lang;
+import org.nutz.lang.MatchType;
+import org.nutz.lang.Mirror;
+import org.nutz.lang.reflect.FastClass;
+import org.nutz.lang.reflect.FastClasses;
+import org.nutz.lang.util.Context;
+
+/**
+ * 调用对象的方法: 'a.get(0)'
+ * <p>
+ * 与 AccessOpt 一样通过 Mirror.invoke 选择方法。每个节点记住上一次的对象类型,参数类型以及选中的方法(内联缓存),<br>
+ * 类型都相同的时候直接通过 FastClass 调用。只有参数的类型可以直接匹配的方法才会被缓存,<br>
+ * 需要转换参数或者变参的方法每次都交给 Mirror.invoke
+ * <p>
+ * 与 PropertyNode 一样,缓存一次没有命中以后,就认为调用点是多态的,以后都交给 Mirror.invoke
+ */
+class MethodNode extends ElNode {
+
+	final ElNode target;
+
+	final String name;
+
+	final ElNode[] args;
+
+	private volatile Site cache;
+
+	private volatile boolean megamorphic;
+
+	MethodNode(ElNode target, String name, ElNode[] args) {
+		this.target = target;
+		this.name = name;
+		this.args = args;
+	}
+
+	public Object eval(Context context) {
+		// 与 MethodOpt 一样,先计算参数,再计算对象
+		Object[] vals = new Object[args.length];
+		for (int i = 0; i < args.length; i++)
+			vals[i] = arg(context, args[i].eval(context));
+		return invoke(target.eval(context), vals);
+	}
+
+	static Object arg(Context context, Object val) {
+		return val instanceof Operator ? ((Operator) val).calculate(context) : val;
+	}
+
+	/**
+	 * 调用对象的方法,对象和参数都已经计算好了
+	 */
+	Object invoke(Object obj, Object[] vals) {
+		if (null == obj)
+			throw new NullPointerException("Fail to invoke '" + name + "' of null");
+		Site site = null;
+		if (!megamorphic) {
+			site = cache;
+			if (null == site) {
+				site = new Site(obj.getClass(), name, vals);
+				cache = site;
+			} else if (!site.match(obj, vals)) {
+				megamorphic = true;
+				cache = null;
+				site = null;
+			}
+		}
+		if (null == site || site.index < 0)
+			return Mirror.me(obj).invoke(obj, name, vals);
+		try {
+			return site.fc.invoke(obj, site.index, vals);
+		}
+		catch (Throwable e) {
+			throw new InvokingException(String.format(	"Fail to invoke [%s].%s() by args:\n %s",
+														site.type.getName(),
+														name,
+														Lang.concat('\n', vals)), Lang.unwrapThrow(e));
+		}
+	}
+
+	/**
+	 * 一个调用点,它是不可变的
+	 */
+	private static class Site {
+
+		private final Class<?> type;
+
+		private final Class<?>[] argTypes;
+
+		private final FastClass fc;
+
+		private final int index;
+
+		Site(Class<?> type, String name, Object[] args) {
+			this.type = type;
+			this.argTypes = Mirror.evalToTypes(args);
+			Method m = find(type, name, args, argTypes);
+			FastClass fc = null;
+			int index = -1;
+			if (null != m) {
+				fc = FastClasses.get(m.getDeclaringClass());
+				if (null != fc)
+					index = fc.indexOf(m);
+			}
+			this.fc = fc;
+			this.index = index;
+		}
+
+		/**
+		 * 按照 Invoking 的顺序查找方法,第一个候选的方法不是参数类型直接匹配的,就返回 null
+		 */
+		private static Method find(Class<?> type, String name, Object[] args, Class<?>[] argTypes) {
+			if (args.length == 0) {
+				try {
+					return type.getMethod(name);
+				}
+				catch (NoSuchMethodException e) {
+					return null;
+				}
+			}
+			Object dynaArg = Mirror.evalArgToRealArray(args);
+			for (Method m : type.getMethods()) {
+				if (!m.getName().equals(name))
+					continue;
+				Class<?>[] pts = m.getParameterTypes();
+				MatchType mr = Mirror.matchParamTypes(pts, argTypes);
+				if (MatchType.YES == mr)
+					return m;
+				if (MatchType.LACK == mr
+					|| (null != dynaArg && pts.length == 1 && pts[0] == dynaArg.getClass()))
+					return null;
+			}
+			return null;
+		}
+
+		boolean match(Object obj, Object[] args) {
+			if (type != obj.getClass() || argTypes.length != args.length)
+				return false;
+			for (int i = 0; i < args.length; i++) {
+				Class<?> t = null == args[i] ? Object.class : args[i].getClass();
+				if (t != argTypes[i])
+					return false;
+			}
+			return true;
+		}
+	}
+
+}
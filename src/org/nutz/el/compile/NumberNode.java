@@ -0,0 +1,175 @@
+package org.nutz.el.compile;
+
+import org.nutz.lang.util.Context;
+
+/**
+ * 二元的算术,比较和位运算
+ * <p>
+ * 结果的类型与解释执行的操作符相同: 有 Double 按 double 计算,其次是 Float,Long,最后是 int。<br>
+ * 两边都是 Integer 的时候(最常见的情况)直接按 int 计算,不再逐个判断类型
+ */
+class NumberNode extends ElNode {
+
+	static final int PLUS = 0;
+	static final int SUB = 1;
+	static final int MUL = 2;
+	static final int DIV = 3;
+	static final int MOD = 4;
+	static final int LT = 5;
+	static final int LTE = 6;
+	static final int GT = 7;
+	static final int GTE = 8;
+	static final int BIT_AND = 9;
+	static final int BIT_OR = 10;
+	static final int BIT_XOR = 11;
+	static final int LEFT_SHIFT = 12;
+	static final int RIGHT_SHIFT = 13;
+	static final int UNSIGNED_RIGHT_SHIFT = 14;
+
+	final int op;
+
+	final ElNode left;
+
+	final ElNode right;
+
+	NumberNode(int op, ElNode left, ElNode right) {
+		this.op = op;
+		this.left = left;
+		this.right = right;
+	}
+
+	public Object eval(Context context) {
+		return calculate(op, left.eval(context), right.eval(context));
+	}
+
+	/**
+	 * 按操作数实际的类型计算,生成的字节码在类型不确定的时候也调用它
+	 */
+	static Object calculate(int op, Object lval, Object rval) {
+		if (op == PLUS && (lval instanceof String || rval instanceof String))
+			return lval.toString() + rval.toString();
+		if (op >= BIT_AND)
+			return bit(op, (Integer) lval, (Integer) rval);
+		if (lval instanceof Integer && rval instanceof Integer)
+			return calculate(op, ((Integer) lval).intValue(), ((Integer) rval).intValue());
+		Number l = (Number) lval;
+		Number r = (Number) rval;
+		if (l instanceof Double || r instanceof Double)
+			return calculate(op, l.doubleValue(), r.doubleValue());
+		if (l instanceof Float || r instanceof Float)
+			return calculate(op, l.floatValue(), r.floatValue());
+		if (l instanceof Long || r instanceof Long)
+			return calculate(op, l.longValue(), r.longValue());
+		return calculate(op, l.intValue(), r.intValue());
+	}
+
+	private static Object calculate(int op, int l, int r) {
+		switch (op) {
+		case PLUS:
+			return l + r;
+		case SUB:
+			return l - r;
+		case MUL:
+			return l * r;
+		case DIV:
+			return l / r;
+		case MOD:
+			return l % r;
+		case LT:
+			return l < r;
+		case LTE:
+			return l <= r;
+		case GT:
+			return l > r;
+		default:
+			return l >= r;
+		}
+	}
+
+	private static Object calculate(int op, long l, long r) {
+		switch (op) {
+		case PLUS:
+			return l + r;
+		case SUB:
+			return l - r;
+		case MUL:
+			return l * r;
+		case DIV:
+			return l / r;
+		case MOD:
+			return l % r;
+		case LT:
+			return l < r;
+		case LTE:
+			return l <= r;
+		case GT:
+			return l > r;
+		default:
+			return l >= r;
+		}
+	}
+
+	private static Object calculate(int op, float l, float r) {
+		switch (op) {
+		case PLUS:
+			return l + r;
+		case SUB:
+			return l - r;
+		case MUL:
+			return l * r;
+		case DIV:
+			return l / r;
+		case MOD:
+			return l % r;
+		case LT:
+			return l < r;
+		case LTE:
+			return l <= r;
+		case GT:
+			return l > r;
+		default:
+			return l >= r;
+		}
+	}
+
+	private static Object calculate(int op, double l, double r) {
+		switch (op) {
+		case PLUS:
+			return l + r;
+		case SUB:
+			return l - r;
+		case MUL:
+			return l * r;
+		case DIV:
+			return l / r;
+		case MOD:
+			return l % r;
+		case LT:
+			return l < r;
+		case LTE:
+			return l <= r;
+		case GT:
+			return l > r;
+		default:
+			return l >= r;
+		}
+	}
+
+	private static Object bit(int op, int l, int r) {
+		switch (op) {
+		case BIT_AND:
+			return l & r;
+		case BIT_OR:
+			return l | r;
+		case BIT_XOR:
+			return l ^ r;
+		case LEFT_SHIFT:
+			return l << r;
+		case RIGHT_SHIFT:
+			return l >> r;
+		default:
+			return l >>> r;
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+package org.nutz.el.compile;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import org.nutz.lang.FailToGetValueException;
+import org.nutz.lang.Mirror;
+import org.nutz.lang.reflect.FastClass;
+import org.nutz.lang.reflect.FastClasses;
+import org.nutz.lang.util.Context;
+
+/**
+ * 读取属性: 'a.name'
+ * <p>
+ * 与 AccessOpt 一样,Map 里有这个键就直接取值,否则优先用 getter,没有 getter 再读字段。<br>
+ * 每个节点记住上一次的对象类型以及找到的 getter 或者字段(内联缓存),类型相同的时候不再查找,<br>
+ * 并且通过 FastClass 调用,避免反射的开销。找不到可以快速访问的方式时,退回到 Mirror.getValue
+ * <p>
+ * 查找访问方式要经过 Mirror.me 和 FastClasses.get(全局的锁),所以一个节点遇到第二种类型以后,<br>
+ * 就认为它是多态的,以后都像 AccessOpt 一样取值,不再缓存
+ */
+class PropertyNode extends ElNode {
+
+	final ElNode target;
+
+	final String name;
+
+	private volatile Accessor cache;
+
+	private volatile boolean megamorphic;
+
+	PropertyNode(ElNode target, String name) {
+		this.target = target;
+		this.name = name;
+	}
+
+	public Object eval(Context context) {
+		return get(target.eval(context));
+	}
+
+	/**
+	 * 读取对象的属性,对象已经计算好了
+	 */
+	Object get(Object obj) {
+		if (null == obj)
+			throw new NullPointerException("Fail to get '" + name + "' from null");
+		if (!megamorphic) {
+			Accessor acc = cache;
+			if (null == acc) {
+				acc = new Accessor(obj.getClass(), name);
+				cache = acc;
+			}
+			if (acc.type == obj.getClass()) {
+				// 对象不是 Map 的时候,instanceof 接口的判断并不便宜,所以按类型记下来
+				if (acc.map) {
+					Map<?, ?> map = (Map<?, ?>) obj;
+					if (map.containsKey(name))
+						return map.get(name);
+				}
+				return acc.get(obj, name);
+			}
+			megamorphic = true;
+			cache = null;
+		}
+		if (obj instanceof Map<?, ?>) {
+			Map<?, ?> map = (Map<?, ?>) obj;
+			if (map.containsKey(name))
+				return map.get(name);
+		}
+		return Mirror.me(obj).getValue(obj, name);
+	}
+
+	/**
+	 * 一个类型的属性的访问方式,它是不可变的
+	 */
+	private static class Accessor {
+
+		private final Class<?> type;
+
+		private final boolean map;
+
+		private final FastClass fc;
+
+		private final int method;
+
+		private final int field;
+
+		Accessor(Class<?> type, String name) {
+			this.type = type;
+			this.map = Map.class.isAssignableFrom(type);
+			FastClass fc = null;
+			int method = -1;
+			int field = -1;
+			Mirror<?> me = Mirror.me(type);
+			try {
+				Method m = me.getGetter(name);
+				fc = FastClasses.get(m.getDeclaringClass());
+				if (null != fc)
+					method = fc.indexOf(m);
+			}
+			catch (NoSuchMethodException e) {
+				try {
+					Field f = me.getField(name);
+					if (Modifier.isPublic(f.getModifiers())) {
+						fc = FastClasses.get(f.getDeclaringClass());
+						if (null != fc)
+							field = fc.indexOf(f);
+					}
+				}
+				catch (NoSuchFieldException e1) {}
+			}
+			this.fc = fc;
+			this.method = method;
+			this.field = field;
+		}
+
+		Object get(Object obj, String name) {
+			if (method >= 0) {
+				try {
+					return fc.invoke(obj, method);
+				}
+				catch (Throwable e) {
+					// 与 Mirror.getValue 一样,getter 失败了再试试字段
+					try {
+						Mirror<?> me = Mirror.me(type);
+						return me.getValue(obj, me.getField(name));
+					}
+					catch (NoSuchFieldException e1) {
+						throw new FailToGetValueException(String.format("Fail to get value for [%s]->[%s]",
+																		type.getName(),
+																		name), e);
+					}
+				}
+			}
+			if (field >= 0)
+				return fc.getField(obj, field);
+			return Mirror.me(type).getValue(obj, name);
+		}
+	}
+
+}
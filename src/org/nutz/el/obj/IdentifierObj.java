@@ -1,6 +1,5 @@
 package org.nutz.el.obj;
 
-import org.nutz.el.ElCache;
 import org.nutz.lang.util.Context;
 
 /**
@@ -10,15 +9,13 @@ import org.nutz.lang.util.Context;
  */
 public class IdentifierObj {
 	private String val;
-	private ElCache ec;
 	public IdentifierObj(String val) {
 		this.val = val;
 	}
 	public String getVal() {
 		return val;
 	}
-	public Object fetchVal(){
-		Context context = ec.getContext();
+	public Object fetchVal(Context context){
 		if(context != null && context.has(val)){
 			return context.get(val);
 		}
@@ -27,7 +24,4 @@ public class IdentifierObj {
 	public String toString() {
 		return val;
 	}
-	public void setEc(ElCache ec) {
-		this.ec = ec;
-	}
 }
@@ -3,6 +3,7 @@ package org.nutz.el.opt;
 import org.nutz.el.ElException;
 import org.nutz.el.Operator;
 import org.nutz.el.obj.IdentifierObj;
+import org.nutz.lang.util.Context;
 
 /**
  * 操作符抽象类
@@ -27,7 +28,7 @@ public abstract class AbstractOpt implements Operator{
 	/**
 	 * 计算子项
 	 */
-	protected Object calculateItem(Object obj){
+	protected Object calculateItem(Context context, Object obj){
 		if(obj == null){
 			return null;
 		}
@@ -41,10 +42,10 @@ public abstract class AbstractOpt implements Operator{
 			return obj;
 		}
 		if(obj instanceof IdentifierObj){
-			return ((IdentifierObj) obj).fetchVal();
+			return ((IdentifierObj) obj).fetchVal(context);
 		}
 		if(obj instanceof Operator){
-			return ((Operator) obj).calculate();
+			return ((Operator) obj).calculate(context);
 		}
 		throw new ElException("未知计算类型!" + obj);
 		
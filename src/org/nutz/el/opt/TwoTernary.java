@@ -3,6 +3,7 @@ package org.nutz.el.opt;
 import java.util.Queue;
 
 import org.nutz.el.Operator;
+import org.nutz.lang.util.Context;
 
 /**
  * 二元运算,只是提取了公共部分
@@ -18,17 +19,31 @@ public abstract class TwoTernary extends AbstractOpt{
 		left = rpn.poll();
 	}
 
-	public Object getRight() {
+	public Object getRight(Context context) {
 		if(right instanceof Operator){
-			return ((Operator) right).calculate();
+			return ((Operator) right).calculate(context);
 		}
 		return right;
 	}
 
-	public Object getLeft() {
+	public Object getLeft(Context context) {
 		if(left instanceof Operator){
-			return ((Operator) left).calculate();
+			return ((Operator) left).calculate(context);
 		}
 		return left;
 	}
+
+	/**
+	 * 取得左边的操作数本身,不进行计算
+	 */
+	public Object fetchLeft() {
+		return left;
+	}
+
+	/**
+	 * 取得右边的操作数本身,不进行计算
+	 */
+	public Object fetchRight() {
+		return right;
+	}
 }
@@ -1,6 +1,7 @@
 package org.nutz.el.opt.arithmetic;
 
 import org.nutz.el.opt.TwoTernary;
+import org.nutz.lang.util.Context;
 
 /**
  * 乘
@@ -11,9 +12,9 @@ public class MulOpt extends TwoTernary {
 	public int fetchPriority() {
 		return 3;
 	}
-	public Object calculate() {
-		Number lval = (Number) calculateItem(this.left);
-		Number rval = (Number) calculateItem(this.right);
+	public Object calculate(Context context) {
+		Number lval = (Number) calculateItem(context, this.left);
+		Number rval = (Number) calculateItem(context, this.right);
 		if(rval instanceof Double || lval instanceof Double){
 			return lval.doubleValue() * rval.doubleValue();
 		}
@@ -3,6 +3,7 @@ package org.nutz.el.opt.arithmetic;
 import java.util.Queue;
 
 import org.nutz.el.opt.AbstractOpt;
+import org.nutz.lang.util.Context;
 
 /**
  * 负号:'-'
@@ -20,8 +21,8 @@ public class NegativeOpt extends AbstractOpt {
 		right = operand.poll();
 	}
 
-	public Object calculate() {
-		Object rval = calculateItem(this.right);
+	public Object calculate(Context context) {
+		Object rval = calculateItem(context, this.right);
 		if(rval instanceof Double)
 			return 0 - (Double)rval;
 		if(rval instanceof Float)
@@ -31,6 +32,13 @@ public class NegativeOpt extends AbstractOpt {
 		return 0 - (Integer)rval;
 	}
 
+	/**
+	 * 取得操作数本身,不进行计算
+	 */
+	public Object fetchRight() {
+		return right;
+	}
+
 	public String fetchSelf() {
 		return "-";
 	}
@@ -1,6 +1,7 @@
 package org.nutz.el.opt.arithmetic;
 
 import org.nutz.el.opt.TwoTernary;
+import org.nutz.lang.util.Context;
 
 /**
  * "+"
@@ -15,9 +16,9 @@ public class PlusOpt extends TwoTernary {
 	public String fetchSelf() {
 		return "+";
 	}
-	public Object calculate() {
-		Object lval = calculateItem(this.left);
-		Object rval = calculateItem(this.right);
+	public Object calculate(Context context) {
+		Object lval = calculateItem(context, this.left);
+		Object rval = calculateItem(context, this.right);
 		
 		if(lval instanceof String || rval instanceof String){
 			return lval.toString() + rval.toString();
@@ -4,6 +4,7 @@ import java.util.Queue;
 
 import org.nutz.el.ElException;
 import org.nutz.el.opt.AbstractOpt;
+import org.nutz.lang.util.Context;
 
 /**
  * 右括号')'
@@ -21,7 +22,7 @@ public class RBracketOpt extends AbstractOpt{
 	public void wrap(Queue<Object> obj) {
 		throw new ElException("')符号不能进行wrap操作!'");
 	}
-	public Object calculate() {
+	public Object calculate(Context context) {
 		throw new ElException("')'符号不能进行计算操作!");
 	}
 
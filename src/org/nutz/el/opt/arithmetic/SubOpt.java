@@ -1,5 +1,6 @@
 package org.nutz.el.opt.arithmetic;
 import org.nutz.el.opt.TwoTernary;
+import org.nutz.lang.util.Context;
 
 /**
  * "-"
@@ -15,9 +16,9 @@ public class SubOpt extends TwoTernary{
 		return 4;
 	}
 	
-	public Object calculate() {
-		Number lval = (Number) calculateItem(this.left);
-		Number rval = (Number) calculateItem(this.right);
+	public Object calculate(Context context) {
+		Number lval = (Number) calculateItem(context, this.left);
+		Number rval = (Number) calculateItem(context, this.right);
 		if(rval instanceof Double || lval instanceof Double){
 			return lval.doubleValue() - rval.doubleValue();
 		}
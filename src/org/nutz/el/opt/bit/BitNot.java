@@ -3,6 +3,7 @@ package org.nutz.el.opt.bit;
 import java.util.Queue;
 
 import org.nutz.el.opt.AbstractOpt;
+import org.nutz.lang.util.Context;
 
 /**
  * 非
@@ -17,10 +18,17 @@ public class BitNot extends AbstractOpt{
 	public void wrap(Queue<Object> operand) {
 		right = operand.poll();
 	}
-	public Object calculate() {
-		Integer rval = (Integer) calculateItem(right);
+	public Object calculate(Context context) {
+		Integer rval = (Integer) calculateItem(context, right);
 		return ~rval;
 	}
+	/**
+	 * 取得操作数本身,不进行计算
+	 */
+	public Object fetchRight() {
+		return right;
+	}
+
 	public String fetchSelf() {
 		return "~";
 	}
@@ -1,6 +1,7 @@
 package org.nutz.el.opt.bit;
 
 import org.nutz.el.opt.TwoTernary;
+import org.nutz.lang.util.Context;
 /**
  * 左移
  * @author juqkai(juqkai@gmail.com)
@@ -10,9 +11,9 @@ public class LeftShift extends TwoTernary{
 	public int fetchPriority() {
 		return 5;
 	}
-	public Object calculate() {
-		Integer lval = (Integer) calculateItem(left);
-		Integer rval = (Integer) calculateItem(right);
+	public Object calculate(Context context) {
+		Integer lval = (Integer) calculateItem(context, left);
+		Integer rval = (Integer) calculateItem(context, right);
 		return lval << rval;
 	}
 	public String fetchSelf() {
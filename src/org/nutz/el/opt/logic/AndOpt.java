@@ -2,6 +2,7 @@ package org.nutz.el.opt.logic;
 
 import org.nutz.el.ElException;
 import org.nutz.el.opt.TwoTernary;
+import org.nutz.lang.util.Context;
 
 /**
  * and
@@ -13,15 +14,15 @@ public class AndOpt extends TwoTernary {
 		return 11;
 	}
 	
-	public Object calculate() {
-		Object lval = calculateItem(this.left);
+	public Object calculate(Context context) {
+		Object lval = calculateItem(context, this.left);
 		if(!(lval instanceof Boolean)){
 			throw new ElException("操作数类型错误!");
 		}
 		if(!(Boolean)lval){
 			return false;
 		}
-		Object rval = calculateItem(this.right);
+		Object rval = calculateItem(context, this.right);
 		if(!(rval instanceof Boolean)){
 			throw new ElException("操作数类型错误!");
 		}
@@ -1,6 +1,7 @@
 package org.nutz.el.opt.logic;
 
 import org.nutz.el.opt.TwoTernary;
+import org.nutz.lang.util.Context;
 
 /**
  * 不等于
@@ -11,9 +12,9 @@ public class NEQOpt extends TwoTernary{
 	public int fetchPriority() {
 		return 6;
 	}
-	public Object calculate() {
-		Object lval = calculateItem(this.left);
-		Object rval = calculateItem(this.right);
+	public Object calculate(Context context) {
+		Object lval = calculateItem(context, this.left);
+		Object rval = calculateItem(context, this.right);
 		if(lval == rval){
 			return false;
 		}
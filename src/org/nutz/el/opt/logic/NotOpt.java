@@ -4,6 +4,7 @@ import java.util.Queue;
 
 import org.nutz.el.ElException;
 import org.nutz.el.opt.AbstractOpt;
+import org.nutz.lang.util.Context;
 
 /**
  * Not(!)
@@ -20,14 +21,21 @@ public class NotOpt extends AbstractOpt{
 		right = rpn.poll();
 	}
 	
-	public Object calculate() {
-		Object rval = calculateItem(this.right);
+	public Object calculate(Context context) {
+		Object rval = calculateItem(context, this.right);
 		if(rval instanceof Boolean){
 			return !(Boolean) rval;
 		}
 		throw new ElException("'!'操作符操作失败!");
 	}
 	
+	/**
+	 * 取得操作数本身,不进行计算
+	 */
+	public Object fetchRight() {
+		return right;
+	}
+
 	public String fetchSelf() {
 		return "!";
 	}
@@ -2,6 +2,7 @@ package org.nutz.el.opt.logic;
 
 import org.nutz.el.ElException;
 import org.nutz.el.opt.TwoTernary;
+import org.nutz.lang.util.Context;
 
 /**
  * or(||)
@@ -13,15 +14,15 @@ public class OrOpt extends TwoTernary{
 	public int fetchPriority() {
 		return 12;
 	}
-	public Object calculate() {
-		Object lval = calculateItem(left);
+	public Object calculate(Context context) {
+		Object lval = calculateItem(context, left);
 		if(!(lval instanceof Boolean)){
 			throw new ElException("操作数类型错误!");
 		}
 		if((Boolean)lval){
 			return true;
 		}
-		Object rval = calculateItem(right);
+		Object rval = calculateItem(context, right);
 		if(!(rval instanceof Boolean)){
 			throw new ElException("操作数类型错误!");
 		}
@@ -3,6 +3,7 @@ package org.nutz.el.opt.logic;
 import org.nutz.el.ElException;
 import org.nutz.el.Operator;
 import org.nutz.el.opt.TwoTernary;
+import org.nutz.lang.util.Context;
 
 /**
  * 三元运算符:
@@ -19,9 +20,9 @@ public class QuestionOpt extends TwoTernary{
 	public int fetchPriority() {
 		return 13;
 	}
-	public Object calculate() {
+	public Object calculate(Context context) {
 		if(left instanceof Operator){
-			return ((Operator) left).calculate();
+			return ((Operator) left).calculate(context);
 		}
 		throw new ElException("三元表达式错误!");
 	}
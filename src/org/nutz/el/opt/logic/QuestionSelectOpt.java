@@ -2,6 +2,7 @@ package org.nutz.el.opt.logic;
 
 import org.nutz.el.ElException;
 import org.nutz.el.opt.TwoTernary;
+import org.nutz.lang.util.Context;
 
 /**
  * 三元运算符:
@@ -19,16 +20,17 @@ public class QuestionSelectOpt extends TwoTernary{
 	public int fetchPriority() {
 		return 13;
 	}
-	public Object calculate() {
+	public Object calculate(Context context) {
 		if(!(left instanceof QuestionOpt)){
 			throw new ElException("三元表达式错误!");
 		}
 		QuestionOpt qo = (QuestionOpt) left;
-		Boolean cval = (Boolean) qo.calculate();
+		Boolean cval = (Boolean) qo.calculate(context);
 		if(cval){
-			return qo.getRight();
+			//'?'右侧的值也可能是变量,要取出它的值
+			return calculateItem(context, qo.fetchRight());
 		}
-		return calculateItem(right);
+		return calculateItem(context, right);
 	}
 	public String fetchSelf() {
 		return ":";
@@ -4,24 +4,24 @@ import java.util.List;
 import java.util.Map;
 
 import org.nutz.el.Operator;
-import org.nutz.el.opt.RunMethod;
 import org.nutz.el.opt.TwoTernary;
 import org.nutz.el.obj.IdentifierObj;
 import org.nutz.lang.Mirror;
+import org.nutz.lang.util.Context;
 
 /**
  * 访问符:'.'
  * @author juqkai(juqkai@gmail.com)
  *
  */
-public class AccessOpt extends TwoTernary implements RunMethod{
+public class AccessOpt extends TwoTernary {
 	public int fetchPriority() {
 		return 1;
 	}
 
-	public Object calculate() {
+	public Object calculate(Context context) {
 		//如果直接调用计算方法,那基本上就是直接调用属性了吧...我也不知道^^
-		Object obj = fetchVar();
+		Object obj = fetchVar(context);
 		if(obj instanceof Map){
 			Map<?,?> om = (Map<?, ?>) obj;
 			if(om.containsKey(right.toString())){
@@ -33,8 +33,11 @@ public class AccessOpt extends TwoTernary implements RunMethod{
 		return me.getValue(obj, right.toString());
 	}
 	
-	public Object run(List<Object> param) {
-		Object obj = fetchVar();
+	/**
+	 * 调用对象的方法
+	 */
+	public Object run(Context context, List<Object> param) {
+		Object obj = fetchVar(context);
 		
 		Mirror<?> me = Mirror.me(obj);
 		if(param.isEmpty()){
@@ -46,15 +49,13 @@ public class AccessOpt extends TwoTernary implements RunMethod{
 	/**
 	 * 取得变得的值
 	 */
-	public Object fetchVar(){
-		if(left instanceof AccessOpt){
-			return ((AccessOpt)left).fetchVar();
-		}
+	public Object fetchVar(Context context){
+		//左边是另一个访问符的时候,比如'a.b.c',要先把'a.b'的值取出来
 		if(left instanceof Operator){
-			return ((Operator) left).calculate();
+			return ((Operator) left).calculate(context);
 		}
 		if(left instanceof IdentifierObj){
-			return ((IdentifierObj) left).fetchVal();
+			return ((IdentifierObj) left).fetchVal(context);
 		}
 		return left;
 	}
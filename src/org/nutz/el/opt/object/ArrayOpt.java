@@ -4,6 +4,7 @@ import java.lang.reflect.Array;
 import java.util.Map;
 
 import org.nutz.el.opt.TwoTernary;
+import org.nutz.lang.util.Context;
 
 /**
  * 数组读取
@@ -16,9 +17,9 @@ public class ArrayOpt extends TwoTernary {
 	public int fetchPriority() {
 		return 1;
 	}
-	public Object calculate() {
-		Object lval = calculateItem(left);
-		Object rval = calculateItem(right);
+	public Object calculate(Context context) {
+		Object lval = calculateItem(context, left);
+		Object rval = calculateItem(context, right);
 		
 		//@ JKTODO 这里要不要与, AccessOpt 里面相同的代码合并呢?
 		if(lval instanceof Map){
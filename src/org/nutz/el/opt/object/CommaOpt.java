@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.nutz.el.opt.TwoTernary;
+import org.nutz.lang.util.Context;
 
 /**
  * ","
@@ -17,17 +18,17 @@ public class CommaOpt extends TwoTernary {
 	}
 
 	@SuppressWarnings("unchecked")
-	public Object calculate() {
+	public Object calculate(Context context) {
 		List<Object> objs = new ArrayList<Object>();
 		if(left instanceof CommaOpt){
-			List<Object> tem = (List<Object>) ((CommaOpt) left).calculate();
+			List<Object> tem = (List<Object>) ((CommaOpt) left).calculate(context);
 			for(Object t : tem){
 				objs.add(t);
 			}
 		}else{
-			objs.add(calculateItem(left));
+			objs.add(calculateItem(context, left));
 		}
-		objs.add(calculateItem(right));
+		objs.add(calculateItem(context, right));
 		return objs;
 	}
 	public String fetchSelf() {
@@ -3,6 +3,7 @@ package org.nutz.el.opt.object;
 import java.util.Queue;
 
 import org.nutz.el.opt.AbstractOpt;
+import org.nutz.lang.util.Context;
 
 /**
  * ']',数组封装.
@@ -18,12 +19,19 @@ public class FetchArrayOpt extends AbstractOpt {
 	public int fetchPriority() {
 		return 1;
 	}
-	public Object calculate() {
+	public Object calculate(Context context) {
 		if(left instanceof ArrayOpt){
-			return ((ArrayOpt) left).calculate();
+			return ((ArrayOpt) left).calculate(context);
 		}
 		return null;
 	}
+	/**
+	 * 取得操作数本身,不进行计算
+	 */
+	public Object fetchLeft() {
+		return left;
+	}
+
 	public String fetchSelf() {
 		return "]";
 	}
@@ -3,6 +3,7 @@ package org.nutz.el.opt.object;
 import java.util.Queue;
 
 import org.nutz.el.opt.AbstractOpt;
+import org.nutz.lang.util.Context;
 
 /**
  * 方法执行
@@ -17,13 +18,20 @@ public class InvokeMethodOpt extends AbstractOpt {
 		return 1;
 	}
 
-	public Object calculate() {
+	public Object calculate(Context context) {
 		if(left instanceof MethodOpt){
-			return ((MethodOpt) left).calculate();
+			return ((MethodOpt) left).calculate(context);
 		}
 		return null;
 	}
 
+	/**
+	 * 取得操作数本身,不进行计算
+	 */
+	public Object fetchLeft() {
+		return left;
+	}
+
 	public String fetchSelf() {
 		return "method invoke";
 	}
@@ -8,6 +8,7 @@ import org.nutz.el.Operator;
 import org.nutz.el.opt.RunMethod;
 import org.nutz.el.opt.TwoTernary;
 import org.nutz.el.opt.custom.CustomMake;
+import org.nutz.lang.util.Context;
 
 
 /**
@@ -30,16 +31,15 @@ public class MethodOpt extends TwoTernary {
 		super.wrap(rpn);
 	}
 	
-	public Object calculate(){
-		return fetchMethod().run(fetchParam());
+	public Object calculate(Context context) {
+		if(left instanceof AccessOpt){
+			return ((AccessOpt) left).run(context, fetchParam(context));
+		}
+		return fetchMethod().run(fetchParam(context));
 	}
 	
 	private RunMethod fetchMethod(){
-		if(!(left instanceof AccessOpt)){
-			return CustomMake.make(left.toString());
-		}
-		AccessOpt lval = (AccessOpt) left;
-		return lval;
+		return CustomMake.make(left.toString());
 	}
 	
 	
@@ -48,19 +48,19 @@ public class MethodOpt extends TwoTernary {
 	 * @return
 	 */
 	@SuppressWarnings("unchecked")
-	private List<Object> fetchParam(){
+	private List<Object> fetchParam(Context context){
 		List<Object> rvals = new ArrayList<Object>();
 		if(right != null){
 			if(right instanceof CommaOpt){
-				rvals = (List<Object>) ((CommaOpt) right).calculate();
+				rvals = (List<Object>) ((CommaOpt) right).calculate(context);
 			} else {
-				rvals.add(calculateItem(right));
+				rvals.add(calculateItem(context, right));
 			}
 		}
 		if(!rvals.isEmpty()){
 			for(int i = 0; i < rvals.size(); i ++){
 				if(rvals.get(i) instanceof Operator){
-					rvals.set(i, ((Operator)rvals.get(i)).calculate());
+					rvals.set(i, ((Operator)rvals.get(i)).calculate(context));
 				}
 			}
 		}
@@ -49,7 +49,8 @@ public class ValParse implements Parse {
 					break;
 				case 'l':
 				case 'L':
-					sb.append(exp.poll());
+					// Long.parseLong 不认识后缀
+					exp.poll();
 					return Long.parseLong(sb.toString());
 				case 'f':
 				case 'F':
@@ -17,12 +17,18 @@ public class ObjectProxy {
 	/**
 	 * 存储动态编织对象的方法
 	 */
-	private ObjectWeaver weaver;
+	private volatile ObjectWeaver weaver;
 
 	/**
 	 * 存储静态对象
 	 */
-	private Object obj;
+	private volatile Object obj;
+
+	/**
+	 * 对象是否正在创建中。单例对象在注入字段之前就已经保存在上下文里了(为了解除互相引用)，<br>
+	 * 这时候其他线程不能直接拿走它
+	 */
+	private volatile boolean making;
 
 	/**
 	 * 获取时触发器
@@ -44,6 +50,11 @@ public class ObjectProxy {
 		return this;
 	}
 
+	public ObjectProxy setMaking(boolean making) {
+		this.making = making;
+		return this;
+	}
+
 	public ObjectProxy setFetch(IocEventTrigger<Object> fetch) {
 		this.fetch = fetch;
 		return this;
@@ -54,6 +65,13 @@ public class ObjectProxy {
 		return this;
 	}
 
+	/**
+	 * @return 是否已经持有创建完毕的静态对象。如果是，get 的时候可以不提供 IocMaking
+	 */
+	public boolean hasObj() {
+		return null != obj && !making;
+	}
+
 	@SuppressWarnings("unchecked")
 	public <T> T get(Class<T> classOfT, IocMaking ing) {
 		Object re;
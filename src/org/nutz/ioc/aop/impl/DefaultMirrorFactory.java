@@ -56,7 +56,14 @@ public class DefaultMirrorFactory implements MirrorFactory {
 		for (InterceptorPair interceptorPair : interceptorPairs)
 			agent.addInterceptor(	interceptorPair.getMethodMatcher(),
 									interceptorPair.getMethodInterceptor());
-		return Mirror.me(agent.define(cd, type));
+		// NutIoc.preload() 会在多个线程里同时创建对象，同一个类只能被定义一次
+		synchronized (cd) {
+			try {
+				return (Mirror<T>) Mirror.me(cd.load(type.getName() + ClassAgent.CLASSNAME_SUFFIX));
+			}
+			catch (ClassNotFoundException e) {}
+			return Mirror.me(agent.define(cd, type));
+		}
 	}
 
 	public void setAopConfigration(AopConfigration aopConfigration) {
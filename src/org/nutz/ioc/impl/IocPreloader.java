@@ -0,0 +1,229 @@
+package org.nutz.ioc.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.nutz.ioc.IocException;
+import org.nutz.ioc.Iocs;
+import org.nutz.ioc.ObjectLoadException;
+import org.nutz.ioc.meta.IocField;
+import org.nutz.ioc.meta.IocObject;
+import org.nutz.ioc.meta.IocValue;
+import org.nutz.lang.Lang;
+import org.nutz.lang.Stopwatch;
+import org.nutz.log.Log;
+import org.nutz.log.Logs;
+
+/**
+ * 并行的预先创建容器里的单例对象，参见 NutIoc.preload()
+ * <p>
+ * 先读取全部对象的定义，根据 refer 和 java 类型的值(包括内部对象，数组，集合和 Map 里的值)建立对象之间的依赖关系。<br>
+ * 一个对象依赖的全部对象都创建好了以后，它才会被交给线程池创建，所以互相不依赖的对象可以同时被创建。<br>
+ * 互相依赖的对象最后在当前线程里，按照普通的方式获取
+ */
+class IocPreloader {
+
+	private static final Log log = Logs.get();
+
+	/**
+	 * java 类型的值里，"$name" 表示引用容器里的对象
+	 */
+	private static final Pattern JAVA_REFER = Pattern.compile("\\$([a-zA-Z0-9_]+)");
+
+	private NutIoc ioc;
+
+	private Map<String, IocObject> objs;
+
+	/**
+	 * 依赖某个对象的全部对象
+	 */
+	private Map<String, List<String>> dependents;
+
+	/**
+	 * 每个对象还在等待多少个依赖的对象
+	 */
+	private Map<String, AtomicInteger> waits;
+
+	private Map<String, Long> times;
+
+	private ExecutorService es;
+
+	/**
+	 * 已经提交给线程池，但是还没有执行完的任务数。多算了一个，由 load() 自己持有
+	 */
+	private AtomicInteger running;
+
+	private CountDownLatch done;
+
+	private volatile Throwable error;
+
+	IocPreloader(NutIoc ioc) {
+		this.ioc = ioc;
+		this.objs = new LinkedHashMap<String, IocObject>();
+		this.dependents = new HashMap<String, List<String>>();
+		this.waits = new HashMap<String, AtomicInteger>();
+		this.times = Collections.synchronizedMap(new LinkedHashMap<String, Long>());
+		this.running = new AtomicInteger(1);
+		this.done = new CountDownLatch(1);
+	}
+
+	Map<String, Long> load(int threads) {
+		Stopwatch sw = Stopwatch.begin();
+		try {
+			for (String name : ioc.getNames()) {
+				IocObject iobj = ioc.loadObject(name);
+				if (null != iobj)
+					objs.put(name, iobj);
+			}
+		}
+		catch (ObjectLoadException e) {
+			throw new IocException(e, "Fail to preload");
+		}
+		evalDependencies();
+
+		if (threads < 1)
+			threads = Runtime.getRuntime().availableProcessors();
+		es = Executors.newFixedThreadPool(threads);
+		try {
+			for (Map.Entry<String, AtomicInteger> en : waits.entrySet())
+				if (en.getValue().get() == 0)
+					submit(en.getKey());
+			finish();
+			done.await();
+		}
+		catch (InterruptedException e) {
+			throw Lang.wrapThrow(e);
+		}
+		finally {
+			es.shutdown();
+		}
+		if (null != error)
+			throw Lang.wrapThrow(error);
+
+		// 互相依赖的对象，它们会在创建的过程中互相获取，这里按照普通的方式获取就可以了
+		for (Map.Entry<String, AtomicInteger> en : waits.entrySet()) {
+			if (en.getValue().get() > 0) {
+				IocObject iobj = objs.get(en.getKey());
+				if (iobj.isSingleton() && null != iobj.getType())
+					create(en.getKey(), iobj, false);
+			}
+		}
+
+		sw.stop();
+		if (log.isInfoEnabled())
+			log.infof("Preload %d objects by %d threads in %dms", times.size(), threads, sw.getDuration());
+		return times;
+	}
+
+	private void evalDependencies() {
+		for (String name : objs.keySet()) {
+			dependents.put(name, new ArrayList<String>());
+			waits.put(name, new AtomicInteger());
+		}
+		for (Map.Entry<String, IocObject> en : objs.entrySet()) {
+			Set<String> refers = new HashSet<String>();
+			findRefers(en.getValue(), refers);
+			refers.remove(en.getKey());
+			for (String refer : refers) {
+				List<String> list = dependents.get(refer);
+				if (null != list) {
+					list.add(en.getKey());
+					waits.get(en.getKey()).incrementAndGet();
+				}
+			}
+		}
+	}
+
+	private static void findRefers(IocObject iobj, Set<String> refers) {
+		for (IocValue iv : iobj.getArgs())
+			findRefers(iv, refers);
+		for (IocField ifld : iobj.getFields())
+			findRefers(ifld.getValue(), refers);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void findRefers(IocValue iv, Set<String> refers) {
+		if (null == iv || null == iv.getValue())
+			return;
+		Object value = iv.getValue();
+		if (IocValue.TYPE_REFER.equals(iv.getType())) {
+			refers.add(Iocs.parseName(value.toString()).getName());
+		} else if (IocValue.TYPE_JAVA.equals(iv.getType())) {
+			Matcher m = JAVA_REFER.matcher(value.toString());
+			while (m.find())
+				refers.add(m.group(1));
+		} else if (value instanceof IocObject) {
+			findRefers((IocObject) value, refers);
+		} else if (value instanceof IocValue[]) {
+			for (IocValue v : (IocValue[]) value)
+				findRefers(v, refers);
+		} else if (value instanceof Collection<?>) {
+			for (Object v : (Collection<?>) value)
+				if (v instanceof IocValue)
+					findRefers((IocValue) v, refers);
+		} else if (value instanceof Map<?, ?>) {
+			for (Object v : ((Map<String, ?>) value).values())
+				if (v instanceof IocValue)
+					findRefers((IocValue) v, refers);
+		}
+	}
+
+	private void submit(final String name) {
+		running.incrementAndGet();
+		es.execute(new Runnable() {
+			public void run() {
+				try {
+					if (null == error) {
+						create(name, objs.get(name), true);
+						for (String dependent : dependents.get(name))
+							if (waits.get(dependent).decrementAndGet() == 0)
+								submit(dependent);
+					}
+				}
+				catch (Throwable e) {
+					if (null == error)
+						error = e;
+				}
+				finally {
+					finish();
+				}
+			}
+		});
+	}
+
+	private void finish() {
+		if (running.decrementAndGet() == 0)
+			done.countDown();
+	}
+
+	private void create(String name, IocObject iobj, boolean parallel) {
+		long start = System.currentTimeMillis();
+		boolean created;
+		if (parallel) {
+			created = ioc.preloadObject(name, iobj);
+		} else {
+			ioc.get(iobj.getType(), name);
+			created = true;
+		}
+		if (created) {
+			long ms = System.currentTimeMillis() - start;
+			times.put(name, ms);
+			if (log.isInfoEnabled())
+				log.infof("\t >> '%s'<%s> in %dms", name, iobj.getType().getName(), ms);
+		}
+	}
+
+}
@@ -1,9 +1,12 @@
 package org.nutz.ioc.impl;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.nutz.ioc.Ioc2;
 import org.nutz.ioc.IocContext;
@@ -69,6 +72,20 @@ public class NutIoc implements Ioc2 {
 	 * </ul>
 	 */
 	private Set<String> supportedTypes;
+	/**
+	 * 缓存非单例对象的代理。第一次解析以后，再获取的时候就不用读取定义，也不用重新生成编织器了
+	 * <p>
+	 * addValueProxyMaker(), setMaker(), setMirrorFactory(), reset() 会清空这个缓存
+	 */
+	private Map<String, ObjectProxy> prototypes;
+	/**
+	 * 正在被 preload() 的工作线程创建的单例对象，以及创建它的线程。读写的时候需要同步 this
+	 */
+	private Map<String, Thread> preloading;
+	/**
+	 * 正在等待 preload() 的工作线程的线程，以及它在等待的对象。读写的时候需要同步 this
+	 */
+	private Map<Thread, String> waiting;
 
 	public NutIoc(IocLoader loader) {
 		this(loader, new ScopeContext(DEF_SCOPE), DEF_SCOPE);
@@ -94,6 +111,9 @@ public class NutIoc implements Ioc2 {
 			this.loader = loader;
 		else
 			this.loader = CachedIocLoaderImpl.create(loader);
+		prototypes = new ConcurrentHashMap<String, ObjectProxy>();
+		preloading = new HashMap<String, Thread>();
+		waiting = new HashMap<Thread, String>();
 		vpms = new ArrayList<ValueProxyMaker>(5); // 预留五个位置，足够了吧
 		addValueProxyMaker(new DefaultValueProxyMaker());
 
@@ -146,18 +166,52 @@ public class NutIoc implements Ioc2 {
 			cntx = new ComboContext(context, this.context);
 		}
 
+		// 从上下文缓存中获取对象代理，已经生成好的单例对象直接返回，不需要 IocMaking
+		ObjectProxy op = cntx.fetch(name);
+		if (null != op && op.hasObj())
+			return op.get(type, null);
+
+		// 上下文里有代理，但是对象还没有创建完毕，说明别的线程(或者本线程的上一层调用)正在创建它
+		boolean making = null != op;
+
+		// 非单例对象，使用缓存的代理
+		if (null == op)
+			op = prototypes.get(name);
+
 		// 创建对象创建时
 		IocMaking ing = new IocMaking(this, mirrors, cntx, maker, vpms, name);
 
-		// 从上下文缓存中获取对象代理
-		ObjectProxy op = cntx.fetch(name);
-
-		// 如果未发现对象
-		if (null == op) {
-			// 线程同步
+		// 如果未发现对象，或者对象还在创建中
+		if (null == op || making) {
+			// 线程同步，只有第一次解析一个对象的时候才会走到这里
+			// 对象之间会互相引用，所以这里不能换成每个名称一个锁，否则会死锁
 			synchronized (this) {
 				// 再次读取
 				op = cntx.fetch(name);
+				if (null == op)
+					op = prototypes.get(name);
+
+				// 对象正在被 preload() 的其他工作线程创建，等它完成。wait() 会暂时释放容器的锁
+				while (isPreloadingByOthers(name)) {
+					// 那个线程也在(间接的)等本线程正在创建的对象，互相等待就死锁了。
+					// 像单线程的时候一样，使用还没有创建完毕的对象
+					if (isWaitingForMe(name)) {
+						if (null == op)
+							throw Lang.makeThrow("Cyclic dependence when preload '%s'", name);
+						break;
+					}
+					waiting.put(Thread.currentThread(), name);
+					try {
+						wait();
+					}
+					catch (InterruptedException e) {
+						throw Lang.wrapThrow(e);
+					}
+					finally {
+						waiting.remove(Thread.currentThread());
+					}
+					op = cntx.fetch(name);
+				}
 
 				// 如果未发现对象
 				if (null == op) {
@@ -171,7 +225,8 @@ public class NutIoc implements Ioc2 {
 							throw Lang.makeThrow("Undefined object '%s'", name);
 
 						// 修正对象类型
-						if (null == iobj.getType())
+						boolean typed = null != iobj.getType();
+						if (!typed)
 							if (null == type)
 								throw Lang.makeThrow("NULL TYPE object '%s'", name);
 							else
@@ -185,6 +240,11 @@ public class NutIoc implements Ioc2 {
 						if (log.isDebugEnabled())
 							log.debugf("\t >> Make...'%s'<%s>", name, type);
 						op = maker.make(ing, iobj);
+
+						// 非单例对象不会被保存在上下文里，缓存它的代理。
+						// 如果对象类型是由调用者决定的，则不缓存
+						if (!iobj.isSingleton() && typed)
+							prototypes.put(name, op);
 					}
 					// 处理异常
 					catch (ObjectLoadException e) {
@@ -200,12 +260,92 @@ public class NutIoc implements Ioc2 {
 		return this.get(type, name, null);
 	}
 
+	/**
+	 * 用一个线程池预先创建容器里全部的单例对象，互相不依赖的对象会被同时创建。
+	 * <p>
+	 * 默认的，单例对象在第一次被获取的时候才会创建。应用启动的时候调用这个函数，可以让第一个请求不必等待<br>
+	 * 数据源，Dao 等对象的创建。Nutz.Mvc 里，可以通过初始化参数 "ioc-preload" 打开它
+	 * 
+	 * @param threads
+	 *            线程数，小于 1 的话，使用 CPU 的个数
+	 * @return 每个对象的创建时间(毫秒)，按照创建完成的顺序排列
+	 */
+	public Map<String, Long> preload(int threads) {
+		return new IocPreloader(this).load(threads);
+	}
+
+	/**
+	 * 读取一个对象的定义，并补全它的生命周期范围
+	 * 
+	 * @return 对象定义，如果没有这个对象，返回 null
+	 */
+	IocObject loadObject(String name) throws ObjectLoadException {
+		IocObject iobj = loader.load(createLoading(), name);
+		if (null != iobj && Strings.isBlank(iobj.getScope()))
+			iobj.setScope(defaultScope);
+		return iobj;
+	}
+
+	/**
+	 * 由 preload() 的工作线程调用，创建一个单例对象。
+	 * <p>
+	 * 它依赖的对象已经被创建过了，所以创建的时候不占用容器的锁，这样不同的对象才能同时被创建。<br>
+	 * 在创建完成之前，其他线程获取这个对象的时候会等待
+	 * 
+	 * @return true 如果对象是由本次调用创建的。非单例，或者不在默认范围的对象不会被创建
+	 */
+	boolean preloadObject(String name, IocObject iobj) {
+		if (!iobj.isSingleton() || null == iobj.getType() || !defaultScope.equals(iobj.getScope()))
+			return false;
+		synchronized (this) {
+			if (null != context.fetch(name) || preloading.containsKey(name))
+				return false;
+			preloading.put(name, Thread.currentThread());
+		}
+		try {
+			if (log.isDebugEnabled())
+				log.debugf("\t >> Preload...'%s'<%s>", name, iobj.getType());
+			IocMaking ing = new IocMaking(this, mirrors, context, maker, vpms, name);
+			maker.make(ing, iobj);
+			return true;
+		}
+		finally {
+			synchronized (this) {
+				preloading.remove(name);
+				notifyAll();
+			}
+		}
+	}
+
+	private boolean isPreloadingByOthers(String name) {
+		Thread t = preloading.get(name);
+		return null != t && t != Thread.currentThread();
+	}
+
+	/**
+	 * 创建这个对象的线程，是否在等待本线程正在创建的对象。沿着等待的链条查找，链条不会比等待的线程数更长
+	 */
+	private boolean isWaitingForMe(String name) {
+		Thread me = Thread.currentThread();
+		Thread t = preloading.get(name);
+		for (int i = waiting.size(); null != t && i >= 0; i--) {
+			if (t == me)
+				return true;
+			String next = waiting.get(t);
+			if (null == next)
+				return false;
+			t = preloading.get(next);
+		}
+		return false;
+	}
+
 	public boolean has(String name) {
 		return loader.has(name);
 	}
 
 	public void depose() {
 		context.depose();
+		prototypes.clear();
 		if (loader instanceof CachedIocLoader)
 			((CachedIocLoader) loader).clear();
 		if (log.isDebugEnabled())
@@ -214,6 +354,7 @@ public class NutIoc implements Ioc2 {
 
 	public void reset() {
 		context.clear();
+		prototypes.clear();
 		if (loader instanceof CachedIocLoader)
 			((CachedIocLoader) loader).clear();
 	}
@@ -224,6 +365,7 @@ public class NutIoc implements Ioc2 {
 
 	public void addValueProxyMaker(ValueProxyMaker vpm) {
 		vpms.add(0, vpm);// 优先使用最后加入的ValueProxyMaker
+		prototypes.clear();
 	}
 
 	public IocContext getIocContext() {
@@ -232,10 +374,12 @@ public class NutIoc implements Ioc2 {
 
 	public void setMaker(ObjectMaker maker) {
 		this.maker = maker;
+		prototypes.clear();
 	}
 
 	public void setMirrorFactory(MirrorFactory mirrors) {
 		this.mirrors = mirrors;
+		prototypes.clear();
 	}
 
 	public void setDefaultScope(String defaultScope) {
@@ -1,5 +1,7 @@
 package org.nutz.ioc.impl;
 
+import java.lang.reflect.Constructor;
+
 import org.nutz.ioc.IocEventTrigger;
 import org.nutz.ioc.IocMaking;
 import org.nutz.ioc.ObjectMaker;
@@ -15,6 +17,10 @@ import org.nutz.lang.Lang;
 import org.nutz.lang.Mirror;
 import org.nutz.lang.Strings;
 import org.nutz.lang.born.Borning;
+import org.nutz.lang.born.ConstructorBorning;
+import org.nutz.lang.born.EmptyArgsConstructorBorning;
+import org.nutz.lang.reflect.FastClass;
+import org.nutz.lang.reflect.FastClasses;
 
 /**
  * 在这里，需要考虑 AOP
@@ -34,7 +40,8 @@ public class ObjectMakerImpl implements ObjectMaker {
 		// 建立对象代理，并保存在上下文环境中 只有对象为 singleton
 		// 并且有一个非 null 的名称的时候才会保存
 		// 就是说，所有内部对象，将会随这其所附属的对象来保存，而自己不会单独保存
-		ObjectProxy op = new ObjectProxy();
+		// 创建完成之前，标记为正在创建，其他线程不会直接拿走还没有注入字段的对象
+		ObjectProxy op = new ObjectProxy().setMaking(true);
 		if (iobj.isSingleton() && null != ing.getObjectName())
 			ing.getContext().save(iobj.getScope(), ing.getObjectName(), op);
 
@@ -66,7 +73,20 @@ public class ObjectMakerImpl implements ObjectMaker {
 				args[i] = vps[i].get(ing);
 
 			// 缓存构造函数
-			dw.setBorning((Borning<?>) mirror.getBorning(args));
+			Borning<?> borning = mirror.getBorning(args);
+			dw.setBorning(borning);
+
+			// 可以的话，通过 FastClass 生成的字节码直接调用构造函数，不能生成时仍然使用反射
+			FastClass fc = FastClasses.get(mirror.getType());
+			if (null != fc) {
+				Constructor<?> c = null;
+				if (borning instanceof ConstructorBorning<?>)
+					c = ((ConstructorBorning<?>) borning).getConstructor();
+				else if (borning instanceof EmptyArgsConstructorBorning<?>)
+					c = ((EmptyArgsConstructorBorning<?>) borning).getConstructor();
+				if (null != c)
+					dw.setFastBorning(fc, c);
+			}
 
 			// 如果这个对象是容器中的单例，那么就可以生成实例了
 			// 这一步非常重要，它解除了字段互相引用的问题
@@ -96,6 +116,7 @@ public class ObjectMakerImpl implements ObjectMaker {
 
 			// 对象创建完毕，如果有 create 事件，调用它
 			dw.onCreate(obj);
+			op.setMaking(false);
 
 		}
 		// 当异常发生，从 context 里移除 ObjectProxy
@@ -1,8 +1,9 @@
 package org.nutz.ioc.impl;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.nutz.ioc.IocContext;
 import org.nutz.ioc.ObjectProxy;
@@ -12,6 +13,8 @@ import org.nutz.log.Logs;
 
 /**
  * 自定义级别上下文对象
+ * <p>
+ * 对象保存在一个 ConcurrentHashMap 里，获取对象不需要加锁
  * 
  * @author zozoh(zozohtnt@gmail.com)
  */
@@ -20,11 +23,11 @@ public class ScopeContext implements IocContext {
 	private static final Log log = Logs.get();
 
 	private String scope;
-	private Map<String, ObjectProxy> objs;
+	private ConcurrentMap<String, ObjectProxy> objs;
 
 	public ScopeContext(String scope) {
 		this.scope = scope;
-		objs = new HashMap<String, ObjectProxy>();
+		objs = new ConcurrentHashMap<String, ObjectProxy>();
 	}
 
 	private void checkBuffer() {
@@ -46,18 +49,18 @@ public class ScopeContext implements IocContext {
 
 	public ObjectProxy fetch(String name) {
 		checkBuffer();
+		if (null == name)
+			return null;
 		return objs.get(name);
 	}
 
 	public boolean save(String scope, String name, ObjectProxy obj) {
-		if (accept(scope)) {
+		if (null != name && accept(scope)) {
 			checkBuffer();
-			synchronized (this) {
-				if (!objs.containsKey(name)) {
-					if (log.isDebugEnabled())
-						log.debugf("Save object '%s' to [%s] ", name, scope);
-					return null != objs.put(name, obj);
-				}
+			if (null == objs.putIfAbsent(name, obj)) {
+				if (log.isDebugEnabled())
+					log.debugf("Save object '%s' to [%s] ", name, scope);
+				return true;
 			}
 		}
 		return false;
@@ -68,15 +71,12 @@ public class ScopeContext implements IocContext {
 	}
 
 	public boolean remove(String scope, String name) {
-		if (accept(scope)) {
+		if (null != name && accept(scope)) {
 			checkBuffer();
-
-			synchronized (this) {
-				if (!objs.containsKey(name)) {
-					if (log.isDebugEnabled())
-						log.debugf("Remove object '%s' from [%s] ", name, scope);
-					return null != objs.remove(name);
-				}
+			if (null != objs.remove(name)) {
+				if (log.isDebugEnabled())
+					log.debugf("Remove object '%s' from [%s] ", name, scope);
+				return true;
 			}
 		}
 		return false;
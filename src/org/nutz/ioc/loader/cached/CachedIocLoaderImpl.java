@@ -1,7 +1,7 @@
 package org.nutz.ioc.loader.cached;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.nutz.ioc.IocLoader;
 import org.nutz.ioc.IocLoading;
@@ -26,7 +26,7 @@ public class CachedIocLoaderImpl implements CachedIocLoader {
 
 	private CachedIocLoaderImpl(IocLoader proxyIocLoader) {
 		this.proxyIocLoader = proxyIocLoader;
-		this.map = new HashMap<String, IocObject>();
+		this.map = new ConcurrentHashMap<String, IocObject>();
 	}
 
 	public void clear() {
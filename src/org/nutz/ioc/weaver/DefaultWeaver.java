@@ -1,10 +1,15 @@
 package org.nutz.ioc.weaver;
 
+import java.lang.reflect.Constructor;
+
 import org.nutz.ioc.IocEventTrigger;
 import org.nutz.ioc.IocMaking;
 import org.nutz.ioc.ObjectWeaver;
 import org.nutz.ioc.ValueProxy;
+import org.nutz.lang.Mirror;
 import org.nutz.lang.born.Borning;
+import org.nutz.lang.born.BorningException;
+import org.nutz.lang.reflect.FastClass;
 
 /**
  * 默认的对象编织过程
@@ -34,6 +39,23 @@ public class DefaultWeaver implements ObjectWeaver {
 	 */
 	private FieldInjector[] fields;
 
+	/**
+	 * 生成的字节码，用来直接调用构造函数
+	 */
+	private FastClass fc;
+
+	/**
+	 * 构造函数在 FastClass 里的下标，-1 表示通过 borning 创建对象
+	 */
+	private int bornIndex = -1;
+
+	/**
+	 * 构造函数的参数类型，以及换成了外覆类的参数类型
+	 */
+	private Class<?>[] paramTypes;
+
+	private Class<?>[] argTypes;
+
 	public void setCreate(IocEventTrigger<Object> create) {
 		this.create = create;
 	}
@@ -42,6 +64,21 @@ public class DefaultWeaver implements ObjectWeaver {
 		this.borning = borning;
 	}
 
+	/**
+	 * 通过 FastClass 生成的字节码直接调用构造函数。某次创建时参数的类型与构造函数不符，仍然使用 borning
+	 */
+	public void setFastBorning(FastClass fc, Constructor<?> c) {
+		int index = fc.indexOf(c);
+		if (index < 0)
+			return;
+		paramTypes = c.getParameterTypes();
+		argTypes = new Class<?>[paramTypes.length];
+		for (int i = 0; i < paramTypes.length; i++)
+			argTypes[i] = Mirror.me(paramTypes[i]).getWrapper();
+		this.fc = fc;
+		this.bornIndex = index;
+	}
+
 	public void setArgs(ValueProxy[] args) {
 		this.args = args;
 	}
@@ -64,11 +101,29 @@ public class DefaultWeaver implements ObjectWeaver {
 			args[i] = this.args[i].get(ing);
 
 		// 创建实例
+		if (bornIndex >= 0 && isFastArgs(args)) {
+			try {
+				return fc.born(bornIndex, args);
+			}
+			catch (Exception e) {
+				throw new BorningException(e, fc.getType(), args);
+			}
+		}
 		Object obj = borning.born(args);
 
 		return obj;
 	}
 
+	private boolean isFastArgs(Object[] args) {
+		if (args.length != argTypes.length)
+			return false;
+		for (int i = 0; i < args.length; i++) {
+			if (null == args[i] ? paramTypes[i].isPrimitive() : !argTypes[i].isInstance(args[i]))
+				return false;
+		}
+		return true;
+	}
+
 	public Object onCreate(Object obj) {
 		if (null != create && null != obj)
 			create.trigger(obj);
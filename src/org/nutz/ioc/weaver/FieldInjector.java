@@ -1,26 +1,128 @@
 package org.nutz.ioc.weaver;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import org.nutz.castor.Castors;
 import org.nutz.ioc.IocMaking;
 import org.nutz.ioc.ValueProxy;
+import org.nutz.ioc.val.StaticValue;
+import org.nutz.lang.Lang;
 import org.nutz.lang.Mirror;
+import org.nutz.lang.inject.InjectByField;
+import org.nutz.lang.inject.InjectBySetter;
 import org.nutz.lang.inject.Injecting;
+import org.nutz.lang.reflect.FastClass;
+import org.nutz.lang.reflect.FastClasses;
 
+/**
+ * 为对象的一个字段注入值
+ * <p>
+ * 能快速访问的时候，通过 FastClass 生成的字节码调用设值方法或者设置字段。常量值会被预先转换成字段的类型，<br>
+ * 其它的值类型正确的话直接设置，否则退回到 Injecting，由它转换
+ */
 public class FieldInjector {
 
 	public static FieldInjector create(Mirror<?> mirror, String fieldName, ValueProxy vp) {
 		FieldInjector fi = new FieldInjector();
+		fi.name = fieldName;
 		fi.valueProxy = vp;
 		fi.inj = mirror.getInjecting(fieldName);
+		fi.compile(FastClasses.get(mirror.getType()));
 		return fi;
 	}
 
+	private String name;
 	private ValueProxy valueProxy;
 	private Injecting inj;
 
+	/**
+	 * 生成的字节码，以及设值方法或者字段在里面的下标，-1 表示不能快速访问
+	 */
+	private FastClass fc;
+	private int setter = -1;
+	private int field = -1;
+
+	/**
+	 * 设值方法的参数类型或者字段的类型，以及它的外覆类
+	 */
+	private Class<?> type;
+	private Class<?> wrapper;
+
+	/**
+	 * 预先转换好的常量值
+	 */
+	private boolean constant;
+	private Object value;
+
 	private FieldInjector() {}
 
+	private void compile(FastClass fc) {
+		if (null == fc)
+			return;
+		if (inj instanceof InjectBySetter) {
+			Method m = ((InjectBySetter) inj).getSetter();
+			type = m.getParameterTypes()[0];
+			setter = fc.indexOf(m);
+		} else if (inj instanceof InjectByField) {
+			Field f = ((InjectByField) inj).getField();
+			type = f.getType();
+			field = fc.indexOf(f);
+		}
+		if (setter < 0 && field < 0)
+			return;
+		this.fc = fc;
+		this.wrapper = Mirror.me(type).getWrapper();
+
+		// 只有不可变的值才能被多个对象共享
+		if (valueProxy instanceof StaticValue) {
+			try {
+				Object v = Castors.me().castTo(valueProxy.get(null), type);
+				if (canFastSet(v) && isImmutable(v)) {
+					value = v;
+					constant = true;
+				}
+			}
+			catch (Exception e) {
+				// 转换不了的话，留给 Injecting 在创建对象的时候报错
+			}
+		}
+	}
+
+	private boolean canFastSet(Object v) {
+		return null == v ? !type.isPrimitive() : wrapper.isInstance(v);
+	}
+
+	private static boolean isImmutable(Object v) {
+		return null == v
+				|| v instanceof String
+				|| v instanceof Boolean
+				|| v instanceof Character
+				|| v instanceof Enum<?>
+				|| Mirror.me(v.getClass()).isPrimitiveNumber();
+	}
+
 	void inject(IocMaking ing, Object obj) {
+		if (constant) {
+			set(obj, value);
+			return;
+		}
 		Object value = valueProxy.get(ing);
-		inj.inject(obj, value);
+		if (null != fc && canFastSet(value))
+			set(obj, value);
+		else
+			inj.inject(obj, value);
+	}
+
+	private void set(Object obj, Object value) {
+		try {
+			if (setter >= 0)
+				fc.invoke(obj, setter, value);
+			else
+				fc.setField(obj, field, value);
+		}
+		catch (Exception e) {
+			throw Lang.wrapThrow(e, "Fail to set '%s' to %s.'%s'", value, obj.getClass().getName(), name);
+		}
 	}
 }
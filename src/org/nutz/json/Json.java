@@ -1,6 +1,7 @@
 package org.nutz.json;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.lang.reflect.Type;
@@ -8,6 +9,7 @@ import java.util.Map;
 import java.util.WeakHashMap;
 
 import org.nutz.json.entity.JsonEntity;
+import org.nutz.lang.Each;
 import org.nutz.lang.Lang;
 import org.nutz.lang.Mirror;
 
@@ -134,6 +136,29 @@ public class Json {
 		return fromJson(type, Lang.inr(cs));
 	}
 
+	/**
+	 * 从输入流中逐个读取 JSON 数组的元素，每读完一个，就生成一个特定类型的对象交给回调。<br>
+	 * 整个数组不会被同时放在内存里，所以它适合读取很大的请求体。
+	 * <p>
+	 * 回调的 length 参数总是 -1，因为读到最后之前并不知道数组有多长。回调里抛出 ExitLoop，<br>
+	 * 会停止读取。如果输入不是数组，则当作只有一个元素的数组
+	 * 
+	 * @param reader
+	 *            输入流
+	 * @param type
+	 *            元素类型
+	 * @param callback
+	 *            回调
+	 * @return 回调的次数
+	 * @throws JsonException
+	 * 
+	 * @see org.nutz.json.JsonArrayWriter
+	 */
+	public static <T> int each(Reader reader, Class<T> type, Each<T> callback)
+			throws JsonException {
+		return new JsonParsing().each(type, reader, callback);
+	}
+
 	/**
 	 * 将一个 JAVA 对象转换成 JSON 字符串
 	 * 
@@ -194,4 +219,28 @@ public class Json {
 		}
 	}
 
+	/**
+	 * 将一个 JAVA 对象按照 UTF-8 编码写到一个字节输出流里，并且可以设定 JSON 字符串的格式化方式
+	 * <p>
+	 * 字符会被直接编码成字节，不经过 OutputStreamWriter
+	 * 
+	 * @param out
+	 *            字节输出流
+	 * @param obj
+	 *            JAVA 对象
+	 * @param format
+	 *            JSON 字符串格式化 , 若format, 则定义为JsonFormat.nice()
+	 */
+	public static void toJson(OutputStream out, Object obj, JsonFormat format) {
+		try {
+			if (format == null)
+				format = JsonFormat.nice();
+			new JsonRendering(out, format).render(obj);
+			out.flush();
+		}
+		catch (IOException e) {
+			throw Lang.wrapThrow(e, JsonException.class);
+		}
+	}
+
 }
@@ -0,0 +1,139 @@
+package org.nutz.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Iterator;
+
+import org.nutz.lang.Each;
+import org.nutz.lang.ExitLoop;
+import org.nutz.lang.Lang;
+import org.nutz.lang.LoopException;
+
+/**
+ * 一个一个地输出 JSON 数组的元素
+ * <p>
+ * 每个元素写完就被刷到目标里，不需要先把所有元素收集到一个集合里。所以它可以把一个很大的结果集，<br>
+ * 比如 Dao 的游标，用不变的内存直接写到 HTTP 响应里:
+ *
+ * <pre>
+ * JsonArrayWriter jaw = new JsonArrayWriter(resp.getOutputStream(), JsonFormat.compact());
+ * dao.each(Pet.class, null, jaw.&lt;Pet&gt; each());
+ * jaw.end();
+ * </pre>
+ *
+ * 这个类不是线程安全的
+ */
+public class JsonArrayWriter {
+
+	private JsonRendering rendering;
+
+	private Writer writer;
+
+	private OutputStream out;
+
+	private int count;
+
+	private boolean ended;
+
+	public JsonArrayWriter(Writer writer, JsonFormat format) {
+		this.writer = writer;
+		this.rendering = new JsonRendering(writer, null == format ? JsonFormat.nice() : format);
+	}
+
+	/**
+	 * 输出到字节流，编码为 UTF-8
+	 */
+	public JsonArrayWriter(OutputStream out, JsonFormat format) {
+		this.out = out;
+		this.rendering = new JsonRendering(out, null == format ? JsonFormat.nice() : format);
+	}
+
+	/**
+	 * 输出一个元素。第一个元素前会先输出 '['
+	 *
+	 * @param ele
+	 *            元素
+	 * @return 自身
+	 */
+	public JsonArrayWriter write(Object ele) {
+		if (ended)
+			throw Lang.makeThrow(JsonException.class, "JSON array has been ended!");
+		try {
+			rendering.render(count == 0 ? "[" : ", ", ele, true);
+		}
+		catch (IOException e) {
+			throw Lang.wrapThrow(e, JsonException.class);
+		}
+		count++;
+		return this;
+	}
+
+	/**
+	 * 输出迭代器里剩下的全部元素
+	 *
+	 * @param it
+	 *            迭代器
+	 * @return 自身
+	 */
+	public JsonArrayWriter writeAll(Iterator<?> it) {
+		while (it.hasNext())
+			write(it.next());
+		return this;
+	}
+
+	/**
+	 * 输出一个集合，数组，或者任何 Lang.each 可以迭代的对象的全部元素
+	 *
+	 * @param obj
+	 *            对象
+	 * @return 自身
+	 */
+	public JsonArrayWriter writeAll(Object obj) {
+		if (obj instanceof Iterator<?>)
+			return writeAll((Iterator<?>) obj);
+		Lang.each(obj, this.<Object> each());
+		return this;
+	}
+
+	/**
+	 * @return 一个回调，每次被调用都会输出一个元素。可以直接交给 Dao.each 或者 Lang.each
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Each<T> each() {
+		return (Each<T>) eacher;
+	}
+
+	private Each<Object> eacher = new Each<Object>() {
+		public void invoke(int i, Object ele, int length) throws ExitLoop, LoopException {
+			write(ele);
+		}
+	};
+
+	/**
+	 * 输出 ']' 结束数组，并刷新目标，但是不关闭它。如果一个元素都没有，会输出 "[]"
+	 */
+	public void end() {
+		if (ended)
+			return;
+		ended = true;
+		try {
+			rendering.append(count == 0 ? "[]" : "]");
+			if (null != writer)
+				writer.flush();
+			else
+				out.flush();
+		}
+		catch (IOException e) {
+			throw Lang.wrapThrow(e, JsonException.class);
+		}
+	}
+
+	/**
+	 * @return 已经输出的元素个数
+	 */
+	public int getCount() {
+		return count;
+	}
+
+}
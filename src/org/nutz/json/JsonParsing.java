@@ -1,125 +1,188 @@
 package org.nutz.json;
 
+import java.io.IOException;
 import java.io.Reader;
 import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.TreeSet;
 
 import org.nutz.castor.Castors;
 import org.nutz.json.entity.JsonEntity;
 import org.nutz.json.entity.JsonEntityField;
+import org.nutz.lang.Each;
+import org.nutz.lang.ExitLoop;
 import org.nutz.lang.Lang;
+import org.nutz.lang.LoopException;
 import org.nutz.lang.Mirror;
 
+/**
+ * 根据目标类型，边读取 JSON 边生成对象，不再先生成 Map/List 树
+ * <p>
+ * 目标类型没有指定，或者是 Object 的地方，生成 Map，List 或者基本类型的对象
+ */
 public class JsonParsing {
 
 	Object parse(Type type, Reader reader) {
-		Object obj = new JsonCompile().parse(reader);
-		return convert(type, obj);
+		try {
+			JsonReader jr = new JsonReader(reader);
+			if (!jr.begin())
+				return null;
+			return read(type, jr);
+		}
+		catch (IOException e) {
+			throw Lang.wrapThrow(e);
+		}
 	}
 
+	/**
+	 * 逐个读取 JSON 数组的元素交给回调，读完一个，回调一个。如果输入不是数组，就当作只有一个元素
+	 */
 	@SuppressWarnings("unchecked")
-	Object convert(Type type, Object obj) {
-		if (obj == null)
-			return null;
-		if (type == null)
-			return obj;
-		if (obj instanceof Map) {
-			return map2Object(type, (Map<String, Object>) obj);
-		} else if (obj instanceof List) {
-			return list2Object(type, (List<Object>) obj);
-		} else {// obj是基本数据类型或String
-			return Castors.me().castTo(obj, (Class<?>) type);
+	<T> int each(Type type, Reader reader, Each<T> callback) {
+		try {
+			JsonReader jr = new JsonReader(reader);
+			if (!jr.begin())
+				return 0;
+			if (jr.peek() != '[') {
+				try {
+					callback.invoke(0, (T) read(type, jr), 1);
+				}
+				catch (ExitLoop e) {}
+				return 1;
+			}
+			int i = 0;
+			jr.beginArray();
+			while (jr.hasNext()) {
+				T ele = (T) read(type, jr);
+				try {
+					callback.invoke(i++, ele, -1);
+				}
+				catch (ExitLoop e) {
+					// 剩下的内容不必再读了
+					return i;
+				}
+			}
+			jr.endArray();
+			return i;
+		}
+		catch (LoopException e) {
+			throw Lang.wrapThrow(e.getCause());
+		}
+		catch (IOException e) {
+			throw Lang.wrapThrow(e, JsonException.class);
+		}
+	}
+
+	Object read(Type type, JsonReader jr) throws IOException {
+		Class<?> clazz = null == type ? null : Lang.getTypeClass(type);
+		if (null == clazz || Object.class == clazz)
+			return jr.nextValue();
+		switch (jr.peek()) {
+		case '{':
+			return readObject(type, clazz, jr);
+		case '[':
+			return readArray(type, clazz, jr);
+		default:
+			// 基本数据类型或String
+			Object obj = jr.nextValue();
+			if (null == obj)
+				return null;
+			return Castors.me().castTo(obj, clazz);
 		}
 	}
 
 	@SuppressWarnings({"rawtypes", "unchecked"})
-	Object map2Object(Type type, Map<String, Object> map) {
-		Class<?> clazz = Lang.getTypeClass(type);
-		Mirror<?> me = Mirror.me(clazz);
+	private Object readObject(Type type, Class<?> clazz, JsonReader jr) throws IOException {
 		if (Map.class.isAssignableFrom(clazz)) {
 			Map re = null;
 			if (clazz.isInterface())
 				re = new HashMap();
 			else
-				re = (Map) me.born();
-			if (type instanceof ParameterizedType) {
-				// 看来有泛型信息哦
-				ParameterizedType pt = (ParameterizedType) type;
-				Type[] ts = pt.getActualTypeArguments();
-				Type tt = null;
-				if (ts != null && ts.length > 1)
-					tt = Lang.getTypeClass(ts[1]);// TODO 只能做到一层的泛型
-				for (Entry<String, Object> entry : map.entrySet()) {
-					re.put(entry.getKey(), convert(tt, entry.getValue()));
-				}
-			} else
-				re.putAll(map);
-			return re;
-		} else { // 看来是Pojo
-			JsonEntity jen = Json.getEntity(me.getType());
-			Object re = jen.born();
-			// 遍历目标对象的全部字段
-			for (JsonEntityField jef : jen.getFields()) {
-				Object value = map.get(jef.getName());
-				if (value == null)
-					continue;
-				jef.setValue(re, convert(jef.getGenericType(), value));
+				re = (Map) Mirror.me(clazz).born();
+			// 看来有泛型信息哦
+			Type tt = typeArgument(type, 1);
+			jr.beginObject();
+			while (jr.hasNext()) {
+				String key = jr.nextName();
+				re.put(key, read(tt, jr));
 			}
+			jr.endObject();
 			return re;
 		}
+		// 看来是Pojo
+		JsonEntity jen = Json.getEntity(clazz);
+		Object re = jen.born();
+		jr.beginObject();
+		while (jr.hasNext()) {
+			JsonEntityField jef = jen.getField(jr.nextName());
+			if (null == jef) {
+				jr.skipValue();
+				continue;
+			}
+			Object value = read(jef.getGenericType(), jr);
+			if (null != value)
+				jef.setValue(re, value);
+		}
+		jr.endObject();
+		return re;
 	}
 
 	@SuppressWarnings({"unchecked", "rawtypes"})
-	Object list2Object(Type type, List<Object> list) {
-		Class<?> clazz = Lang.getTypeClass(type);
-		Type tt = null;
-		if (type instanceof ParameterizedType) {
-			ParameterizedType pt = (ParameterizedType) type;
-			Type[] ts = pt.getActualTypeArguments();
-			if (ts != null && ts.length > 0)
-				tt = Lang.getTypeClass(ts[0]);// TODO 只能做到一层的泛型
-		}
+	private Object readArray(Type type, Class<?> clazz, JsonReader jr) throws IOException {
 		if (clazz.isArray()) {// 看来是数组
-			List re = new ArrayList(list.size());
-			for (Object object : list) {
-				re.add(convert(clazz.getComponentType(), object));
-			}
-			Object ary = Array.newInstance(clazz.getComponentType(), list.size());
-			int i = 0;
-
-			for (Iterator it = re.iterator(); it.hasNext();) {
-				if (tt != null)
-					Array.set(ary, i++, convert(tt, it.next()));
-				else
-					Array.set(ary, i++, Castors.me().castTo(it.next(), clazz.getComponentType()));
-			}
+			Class<?> eleType = clazz.getComponentType();
+			Type tt = type instanceof GenericArrayType	? ((GenericArrayType) type).getGenericComponentType()
+														: eleType;
+			List<Object> list = new ArrayList<Object>();
+			jr.beginArray();
+			while (jr.hasNext())
+				list.add(read(tt, jr));
+			jr.endArray();
+			Object ary = Array.newInstance(eleType, list.size());
+			for (int i = 0; i < list.size(); i++)
+				Array.set(ary, i, Castors.me().castTo(list.get(i), eleType));
 			return ary;
 		}
-		if (List.class.isAssignableFrom(clazz)) {
-			if (tt == null) // 没有泛型信息? 那只好直接返回了
-				return list;
-			Mirror me = Mirror.me(clazz);
-			List re = null;
-			if (clazz.isInterface())
-				re = new LinkedList();
+		if (Collection.class.isAssignableFrom(clazz)) {
+			Collection re;
+			if (clazz.isAssignableFrom(ArrayList.class))
+				re = new ArrayList();
+			else if (clazz.isAssignableFrom(LinkedHashSet.class))
+				re = new LinkedHashSet();
+			else if (clazz.isAssignableFrom(TreeSet.class))
+				re = new TreeSet();
 			else
-				re = (List) me.born();
-			for (Object object : list) {
-				re.add(convert(tt, object));
-			}
+				re = (Collection) Mirror.me(clazz).born();
+			Type tt = typeArgument(type, 0);
+			jr.beginArray();
+			while (jr.hasNext())
+				re.add(read(tt, jr));
+			jr.endArray();
 			return re;
 		}
 		throw unexpectedType(List.class, clazz);
 	}
 
+	/**
+	 * @return 泛型参数，没有则返回 null
+	 */
+	private static Type typeArgument(Type type, int index) {
+		if (type instanceof ParameterizedType) {
+			Type[] ts = ((ParameterizedType) type).getActualTypeArguments();
+			if (ts != null && ts.length > index)
+				return ts[index];
+		}
+		return null;
+	}
+
 	private static final RuntimeException unexpectedType(Type expect, Type act) {
 		return Lang.makeThrow("expect %s but %s", expect, act);
 	}
@@ -0,0 +1,508 @@
+package org.nutz.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 逐个读取 JSON 的词法单元，调用者可以边读边决定如何处理，而不必先生成整个 Map/List 树
+ * <p>
+ * 与 JsonCompile 一样，它接受注释，不加引号的键，单引号字符串，以及 "var ioc = {" 这样的前缀。
+ * <p>
+ * 典型的用法:
+ *
+ * <pre>
+ * JsonReader jr = new JsonReader(reader);
+ * if (jr.begin()) {
+ * 	jr.beginObject();
+ * 	while (jr.hasNext()) {
+ * 		String name = jr.nextName();
+ * 		Object value = jr.nextValue();
+ * 	}
+ * 	jr.endObject();
+ * }
+ * </pre>
+ *
+ * 它读取的时候自带缓冲，不需要再包裹 BufferedReader
+ */
+public class JsonReader {
+
+	public static final int END = -1;
+
+	private Reader reader;
+
+	private char[] buf;
+
+	private int pos;
+
+	private int limit;
+
+	/**
+	 * 当前字符，还没有被读取掉
+	 */
+	private int cursor;
+
+	private int row;
+
+	private int col;
+
+	/**
+	 * 每一层的 Map 或者 List 是否已经读过值了，读过值以后，下一个元素前必须有逗号
+	 */
+	private boolean[] afterValue;
+
+	private int depth;
+
+	private StringBuilder sb;
+
+	public JsonReader(Reader reader) {
+		this.reader = reader;
+		this.buf = new char[1024];
+		this.afterValue = new boolean[32];
+		this.sb = new StringBuilder();
+	}
+
+	/**
+	 * 开始读取，跳过开头的空白，注释，以及 "var xxx =" 这样的前缀
+	 *
+	 * @return 是否还有内容
+	 */
+	public boolean begin() throws IOException {
+		cursor = read();
+		skipCommentsAndBlank();
+		if (cursor == 'v') {
+			/*
+			 * Meet the var ioc ={ maybe, try to find the '{' and break
+			 */
+			while (cursor != '{') {
+				next();
+				if (cursor == END)
+					throw unexpectedEnd();
+			}
+		}
+		return cursor != END;
+	}
+
+	/**
+	 * 读取整个输入，生成 Map，List 或者基本类型的对象
+	 *
+	 * @return JAVA 对象，如果输入为空，返回 null
+	 */
+	public Object parse() throws IOException {
+		if (!begin())
+			return null;
+		return nextValue();
+	}
+
+	/**
+	 * @return 下一个有意义的字符，它并没有被读取掉。输入结束返回 END
+	 */
+	public int peek() throws IOException {
+		skipCommentsAndBlank();
+		return cursor;
+	}
+
+	public void beginObject() throws IOException {
+		expect('{');
+		push();
+	}
+
+	public void endObject() throws IOException {
+		expect('}');
+		depth--;
+		valueDone();
+	}
+
+	public void beginArray() throws IOException {
+		expect('[');
+		push();
+	}
+
+	public void endArray() throws IOException {
+		expect(']');
+		depth--;
+		valueDone();
+	}
+
+	/**
+	 * @return 当前的 Map 或者 List 是否还有元素。如果有，会跳过元素前的逗号
+	 */
+	public boolean hasNext() throws IOException {
+		int c = peek();
+		if (c == '}' || c == ']' || c == END)
+			return false;
+		if (afterValue[depth]) {
+			if (c != ',')
+				throw unexpectedChar();
+			next();
+			c = peek();
+			// 最后一个元素后面多了个逗号
+			if (c == '}' || c == ']')
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * 读取 Map 的一个键，以及后面的冒号
+	 */
+	public String nextName() throws IOException {
+		int c = peek();
+		String key;
+		if (c == '"' || c == '\'') {
+			key = readString(c);
+			skipCommentsAndBlank();
+		} else {
+			// 没办法,看来是无分隔符的字符串,找一下吧
+			sb.setLength(0);
+			while (cursor != ':') {
+				if (cursor == END)
+					throw unexpectedEnd();
+				if (cursor == ' ' || cursor == '/') {
+					skipCommentsAndBlank();
+					if (cursor != ':')
+						throw unexpectedChar();
+					break;
+				}
+				if (cursor == '\\') {
+					next();
+					readEscape();
+				} else {
+					sb.append((char) cursor);
+					next();
+				}
+			}
+			key = sb.toString().trim().intern();
+		}
+		if (cursor != ':')
+			throw unexpectedChar();
+		next();
+		return key;
+	}
+
+	/**
+	 * 读取一个值。如果是 Map 或者 List，会读取它全部的内容
+	 *
+	 * @return Map，List，String，Boolean，数字或者 null
+	 */
+	public Object nextValue() throws IOException {
+		switch (peek()) {
+		case '{':
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+			beginObject();
+			while (hasNext()) {
+				String key = nextName();
+				map.put(key, nextValue());
+			}
+			endObject();
+			return map;
+		case '[':
+			List<Object> list = new ArrayList<Object>();
+			beginArray();
+			while (hasNext())
+				list.add(nextValue());
+			endArray();
+			return list;
+		case '"':
+		case '\'':
+			String str = readString(cursor);
+			valueDone();
+			return str;
+		case END:
+			throw unexpectedEnd();
+		default:
+			Object re = readSimpleType();
+			valueDone();
+			return re;
+		}
+	}
+
+	/**
+	 * 跳过一个值
+	 */
+	public void skipValue() throws IOException {
+		switch (peek()) {
+		case '{':
+			beginObject();
+			while (hasNext()) {
+				nextName();
+				skipValue();
+			}
+			endObject();
+			break;
+		case '[':
+			beginArray();
+			while (hasNext())
+				skipValue();
+			endArray();
+			break;
+		default:
+			nextValue();
+		}
+	}
+
+	private void push() {
+		depth++;
+		if (depth == afterValue.length) {
+			boolean[] bs = new boolean[depth * 2];
+			System.arraycopy(afterValue, 0, bs, 0, depth);
+			afterValue = bs;
+		}
+		afterValue[depth] = false;
+	}
+
+	private void valueDone() {
+		afterValue[depth] = true;
+	}
+
+	private void expect(char c) throws IOException {
+		if (peek() != c)
+			throw cursor == END ? unexpectedEnd() : unexpectedChar();
+		next();
+	}
+
+	/**
+	 * @param endTag
+	 *            以什么作为结束符
+	 */
+	private String readString(int endTag) throws IOException {
+		sb.setLength(0);
+		next();
+		// 直至读取到相应的结束符!
+		while (cursor != endTag) {
+			if (cursor == END)
+				throw unexpectedEnd();
+			if (cursor == '\\') {// 转义字符?
+				next();
+				readEscape();
+			} else {
+				sb.append((char) cursor);
+				next();
+			}
+		}
+		next();
+		return sb.toString();
+	}
+
+	/**
+	 * 读取转义字符，当前字符是反斜杠后面的那个字符
+	 */
+	private void readEscape() throws IOException {
+		switch (cursor) {
+		case 'n':
+			sb.append('\n');
+			break;
+		case 'r':
+			sb.append('\r');
+			break;
+		case 't':
+			sb.append('\t');
+			break;
+		case '\\':
+			sb.append('\\');
+			break;
+		case '\'':
+			sb.append('\'');
+			break;
+		case '"':
+			sb.append('"');
+			break;
+		case '/':
+			sb.append('/');
+			break;
+		case 'u':
+			int c = 0;
+			for (int i = 0; i < 4; i++) {
+				next();
+				int d = Character.digit(cursor, 16);
+				if (d < 0)
+					throw cursor == END ? unexpectedEnd() : unexpectedChar();
+				c = (c << 4) | d;
+			}
+			sb.append((char) c);
+			break;
+		case 'b': // 这个支持一下又何妨?
+			sb.append(' ');// 空格
+			break;
+		case 'f':
+			sb.append('\f');// 这个支持一下又何妨?
+			break;
+		case END:
+			throw unexpectedEnd();
+		default:
+			throw unexpectedChar(); // 1.b.37及之前的版本,会忽略非法的转义字符
+		}
+		next();
+	}
+
+	/**
+	 * 处理基本数据类型
+	 */
+	private Object readSimpleType() throws IOException {
+		switch (cursor) {
+		case 't':
+			return readWord("true", Boolean.TRUE);
+		case 'f':
+			return readWord("false", Boolean.FALSE);
+		case 'u':
+			return readWord("undefined", null);
+		case 'n':
+			return readWord("null", null);
+		case '.':
+		case '0':
+		case '1':
+		case '2':
+		case '3':
+		case '4':
+		case '5':
+		case '6':
+		case '7':
+		case '8':
+		case '9':
+		case '-':
+			return readNumber();
+		default:
+			throw unexpectedChar();// 不是数值,不是布尔值,不是null和undefined? 玩野啊? 抛异常!!
+		}
+	}
+
+	private Object readWord(String word, Object value) throws IOException {
+		for (int i = 0; i < word.length(); i++) {
+			if (cursor != word.charAt(i))
+				throw makeError("'" + word + "' is expected!");
+			next();
+		}
+		return value;
+	}
+
+	private Object readNumber() throws IOException {
+		sb.setLength(0);
+		boolean hasPoint = false;
+		while (true) {
+			switch (cursor) {
+			case '-':
+			case '+':
+			case '0':
+			case '1':
+			case '2':
+			case '3':
+			case '4':
+			case '5':
+			case '6':
+			case '7':
+			case '8':
+			case '9':
+				sb.append((char) cursor);
+				break;
+			case '.':
+				if (hasPoint)
+					throw unexpectedChar();
+				hasPoint = true;
+				sb.append('.');
+				break;
+			case 'e':
+			case 'E':
+				hasPoint = true;
+				sb.append('e');
+				break;
+			case 'L':
+			case 'l':
+				if (hasPoint)
+					throw unexpectedChar();
+				next();
+				return Long.parseLong(sb.toString());
+			case 'F':
+			case 'f':
+				next();
+				return Float.parseFloat(sb.toString());
+			default:
+				try {
+					if (hasPoint)
+						return Double.parseDouble(sb.toString());
+					long p = Long.parseLong(sb.toString());
+					if (Integer.MIN_VALUE < p && p < Integer.MAX_VALUE)
+						return (int) p;
+					return p;
+				}
+				catch (NumberFormatException e) {
+					throw makeError("Bad number '" + sb + "'");
+				}
+			}
+			next();
+		}
+	}
+
+	private void skipCommentsAndBlank() throws IOException {
+		skipBlank();
+		while (cursor == '/') {
+			next();
+			if (cursor == '/') { // inline comment
+				while (cursor != '\n' && cursor != END)
+					next();
+			} else if (cursor == '*') { // block comment
+				next();
+				while (true) {
+					if (cursor == END)
+						throw unexpectedEnd();
+					if (cursor == '*') {
+						next();
+						if (cursor == '/')
+							break;
+					} else
+						next();
+				}
+				next();
+			} else {
+				throw makeError("Error comment syntax!");
+			}
+			skipBlank();
+		}
+	}
+
+	private void skipBlank() throws IOException {
+		while (cursor >= 0 && cursor <= 32)
+			next();
+	}
+
+	/**
+	 * 读掉当前字符，移动到下一个字符
+	 */
+	private void next() throws IOException {
+		if (cursor == END)
+			return;
+		if (cursor == '\n') {
+			row++;
+			col = 0;
+		} else
+			col++;
+		cursor = read();
+	}
+
+	private int read() throws IOException {
+		if (pos == limit) {
+			limit = reader.read(buf, 0, buf.length);
+			pos = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return END;
+			}
+		}
+		return buf[pos++];
+	}
+
+	private JsonException makeError(String message) {
+		return new JsonException(row, col, (char) cursor, message);
+	}
+
+	private JsonException unexpectedEnd() {
+		return new JsonException(row, col, (char) cursor, "Unexpected End");
+	}
+
+	private JsonException unexpectedChar() {
+		return new JsonException(row, col, (char) cursor, "Unexpected char");
+	}
+
+}
@@ -1,45 +1,77 @@
 package org.nutz.json;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.lang.reflect.Array;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.Map.Entry;
-import java.util.regex.Pattern;
 
 import org.nutz.json.entity.JsonEntity;
 import org.nutz.json.entity.JsonEntityField;
 import org.nutz.lang.FailToGetValueException;
-import org.nutz.lang.Lang;
 import org.nutz.lang.Mirror;
-import org.nutz.lang.Strings;
 
 /**
+ * 将对象输出成 JSON 字符串
+ * <p>
+ * 输出的内容先写到一个线程内复用的字符缓冲里，缓冲满了才写到目标里。<br>
+ * 目标可以是 Writer，也可以是 OutputStream，后者会被直接按照 UTF-8 编码写入字节
+ *
  * @author zozoh(zozohtnt@gmail.com)
  * @author wendal(wendal1985@gmail.com)
- * 
+ *
  */
 public class JsonRendering {
 	private static String NL = "\n";
 
-	private HashMap<Object, Object> memo;
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	/**
+	 * 每个线程复用的缓冲。正在被使用的缓冲会从这里拿走，所以嵌套的输出会用到另外一个缓冲
+	 */
+	private static final ThreadLocal<Buffer> buffers = new ThreadLocal<Buffer>();
+
+	private static class Buffer {
+		char[] cs = new char[4096];
+		byte[] bs;
+	}
+
+	/**
+	 * 正在输出的对象，用来检测循环引用。对象之间按照引用比较
+	 */
+	private Object[] stack;
+
+	private int depth;
 
 	private Writer writer;
 
+	private OutputStream out;
+
+	private Buffer buf;
+
+	private char[] cs;
+
+	private int pos;
+
 	JsonRendering(Writer writer, JsonFormat format) {
 		this.format = format;
 		this.writer = writer;
-		// TODO make a new faster collection
-		// implementation
-		memo = new HashMap<Object, Object>();
+		this.stack = new Object[16];
+	}
+
+	/**
+	 * 输出到字节流，编码为 UTF-8
+	 */
+	JsonRendering(OutputStream out, JsonFormat format) {
+		this.format = format;
+		this.out = out;
+		this.stack = new Object[16];
 	}
 
 	private JsonFormat format;
@@ -48,29 +80,34 @@ public class JsonRendering {
 		return render.format.isCompact();
 	}
 
-	private static final Pattern p = Pattern.compile("^[a-z_A-Z$]+[a-zA-Z_0-9$]*$");
-
-	private void appendName(String name) throws IOException {
-		if (format.isQuoteName() || !p.matcher(name).find())
+	private void appendName(String name, boolean identifier) throws IOException {
+		if (format.isQuoteName() || !identifier)
 			string2Json(name);
 		else
-			writer.append(name);
+			write(name);
 	}
 
 	private void appendPairBegin() throws IOException {
 		if (!isCompact(this))
-			writer.append(NL).append(Strings.dup(format.getIndentBy(), format.getIndent()));
+			appendNewLine();
+	}
+
+	private void appendNewLine() throws IOException {
+		write(NL);
+		String indentBy = format.getIndentBy();
+		for (int i = format.getIndent(); i > 0; i--)
+			write(indentBy);
 	}
 
 	private void appendPairSep() throws IOException {
-		writer.append(!isCompact(this) ? " :" : ":");
+		write(!isCompact(this) ? " :" : ":");
 	}
 
-	private void appendPair(String name, Object value) throws IOException {
+	private void appendPair(String name, boolean identifier, Object value) throws IOException {
 		appendPairBegin();
-		appendName(name);
+		appendName(name, identifier);
 		appendPairSep();
-		render(value);
+		doRender(value);
 	}
 
 	private boolean isIgnore(String name, Object value) {
@@ -80,49 +117,36 @@ public class JsonRendering {
 	}
 
 	private void appendPairEnd() throws IOException {
-		writer.append(',');
+		write(',');
 	}
 
 	private void appendBraceBegin() throws IOException {
-		writer.append('{');
+		write('{');
 	}
 
 	private void appendBraceEnd() throws IOException {
 		if (!isCompact(this))
-			writer.append(NL).append(Strings.dup(format.getIndentBy(), format.getIndent()));
-		writer.append('}');
-	}
-
-	static class Pair {
-
-		public Pair(String name, Object value) {
-			this.name = name;
-			this.value = value;
-		}
-
-		String name;
-		Object value;
+			appendNewLine();
+		write('}');
 	}
 
-	@SuppressWarnings({"unchecked", "rawtypes"})
+	@SuppressWarnings({"rawtypes"})
 	private void map2Json(Map map) throws IOException {
 		if (null == map)
 			return;
 		appendBraceBegin();
 		increaseFormatIndent();
-		ArrayList<Pair> list = new ArrayList<Pair>(map.size());
-		Set<Entry<?, ?>> entrySet = map.entrySet();
-		for (Entry entry : entrySet) {
+		boolean first = true;
+		for (Object o : map.entrySet()) {
+			Entry entry = (Entry) o;
 			String name = null == entry.getKey() ? "null" : entry.getKey().toString();
 			Object value = entry.getValue();
-			if (!this.isIgnore(name, value))
-				list.add(new Pair(name, value));
-		}
-		for (Iterator<Pair> it = list.iterator(); it.hasNext();) {
-			Pair p = it.next();
-			this.appendPair(p.name, p.value);
-			if (it.hasNext())
+			if (this.isIgnore(name, value))
+				continue;
+			if (!first)
 				this.appendPairEnd();
+			first = false;
+			this.appendPair(name, JsonEntityField.isIdentifier(name), value);
 		}
 		decreaseFormatIndent();
 		appendBraceEnd();
@@ -131,67 +155,38 @@ public class JsonRendering {
 	private void pojo2Json(Object obj) throws IOException {
 		if (null == obj)
 			return;
-		Class<? extends Object> type = obj.getClass();
-		ToJson tj = type.getAnnotation(ToJson.class);
-		String myMethodName = Strings.sNull(null == tj ? null : tj.value(), "toJson");
-		try {
-			/*
-			 * toJson()
-			 */
-			try {
-				Method myMethod = type.getMethod(myMethodName);
-				if (!myMethod.isAccessible())
-					myMethod.setAccessible(true);
-				Object re = myMethod.invoke(obj);
-				writer.append(String.valueOf(re));
-				return;
-			}
-			/*
-			 * toJson(JsonFormat fmt)
-			 */
-			catch (NoSuchMethodException e1) {
-				try {
-					Method myMethod = type.getMethod(myMethodName, JsonFormat.class);
-					if (!myMethod.isAccessible())
-						myMethod.setAccessible(true);
-					Object re = myMethod.invoke(obj, format);
-					writer.append(String.valueOf(re));
-					return;
-				}
-				catch (NoSuchMethodException e) {}
-			}
-		}
-		catch (IllegalArgumentException e) {
-			throw Lang.wrapThrow(e);
-		}
-		catch (IllegalAccessException e) {
-			throw Lang.wrapThrow(e);
-		}
-		catch (InvocationTargetException e) {
-			throw Lang.wrapThrow(e);
+		JsonEntity jen = Json.getEntity(obj.getClass());
+		/*
+		 * toJson() 或者 toJson(JsonFormat fmt)
+		 */
+		if (jen.hasToJson()) {
+			write(String.valueOf(jen.toJson(obj, format)));
+			return;
 		}
 		/*
 		 * Default
 		 */
-		JsonEntity jen = Json.getEntity(type);
 		List<JsonEntityField> fields = jen.getFields();
 		appendBraceBegin();
 		increaseFormatIndent();
-		ArrayList<Pair> list = new ArrayList<Pair>(fields.size());
+		boolean first = true;
 		for (JsonEntityField jef : fields) {
 			String name = jef.getName();
+			if (format.ignore(name))
+				continue;
+			Object value;
 			try {
-				Object value = jef.getValue(obj);
-				if (!this.isIgnore(name, value))
-					list.add(new Pair(name, value));
+				value = jef.getValue(obj);
 			}
-			catch (FailToGetValueException e) {}
-		}
-		for (Iterator<Pair> it = list.iterator(); it.hasNext();) {
-			Pair p = it.next();
-			this.appendPair(p.name, p.value);
-			if (it.hasNext())
+			catch (FailToGetValueException e) {
+				continue;
+			}
+			if (null == value && format.isIgnoreNull())
+				continue;
+			if (!first)
 				this.appendPairEnd();
+			first = false;
+			this.appendPair(name, jef.isIdentifier(), value);
 		}
 		decreaseFormatIndent();
 		appendBraceEnd();
@@ -208,98 +203,247 @@ public class JsonRendering {
 	}
 
 	private void string2Json(String s) throws IOException {
-		if (null == s)
-			writer.append("null");
-		else {
-			char[] cs = s.toCharArray();
-			writer.append(format.getSeparator());
-			for (char c : cs) {
-				switch (c) {
-				case '"':
-					writer.append("\\\"");
-					break;
-				case '\n':
-					writer.append("\\n");
-					break;
-				case '\t':
-					writer.append("\\t");
-					break;
-				case '\r':
-					writer.append("\\r");
-					break;
-				case '\\':
-					writer.append("\\\\");
-					break;
-				default:
-					if (c >= 256 && format.isAutoUnicode())
-						writer.append("\\u").append(Integer.toHexString(c).toUpperCase());
-					else
-						writer.append(c);
-				}
+		if (null == s) {
+			write("null");
+			return;
+		}
+		boolean autoUnicode = format.isAutoUnicode();
+		write(format.getSeparator());
+		int len = s.length();
+		int start = 0;
+		for (int i = 0; i < len; i++) {
+			char c = s.charAt(i);
+			// 大部分字符都不需要转义
+			if (c > '\\' && (c < 256 || !autoUnicode))
+				continue;
+			String esc;
+			switch (c) {
+			case '"':
+				esc = "\\\"";
+				break;
+			case '\n':
+				esc = "\\n";
+				break;
+			case '\t':
+				esc = "\\t";
+				break;
+			case '\r':
+				esc = "\\r";
+				break;
+			case '\\':
+				esc = "\\\\";
+				break;
+			default:
+				if (c < 256)
+					continue;
+				esc = null;
+			}
+			write(s, start, i - start);
+			start = i + 1;
+			if (null != esc) {
+				write(esc);
+			} else {
+				write('\\');
+				write('u');
+				write(HEX[(c >> 12) & 0xF]);
+				write(HEX[(c >> 8) & 0xF]);
+				write(HEX[(c >> 4) & 0xF]);
+				write(HEX[c & 0xF]);
 			}
-			writer.append(format.getSeparator());
 		}
+		write(s, start, len - start);
+		write(format.getSeparator());
 	}
 
-	@SuppressWarnings({"rawtypes"})
 	public void render(Object obj) throws IOException {
+		render(null, obj, true);
+	}
+
+	/**
+	 * 原样输出一段文本，不做任何转义。JsonArrayWriter 用它来输出方括号和逗号
+	 */
+	void append(String s) throws IOException {
+		render(s, null, false);
+	}
+
+	/**
+	 * 先原样输出前缀，再输出对象，两者共用一次缓冲
+	 */
+	void render(String prefix, Object obj, boolean hasObj) throws IOException {
+		// 嵌套调用，比如在 toJson 方法里
+		if (null != cs) {
+			doRender(prefix, obj, hasObj);
+			return;
+		}
+		buf = buffers.get();
+		if (null == buf)
+			buf = new Buffer();
+		else
+			buffers.remove();
+		cs = buf.cs;
+		pos = 0;
+		try {
+			doRender(prefix, obj, hasObj);
+			flush(true);
+		}
+		finally {
+			cs = null;
+			buffers.set(buf);
+			buf = null;
+		}
+	}
+
+	private void doRender(String prefix, Object obj, boolean hasObj) throws IOException {
+		if (null != prefix)
+			write(prefix);
+		if (hasObj)
+			doRender(obj);
+	}
+
+	@SuppressWarnings({"rawtypes"})
+	private void doRender(Object obj) throws IOException {
 		if (null == obj) {
-			writer.write("null");
+			write("null");
+		} else if (obj instanceof String) {
+			string2Json((String) obj);
+		} else if (obj instanceof Number || obj instanceof Boolean) {
+			write(obj.toString());
 		} else if (obj instanceof Class) {
 			string2Json(((Class<?>) obj).getName());
 		} else if (obj instanceof Mirror) {
 			string2Json(((Mirror<?>) obj).getType().getName());
+		} else if (obj.getClass().isEnum()) {
+			string2Json(((Enum) obj).name());
+		} else if (obj instanceof CharSequence || obj instanceof Character) {
+			string2Json(obj.toString());
+		} else if (obj instanceof Date || obj instanceof Calendar) {
+			string2Json(format.getCastors().castToString(obj));
+		} else if (isRendering(obj)) {
+			write("null");
 		} else {
-			Mirror mr = Mirror.me(obj.getClass());
-			if (mr.isEnum()) {
-				string2Json(((Enum) obj).name());
-			} else if (mr.isNumber() || mr.isBoolean()) {
-				writer.append(obj.toString());
-			} else if (mr.isStringLike() || mr.isChar()) {
-				string2Json(obj.toString());
-			} else if (mr.isDateTimeLike()) {
-				string2Json(format.getCastors().castToString(obj));
-			} else if (memo.containsKey(obj)) {
-				writer.append("null");
-			} else {
-				memo.put(obj, null);
-				if (obj instanceof Map)
-					map2Json((Map) obj);
-				else if (obj instanceof Collection)
-					coll2Json((Collection) obj);
-				else if (obj.getClass().isArray())
-					array2Json(obj);
-				else {
-					pojo2Json(obj);
-				}
-				memo.remove(obj);
+			if (depth == stack.length) {
+				Object[] newStack = new Object[depth * 2];
+				System.arraycopy(stack, 0, newStack, 0, depth);
+				stack = newStack;
+			}
+			stack[depth++] = obj;
+			if (obj instanceof Map)
+				map2Json((Map) obj);
+			else if (obj instanceof Collection)
+				coll2Json((Collection) obj);
+			else if (obj.getClass().isArray())
+				array2Json(obj);
+			else {
+				pojo2Json(obj);
 			}
+			stack[--depth] = null;
 		}
 	}
 
+	private boolean isRendering(Object obj) {
+		for (int i = 0; i < depth; i++)
+			if (stack[i] == obj)
+				return true;
+		return false;
+	}
+
 	private void array2Json(Object obj) throws IOException {
-		writer.append('[');
+		write('[');
 		int len = Array.getLength(obj) - 1;
 		if (len > -1) {
 			int i;
 			for (i = 0; i < len; i++) {
-				render(Array.get(obj, i));
-				writer.append(',').append(' ');
+				doRender(Array.get(obj, i));
+				write(',');
+				write(' ');
 			}
-			render(Array.get(obj, i));
+			doRender(Array.get(obj, i));
 		}
-		writer.append(']');
+		write(']');
 	}
 
 	private void coll2Json(Collection<?> obj) throws IOException {
-		writer.append('[');
+		write('[');
 		for (Iterator<?> it = obj.iterator(); it.hasNext();) {
-			render(it.next());
-			if (it.hasNext())
-				writer.append(',').append(' ');
-			else
+			doRender(it.next());
+			if (it.hasNext()) {
+				write(',');
+				write(' ');
+			} else
 				break;
 		}
-		writer.append(']');
+		write(']');
+	}
+
+	private void write(char c) throws IOException {
+		if (pos == cs.length)
+			flush(false);
+		cs[pos++] = c;
+	}
+
+	private void write(String s) throws IOException {
+		write(s, 0, s.length());
+	}
+
+	private void write(String s, int off, int len) throws IOException {
+		while (len > 0) {
+			if (pos == cs.length)
+				flush(false);
+			int n = Math.min(len, cs.length - pos);
+			s.getChars(off, off + n, cs, pos);
+			pos += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	/**
+	 * 把缓冲里的字符写到目标里
+	 *
+	 * @param last
+	 *            是否是最后一次。如果不是，缓冲末尾的高位代理字符会被留到下次，与低位代理字符一起编码
+	 */
+	private void flush(boolean last) throws IOException {
+		if (null != writer) {
+			writer.write(cs, 0, pos);
+			pos = 0;
+			return;
+		}
+		int n = pos;
+		if (!last && n > 0 && Character.isHighSurrogate(cs[n - 1]))
+			n--;
+		if (null == buf.bs)
+			buf.bs = new byte[cs.length * 3];
+		byte[] bs = buf.bs;
+		int j = 0;
+		for (int i = 0; i < n; i++) {
+			char c = cs[i];
+			if (c < 0x80) {
+				bs[j++] = (byte) c;
+			} else if (c < 0x800) {
+				bs[j++] = (byte) (0xC0 | (c >> 6));
+				bs[j++] = (byte) (0x80 | (c & 0x3F));
+			} else if (c < Character.MIN_SURROGATE || c > Character.MAX_SURROGATE) {
+				bs[j++] = (byte) (0xE0 | (c >> 12));
+				bs[j++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				bs[j++] = (byte) (0x80 | (c & 0x3F));
+			} else if (Character.isHighSurrogate(c)
+						&& i + 1 < n
+						&& Character.isLowSurrogate(cs[i + 1])) {
+				int cp = Character.toCodePoint(c, cs[++i]);
+				bs[j++] = (byte) (0xF0 | (cp >> 18));
+				bs[j++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+				bs[j++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+				bs[j++] = (byte) (0x80 | (cp & 0x3F));
+			}
+			// 不成对的代理字符
+			else {
+				bs[j++] = '?';
+			}
+		}
+		out.write(bs, 0, j);
+		if (n < pos)
+			cs[0] = cs[n];
+		pos -= n;
 	}
 }
@@ -1,15 +1,27 @@
 package org.nutz.json.entity;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.nutz.json.JsonFormat;
+import org.nutz.json.ToJson;
+import org.nutz.lang.Lang;
 import org.nutz.lang.Mirror;
+import org.nutz.lang.Strings;
 import org.nutz.lang.born.Borning;
 import org.nutz.lang.born.BorningException;
+import org.nutz.lang.reflect.FastClass;
+import org.nutz.lang.reflect.FastClasses;
 
 /**
  * 记录一个Java如何映射 JSON 字符串的规则
+ * <p>
+ * 对象自定义的 toJson 方法在创建时就查找好。如果类型是 public 的，<br>
+ * 读取字段值以及调用 toJson 都通过 FastClass 完成，否则退回到反射的方式
  * 
  * @author zozoh(zozohtnt@gmail.com)
  */
@@ -17,17 +29,42 @@ public class JsonEntity {
 
 	private List<JsonEntityField> fields;
 
+	/**
+	 * 按照 JSON 里的名称索引字段
+	 */
+	private Map<String, JsonEntityField> byName;
+
 	private Borning<?> borning;
 
 	private BorningException err;
 
+	/**
+	 * 对象自定义的 toJson 方法，没有则为 null
+	 */
+	private Method toJson;
+
+	/**
+	 * toJson 方法是否需要 JsonFormat 参数
+	 */
+	private boolean toJsonWithFormat;
+
+	private FastClass fc;
+
+	private int toJsonIndex = -1;
+
 	public JsonEntity(Mirror<?> mirror) {
+		fc = FastClasses.get(mirror.getType());
+
 		Field[] flds = mirror.getFields();
 		fields = new ArrayList<JsonEntityField>(flds.length);
+		byName = new HashMap<String, JsonEntityField>();
 		for (Field fld : flds) {
-			JsonEntityField ef = JsonEntityField.eval(mirror, fld);
-			if (null != ef)
+			JsonEntityField ef = JsonEntityField.eval(mirror, fld, fc);
+			if (null != ef) {
 				fields.add(ef);
+				if (!byName.containsKey(ef.getName()))
+					byName.put(ef.getName(), ef);
+			}
 		}
 
 		try {
@@ -36,16 +73,82 @@ public class JsonEntity {
 		catch (BorningException e) {
 			err = e;
 		}
+
+		evalToJson(mirror.getType());
+	}
+
+	private void evalToJson(Class<?> type) {
+		ToJson tj = type.getAnnotation(ToJson.class);
+		String myMethodName = Strings.sNull(null == tj ? null : tj.value(), "toJson");
+		// toJson()
+		try {
+			toJson = type.getMethod(myMethodName);
+		}
+		catch (NoSuchMethodException e) {
+			// toJson(JsonFormat fmt)
+			try {
+				toJson = type.getMethod(myMethodName, JsonFormat.class);
+				toJsonWithFormat = true;
+			}
+			catch (NoSuchMethodException e1) {
+				return;
+			}
+		}
+		if (null != fc)
+			toJsonIndex = fc.indexOf(toJson);
+		if (toJsonIndex < 0 && !toJson.isAccessible())
+			toJson.setAccessible(true);
 	}
 
 	public List<JsonEntityField> getFields() {
 		return fields;
 	}
 
+	/**
+	 * @param name
+	 *            JSON 里的名称
+	 * @return 字段，没有则返回 null
+	 */
+	public JsonEntityField getField(String name) {
+		return byName.get(name);
+	}
+
 	public Object born() {
 		if (null == borning)
 			throw err;
 		return borning.born(new Object[0]);
 	}
 
+	/**
+	 * @return 对象是否声明了自己的 toJson 方法
+	 */
+	public boolean hasToJson() {
+		return null != toJson;
+	}
+
+	/**
+	 * 调用对象自己的 toJson 方法
+	 * 
+	 * @param obj
+	 *            对象
+	 * @param format
+	 *            JSON 格式，如果 toJson 方法不需要，则被忽略
+	 * @return toJson 方法的返回值
+	 */
+	public Object toJson(Object obj, JsonFormat format) {
+		try {
+			if (toJsonIndex >= 0) {
+				if (toJsonWithFormat)
+					return fc.invoke(obj, toJsonIndex, format);
+				return fc.invoke(obj, toJsonIndex);
+			}
+			if (toJsonWithFormat)
+				return toJson.invoke(obj, format);
+			return toJson.invoke(obj);
+		}
+		catch (Exception e) {
+			throw Lang.wrapThrow(e);
+		}
+	}
+
 }
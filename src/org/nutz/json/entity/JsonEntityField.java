@@ -1,25 +1,54 @@
 package org.nutz.json.entity;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 
 import org.nutz.json.JsonField;
+import org.nutz.lang.Lang;
 import org.nutz.lang.Mirror;
 import org.nutz.lang.Strings;
 import org.nutz.lang.eject.Ejecting;
 import org.nutz.lang.inject.Injecting;
+import org.nutz.lang.reflect.FastClass;
 
 public class JsonEntityField {
 
 	private String name;
 
+	/**
+	 * 名称是否是合法的标识符，输出时可以不加引号
+	 */
+	private boolean identifier;
+
 	private Type genericType;
 
 	private Injecting injecting;
 
 	private Ejecting ejecting;
 
+	private FastClass fc;
+
+	/**
+	 * Getter 在 FastClass 中的下标，-1 表示没有或者不能快速访问
+	 */
+	private int getterIndex = -1;
+
+	/**
+	 * 字段在 FastClass 中的下标，-1 表示不能快速访问
+	 */
+	private int fieldIndex = -1;
+
 	public static JsonEntityField eval(Mirror<?> mirror, Field fld) {
+		return eval(mirror, fld, null);
+	}
+
+	/**
+	 * @param fc
+	 *            实体类型的 FastClass，可以为 null
+	 */
+	public static JsonEntityField eval(Mirror<?> mirror, Field fld, FastClass fc) {
 		JsonField jf = fld.getAnnotation(JsonField.class);
 		if (null != jf && jf.ignore())
 			return null;
@@ -33,16 +62,64 @@ public class JsonEntityField {
 			jef.name = jf.value();
 		else
 			jef.name = fld.getName();
+		jef.identifier = isIdentifier(jef.name);
+
+		if (null != fc)
+			jef.evalFastAccess(mirror, fld, fc);
 
 		return jef;
 	}
 
+	/**
+	 * 与 Mirror.getEjecting 的顺序一致：优先用 Getter，然后才是字段
+	 */
+	private void evalFastAccess(Mirror<?> mirror, Field fld, FastClass fc) {
+		Method getter = null;
+		try {
+			getter = mirror.getGetter(fld.getName());
+		}
+		catch (NoSuchMethodException e) {
+			try {
+				getter = mirror.getGetter(fld);
+			}
+			catch (NoSuchMethodException e1) {}
+		}
+		if (null != getter)
+			getterIndex = fc.indexOf(getter);
+		else if (!Modifier.isStatic(fld.getModifiers()))
+			fieldIndex = fc.indexOf(fld);
+		if (getterIndex >= 0 || fieldIndex >= 0)
+			this.fc = fc;
+	}
+
 	private JsonEntityField() {}
 
 	public String getName() {
 		return name;
 	}
 
+	public boolean isIdentifier() {
+		return identifier;
+	}
+
+	/**
+	 * 判断一个名称是否是合法的标识符，即由字母，数字，下划线以及 '$' 组成，并且不以数字开头
+	 */
+	public static boolean isIdentifier(String name) {
+		int len = name.length();
+		if (len == 0)
+			return false;
+		for (int i = 0; i < len; i++) {
+			char c = name.charAt(i);
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$')
+				continue;
+			if (i > 0 && c >= '0' && c <= '9')
+				continue;
+			return false;
+		}
+		return true;
+	}
+
 	public Type getGenericType() {
 		return genericType;
 	}
@@ -52,7 +129,16 @@ public class JsonEntityField {
 	}
 
 	public Object getValue(Object obj) {
-		return ejecting.eject(obj);
+		if (null == fc || null == obj)
+			return ejecting.eject(obj);
+		try {
+			if (getterIndex >= 0)
+				return fc.invoke(obj, getterIndex);
+			return fc.getField(obj, fieldIndex);
+		}
+		catch (Exception e) {
+			throw Lang.wrapThrow(e);
+		}
 	}
 
 }
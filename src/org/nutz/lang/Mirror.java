@@ -8,8 +8,10 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.ref.SoftReference;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.HashMap;
@@ -17,6 +19,8 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -103,16 +107,64 @@ public class Mirror<T> {
 
 	private final static DefaultTypeExtractor defaultTypeExtractor = new DefaultTypeExtractor();
 
+	/**
+	 * 已经创建的 Mirror。这些类由 Mirror 自己的类加载器或者它的父加载器加载，不会被卸载
+	 */
+	private static final ConcurrentHashMap<Class<?>, Mirror<?>> mirrors = new ConcurrentHashMap<Class<?>, Mirror<?>>();
+
+	/**
+	 * 其他类加载器加载的类，比如 Web 应用或者动态生成的类。<br>
+	 * 为了不阻止它们被卸载，这里只持有类的弱引用以及 Mirror 的软引用
+	 */
+	private static final Map<Class<?>, SoftReference<Mirror<?>>> foreignMirrors = new WeakHashMap<Class<?>, SoftReference<Mirror<?>>>();
+
 	/**
 	 * 包裹一个类
+	 * <p>
+	 * 同一个类总是返回同一个 Mirror，它会缓存反射查找到的字段，方法，Getter 和 Setter 等信息
 	 * 
 	 * @param classOfT
 	 *            类
 	 * @return Mirror
 	 */
+	@SuppressWarnings("unchecked")
 	public static <T> Mirror<T> me(Class<T> classOfT) {
-		return null == classOfT	? null
-								: new Mirror<T>(classOfT).setTypeExtractor(defaultTypeExtractor);
+		if (null == classOfT)
+			return null;
+		Mirror<?> re = mirrors.get(classOfT);
+		if (null == re)
+			re = intern(classOfT);
+		return (Mirror<T>) re;
+	}
+
+	private static <T> Mirror<?> intern(Class<T> classOfT) {
+		if (isPermanent(classOfT)) {
+			Mirror<?> re = new Mirror<T>(classOfT, new Metas(), defaultTypeExtractor);
+			Mirror<?> old = mirrors.putIfAbsent(classOfT, re);
+			return null == old ? re : old;
+		}
+		synchronized (foreignMirrors) {
+			SoftReference<Mirror<?>> ref = foreignMirrors.get(classOfT);
+			Mirror<?> re = null == ref ? null : ref.get();
+			if (null == re) {
+				re = new Mirror<T>(classOfT, new Metas(), defaultTypeExtractor);
+				foreignMirrors.put(classOfT, new SoftReference<Mirror<?>>(re));
+			}
+			return re;
+		}
+	}
+
+	/**
+	 * @return 类是否由 Mirror 自己的类加载器或者它的父加载器加载
+	 */
+	private static boolean isPermanent(Class<?> type) {
+		ClassLoader cl = type.getClassLoader();
+		if (null == cl)
+			return true;
+		for (ClassLoader my = Mirror.class.getClassLoader(); null != my; my = my.getParent())
+			if (my == cl)
+				return true;
+		return false;
 	}
 
 	/**
@@ -136,29 +188,74 @@ public class Mirror<T> {
 	 * @see org.nutz.lang.TypeExtractor
 	 */
 	public static <T> Mirror<T> me(Class<T> classOfT, TypeExtractor typeExtractor) {
-		return null == classOfT	? null
-								: new Mirror<T>(classOfT).setTypeExtractor(typeExtractor == null ? defaultTypeExtractor
-																								: typeExtractor);
+		Mirror<T> re = me(classOfT);
+		return null == re ? null : re.setTypeExtractor(typeExtractor);
 	}
 
 	private Class<T> klass;
 
 	private TypeExtractor typeExtractor;
 
+	/**
+	 * 反射信息的缓存，同一个类的所有 Mirror 共享一份
+	 */
+	private Metas metas;
+
 	/**
 	 * 设置自己的类型提炼逻辑
+	 * <p>
+	 * Mirror.me 返回的对象是被共享的，所以这个函数不会修改它，而是返回一个新的 Mirror，<br>
+	 * 新的 Mirror 依然共享反射信息的缓存
 	 * 
 	 * @param typeExtractor
 	 * @return Mirror
 	 * @see org.nutz.lang.TypeExtractor
 	 */
 	public Mirror<T> setTypeExtractor(TypeExtractor typeExtractor) {
+		if (null == typeExtractor)
+			typeExtractor = defaultTypeExtractor;
+		if (typeExtractor == this.typeExtractor)
+			return this;
+		return new Mirror<T>(klass, metas, typeExtractor);
+	}
+
+	private Mirror(Class<T> classOfT, Metas metas, TypeExtractor typeExtractor) {
+		this.klass = classOfT;
+		this.metas = metas;
 		this.typeExtractor = typeExtractor;
-		return this;
 	}
 
-	private Mirror(Class<T> classOfT) {
-		klass = classOfT;
+	/**
+	 * 缓存反射查找的结果。找不到的时候，缓存异常的信息，下次查找会抛出同样的异常
+	 */
+	private static class Metas {
+
+		volatile Field[] fields;
+
+		volatile Method[] methods;
+
+		volatile Class<?>[] extractTypes;
+
+		final ConcurrentHashMap<Object, Object> getters = new ConcurrentHashMap<Object, Object>();
+
+		final ConcurrentHashMap<Object, Object> setters = new ConcurrentHashMap<Object, Object>();
+
+		final ConcurrentHashMap<Object, Object> finds = new ConcurrentHashMap<Object, Object>();
+
+		final ConcurrentHashMap<String, Object> fieldsByName = new ConcurrentHashMap<String, Object>();
+
+		final ConcurrentHashMap<String, Method[]> setterGroups = new ConcurrentHashMap<String, Method[]>();
+
+		final ConcurrentHashMap<String, Injecting> injectings = new ConcurrentHashMap<String, Injecting>();
+
+		final ConcurrentHashMap<String, Ejecting> ejectings = new ConcurrentHashMap<String, Ejecting>();
+
+	}
+
+	private static Method cachedMethod(Object re) throws NoSuchMethodException {
+		if (re instanceof Method)
+			return (Method) re;
+		throw new NoSuchMethodException((String) re);
 	}
 
 	/**
@@ -172,6 +269,20 @@ public class Mirror<T> {
 	 *             没有找到 Getter
 	 */
 	public Method getGetter(String fieldName) throws NoSuchMethodException {
+		Object re = metas.getters.get(fieldName);
+		if (null == re) {
+			try {
+				re = _getGetter(fieldName);
+			}
+			catch (NoSuchMethodException e) {
+				re = Strings.sNull(e.getMessage());
+			}
+			metas.getters.put(fieldName, re);
+		}
+		return cachedMethod(re);
+	}
+
+	private Method _getGetter(String fieldName) throws NoSuchMethodException {
 		try {
 			String fn = Strings.capitalize(fieldName);
 			try {
@@ -208,6 +319,20 @@ public class Mirror<T> {
 	 *             没有找到 Getter
 	 */
 	public Method getGetter(Field field) throws NoSuchMethodException {
+		Object re = metas.getters.get(field);
+		if (null == re) {
+			try {
+				re = _getGetter(field);
+			}
+			catch (NoSuchMethodException e) {
+				re = Strings.sNull(e.getMessage());
+			}
+			metas.getters.put(field, re);
+		}
+		return cachedMethod(re);
+	}
+
+	private Method _getGetter(Field field) throws NoSuchMethodException {
 		try {
 			try {
 				String fn = Strings.capitalize(field.getName());
@@ -240,6 +365,20 @@ public class Mirror<T> {
 	 *             没找到 Setter
 	 */
 	public Method getSetter(Field field) throws NoSuchMethodException {
+		Object re = metas.setters.get(field);
+		if (null == re) {
+			try {
+				re = _getSetter(field);
+			}
+			catch (NoSuchMethodException e) {
+				re = Strings.sNull(e.getMessage());
+			}
+			metas.setters.put(field, re);
+		}
+		return cachedMethod(re);
+	}
+
+	private Method _getSetter(Field field) throws NoSuchMethodException {
 		try {
 			try {
 				return klass.getMethod("set" + Strings.capitalize(field.getName()), field.getType());
@@ -274,6 +413,21 @@ public class Mirror<T> {
 	 *             没找到 Setter
 	 */
 	public Method getSetter(String fieldName, Class<?> paramType) throws NoSuchMethodException {
+		Object key = Arrays.asList(fieldName, paramType);
+		Object re = metas.setters.get(key);
+		if (null == re) {
+			try {
+				re = _getSetter(fieldName, paramType);
+			}
+			catch (NoSuchMethodException e) {
+				re = Strings.sNull(e.getMessage());
+			}
+			metas.setters.put(key, re);
+		}
+		return cachedMethod(re);
+	}
+
+	private Method _getSetter(String fieldName, Class<?> paramType) throws NoSuchMethodException {
 		try {
 			String setterName = "set" + Strings.capitalize(fieldName);
 			try {
@@ -320,6 +474,15 @@ public class Mirror<T> {
 	 * @return 函数数组
 	 */
 	public Method[] findSetters(String fieldName) {
+		Method[] re = metas.setterGroups.get(fieldName);
+		if (null == re) {
+			re = _findSetters(fieldName);
+			metas.setterGroups.put(fieldName, re);
+		}
+		return re.clone();
+	}
+
+	private Method[] _findSetters(String fieldName) {
 		String mName = "set" + Strings.capitalize(fieldName);
 		List<Method> ms = new ArrayList<Method>();
 		for (Method m : this.klass.getMethods()) {
@@ -340,6 +503,22 @@ public class Mirror<T> {
 	 * @throws NoSuchFieldException
 	 */
 	public Field getField(String name) throws NoSuchFieldException {
+		Object re = metas.fieldsByName.get(name);
+		if (null == re) {
+			try {
+				re = _getField(name);
+			}
+			catch (NoSuchFieldException e) {
+				re = Strings.sNull(e.getMessage());
+			}
+			metas.fieldsByName.put(name, re);
+		}
+		if (re instanceof Field)
+			return (Field) re;
+		throw new NoSuchFieldException((String) re);
+	}
+
+	private Field _getField(String name) throws NoSuchFieldException {
 		Class<?> cc = klass;
 		while (null != cc && cc != Object.class) {
 			try {
@@ -398,17 +577,22 @@ public class Mirror<T> {
 	 * 获得所有的属性，包括私有属性。不包括 Object 的属性
 	 */
 	public Field[] getFields() {
-		Class<?> cc = klass;
-		Map<String, Field> map = new LinkedHashMap<String, Field>();
-		while (null != cc && cc != Object.class) {
-			Field[] fs = cc.getDeclaredFields();
-			for (int i = 0; i < fs.length; i++) {
-				if (!isIgnoredField(fs[i]) && !map.containsKey(fs[i].getName()))
-					map.put(fs[i].getName(), fs[i]);
+		Field[] re = metas.fields;
+		if (null == re) {
+			Class<?> cc = klass;
+			Map<String, Field> map = new LinkedHashMap<String, Field>();
+			while (null != cc && cc != Object.class) {
+				Field[] fs = cc.getDeclaredFields();
+				for (int i = 0; i < fs.length; i++) {
+					if (!isIgnoredField(fs[i]) && !map.containsKey(fs[i].getName()))
+						map.put(fs[i].getName(), fs[i]);
+				}
+				cc = cc.getSuperclass();
 			}
-			cc = cc.getSuperclass();
+			re = map.values().toArray(new Field[map.size()]);
+			metas.fields = re;
 		}
-		return map.values().toArray(new Field[map.size()]);
+		return re.clone();
 	}
 
 	/**
@@ -434,16 +618,21 @@ public class Mirror<T> {
 	 * 获取本类型所有的方法，包括私有方法。不包括 Object 的方法
 	 */
 	public Method[] getMethods() {
-		Class<?> cc = klass;
-		List<Method> list = new LinkedList<Method>();
-		while (null != cc && cc != Object.class) {
-			Method[] ms = cc.getDeclaredMethods();
-			for (int i = 0; i < ms.length; i++) {
-				list.add(ms[i]);
+		Method[] re = metas.methods;
+		if (null == re) {
+			Class<?> cc = klass;
+			List<Method> list = new LinkedList<Method>();
+			while (null != cc && cc != Object.class) {
+				Method[] ms = cc.getDeclaredMethods();
+				for (int i = 0; i < ms.length; i++) {
+					list.add(ms[i]);
+				}
+				cc = cc.getSuperclass();
 			}
-			cc = cc.getSuperclass();
+			re = list.toArray(new Method[list.size()]);
+			metas.methods = re;
 		}
-		return list.toArray(new Method[list.size()]);
+		return re.clone();
 	}
 
 	/**
@@ -650,7 +839,15 @@ public class Mirror<T> {
 	 * @return 对象提炼类型数组。从对象自身的类型到 Object，中间的继承关系中最有特点的几个类型
 	 */
 	public Class<?>[] extractTypes() {
-		return typeExtractor.extract(this);
+		// 只有默认的提炼逻辑的结果是可以缓存的
+		if (typeExtractor != defaultTypeExtractor)
+			return typeExtractor.extract(this);
+		Class<?>[] re = metas.extractTypes;
+		if (null == re) {
+			re = typeExtractor.extract(this);
+			metas.extractTypes = re;
+		}
+		return re.clone();
 	}
 
 	/**
@@ -802,6 +999,15 @@ public class Mirror<T> {
 	 * @return 注入方式。
 	 */
 	public Injecting getInjecting(String fieldName) {
+		Injecting re = metas.injectings.get(fieldName);
+		if (null == re) {
+			re = _getInjecting(fieldName);
+			metas.injectings.put(fieldName, re);
+		}
+		return re;
+	}
+
+	private Injecting _getInjecting(String fieldName) {
 		Method[] sss = this.findSetters(fieldName);
 		if (sss.length == 1)
 			return new InjectBySetter(sss[0]);
@@ -828,6 +1034,15 @@ public class Mirror<T> {
 	 * @return 输出方式
 	 */
 	public Ejecting getEjecting(String fieldName) {
+		Ejecting re = metas.ejectings.get(fieldName);
+		if (null == re) {
+			re = _getEjecting(fieldName);
+			metas.ejectings.put(fieldName, re);
+		}
+		return re;
+	}
+
+	private Ejecting _getEjecting(String fieldName) {
 		try {
 			return new EjectByGetter(getGetter(fieldName));
 		}
@@ -874,6 +1089,25 @@ public class Mirror<T> {
 	 * @throws NoSuchMethodException
 	 */
 	public Method findMethod(String name, Class<?>... paramTypes) throws NoSuchMethodException {
+		if (null == paramTypes)
+			return _findMethod(name, paramTypes);
+		List<Object> key = new ArrayList<Object>(paramTypes.length + 1);
+		key.add(name);
+		key.addAll(Arrays.asList(paramTypes));
+		Object re = metas.finds.get(key);
+		if (null == re) {
+			try {
+				re = _findMethod(name, paramTypes);
+			}
+			catch (NoSuchMethodException e) {
+				re = Strings.sNull(e.getMessage());
+			}
+			metas.finds.put(key, re);
+		}
+		return cachedMethod(re);
+	}
+
+	private Method _findMethod(String name, Class<?>... paramTypes) throws NoSuchMethodException {
 		try {
 			return klass.getMethod(name, paramTypes);
 		}
@@ -10,6 +10,10 @@ public class ConstructorBorning<T> implements Borning<T> {
 		this.c = c;
 	}
 
+	public Constructor<T> getConstructor() {
+		return c;
+	}
+
 	public T born(Object[] args) {
 		try {
 			return c.newInstance(args);
@@ -18,6 +18,10 @@ public class InjectByField implements Injecting {
 		this.field.setAccessible(true);
 	}
 
+	public Field getField() {
+		return field;
+	}
+
 	public void inject(Object obj, Object value) {
 		Object v = null;
 		try {
@@ -19,6 +19,10 @@ public class InjectBySetter implements Injecting {
 		valueType = setter.getParameterTypes()[0];
 	}
 
+	public Method getSetter() {
+		return setter;
+	}
+
 	public void inject(Object obj, Object value) {
 		Object v = null;
 		try {
@@ -0,0 +1,131 @@
+package org.nutz.lang.reflect;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import org.nutz.lang.Lang;
+
+/**
+ * 通过生成字节码来访问一个类的构造函数，方法和字段，以避免反射调用的开销
+ * <p>
+ * 它只能访问 public 类的 public 成员。每个成员都有一个下标，通过 indexOf 获得，<br>
+ * 下标为 -1 表示这个成员不能被快速访问，调用者应该退回到反射的方式
+ * <p>
+ * 被调用的构造函数或者方法抛出的异常会原样抛出，包括 checked exception
+ * 
+ * @see org.nutz.lang.reflect.FastClasses
+ */
+public abstract class FastClass {
+
+	private Class<?> type;
+
+	private Constructor<?>[] constructors;
+
+	private Method[] methods;
+
+	private Field[] fields;
+
+	void init(Class<?> type, Constructor<?>[] constructors, Method[] methods, Field[] fields) {
+		this.type = type;
+		this.constructors = constructors;
+		this.methods = methods;
+		this.fields = fields;
+	}
+
+	/**
+	 * @return 被访问的类型
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * @return 构造函数的下标，-1 表示不能快速访问
+	 */
+	public int indexOf(Constructor<?> constructor) {
+		for (int i = 0; i < constructors.length; i++)
+			if (constructors[i].equals(constructor))
+				return i;
+		return -1;
+	}
+
+	/**
+	 * @return 方法的下标，-1 表示不能快速访问
+	 */
+	public int indexOf(Method method) {
+		for (int i = 0; i < methods.length; i++)
+			if (methods[i].equals(method))
+				return i;
+		return -1;
+	}
+
+	/**
+	 * @return 字段的下标，-1 表示不能快速访问
+	 */
+	public int indexOf(Field field) {
+		for (int i = 0; i < fields.length; i++)
+			if (fields[i].equals(field))
+				return i;
+		return -1;
+	}
+
+	/**
+	 * 调用构造函数创建对象
+	 * 
+	 * @param index
+	 *            构造函数下标
+	 * @param args
+	 *            参数，原生类型的参数可以是任何对应的包装类型或者 Number
+	 * @return 新对象
+	 */
+	public abstract Object born(int index, Object... args);
+
+	/**
+	 * 调用一个方法
+	 * 
+	 * @param obj
+	 *            对象，静态方法为 null
+	 * @param index
+	 *            方法下标
+	 * @param args
+	 *            参数
+	 * @return 方法的返回值，void 方法返回 null
+	 */
+	public abstract Object invoke(Object obj, int index, Object... args);
+
+	/**
+	 * 读取字段的值
+	 * 
+	 * @param obj
+	 *            对象，静态字段为 null
+	 * @param index
+	 *            字段下标
+	 * @return 字段值
+	 */
+	public abstract Object getField(Object obj, int index);
+
+	/**
+	 * 设置字段的值，final 字段会抛出异常
+	 * 
+	 * @param obj
+	 *            对象，静态字段为 null
+	 * @param index
+	 *            字段下标
+	 * @param value
+	 *            字段值
+	 */
+	public abstract void setField(Object obj, int index, Object value);
+
+	/**
+	 * 给生成的代码用的，在下标非法时生成一个异常
+	 */
+	protected RuntimeException noSuchMember(int index) {
+		return Lang.makeThrow("FastClass of '%s' has no member at #%d", type.getName(), index);
+	}
+
+	public String toString() {
+		return "FastClass:" + type.getName();
+	}
+
+}
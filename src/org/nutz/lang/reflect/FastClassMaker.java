@@ -0,0 +1,365 @@
+package org.nutz.lang.reflect;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.nutz.aop.DefaultClassDefiner;
+import org.nutz.repo.org.objectweb.asm.ClassWriter;
+import org.nutz.repo.org.objectweb.asm.Label;
+import org.nutz.repo.org.objectweb.asm.MethodVisitor;
+import org.nutz.repo.org.objectweb.asm.Opcodes;
+import org.nutz.repo.org.objectweb.asm.Type;
+
+/**
+ * 用 ASM 为一个类生成 FastClass 的子类
+ * <p>
+ * 生成的类版本为 1.5，这样就不必计算 StackMapTable，也不必为了计算它去加载用户的类
+ */
+class FastClassMaker implements Opcodes {
+
+	private static final String SUPER_NAME = Type.getInternalName(FastClass.class);
+
+	private Class<?> type;
+
+	private String owner;
+
+	private String myName;
+
+	private Constructor<?>[] constructors;
+
+	private Method[] methods;
+
+	private Field[] fields;
+
+	FastClassMaker(Class<?> type) {
+		this.type = type;
+		this.owner = Type.getInternalName(type);
+		this.myName = SUPER_NAME + "$" + type.getName().replace('.', '_');
+		this.constructors = _constructors(type);
+		this.methods = _methods(type);
+		this.fields = _fields(type);
+	}
+
+	/**
+	 * @return 是否可以为这个类生成 FastClass
+	 */
+	static boolean canMake(Class<?> type) {
+		return !type.isPrimitive()
+				&& !type.isArray()
+				&& Modifier.isPublic(type.getModifiers())
+				&& isVisible(type);
+	}
+
+	/**
+	 * 定义并实例化生成的类
+	 */
+	FastClass make() throws Exception {
+		ClassLoader parent = type.getClassLoader();
+		if (null == parent)
+			parent = FastClass.class.getClassLoader();
+		DefaultClassDefiner cd = new DefaultClassDefiner(parent);
+		Class<?> klass = cd.define(myName.replace('/', '.'), toByteArray());
+		FastClass fc = (FastClass) klass.newInstance();
+		fc.init(type, constructors, methods, fields);
+		return fc;
+	}
+
+	byte[] toByteArray() {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(V1_5, ACC_PUBLIC + ACC_SUPER + ACC_FINAL, myName, null, SUPER_NAME, null);
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, SUPER_NAME, "<init>", "()V");
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		addBorn(cw);
+		addInvoke(cw);
+		addGetField(cw);
+		addSetField(cw);
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	// Object born(int index, Object[] args)
+	private void addBorn(ClassWriter cw) {
+		MethodVisitor mv = cw.visitMethod(	ACC_PUBLIC + ACC_VARARGS,
+											"born",
+											"(I[Ljava/lang/Object;)Ljava/lang/Object;",
+											null,
+											null);
+		mv.visitCode();
+		Label[] labels = switchBy(mv, 1, constructors.length);
+		for (int i = 0; i < constructors.length; i++) {
+			Constructor<?> c = constructors[i];
+			mv.visitLabel(labels[i]);
+			mv.visitTypeInsn(NEW, owner);
+			mv.visitInsn(DUP);
+			loadArgs(mv, 2, c.getParameterTypes());
+			mv.visitMethodInsn(INVOKESPECIAL, owner, "<init>", Type.getConstructorDescriptor(c));
+			mv.visitInsn(ARETURN);
+		}
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	// Object invoke(Object obj, int index, Object[] args)
+	private void addInvoke(ClassWriter cw) {
+		MethodVisitor mv = cw.visitMethod(	ACC_PUBLIC + ACC_VARARGS,
+											"invoke",
+											"(Ljava/lang/Object;I[Ljava/lang/Object;)Ljava/lang/Object;",
+											null,
+											null);
+		mv.visitCode();
+		Label[] labels = switchBy(mv, 2, methods.length);
+		for (int i = 0; i < methods.length; i++) {
+			Method m = methods[i];
+			mv.visitLabel(labels[i]);
+			boolean isStatic = Modifier.isStatic(m.getModifiers());
+			if (!isStatic) {
+				mv.visitVarInsn(ALOAD, 1);
+				mv.visitTypeInsn(CHECKCAST, owner);
+			}
+			loadArgs(mv, 3, m.getParameterTypes());
+			String desc = Type.getMethodDescriptor(m);
+			if (isStatic)
+				mv.visitMethodInsn(INVOKESTATIC, owner, m.getName(), desc);
+			else if (type.isInterface())
+				mv.visitMethodInsn(INVOKEINTERFACE, owner, m.getName(), desc);
+			else
+				mv.visitMethodInsn(INVOKEVIRTUAL, owner, m.getName(), desc);
+			Class<?> rt = m.getReturnType();
+			if (rt == void.class)
+				mv.visitInsn(ACONST_NULL);
+			else
+				box(mv, rt);
+			mv.visitInsn(ARETURN);
+		}
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	// Object getField(Object obj, int index)
+	private void addGetField(ClassWriter cw) {
+		MethodVisitor mv = cw.visitMethod(	ACC_PUBLIC,
+											"getField",
+											"(Ljava/lang/Object;I)Ljava/lang/Object;",
+											null,
+											null);
+		mv.visitCode();
+		Label[] labels = switchBy(mv, 2, fields.length);
+		for (int i = 0; i < fields.length; i++) {
+			Field f = fields[i];
+			mv.visitLabel(labels[i]);
+			String fOwner = Type.getInternalName(f.getDeclaringClass());
+			String desc = Type.getDescriptor(f.getType());
+			if (Modifier.isStatic(f.getModifiers())) {
+				mv.visitFieldInsn(GETSTATIC, fOwner, f.getName(), desc);
+			} else {
+				mv.visitVarInsn(ALOAD, 1);
+				mv.visitTypeInsn(CHECKCAST, fOwner);
+				mv.visitFieldInsn(GETFIELD, fOwner, f.getName(), desc);
+			}
+			box(mv, f.getType());
+			mv.visitInsn(ARETURN);
+		}
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	// void setField(Object obj, int index, Object value)
+	private void addSetField(ClassWriter cw) {
+		MethodVisitor mv = cw.visitMethod(	ACC_PUBLIC,
+											"setField",
+											"(Ljava/lang/Object;ILjava/lang/Object;)V",
+											null,
+											null);
+		mv.visitCode();
+		Label[] labels = switchBy(mv, 2, fields.length);
+		for (int i = 0; i < fields.length; i++) {
+			Field f = fields[i];
+			mv.visitLabel(labels[i]);
+			// final 字段不能设值，直接抛错
+			if (Modifier.isFinal(f.getModifiers())) {
+				throwNoSuchMember(mv, 2);
+				continue;
+			}
+			String fOwner = Type.getInternalName(f.getDeclaringClass());
+			String desc = Type.getDescriptor(f.getType());
+			if (Modifier.isStatic(f.getModifiers())) {
+				mv.visitVarInsn(ALOAD, 3);
+				unbox(mv, f.getType());
+				mv.visitFieldInsn(PUTSTATIC, fOwner, f.getName(), desc);
+			} else {
+				mv.visitVarInsn(ALOAD, 1);
+				mv.visitTypeInsn(CHECKCAST, fOwner);
+				mv.visitVarInsn(ALOAD, 3);
+				unbox(mv, f.getType());
+				mv.visitFieldInsn(PUTFIELD, fOwner, f.getName(), desc);
+			}
+			mv.visitInsn(RETURN);
+		}
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	/**
+	 * 根据下标生成一个 tableswitch，默认分支抛出异常
+	 *
+	 * @param indexVar
+	 *            下标所在的本地变量
+	 * @param len
+	 *            分支数量
+	 * @return 每个分支的标签
+	 */
+	private static Label[] switchBy(MethodVisitor mv, int indexVar, int len) {
+		Label[] labels = new Label[len];
+		Label dflt = new Label();
+		if (len > 0) {
+			for (int i = 0; i < len; i++)
+				labels[i] = new Label();
+			mv.visitVarInsn(ILOAD, indexVar);
+			mv.visitTableSwitchInsn(0, len - 1, dflt, labels);
+		}
+		mv.visitLabel(dflt);
+		throwNoSuchMember(mv, indexVar);
+		return labels;
+	}
+
+	private static void throwNoSuchMember(MethodVisitor mv, int indexVar) {
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ILOAD, indexVar);
+		mv.visitMethodInsn(	INVOKEVIRTUAL,
+							SUPER_NAME,
+							"noSuchMember",
+							"(I)Ljava/lang/RuntimeException;");
+		mv.visitInsn(ATHROW);
+	}
+
+	private static void loadArgs(MethodVisitor mv, int argsVar, Class<?>[] paramTypes) {
+		for (int j = 0; j < paramTypes.length; j++) {
+			mv.visitVarInsn(ALOAD, argsVar);
+			pushInt(mv, j);
+			mv.visitInsn(AALOAD);
+			unbox(mv, paramTypes[j]);
+		}
+	}
+
+	private static void pushInt(MethodVisitor mv, int n) {
+		if (n <= 5)
+			mv.visitInsn(ICONST_0 + n);
+		else if (n <= Byte.MAX_VALUE)
+			mv.visitIntInsn(BIPUSH, n);
+		else
+			mv.visitIntInsn(SIPUSH, n);
+	}
+
+	/**
+	 * 将栈顶的 Object 转换成给定的类型。数字类的原生类型接受任何 Number
+	 */
+	private static void unbox(MethodVisitor mv, Class<?> type) {
+		if (type == Object.class)
+			return;
+		if (!type.isPrimitive()) {
+			mv.visitTypeInsn(CHECKCAST, type.isArray()	? Type.getDescriptor(type)
+														: Type.getInternalName(type));
+			return;
+		}
+		if (type == boolean.class) {
+			mv.visitTypeInsn(CHECKCAST, "java/lang/Boolean");
+			mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Boolean", "booleanValue", "()Z");
+		} else if (type == char.class) {
+			mv.visitTypeInsn(CHECKCAST, "java/lang/Character");
+			mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Character", "charValue", "()C");
+		} else {
+			String desc = Type.getDescriptor(type);
+			mv.visitTypeInsn(CHECKCAST, "java/lang/Number");
+			mv.visitMethodInsn(	INVOKEVIRTUAL,
+								"java/lang/Number",
+								type.getName() + "Value",
+								"()" + desc);
+		}
+	}
+
+	/**
+	 * 将栈顶的原生类型值包装成对象
+	 */
+	private static void box(MethodVisitor mv, Class<?> type) {
+		if (!type.isPrimitive())
+			return;
+		String wrapper;
+		if (type == int.class)
+			wrapper = "java/lang/Integer";
+		else if (type == boolean.class)
+			wrapper = "java/lang/Boolean";
+		else if (type == char.class)
+			wrapper = "java/lang/Character";
+		else
+			wrapper = "java/lang/" + Character.toUpperCase(type.getName().charAt(0))
+						+ type.getName().substring(1);
+		mv.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", "("
+																+ Type.getDescriptor(type)
+																+ ")L"
+																+ wrapper
+																+ ";");
+	}
+
+	/**
+	 * 生成的类在另外一个 ClassLoader 里，只能访问 public 的类
+	 */
+	private static boolean isVisible(Class<?> klass) {
+		while (klass.isArray())
+			klass = klass.getComponentType();
+		if (klass.isPrimitive())
+			return true;
+		if (!Modifier.isPublic(klass.getModifiers()))
+			return false;
+		Class<?> outer = klass.getDeclaringClass();
+		return null == outer || isVisible(outer);
+	}
+
+	private static boolean isVisible(Class<?>[] types) {
+		for (Class<?> t : types)
+			if (!isVisible(t))
+				return false;
+		return true;
+	}
+
+	private static Constructor<?>[] _constructors(Class<?> type) {
+		List<Constructor<?>> list = new ArrayList<Constructor<?>>();
+		if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers()))
+			for (Constructor<?> c : type.getConstructors())
+				if (isVisible(c.getParameterTypes()))
+					list.add(c);
+		return list.toArray(new Constructor<?>[list.size()]);
+	}
+
+	private static Method[] _methods(Class<?> type) {
+		List<Method> list = new ArrayList<Method>();
+		for (Method m : type.getMethods()) {
+			// 接口的静态方法，需要更高版本的字节码才能调用
+			if (Modifier.isStatic(m.getModifiers()) && m.getDeclaringClass().isInterface())
+				continue;
+			if (isVisible(m.getParameterTypes()) && isVisible(m.getReturnType()))
+				list.add(m);
+		}
+		return list.toArray(new Method[list.size()]);
+	}
+
+	private static Field[] _fields(Class<?> type) {
+		List<Field> list = new ArrayList<Field>();
+		for (Field f : type.getFields())
+			if (isVisible(f.getDeclaringClass()) && isVisible(f.getType()))
+				list.add(f);
+		return list.toArray(new Field[list.size()]);
+	}
+
+}
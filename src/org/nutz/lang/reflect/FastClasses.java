@@ -0,0 +1,84 @@
+package org.nutz.lang.reflect;
+
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.nutz.log.Log;
+import org.nutz.log.Logs;
+
+/**
+ * 获取一个类的 FastClass
+ * <p>
+ * 生成的 FastClass 会被缓存。缓存以类为弱引用的键，FastClass 本身为软引用，不会妨碍类被卸载
+ *
+ * @see org.nutz.lang.reflect.FastClass
+ */
+public abstract class FastClasses {
+
+	private static final Log log = Logs.getLog(FastClasses.class);
+
+	/**
+	 * 不能生成 FastClass 的类，也记录在缓存中，避免反复尝试
+	 */
+	private static final SoftReference<FastClass> NONE = new SoftReference<FastClass>(null);
+
+	private static final Map<Class<?>, SoftReference<FastClass>> cache = new WeakHashMap<Class<?>, SoftReference<FastClass>>();
+
+	private static boolean enable = true;
+
+	/**
+	 * 是否启用字节码生成，关闭后 get 总是返回 null，调用者会退回到反射的方式
+	 */
+	public static void setEnable(boolean enable) {
+		FastClasses.enable = enable;
+	}
+
+	public static boolean isEnable() {
+		return enable;
+	}
+
+	/**
+	 * @param type
+	 *            类型
+	 * @return 类型对应的 FastClass，如果不能生成，返回 null
+	 */
+	public static FastClass get(Class<?> type) {
+		if (!enable || null == type)
+			return null;
+		synchronized (cache) {
+			SoftReference<FastClass> ref = cache.get(type);
+			if (NONE == ref)
+				return null;
+			FastClass fc = null == ref ? null : ref.get();
+			if (null == fc) {
+				fc = make(type);
+				cache.put(type, null == fc ? NONE : new SoftReference<FastClass>(fc));
+			}
+			return fc;
+		}
+	}
+
+	/**
+	 * 清除缓存
+	 */
+	public static void clear() {
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	private static FastClass make(Class<?> type) {
+		if (!FastClassMaker.canMake(type))
+			return null;
+		try {
+			return new FastClassMaker(type).make();
+		}
+		catch (Throwable e) {
+			if (log.isInfoEnabled())
+				log.infof("Fail to make FastClass for '%s' : %s", type.getName(), e);
+			return null;
+		}
+	}
+
+}
@@ -134,7 +134,15 @@ public class MockHttpServletResponse implements HttpServletResponse {
 	}
 
 	public ServletOutputStream getOutputStream() throws IOException {
-		throw Lang.noImplement();
+		return new ServletOutputStream() {
+			public void write(int b) throws IOException {
+				stream.write(b);
+			}
+
+			public void write(byte[] b, int off, int len) throws IOException {
+				stream.write(b, off, len);
+			}
+		};
 	}
 
 	public PrintWriter getWriter() throws IOException {
@@ -166,8 +174,8 @@ public class MockHttpServletResponse implements HttpServletResponse {
 		this.characterEncoding = characterEncoding;
 	}
 
-	public void setContentLength(int arg0) {
-		throw Lang.noImplement();
+	public void setContentLength(int len) {
+		headers.put("Content-Length", String.valueOf(len));
 	}
 
 	public void setContentType(String contentType) {
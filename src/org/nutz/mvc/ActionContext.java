@@ -8,6 +8,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.nutz.ioc.Ioc;
+import org.nutz.ioc.IocContext;
 import org.nutz.lang.util.SimpleContext;
 
 /**
@@ -32,6 +33,8 @@ public class ActionContext extends SimpleContext {
 	
 	private static final String ERROR = "nutz.mvc.error";
 
+	private static final String REQUEST_IOC_CONTEXT = "nutz.mvc.request.ioc.context";
+
 	/**
 	 * 获取全局的Ioc对象
 	 * @return 如果定义了IocBy注解,则肯定返回非空对象
@@ -182,4 +185,17 @@ public class ActionContext extends SimpleContext {
 		this.set(SERVLET_CONTEXT, sc);
 		return this;
 	}
+
+	/**
+	 * 获取当前请求的 Ioc 上下文，请求处理完毕的时候，谁持有它谁负责销毁
+	 * @return 请求的 Ioc 上下文，如果模块不是由 Ioc 容器管理的，或者它已经被别人接管了，返回 null
+	 */
+	public IocContext getRequestIocContext() {
+		return this.getAs(IocContext.class, REQUEST_IOC_CONTEXT);
+	}
+
+	public ActionContext setRequestIocContext(IocContext context) {
+		this.set(REQUEST_IOC_CONTEXT, context);
+		return this;
+	}
 }
@@ -1,6 +1,9 @@
 package org.nutz.mvc;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.Map;
 import java.util.Set;
 
@@ -298,13 +301,76 @@ public abstract class Mvcs {
 	 */
 	public static void write(HttpServletResponse resp, Object obj, JsonFormat format)
 			throws IOException {
+		write(resp, null, obj, format);
+	}
+
+	/**
+	 * 它将对象序列化成 JSON 字符串，写入给定的输出流，比如一个压缩流
+	 * 
+	 * @param resp
+	 *            响应对象
+	 * @param out
+	 *            输出流，写完以后会被关闭。如果为 null，则写入 HTTP 响应
+	 * @param obj
+	 *            数据对象
+	 * @param format
+	 *            JSON 的格式化方式
+	 * @throws IOException
+	 *             写入失败
+	 * 
+	 * @see org.nutz.mvc.view.Compression
+	 */
+	public static void write(HttpServletResponse resp,
+								OutputStream out,
+								Object obj,
+								JsonFormat format) throws IOException {
 		resp.setHeader("Cache-Control", "no-cache");
 		resp.setContentType("text/plain");
 
+		if (null != out) {
+			try {
+				if ("UTF-8".equalsIgnoreCase(resp.getCharacterEncoding()))
+					Json.toJson(out, obj, format);
+				else {
+					Writer w = new OutputStreamWriter(out, resp.getCharacterEncoding());
+					Json.toJson(w, obj, format);
+					w.flush();
+				}
+			}
+			finally {
+				out.close();
+			}
+			return;
+		}
+
+		out = getUtf8OutputStream(resp);
+		if (null != out)
+			Json.toJson(out, obj, format);
 		// by mawm 改为直接采用resp.getWriter()的方式直接输出!
-		Json.toJson(resp.getWriter(), obj, format);
+		else
+			Json.toJson(resp.getWriter(), obj, format);
 
 		resp.flushBuffer();
 	}
 
+	/**
+	 * 输出编码是 UTF-8 的时候，可以直接写字节，省掉 Writer 的编码器
+	 * 
+	 * @param resp
+	 *            响应对象
+	 * @return 响应的输出流。编码不是 UTF-8，或者已经调用过 getWriter 的时候返回 null，这时应该使用 getWriter
+	 * @throws IOException
+	 */
+	public static OutputStream getUtf8OutputStream(HttpServletResponse resp) throws IOException {
+		if (!"UTF-8".equalsIgnoreCase(resp.getCharacterEncoding()))
+			return null;
+		try {
+			return resp.getOutputStream();
+		}
+		catch (IllegalStateException e) {
+			// 已经调用过 getWriter 了
+			return null;
+		}
+	}
+
 }
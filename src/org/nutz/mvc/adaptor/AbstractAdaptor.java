@@ -44,9 +44,14 @@ public abstract class AbstractAdaptor implements HttpAdaptor {
 	
 	protected Method method;
 
+	/**
+	 * 入口函数的参数类型，初始化的时候取一次，免得每次请求都复制一个数组
+	 */
+	protected Class<?>[] argTypes;
+
 	public void init(Method method) {
 		this.method = method;
-		Class<?>[] argTypes = method.getParameterTypes();
+		argTypes = method.getParameterTypes();
 		injs = new ParamInjector[argTypes.length];
 		Annotation[][] annss = method.getParameterAnnotations();
 		Type[] types = method.getGenericParameterTypes();
@@ -76,7 +81,7 @@ public abstract class AbstractAdaptor implements HttpAdaptor {
 
 			// If has @IocObj
 			if (null != iocObj) {
-				injs[i] = new IocObjInjector(method.getParameterTypes()[i], iocObj.value());
+				injs[i] = new IocObjInjector(argTypes[i], iocObj.value());
 				continue;
 			}
 
@@ -158,7 +163,6 @@ public abstract class AbstractAdaptor implements HttpAdaptor {
 		for (; i < len; i++) {
 			args[i] = injs[i].get(sc, req, resp, null == pathArgs ? null : pathArgs[i]);
 		}
-		Class<?>[] argTypes = method.getParameterTypes();
 		Object obj = getReferObject(sc, req, resp, pathArgs);
 		for (; i < injs.length; i++) {
 			args[i] = injs[i].get(sc, req, resp, obj);
@@ -1,29 +1,71 @@
 package org.nutz.mvc.adaptor;
 
+import java.io.Reader;
+import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.nutz.json.Json;
 import org.nutz.lang.Lang;
 import org.nutz.lang.Streams;
+import org.nutz.lang.util.NutMap;
 import org.nutz.mvc.adaptor.injector.JsonInjector;
 import org.nutz.mvc.annotation.Param;
 
 /**
  * 假设，整个输入输入流，是一个 JSON 字符串
+ * <p>
+ * 如果只有一个参数，并且它需要的是整个 JSON，那么直接从输入流中生成这个参数。<br>
+ * 如果所有的参数都声明了 @Param，那么输入流会被解析成一个 Map，供所有的参数使用。<br>
+ * 其他的情况，输入流会被读成一个字符串
  * 
  * @author zozoh(zozohtnt@gmail.com)
  */
 public class JsonAdaptor extends AbstractAdaptor {
 
+	/**
+	 * 不声明 @Param 的参数个数
+	 */
+	private int wholeCount;
+
+	/**
+	 * 声明了 @Param 的参数个数
+	 */
+	private int namedCount;
+
+	@Override
+	public void init(Method method) {
+		super.init(method);
+		for (ParamInjector inj : injs)
+			if (inj instanceof JsonInjector) {
+				if (null == ((JsonInjector) inj).getName())
+					wholeCount++;
+				else
+					namedCount++;
+			}
+	}
+
 	public Object getReferObject(	ServletContext sc,
 							HttpServletRequest request,
 							HttpServletResponse response, String[] pathArgs) {
-		// Read all as String
 		try {
-			return Streams.readAndClose(Streams.utf8r(request.getInputStream()));
+			Reader reader = Streams.utf8r(request.getInputStream());
+			// 由 JsonInjector 直接从输入流中生成对象
+			if (wholeCount == 1 && namedCount == 0)
+				return reader;
+			// 解析一次，所有参数共享
+			if (wholeCount == 0 && namedCount > 0)
+				try {
+					return Json.fromJson(NutMap.class, reader);
+				}
+				finally {
+					Streams.safeClose(reader);
+				}
+			// Read all as String
+			return Streams.readAndClose(reader);
 		}
 		catch (Exception e) {
 			throw Lang.wrapThrow(e);
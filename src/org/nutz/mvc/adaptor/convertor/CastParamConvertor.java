@@ -0,0 +1,25 @@
+package org.nutz.mvc.adaptor.convertor;
+
+import org.nutz.castor.Castors;
+
+/**
+ * 先像 StringParamConvertor 那样得到一个字符串，再把它转换成指定的类型
+ * <p>
+ * 转换的结果可以直接设置到这个类型的字段上，不必再转换一次
+ */
+public class CastParamConvertor extends StringParamConvertor {
+
+	private Class<?> type;
+
+	public CastParamConvertor(Class<?> type) {
+		this.type = type;
+	}
+
+	public Object convert(String[] ss) {
+		Object s = super.convert(ss);
+		if (null == s)
+			return null;
+		return Castors.me().castTo(s, type);
+	}
+
+}
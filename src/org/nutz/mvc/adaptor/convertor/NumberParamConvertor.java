@@ -0,0 +1,64 @@
+package org.nutz.mvc.adaptor.convertor;
+
+import org.nutz.castor.FailToCastObjectException;
+import org.nutz.lang.Lang;
+import org.nutz.lang.Mirror;
+import org.nutz.lang.Strings;
+
+/**
+ * 把参数直接解析成 int,long,short,byte,float,double 或者它们的外覆类
+ * <p>
+ * 规则与 String2Number 相同：原生类型的空白串转换成 0，外覆类的空白串转换成 null。<br>
+ * 只是它直接调用 valueOf，不再每次通过反射查找并调用外覆类的构造函数
+ */
+public class NumberParamConvertor extends StringParamConvertor {
+
+	private Class<?> type;
+
+	private Class<?> wrapper;
+
+	public NumberParamConvertor(Class<?> type) {
+		this.type = type;
+		this.wrapper = Mirror.me(type).getWrapperClass();
+	}
+
+	/**
+	 * @return 是否能处理这个类型
+	 */
+	public static boolean support(Class<?> type) {
+		Mirror<?> me = Mirror.me(type);
+		return me.isInt()
+				|| me.isLong()
+				|| me.isShort()
+				|| me.isByte()
+				|| me.isFloat()
+				|| me.isDouble();
+	}
+
+	public Object convert(String[] ss) {
+		String s = (String) super.convert(ss);
+		if (null == s)
+			return null;
+		if (Strings.isBlank(s))
+			return type.isPrimitive() ? Lang.getPrimitiveDefaultValue(type) : null;
+		try {
+			if (wrapper == Integer.class)
+				return Integer.valueOf(s);
+			if (wrapper == Long.class)
+				return Long.valueOf(s);
+			if (wrapper == Double.class)
+				return Double.valueOf(s);
+			if (wrapper == Float.class)
+				return Float.valueOf(s);
+			if (wrapper == Short.class)
+				return Short.valueOf(s);
+			return Byte.valueOf(s);
+		}
+		catch (NumberFormatException e) {
+			throw new FailToCastObjectException(String.format(	"Fail to cast '%s' to <%s>",
+																s,
+																type.getName()), e);
+		}
+	}
+
+}
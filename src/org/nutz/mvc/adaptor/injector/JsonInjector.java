@@ -1,6 +1,8 @@
 package org.nutz.mvc.adaptor.injector;
 
+import java.io.Reader;
 import java.lang.reflect.Type;
+import java.util.Map;
 
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
@@ -9,11 +11,14 @@ import javax.servlet.http.HttpServletResponse;
 import org.nutz.castor.Castors;
 import org.nutz.json.Json;
 import org.nutz.lang.Lang;
+import org.nutz.lang.Streams;
 import org.nutz.lang.util.NutMap;
 import org.nutz.mvc.adaptor.ParamInjector;
 
 /**
  * 假设 refer 是 Map<String,Object>
+ * <p>
+ * refer 也可以是 JSON 字符串，或者一个文本输入流，这时会直接从中生成对象
  * 
  * @author zozoh(zozohtnt@gmail.com)
  */
@@ -27,14 +32,36 @@ public class JsonInjector implements ParamInjector {
 		this.name = name;
 	}
 
+	/**
+	 * @return 参数名，null 表示需要整个 JSON
+	 */
+	public String getName() {
+		return name;
+	}
+
+	@SuppressWarnings("unchecked")
 	public Object get(	ServletContext sc,
 						HttpServletRequest req,
 						HttpServletResponse resp,
 						Object refer) {
-		if (null == name)
+		if (null == name) {
+			if (refer instanceof Reader) {
+				Reader reader = (Reader) refer;
+				try {
+					return Json.fromJson(type, reader);
+				}
+				finally {
+					Streams.safeClose(reader);
+				}
+			}
 			return Json.fromJson(type, refer.toString());
+		}
 
-		NutMap map = Json.fromJson(NutMap.class, refer.toString());
+		Map<String, Object> map;
+		if (refer instanceof Map)
+			map = (Map<String, Object>) refer;
+		else
+			map = Json.fromJson(NutMap.class, refer.toString());
 		Object theObj = map.get(name);
 		if (null == theObj)
 			return null;
@@ -0,0 +1,269 @@
+package org.nutz.mvc.adaptor.injector;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.nutz.lang.Mirror;
+import org.nutz.lang.born.Borning;
+import org.nutz.lang.born.BorningException;
+import org.nutz.lang.inject.InjectByField;
+import org.nutz.lang.inject.InjectBySetter;
+import org.nutz.lang.inject.Injecting;
+import org.nutz.lang.reflect.FastClass;
+import org.nutz.lang.reflect.FastClasses;
+import org.nutz.mvc.adaptor.ParamConvertor;
+import org.nutz.mvc.adaptor.Params;
+import org.nutz.mvc.adaptor.convertor.CastParamConvertor;
+import org.nutz.mvc.adaptor.convertor.NumberParamConvertor;
+
+/**
+ * 预先为一个类型编译好的参数绑定器，在注入器创建的时候生成
+ * <p>
+ * 它记录了类型的每个字段的下标，参数转换器，以及设值的方式。参数转换器直接把参数转换成字段的类型，<br>
+ * 能快速访问的时候，通过 FastClass 生成的字节码创建对象和设值，否则退回到 Mirror 和 Injecting
+ * 
+ * @see org.nutz.mvc.adaptor.injector.ObjectPairInjector
+ * @see org.nutz.mvc.adaptor.injector.ObjectNavlPairInjector
+ */
+class ObjectBinder {
+
+	private static final Object[] NO_ARGS = new Object[0];
+
+	private Class<?> type;
+
+	private Mirror<?> mirror;
+
+	private Borning<?> borning;
+
+	private FastClass fc;
+
+	private int bornIndex = -1;
+
+	private Field[] fields;
+
+	/**
+	 * 字段名 => 下标
+	 */
+	private Map<String, Integer> slots;
+
+	private Injecting[] injs;
+
+	private ParamConvertor[] convertors;
+
+	/**
+	 * 参数转换器是否直接转换成字段的类型。原来的注入器把字符串交给 Injecting 转换，<br>
+	 * 外覆类的空白串会被转换成 null 设到字段上，这样的字段转换出 null 的时候也要设值
+	 */
+	private boolean[] typed;
+
+	/**
+	 * FastClass 里设值的方法或者字段的下标，-1 表示不能快速访问
+	 */
+	private int[] setters;
+
+	private int[] setFields;
+
+	/**
+	 * 字段类型的绑定器，用到的时候才生成，因为类型可能引用它自己。读取不加锁，只有第一次生成的时候才加锁
+	 */
+	private AtomicReferenceArray<ObjectBinder> children;
+
+	ObjectBinder(Class<?> type) {
+		this.type = type;
+		this.mirror = Mirror.me(type);
+		this.fc = FastClasses.get(type);
+		if (null != fc)
+			try {
+				Constructor<?> c = type.getConstructor();
+				bornIndex = fc.indexOf(c);
+			}
+			catch (NoSuchMethodException e) {}
+		if (bornIndex < 0)
+			try {
+				borning = mirror.getBorning();
+			}
+			catch (BorningException e) {
+				// 等到真的要创建对象的时候再抛错
+			}
+
+		fields = mirror.getFields();
+		slots = new HashMap<String, Integer>();
+		injs = new Injecting[fields.length];
+		convertors = new ParamConvertor[fields.length];
+		typed = new boolean[fields.length];
+		setters = new int[fields.length];
+		setFields = new int[fields.length];
+		children = new AtomicReferenceArray<ObjectBinder>(fields.length);
+		for (int i = 0; i < fields.length; i++) {
+			Field f = fields[i];
+			slots.put(f.getName(), i);
+			convertors[i] = makeConvertor(f.getType());
+			typed[i] = convertors[i] instanceof NumberParamConvertor
+						|| convertors[i] instanceof CastParamConvertor;
+			setters[i] = -1;
+			setFields[i] = -1;
+			try {
+				injs[i] = mirror.getInjecting(f.getName());
+			}
+			catch (RuntimeException e) {
+				continue;
+			}
+			if (null == fc)
+				continue;
+			// 设值方法的参数类型与字段不同的时候，仍然交给 Injecting 去转换
+			if (injs[i] instanceof InjectBySetter) {
+				InjectBySetter ibs = (InjectBySetter) injs[i];
+				if (ibs.getSetter().getParameterTypes()[0] == f.getType())
+					setters[i] = fc.indexOf(ibs.getSetter());
+			} else if (injs[i] instanceof InjectByField) {
+				setFields[i] = fc.indexOf(((InjectByField) injs[i]).getField());
+			}
+		}
+	}
+
+	/**
+	 * 字符串，数组和日期沿用原来的转换器，数字直接解析，其它类型在转换器里直接转换成字段的类型
+	 */
+	private static ParamConvertor makeConvertor(Class<?> type) {
+		if (type.isArray() || type.isAssignableFrom(String.class) || Mirror.me(type).isDateTimeLike())
+			return Params.makeParamConvertor(type);
+		if (NumberParamConvertor.support(type))
+			return new NumberParamConvertor(type);
+		return new CastParamConvertor(type);
+	}
+
+	Field[] getFields() {
+		return fields;
+	}
+
+	ParamConvertor getConvertor(int i) {
+		return convertors[i];
+	}
+
+	/**
+	 * @return 有参数，但是参数转换成了 null 的时候，是否也要设到字段上
+	 */
+	boolean isTyped(int i) {
+		return typed[i];
+	}
+
+	/**
+	 * @return 字段的下标，没有这个字段返回 -1
+	 */
+	int indexOf(String name) {
+		Integer re = slots.get(name);
+		return null == re ? -1 : re;
+	}
+
+	Object born() {
+		if (bornIndex >= 0)
+			return fc.born(bornIndex);
+		if (null != borning)
+			return borning.born(NO_ARGS);
+		return mirror.born();
+	}
+
+	/**
+	 * 设置一个字段的值。值应该是这个字段的参数转换器转换出来的。原生类型的字段不会被设成 null
+	 */
+	void set(Object obj, int i, Object value) {
+		if (null == value && fields[i].getType().isPrimitive())
+			return;
+		if (setters[i] >= 0)
+			fc.invoke(obj, setters[i], value);
+		else if (setFields[i] >= 0)
+			fc.setField(obj, setFields[i], value);
+		else if (null != injs[i])
+			injs[i].inject(obj, value);
+	}
+
+	/**
+	 * 把参数转换以后设到字段上
+	 */
+	void inject(Object obj, int i, String[] ss) {
+		set(obj, i, convertors[i].convert(ss));
+	}
+
+	private ObjectBinder child(int i) {
+		ObjectBinder re = children.get(i);
+		if (null == re) {
+			synchronized (this) {
+				re = children.get(i);
+				if (null == re) {
+					re = new ObjectBinder(fields[i].getType());
+					children.set(i, re);
+				}
+			}
+		}
+		return re;
+	}
+
+	/**
+	 * @return 一次绑定用的状态，每个字段一个位置
+	 */
+	Object[] newState() {
+		return new Object[fields.length];
+	}
+
+	/**
+	 * 记录一个参数。参数名从 from 开始，是用 '.' 分隔的字段名，比如 "pet.master.name"
+	 * <p>
+	 * 某个字段既有自己的值，又有下一级的参数的时候，下一级的参数优先
+	 */
+	void put(Object[] state, String path, int from, String[] value) {
+		if (null == value)
+			return;
+		int dot = path.indexOf('.', from);
+		// 叶子节点
+		if (dot <= from || dot == path.length() - 1) {
+			int i = indexOf(dot <= from ? path.substring(from) : path.substring(from, dot));
+			if (i >= 0 && !isNested(state[i]))
+				state[i] = value;
+			return;
+		}
+		int i = indexOf(path.substring(from, dot));
+		if (i < 0)
+			return;
+		ObjectBinder child = child(i);
+		Object[] sub;
+		if (isNested(state[i])) {
+			sub = (Object[]) state[i];
+		} else {
+			sub = child.newState();
+			state[i] = sub;
+		}
+		child.put(sub, path, dot + 1, value);
+	}
+
+	/**
+	 * 状态里的值要么是参数值 String[]，要么是下一级的状态 Object[]
+	 */
+	private static boolean isNested(Object s) {
+		return s instanceof Object[] && !(s instanceof String[]);
+	}
+
+	/**
+	 * 根据 put 记录下来的参数，生成对象
+	 */
+	Object bind(Object[] state) {
+		Object obj = born();
+		for (int i = 0; i < state.length; i++) {
+			Object s = state[i];
+			if (null == s)
+				continue;
+			if (isNested(s))
+				set(obj, i, child(i).bind((Object[]) s));
+			else
+				inject(obj, i, (String[]) s);
+		}
+		return obj;
+	}
+
+	public String toString() {
+		return "ObjectBinder:" + type.getName();
+	}
+
+}
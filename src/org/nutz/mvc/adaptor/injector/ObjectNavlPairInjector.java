@@ -13,7 +13,8 @@ import org.nutz.mvc.adaptor.Params;
 /**
  * 对象导航注入器 默认情况下只有使用 @Param("::") 的情况下才调用这个注入器
  * <p/>
- * 毕竟它在接收到请求时进行注入,会有一定的性能损伤
+ * 它在接收到请求时，要逐个检查全部的参数名。类型的绑定器是创建的时候就编译好的，<br>
+ * 参数名按照 '.' 逐段对应到字段上，不再拼接字符串，也不再为每个请求生成一棵节点树
  * 
  * @author juqkai(juqkai@gmail.com)
  * @author wendal(wendal1985@gmail.com)
@@ -22,29 +23,36 @@ import org.nutz.mvc.adaptor.Params;
 public class ObjectNavlPairInjector implements ParamInjector {
 	protected Mirror<?> mirror;
 	private String prefix;
+	private ObjectBinder binder;
 
 	public ObjectNavlPairInjector(String prefix, Class<?> type) {
 		prefix = Strings.isBlank(prefix) ? "" : Strings.trim(prefix);
 		this.prefix = prefix;
 		this.mirror = Mirror.me(type);
+		this.binder = new ObjectBinder(type);
 	}
 
 	public Object get(	ServletContext sc,
 						HttpServletRequest req,
 						HttpServletResponse resp,
 						Object refer) {
-		ObjcetNaviNode no = new ObjcetNaviNode();
-		String pre = "";
-		if ("".equals(prefix))
-			pre = "node.";
+		Object[] state = binder.newState();
 		ParamExtractor pe = Params.makeParamExtractor(req, refer);
-		for (Object name : pe.keys()) {
-			String na = (String) name;
-			if (na.startsWith(prefix)) {
-				no.put(pre + na, pe.extractor(na));
+		for (String na : pe.keys()) {
+			if (!na.startsWith(prefix))
+				continue;
+			// 没有前缀的时候，整个参数名都是字段名
+			if ("".equals(prefix)) {
+				binder.put(state, na, 0, pe.extractor(na));
+			}
+			// 否则去掉第一段，比如 "pet.name" 的 "pet."
+			else {
+				int dot = na.indexOf('.');
+				if (dot > 0 && dot < na.length() - 1)
+					binder.put(state, na, dot + 1, pe.extractor(na));
 			}
 		}
-		return no.inject(mirror);
+		return binder.bind(state);
 	}
 
 }
@@ -17,6 +17,8 @@ import org.nutz.mvc.annotation.Param;
 
 /**
  * 根据 HTTP 参数表，生成一个 POJO 对象
+ * <p>
+ * 每个字段的参数名，转换器和设值方式在创建的时候就编译好了，每次请求只需要逐个取出参数设值
  * 
  * @author zozoh(zozohtnt@gmail.com)
  * @author juqkai(juqkai@gmail.com)
@@ -28,11 +30,13 @@ public class ObjectPairInjector implements ParamInjector {
 	protected Mirror<?> mirror;
 	protected Field[] fields;
 	protected ParamConvertor[] converters;
+	private ObjectBinder binder;
 
 	public ObjectPairInjector(String prefix, Class<?> type) {
 		prefix = Strings.isBlank(prefix) ? "" : Strings.trim(prefix);
 		this.mirror = Mirror.me(type);
-		fields = mirror.getFields();
+		this.binder = new ObjectBinder(type);
+		fields = binder.getFields();
 		this.injs = new Injecting[fields.length];
 		this.names = new String[fields.length];
 		this.converters = new ParamConvertor[fields.length];
@@ -43,7 +47,7 @@ public class ObjectPairInjector implements ParamInjector {
 			Param param = f.getAnnotation(Param.class);
 			String nm = null == param ? f.getName() : param.value();
 			this.names[i] = prefix + nm;
-			this.converters[i] = Params.makeParamConvertor(f.getType());
+			this.converters[i] = binder.getConvertor(i);
 		}
 	}
 
@@ -52,11 +56,13 @@ public class ObjectPairInjector implements ParamInjector {
 						HttpServletResponse resp,
 						Object refer) {
 		ParamExtractor pe = Params.makeParamExtractor(req, refer);
-		Object obj = mirror.born();
-		for (int i = 0; i < injs.length; i++) {
-			Object param = converters[i].convert(pe.extractor(names[i]));
-			if (null != param)
-				injs[i].inject(obj, param);
+		Object obj = binder.born();
+		for (int i = 0; i < names.length; i++) {
+			String[] ss = pe.extractor(names[i]);
+			Object param = converters[i].convert(ss);
+			// 外覆类型的空白参数转换成 null，也要覆盖字段的初始值
+			if (null != param || (binder.isTyped(i) && null != ss && ss.length > 0))
+				binder.set(obj, i, param);
 		}
 		return obj;
 	}
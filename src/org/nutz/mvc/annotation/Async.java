@@ -0,0 +1,27 @@
+package org.nutz.mvc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明入口函数返回的 Callable 或者 Future 最多等待多久
+ * <p>
+ * 入口函数只要返回 Callable 或者 Future，就会被异步执行，并不一定需要这个注解。<br>
+ * 没有这个注解的时候，默认等待 30 秒。超时以后，交给 '@Fail' 声明的视图处理
+ * 
+ * @see org.nutz.mvc.impl.processor.AsyncProcessor
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Documented
+public @interface Async {
+
+	/**
+	 * @return 超时的毫秒数，小于等于 0 表示一直等待
+	 */
+	long timeout() default 30000;
+
+}
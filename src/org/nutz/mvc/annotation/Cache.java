@@ -0,0 +1,48 @@
+package org.nutz.mvc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 缓存入口函数对 GET 请求的输出
+ * <p>
+ * 同一个路径，同样的参数，在有效期内直接返回上次输出的内容，并且支持 ETag/If-None-Match。<br>
+ * 只有状态为 200 的输出才会被缓存
+ * 
+ * @see org.nutz.mvc.impl.processor.CacheProcessor
+ * @see org.nutz.mvc.impl.ResponseCache
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Documented
+public @interface Cache {
+
+	/**
+	 * @return 有效期，单位为秒
+	 */
+	int ttl() default 60;
+
+	/**
+	 * @return 最多缓存多少个不同的请求
+	 */
+	int size() default 256;
+
+	/**
+	 * @return 哪些请求参数会影响输出，它们的值是缓存键的一部分。其它参数会被忽略
+	 */
+	String[] params() default {};
+
+	/**
+	 * @return 是否按照会话的 Locale 分别缓存
+	 */
+	boolean locale() default false;
+
+	/**
+	 * @return 分组名，用来调用 ResponseCache.evict。默认为入口函数的第一个路径
+	 */
+	String group() default "";
+
+}
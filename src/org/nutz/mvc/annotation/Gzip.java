@@ -0,0 +1,29 @@
+package org.nutz.mvc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明入口函数的输出是否按照 Accept-Encoding 压缩，它比初始化参数 "gzip" 优先
+ * 
+ * @see org.nutz.mvc.view.Compression
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Documented
+public @interface Gzip {
+
+	/**
+	 * @return 是否压缩
+	 */
+	boolean value() default true;
+
+	/**
+	 * @return 超过多少字节才压缩，小于 0 表示采用初始化参数 "gzip-threshold" 或者默认值
+	 */
+	int threshold() default -1;
+
+}
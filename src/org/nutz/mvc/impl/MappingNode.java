@@ -1,8 +1,9 @@
 package org.nutz.mvc.impl;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -10,8 +11,19 @@ import org.nutz.lang.Lang;
 import org.nutz.lang.Strings;
 import org.nutz.mvc.ActionContext;
 
+/**
+ * 路径映射树
+ * <p>
+ * 所有路径都加入以后，调用 compile 把每个节点的子节点编译成一张开放寻址的散列表。<br>
+ * 查找的时候直接在请求路径上逐段计算小写的散列值并比较，不再拆分字符串，也不生成小写的副本。<br>
+ * 不包含 '?' 和 '*' 的路径，还会记录在一个精确匹配的 Map 里，请求路径与它完全相同的时候，不需要查找树
+ * <p>
+ * 如果在 compile 以后又增加了路径，下次查找的时候会自动重新编译
+ */
 public class MappingNode<T> {
 
+	private static final List<String> NO_ARGS = Collections.emptyList();
+
 	private T obj;
 
 	private T asterisk;
@@ -20,14 +32,33 @@ public class MappingNode<T> {
 
 	private Map<String, MappingNode<T>> map;
 
+	/*
+	 * 编译后的子节点表，下标相同的元素属于同一个子节点
+	 */
+	private String[] keys;
+
+	private int[] hashes;
+
+	private MappingNode<T>[] nodes;
+
+	private int mask;
+
+	/**
+	 * 不包含通配符的路径 => 对象，只在根节点上使用
+	 */
+	private Map<String, T> exacts;
+
+	private volatile boolean compiled;
+
 	public MappingNode() {
 		map = new HashMap<String, MappingNode<T>>();
+		exacts = new HashMap<String, T>();
 	}
 
 	private void add(Iterator<String> it, T obj) {
 		// 还有路径
 		if (it.hasNext()) {
-			String key = it.next().toLowerCase();
+			String key = lower(it.next());
 			// '*'
 			if ("*".equals(key)) {
 				if (it.hasNext()) {
@@ -38,7 +69,8 @@ public class MappingNode<T> {
 			}
 			// '?'
 			else if ("?".equals(key)) {
-				quesmark = new MappingNode<T>();
+				if (null == quesmark)
+					quesmark = new MappingNode<T>();
 				quesmark.add(it, obj);
 			}
 			// 其它节点，加入 map
@@ -58,52 +90,202 @@ public class MappingNode<T> {
 		}
 	}
 
-	private T get(ActionContext ac, Iterator<String> it) {
-		// 路径已经没有内容了，看看本节点是否有一个对象
-		if (!it.hasNext()) {
-			return obj == null ? asterisk : obj;
+	/**
+	 * 增加一个映射,将 obj 映射到 path 上,或 path 上的[?,*]
+	 */
+	public void add(String path, T obj) {
+		try {
+			String[] ss = Strings.splitIgnoreBlank(path, "/");
+			add(Lang.list(ss).iterator(), obj);
+			compiled = false;
+			// 记录精确匹配的路径，比如 "/a/b"
+			StringBuilder sb = new StringBuilder();
+			for (String s : ss) {
+				if ("?".equals(s) || "*".equals(s))
+					return;
+				sb.append('/').append(lower(s));
+			}
+			exacts.put(sb.length() == 0 ? "/" : sb.toString(), obj);
 		}
-
-		String key = it.next();
-		// 先在 map 里寻找，
-		MappingNode<T> node = map.get(key.toLowerCase());
-		if (null != node)
-			return node.get(ac, it);
-
-		// 如果没有看看是否有 '?' 的匹配
-		if (quesmark != null) {
-			ac.getPathArgs().add(key);
-			return quesmark.get(ac, it);
+		catch (Exception e) {
+			throw Lang.wrapThrow(e, "Wrong Url path format '%s'", path);
 		}
+	}
 
-		// 还没有则看看是否有 '*' 的匹配
-		if (null != asterisk) {
-			List<String> pathArgs = ac.getPathArgs();
-			pathArgs.add(key);
-			while (it.hasNext())
-				pathArgs.add(it.next());
-			return asterisk;
-		}
+	/**
+	 * 编译整棵树。在所有的路径都加入以后调用
+	 */
+	public synchronized void compile() {
+		if (compiled)
+			return;
+		doCompile();
+		compiled = true;
+	}
 
-		return null;
+	private void doCompile() {
+		if (map.isEmpty()) {
+			keys = null;
+		} else {
+			int size = 4;
+			while (size < map.size() * 2)
+				size <<= 1;
+			String[] keys = new String[size];
+			int[] hashes = new int[size];
+			@SuppressWarnings("unchecked")
+			MappingNode<T>[] nodes = (MappingNode<T>[]) new MappingNode<?>[size];
+			int mask = size - 1;
+			for (Map.Entry<String, MappingNode<T>> en : map.entrySet()) {
+				String key = en.getKey();
+				int h = key.hashCode();
+				int i = h & mask;
+				while (null != keys[i])
+					i = (i + 1) & mask;
+				keys[i] = key;
+				hashes[i] = h;
+				nodes[i] = en.getValue();
+				en.getValue().doCompile();
+			}
+			this.hashes = hashes;
+			this.nodes = nodes;
+			this.mask = mask;
+			this.keys = keys;
+		}
+		if (null != quesmark)
+			quesmark.doCompile();
 	}
 
 	/**
-	 * 增加一个映射,将 obj 映射到 path 上,或 path 上的[?,*] 
+	 * 在编译后的子节点表里查找 path 的 [from, to) 这一段，忽略大小写
 	 */
-	public void add(String path, T obj) {
-		try {
-			add(Lang.list(Strings.splitIgnoreBlank(path, "/")).iterator(), obj);
-		}
-		catch (Exception e) {
-			throw Lang.wrapThrow(e, "Wrong Url path format '%s'", path);
+	private MappingNode<T> child(String path, int from, int to) {
+		String[] keys = this.keys;
+		if (null == keys)
+			return null;
+		int h = 0;
+		for (int i = from; i < to; i++)
+			h = 31 * h + Character.toLowerCase(path.charAt(i));
+		int len = to - from;
+		for (int i = h & mask;; i = (i + 1) & mask) {
+			String key = keys[i];
+			if (null == key)
+				return null;
+			if (hashes[i] == h && key.length() == len && same(key, path, from))
+				return nodes[i];
 		}
 	}
 
+	private static boolean same(String key, String path, int from) {
+		for (int i = 0; i < key.length(); i++)
+			if (key.charAt(i) != Character.toLowerCase(path.charAt(from + i)))
+				return false;
+		return true;
+	}
+
 	public T get(ActionContext ac, String path) {
 		ac.setPath(path);
-		ac.setPathArgs(new LinkedList<String>());
-		return get(ac, Lang.list(Strings.splitIgnoreBlank(path, "/")).iterator());
+		if (!compiled)
+			compile();
+
+		// 先试试精确匹配
+		T re = exacts.get(path);
+		if (null != re) {
+			ac.setPathArgs(NO_ARGS);
+			return re;
+		}
+
+		MappingNode<T> node = this;
+		String[] args = null;
+		int argc = 0;
+		int len = path.length();
+		int i = 0;
+		while (true) {
+			// 跳过 '/' 和空白，找到下一段
+			while (i < len && (path.charAt(i) == '/' || path.charAt(i) <= ' '))
+				i++;
+
+			// 路径已经没有内容了，看看本节点是否有一个对象
+			if (i == len) {
+				ac.setPathArgs(toList(args, argc));
+				return node.obj == null ? node.asterisk : node.obj;
+			}
+
+			int from = i;
+			while (i < len && path.charAt(i) != '/')
+				i++;
+			int to = i;
+			while (path.charAt(to - 1) <= ' ')
+				to--;
+
+			// 先在子节点里寻找
+			MappingNode<T> child = node.child(path, from, to);
+			if (null != child) {
+				node = child;
+				continue;
+			}
+
+			// 如果没有看看是否有 '?' 的匹配
+			if (null != node.quesmark) {
+				args = push(args, argc++, path.substring(from, to));
+				node = node.quesmark;
+				continue;
+			}
+
+			// 还没有则看看是否有 '*' 的匹配，剩下的每一段都是参数
+			if (null != node.asterisk) {
+				args = push(args, argc++, path.substring(from, to));
+				while (true) {
+					while (i < len && (path.charAt(i) == '/' || path.charAt(i) <= ' '))
+						i++;
+					if (i == len)
+						break;
+					from = i;
+					while (i < len && path.charAt(i) != '/')
+						i++;
+					to = i;
+					while (path.charAt(to - 1) <= ' ')
+						to--;
+					args = push(args, argc++, path.substring(from, to));
+				}
+				ac.setPathArgs(toList(args, argc));
+				return node.asterisk;
+			}
+
+			ac.setPathArgs(toList(args, argc));
+			return null;
+		}
+	}
+
+	private static String[] push(String[] args, int argc, String arg) {
+		if (null == args) {
+			args = new String[4];
+		} else if (argc == args.length) {
+			String[] newArgs = new String[argc * 2];
+			System.arraycopy(args, 0, newArgs, 0, argc);
+			args = newArgs;
+		}
+		args[argc] = arg;
+		return args;
+	}
+
+	private static List<String> toList(String[] args, int argc) {
+		if (0 == argc)
+			return NO_ARGS;
+		if (argc < args.length) {
+			String[] re = new String[argc];
+			System.arraycopy(args, 0, re, 0, argc);
+			args = re;
+		}
+		return Arrays.asList(args);
+	}
+
+	/**
+	 * 逐个字符转换成小写，与查找时计算散列值的方式一致
+	 */
+	private static String lower(String s) {
+		char[] cs = s.toCharArray();
+		for (int i = 0; i < cs.length; i++)
+			cs[i] = Character.toLowerCase(cs[i]);
+		return new String(cs);
 	}
 
 	public String toString() {
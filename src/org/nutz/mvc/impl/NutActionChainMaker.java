@@ -14,6 +14,8 @@ import org.nutz.mvc.NutConfig;
 import org.nutz.mvc.Processor;
 import org.nutz.mvc.impl.chainconfig.ActionChainMakerConfiguration;
 import org.nutz.mvc.impl.chainconfig.JsonActionChainMakerConfiguretion;
+import org.nutz.mvc.impl.processor.CacheProcessor;
+import org.nutz.mvc.impl.processor.ModuleProcessor;
 
 public class NutActionChainMaker implements ActionChainMaker {
 	
@@ -35,6 +37,19 @@ public class NutActionChainMaker implements ActionChainMaker {
 				list.add(processor);
 			}
 
+			// 声明了 '@Cache' 的入口函数，在 ModuleProcessor 之前缓存输出
+			if (CacheProcessor.isCached(ai)) {
+				Processor cache = new CacheProcessor();
+				cache.init(config, ai);
+				int index = 0;
+				for (int i = 0; i < list.size(); i++)
+					if (list.get(i) instanceof ModuleProcessor) {
+						index = i;
+						break;
+					}
+				list.add(index, cache);
+			}
+
 			Processor errorProcessor = getProcessorByName(config, co.getErrorProcessor(ai.getChainName()));
 			errorProcessor.init(config, ai);
 			/*
@@ -10,6 +10,7 @@ import java.util.Set;
 import org.nutz.Nutz;
 import org.nutz.ioc.Ioc;
 import org.nutz.ioc.Ioc2;
+import org.nutz.ioc.impl.NutIoc;
 import org.nutz.json.Json;
 import org.nutz.json.JsonFormat;
 import org.nutz.lang.Encoding;
@@ -35,6 +36,7 @@ import org.nutz.mvc.annotation.Localization;
 import org.nutz.mvc.annotation.SetupBy;
 import org.nutz.mvc.annotation.UrlMappingBy;
 import org.nutz.mvc.annotation.Views;
+import org.nutz.mvc.impl.processor.AsyncProcessor;
 import org.nutz.mvc.view.DefaultViewMaker;
 
 public class NutLoading implements Loading {
@@ -95,6 +97,11 @@ public class NutLoading implements Loading {
 			 * 执行用户自定义 Setup
 			 */
 			evalSetup(config, mainModule);
+
+			/*
+			 * 根据初始化参数 "ioc-preload"，预先创建 Ioc 容器里的单例对象
+			 */
+			preloadIoc(config);
 		}
 		catch (Exception e) {
 			if (log.isErrorEnabled())
@@ -171,6 +178,12 @@ public class NutLoading implements Loading {
 				}
 			}
 		}
+
+		/*
+		 * 编译路径映射树
+		 */
+		if (mapping instanceof UrlMappingImpl)
+			((UrlMappingImpl) mapping).compile();
 		return mapping;
 	}
 
@@ -288,6 +301,23 @@ public class NutLoading implements Loading {
 	}
 
 
+	private void preloadIoc(NutConfig config) {
+		String str = Strings.trim(config.getInitParameter("ioc-preload"));
+		if (Strings.isBlank(str) || "false".equalsIgnoreCase(str))
+			return;
+		Ioc ioc = config.getIoc();
+		if (!(ioc instanceof NutIoc)) {
+			if (log.isWarnEnabled())
+				log.warnf("ioc-preload is ignored, %s is not a NutIoc", null == ioc ? null : ioc.getClass().getName());
+			return;
+		}
+		// "true" 表示使用 CPU 个数的线程，也可以直接给出线程数
+		int threads = "true".equalsIgnoreCase(str) ? 0 : Integer.parseInt(str);
+		if (log.isInfoEnabled())
+			log.info("Preload singletons in Ioc ...");
+		((NutIoc) ioc).preload(threads);
+	}
+
 	public void depose(NutConfig config) {
 		if (log.isInfoEnabled())
 			log.infof("Nutz.Mvc[%s] is deposing ...", config.getAppName());
@@ -307,6 +337,9 @@ public class NutLoading implements Loading {
 		if (null != ioc)
 			ioc.depose();
 
+		// 关闭异步请求的线程
+		AsyncProcessor.depose(config);
+
 		// Done, print info
 		sw.stop();
 		if (log.isInfoEnabled())
@@ -0,0 +1,203 @@
+package org.nutz.mvc.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 缓存入口函数输出的内容，由 CacheProcessor 使用
+ * <p>
+ * 每个声明了 '@Cache' 的入口函数有自己的一个缓存，条目过期以后不再使用，条目太多的时候淘汰最近最少使用的。
+ * <p>
+ * 缓存按照 '@Cache' 的 group 分组。数据改变以后，业务代码可以调用
+ *
+ * <pre>
+ * ResponseCache.evict("/menu");
+ * ResponseCache.evict("/user", "/user/view/3");
+ * </pre>
+ *
+ * 清除一组缓存，或者一组缓存里某个路径的全部条目
+ */
+public class ResponseCache {
+
+	private static final Map<String, List<ResponseCache>> groups = new ConcurrentHashMap<String, List<ResponseCache>>();
+
+	/**
+	 * 登记一个缓存，以便按照分组名清除
+	 */
+	public static void register(String group, ResponseCache cache) {
+		synchronized (groups) {
+			List<ResponseCache> list = groups.get(group);
+			if (null == list) {
+				list = new CopyOnWriteArrayList<ResponseCache>();
+				groups.put(group, list);
+			}
+			list.add(cache);
+		}
+	}
+
+	/**
+	 * 清除一组缓存的全部条目
+	 */
+	public static void evict(String group) {
+		List<ResponseCache> list = groups.get(group);
+		if (null != list)
+			for (ResponseCache cache : list)
+				cache.clear();
+	}
+
+	/**
+	 * 清除一组缓存里，某个请求路径的全部条目，不论请求参数和 Locale 是什么
+	 */
+	public static void evict(String group, String path) {
+		List<ResponseCache> list = groups.get(group);
+		if (null != list)
+			for (ResponseCache cache : list)
+				cache.removePath(path);
+	}
+
+	/**
+	 * 清除全部缓存
+	 */
+	public static void evictAll() {
+		for (List<ResponseCache> list : groups.values())
+			for (ResponseCache cache : list)
+				cache.clear();
+	}
+
+	private LinkedHashMap<String, ResponseCache.Entry> map;
+
+	private long ttl;
+
+	/**
+	 * @param size
+	 *            最多保存多少个条目
+	 * @param ttl
+	 *            条目的有效期，单位为毫秒
+	 */
+	public ResponseCache(final int size, long ttl) {
+		this.ttl = ttl;
+		this.map = new LinkedHashMap<String, ResponseCache.Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			// 匿名类里单独的 Entry 是继承来的 Map.Entry，所以写全名
+			protected boolean removeEldestEntry(Map.Entry<String, ResponseCache.Entry> eldest) {
+				return size() > size;
+			}
+		};
+	}
+
+	/**
+	 * @return 缓存的条目，如果没有或者已经过期，返回 null
+	 */
+	public synchronized Entry get(String key) {
+		Entry en = map.get(key);
+		if (null != en && en.expires < System.currentTimeMillis()) {
+			map.remove(key);
+			return null;
+		}
+		return en;
+	}
+
+	public Entry put(String key, byte[] data, String contentType, List<String[]> headers) {
+		Entry en = new Entry(data, contentType, headers, System.currentTimeMillis() + ttl);
+		synchronized (this) {
+			map.put(key, en);
+		}
+		return en;
+	}
+
+	public synchronized void clear() {
+		map.clear();
+	}
+
+	public synchronized int size() {
+		return map.size();
+	}
+
+	/**
+	 * 缓存键的格式为 "路径[&参数...][#Locale][~压缩方式]"，参见 CacheProcessor
+	 */
+	synchronized void removePath(String path) {
+		int len = path.length();
+		for (Iterator<String> it = map.keySet().iterator(); it.hasNext();) {
+			String key = it.next();
+			if (key.startsWith(path)
+				&& (key.length() == len || "&#~".indexOf(key.charAt(len)) >= 0))
+				it.remove();
+		}
+	}
+
+	/**
+	 * 一个缓存的输出，它是不可变的
+	 */
+	public static class Entry {
+
+		private byte[] data;
+
+		private String contentType;
+
+		private List<String[]> headers;
+
+		private String etag;
+
+		private long expires;
+
+		Entry(byte[] data, String contentType, List<String[]> headers, long expires) {
+			this.data = data;
+			this.contentType = contentType;
+			this.headers = null == headers ? new ArrayList<String[]>(0) : headers;
+			this.expires = expires;
+			CRC32 crc = new CRC32();
+			crc.update(data);
+			this.etag = "\""
+						+ Integer.toHexString(data.length)
+						+ "-"
+						+ Long.toHexString(crc.getValue())
+						+ "\"";
+		}
+
+		public byte[] getData() {
+			return data;
+		}
+
+		public String getEtag() {
+			return etag;
+		}
+
+		/**
+		 * 输出缓存的内容。如果请求的 If-None-Match 与 ETag 相同，只返回 304
+		 */
+		public void writeTo(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+			resp.setHeader("ETag", etag);
+			if (matches(req.getHeader("If-None-Match"))) {
+				resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+				return;
+			}
+			if (null != contentType)
+				resp.setContentType(contentType);
+			for (String[] header : headers)
+				resp.addHeader(header[0], header[1]);
+			resp.setContentLength(data.length);
+			resp.getOutputStream().write(data);
+		}
+
+		private boolean matches(String inm) {
+			if (null == inm)
+				return false;
+			if ("*".equals(inm.trim()))
+				return true;
+			return inm.indexOf(etag) >= 0;
+		}
+	}
+
+}
@@ -92,6 +92,13 @@ public class UrlMappingImpl implements UrlMapping {
 			config.getAtMap().add(ai.getPathKey(), ai.getPaths()[0]);
 	}
 
+	/**
+	 * 所有的入口函数都加入以后，编译路径映射树。NutLoading 加载完全部模块后会调用它
+	 */
+	public void compile() {
+		root.compile();
+	}
+
 	public ActionInvoker get(ActionContext ac) {
 		String path = Mvcs.getRequestPath(ac.getRequest());
 		ActionInvoker invoker = root.get(ac, path);
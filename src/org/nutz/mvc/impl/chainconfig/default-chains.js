@@ -7,6 +7,7 @@
 		      "org.nutz.mvc.impl.processor.ActionFiltersProcessor",
 		      "org.nutz.mvc.impl.processor.AdaptorProcessor",
 		      "org.nutz.mvc.impl.processor.MethodInvokeProcessor",
+		      "org.nutz.mvc.impl.processor.AsyncProcessor",
 		      "org.nutz.mvc.impl.processor.ViewProcessor"
 		      ],
 		error : 'org.nutz.mvc.impl.processor.FailProcessor'
@@ -0,0 +1,470 @@
+package org.nutz.mvc.impl.processor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.nutz.ioc.IocContext;
+import org.nutz.lang.Lang;
+import org.nutz.lang.Strings;
+import org.nutz.log.Log;
+import org.nutz.log.Logs;
+import org.nutz.mvc.ActionContext;
+import org.nutz.mvc.ActionInfo;
+import org.nutz.mvc.NutConfig;
+import org.nutz.mvc.Processor;
+import org.nutz.mvc.annotation.Async;
+
+/**
+ * 异步执行入口函数返回的 Callable 或者 Future
+ * <p>
+ * 入口函数返回 Callable 或者 Future 的时候，本处理器调用 Servlet 3.0 的 request.startAsync，<br>
+ * 然后在线程池里计算(或者等待)结果，容器的线程立即被释放。得到结果以后，再在线程池的线程里继续执行<br>
+ * 后面的处理器(通常是 ViewProcessor)，最后调用 AsyncContext.complete。
+ * <p>
+ * 超时时间由 '@Async' 声明。超时，或者计算结果的时候抛出了异常，都交给 '@Fail' 声明的视图处理，<br>
+ * 超时的时候，错误对象是一个 TimeoutException。Callable 从开始执行的时候计时，在队列里排队的时间不算；<br>
+ * Future 从入口函数返回的时候计时。
+ * <p>
+ * 等待 Future 的时候不占用线程池的线程，由计时的线程每隔 POLL_INTERVAL 毫秒查看一次它是否完成，<br>
+ * 完成以后再交给线程池输出视图。
+ * <p>
+ * 请求范围的 Ioc 对象在异步执行的时候还要被用到，所以请求的 Ioc 上下文由本处理器接管，<br>
+ * 在输出视图以后，调用 AsyncContext.complete 之前销毁。
+ * <p>
+ * Nutz 是按照 Servlet 2.4 编译的，所以异步模式是通过反射启动的。如果容器不支持，<br>
+ * 或者 NutFilter 没有声明 &lt;async-supported&gt;true&lt;/async-supported&gt;，就在当前线程里等待结果，<br>
+ * 此时超时只对 Future 有效。
+ * <p>
+ * 线程池的大小由初始化参数 "async-threads" 决定，默认为 64。排队等待执行的请求最多有 "async-queue" 个，<br>
+ * 默认为 1024，队列满了以后的请求直接交给 '@Fail' 声明的视图处理，错误对象是一个 RejectedExecutionException。<br>
+ * 也可以在 Setup 里通过
+ *
+ * <pre>
+ * config.setAttribute(AsyncProcessor.EXECUTOR, executorService);
+ * </pre>
+ *
+ * 指定一个线程池，这个线程池不会被 Nutz.Mvc 关闭
+ */
+public class AsyncProcessor extends AbstractProcessor {
+
+	private static final Log log = Logs.get();
+
+	/**
+	 * 自定义的线程池 (ExecutorService) 在 NutConfig 里的属性名
+	 */
+	public static final String EXECUTOR = "nutz.mvc.async.executor";
+
+	private static final String POOL = Pool.class.getName();
+
+	private static final long DEFAULT_TIMEOUT = 30000;
+
+	private static final int DEFAULT_THREADS = 64;
+
+	private static final int DEFAULT_QUEUE = 1024;
+
+	/**
+	 * 查看 Future 是否完成的间隔，单位毫秒
+	 */
+	private static final long POLL_INTERVAL = 10;
+
+	private NutConfig config;
+
+	private long timeout;
+
+	private Processor failProcessor;
+
+	private volatile Pool pool;
+
+	@Override
+	public void init(NutConfig config, ActionInfo ai) throws Throwable {
+		this.config = config;
+		Async async = null;
+		if (null != ai.getMethod())
+			async = ai.getMethod().getAnnotation(Async.class);
+		if (null == async && null != ai.getModuleType())
+			async = ai.getModuleType().getAnnotation(Async.class);
+		timeout = null == async ? DEFAULT_TIMEOUT : async.timeout();
+		failProcessor = new FailProcessor();
+		failProcessor.init(config, ai);
+	}
+
+	public void process(ActionContext ac) throws Throwable {
+		Object re = ac.getMethodReturn();
+		if (!(re instanceof Callable<?>) && !(re instanceof Future<?>)) {
+			doNext(ac);
+			return;
+		}
+		Object actx = startAsync(ac);
+		// 容器不支持异步，只好在当前线程里等待
+		if (null == actx) {
+			ac.setMethodReturn(re instanceof Callable<?> ? ((Callable<?>) re).call()
+														: await((Future<?>) re, ac));
+			doNext(ac);
+			return;
+		}
+		final AsyncCall call = new AsyncCall(ac, actx, re);
+		// 接管请求的 Ioc 上下文，ModuleProcessor 就不会在返回的时候销毁它了
+		call.reqContext = ac.getRequestIocContext();
+		ac.setRequestIocContext(null);
+		if (re instanceof Future<?>) {
+			if (timeout > 0)
+				call.deadline = System.currentTimeMillis() + timeout;
+			call.poll();
+			return;
+		}
+		try {
+			call.worker = pool().executor.submit(call);
+		}
+		catch (RejectedExecutionException e) {
+			call.done.set(true);
+			call.finish(null, e);
+		}
+	}
+
+	private Object await(Future<?> future, ActionContext ac) throws Throwable {
+		try {
+			if (timeout > 0)
+				return future.get(timeout, TimeUnit.MILLISECONDS);
+			return future.get();
+		}
+		catch (ExecutionException e) {
+			throw e.getCause();
+		}
+		catch (TimeoutException e) {
+			future.cancel(true);
+			throw makeTimeout(ac);
+		}
+	}
+
+	private TimeoutException makeTimeout(ActionContext ac) {
+		return new TimeoutException(String.format("Async action timeout after %dms : %s",
+													timeout,
+													ac.getPath()));
+	}
+
+	/**
+	 * 一次异步请求。计算完成和超时，谁先发生谁负责输出视图
+	 */
+	private class AsyncCall implements Runnable {
+
+		private ActionContext ac;
+
+		private Object actx;
+
+		private Object re;
+
+		private IocContext reqContext;
+
+		private AtomicBoolean done;
+
+		private volatile Future<?> worker;
+
+		private volatile Future<?> timer;
+
+		/**
+		 * Future 的超时时刻，0 表示不会超时
+		 */
+		private long deadline;
+
+		private Runnable poller;
+
+		AsyncCall(ActionContext ac, Object actx, Object re) {
+			this.ac = ac;
+			this.actx = actx;
+			this.re = re;
+			this.done = new AtomicBoolean();
+		}
+
+		public void run() {
+			Object obj = null;
+			Throwable err = null;
+			try {
+				if (re instanceof Callable<?>) {
+					// 先开始计时再执行，执行完毕的时候一定能取消它
+					if (timeout > 0)
+						timer = pool().timer.schedule(new Runnable() {
+							public void run() {
+								timeout();
+							}
+						}, timeout, TimeUnit.MILLISECONDS);
+					obj = ((Callable<?>) re).call();
+				} else {
+					// poll 确认它已经完成了，不会阻塞
+					obj = ((Future<?>) re).get();
+				}
+			}
+			catch (ExecutionException e) {
+				err = e.getCause();
+			}
+			catch (Throwable e) {
+				err = e;
+			}
+			if (done.compareAndSet(false, true)) {
+				cancelTimer();
+				finish(obj, err);
+			}
+		}
+
+		/**
+		 * 在计时的线程里查看 Future 是否完成，没有完成就过一会儿再看
+		 */
+		void poll() {
+			if (done.get())
+				return;
+			if (((Future<?>) re).isDone()) {
+				dispatch(this);
+				return;
+			}
+			if (deadline > 0 && System.currentTimeMillis() >= deadline) {
+				timeout();
+				return;
+			}
+			if (null == poller)
+				poller = new Runnable() {
+					public void run() {
+						poll();
+					}
+				};
+			try {
+				pool().timer.schedule(poller, POLL_INTERVAL, TimeUnit.MILLISECONDS);
+			}
+			catch (RejectedExecutionException e) {
+				// 应用正在关闭
+				if (done.compareAndSet(false, true))
+					finish(null, e);
+			}
+		}
+
+		/**
+		 * 取消的任务在 Java 6 的 ScheduledThreadPoolExecutor 里不会被移出队列，<br>
+		 * 它会一直引用着本请求直到原定的时间，所以要自己移除
+		 */
+		private void cancelTimer() {
+			Future<?> t = timer;
+			if (null == t)
+				return;
+			t.cancel(false);
+			pool().timer.remove((Runnable) t);
+		}
+
+		void timeout() {
+			if (!done.compareAndSet(false, true))
+				return;
+			if (null != worker)
+				worker.cancel(true);
+			if (re instanceof Future<?>)
+				((Future<?>) re).cancel(true);
+			final TimeoutException err = makeTimeout(ac);
+			dispatch(new Runnable() {
+				public void run() {
+					finish(null, err);
+				}
+			});
+		}
+
+		/**
+		 * 不要占用计时的线程来输出视图，线程池满了才在当前线程里执行
+		 */
+		private void dispatch(Runnable r) {
+			try {
+				pool().executor.execute(r);
+			}
+			catch (RejectedExecutionException e) {
+				r.run();
+			}
+		}
+
+		void finish(Object obj, Throwable err) {
+			try {
+				if (null == err) {
+					ac.setMethodReturn(obj);
+					doNext(ac);
+				} else {
+					fail(err);
+				}
+			}
+			catch (Throwable e) {
+				if (null == err)
+					fail(e);
+				else if (log.isWarnEnabled())
+					log.warn("Fail to render async action error", e);
+			}
+			finally {
+				depose(reqContext);
+				complete(actx);
+			}
+		}
+
+		private void fail(Throwable err) {
+			ac.setError(err);
+			try {
+				failProcessor.process(ac);
+			}
+			catch (Throwable e) {
+				if (log.isWarnEnabled())
+					log.warn("Fail to render async action error", e);
+			}
+		}
+	}
+
+	/**
+	 * 通过反射调用 request.startAsync
+	 *
+	 * @return AsyncContext，如果容器不支持异步，返回 null
+	 */
+	private static Object startAsync(ActionContext ac) {
+		Object req = ac.getRequest();
+		if (null == req)
+			return null;
+		try {
+			if (!Boolean.TRUE.equals(invoke(req, "isAsyncSupported")))
+				return null;
+		}
+		catch (NoSuchMethodException e) {
+			return null;
+		}
+		try {
+			Object actx = invoke(req, "startAsync");
+			// 超时由本处理器负责，容器不要插手
+			Method m = actx.getClass().getMethod("setTimeout", long.class);
+			m.setAccessible(true);
+			m.invoke(actx, 0L);
+			return actx;
+		}
+		catch (Exception e) {
+			throw Lang.wrapThrow(e);
+		}
+	}
+
+	private static void depose(IocContext reqContext) {
+		if (null == reqContext)
+			return;
+		try {
+			reqContext.depose();
+		}
+		catch (Throwable e) {
+			if (log.isWarnEnabled())
+				log.warn("Fail to depose request ioc context", e);
+		}
+	}
+
+	private static void complete(Object actx) {
+		try {
+			invoke(actx, "complete");
+		}
+		catch (Exception e) {
+			// 比如客户端已经断开，容器已经结束了这个请求
+			if (log.isDebugEnabled())
+				log.debug("Fail to complete async context", e);
+		}
+	}
+
+	private static Object invoke(Object obj, String methodName) throws NoSuchMethodException {
+		Method m = obj.getClass().getMethod(methodName);
+		m.setAccessible(true);
+		try {
+			return m.invoke(obj);
+		}
+		catch (InvocationTargetException e) {
+			throw Lang.wrapThrow(e.getTargetException());
+		}
+		catch (IllegalAccessException e) {
+			throw Lang.wrapThrow(e);
+		}
+	}
+
+	private Pool pool() {
+		if (null == pool)
+			pool = pool(config, true);
+		return pool;
+	}
+
+	/**
+	 * 同一个应用里所有的 AsyncProcessor 共用一组线程，保存在 NutConfig 里
+	 */
+	private static class Pool {
+
+		ExecutorService executor;
+
+		ScheduledThreadPoolExecutor timer;
+
+		boolean own;
+
+	}
+
+	private static synchronized Pool pool(NutConfig config, boolean create) {
+		Pool pool = null == config ? null : config.getAttributeAs(Pool.class, POOL);
+		if (null != pool || !create)
+			return pool;
+		pool = new Pool();
+		pool.executor = null == config ? null : config.getAttributeAs(	ExecutorService.class,
+																		EXECUTOR);
+		if (null == pool.executor) {
+			int n = DEFAULT_THREADS;
+			String str = null == config ? null : config.getInitParameter("async-threads");
+			if (!Strings.isBlank(str))
+				n = Integer.parseInt(Strings.trim(str));
+			int q = DEFAULT_QUEUE;
+			str = null == config ? null : config.getInitParameter("async-queue");
+			if (!Strings.isBlank(str))
+				q = Integer.parseInt(Strings.trim(str));
+			ThreadPoolExecutor es = new ThreadPoolExecutor(	n,
+															n,
+															60,
+															TimeUnit.SECONDS,
+															new LinkedBlockingQueue<Runnable>(q),
+															new Daemons("nutz-async-"));
+			es.allowCoreThreadTimeOut(true);
+			pool.executor = es;
+			pool.own = true;
+		}
+		pool.timer = new ScheduledThreadPoolExecutor(1, new Daemons("nutz-async-timer-"));
+		if (null != config)
+			config.setAttribute(POOL, pool);
+		return pool;
+	}
+
+	/**
+	 * 关闭异步请求用到的线程，自定义的线程池除外。在应用关闭的时候调用
+	 */
+	public static void depose(NutConfig config) {
+		Pool pool = pool(config, false);
+		if (null == pool)
+			return;
+		pool.timer.shutdownNow();
+		if (pool.own)
+			pool.executor.shutdownNow();
+	}
+
+	private static class Daemons implements ThreadFactory {
+
+		private String prefix;
+
+		private AtomicInteger count;
+
+		Daemons(String prefix) {
+			this.prefix = prefix;
+			this.count = new AtomicInteger();
+		}
+
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, prefix + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		}
+	}
+
+}
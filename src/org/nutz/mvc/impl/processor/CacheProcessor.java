@@ -0,0 +1,306 @@
+package org.nutz.mvc.impl.processor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import javax.servlet.http.HttpSession;
+
+import org.nutz.lang.Strings;
+import org.nutz.log.Log;
+import org.nutz.log.Logs;
+import org.nutz.mvc.ActionContext;
+import org.nutz.mvc.ActionInfo;
+import org.nutz.mvc.Mvcs;
+import org.nutz.mvc.NutConfig;
+import org.nutz.mvc.annotation.Cache;
+import org.nutz.mvc.impl.ResponseCache;
+import org.nutz.mvc.view.Compression;
+
+/**
+ * 缓存 GET 请求的输出，由 '@Cache' 驱动
+ * <p>
+ * NutActionChainMaker 会把它插入到声明了 '@Cache' 的入口函数的动作链里，放在 ModuleProcessor 之前。<br>
+ * 缓存命中的时候，后面的处理器都不会被执行。没有命中的时候，后面的处理器的输出先被收集到内存里，<br>
+ * 如果状态为 200，就保存起来，然后再输出。
+ * <p>
+ * 缓存键由请求路径，'@Cache' 声明的请求参数，以及(如果需要)会话的 Locale 名称组成
+ */
+public class CacheProcessor extends AbstractProcessor {
+
+	private static final Log log = Logs.get();
+
+	private ResponseCache cache;
+
+	private String[] params;
+
+	private boolean locale;
+
+	/**
+	 * 输出是否会被压缩，如果是，不同的压缩方式分别缓存
+	 */
+	private boolean compress;
+
+	/**
+	 * @return 这个入口函数是否声明了 '@Cache'
+	 */
+	public static boolean isCached(ActionInfo ai) {
+		return null != getCache(ai);
+	}
+
+	private static Cache getCache(ActionInfo ai) {
+		Cache cache = null;
+		if (null != ai.getMethod())
+			cache = ai.getMethod().getAnnotation(Cache.class);
+		if (null == cache && null != ai.getModuleType())
+			cache = ai.getModuleType().getAnnotation(Cache.class);
+		return cache;
+	}
+
+	@Override
+	public void init(NutConfig config, ActionInfo ai) throws Throwable {
+		Cache ann = getCache(ai);
+		if (null == ann)
+			return;
+		// 异步的入口函数，输出的时候本处理器已经返回了
+		if (null != ai.getMethod()) {
+			Class<?> type = ai.getMethod().getReturnType();
+			if (Callable.class.isAssignableFrom(type) || Future.class.isAssignableFrom(type)) {
+				if (log.isWarnEnabled())
+					log.warnf("@Cache is ignored for async method %s", ai.getMethod());
+				return;
+			}
+		}
+		params = ann.params();
+		locale = ann.locale();
+		compress = null != Compression.eval(config, ai);
+		cache = new ResponseCache(ann.size(), ann.ttl() * 1000L);
+		String group = ann.group();
+		if (Strings.isBlank(group)) {
+			if (null != ai.getPaths() && ai.getPaths().length > 0)
+				group = ai.getPaths()[0];
+			else if (null != ai.getMethod())
+				group = ai.getMethod().getName();
+		}
+		ResponseCache.register(group, cache);
+	}
+
+	public void process(ActionContext ac) throws Throwable {
+		HttpServletRequest req = ac.getRequest();
+		if (null == cache || !"GET".equalsIgnoreCase(req.getMethod())) {
+			doNext(ac);
+			return;
+		}
+		String key = key(ac);
+		HttpServletResponse resp = ac.getResponse();
+		ResponseCache.Entry en = cache.get(key);
+		if (null == en) {
+			CachingResponse cr = new CachingResponse(resp);
+			ac.setResponse(cr);
+			try {
+				doNext(ac);
+			}
+			finally {
+				ac.setResponse(resp);
+			}
+			if (!cr.cacheable) {
+				cr.writeTo(resp);
+				return;
+			}
+			en = cache.put(key, cr.toByteArray(), resp.getContentType(), cr.headers);
+		}
+		en.writeTo(req, resp);
+	}
+
+	/**
+	 * 缓存键，格式为 "路径[&参数=长度:值...][#Locale][~压缩方式]"
+	 */
+	private String key(ActionContext ac) {
+		HttpServletRequest req = ac.getRequest();
+		String path = ac.getPath();
+		StringBuilder sb = new StringBuilder(null == path ? Mvcs.getRequestPath(req) : path);
+		for (String name : params) {
+			sb.append('&').append(name);
+			String[] values = req.getParameterValues(name);
+			if (null != values)
+				for (String value : values)
+					sb.append('=').append(value.length()).append(':').append(value);
+		}
+		if (locale) {
+			HttpSession session = req.getSession(false);
+			String localeName = null == session ? null : Mvcs.getLocaleName(session);
+			if (null != localeName)
+				sb.append('#').append(localeName);
+		}
+		if (compress) {
+			String encoding = Compression.accept(req);
+			if (null != encoding)
+				sb.append('~').append(encoding);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * 把输出收集到内存里，头信息也被记录下来，以便缓存命中的时候重放
+	 */
+	private static class CachingResponse extends HttpServletResponseWrapper {
+
+		private ByteArrayOutputStream bytes;
+
+		private ServletOutputStream out;
+
+		private PrintWriter writer;
+
+		private List<String[]> headers;
+
+		private boolean cacheable;
+
+		CachingResponse(HttpServletResponse resp) {
+			super(resp);
+			bytes = new ByteArrayOutputStream();
+			headers = new ArrayList<String[]>();
+			cacheable = true;
+		}
+
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (null == out)
+				out = new ServletOutputStream() {
+					public void write(int b) throws IOException {
+						bytes.write(b);
+					}
+
+					public void write(byte[] b, int off, int len) throws IOException {
+						bytes.write(b, off, len);
+					}
+				};
+			return out;
+		}
+
+		public PrintWriter getWriter() throws IOException {
+			if (null == writer)
+				writer = new PrintWriter(new OutputStreamWriter(bytes, getCharacterEncoding()));
+			return writer;
+		}
+
+		public void flushBuffer() throws IOException {
+			if (null != writer)
+				writer.flush();
+		}
+
+		public void reset() {
+			super.reset();
+			resetBuffer();
+			headers.clear();
+		}
+
+		public void resetBuffer() {
+			if (null != writer)
+				writer.flush();
+			bytes.reset();
+		}
+
+		public void setContentLength(int len) {}
+
+		public void setHeader(String name, String value) {
+			removeHeader(name);
+			addHeader(name, value);
+		}
+
+		public void addHeader(String name, String value) {
+			headers.add(new String[]{name, value});
+		}
+
+		public void setIntHeader(String name, int value) {
+			setHeader(name, String.valueOf(value));
+		}
+
+		public void addIntHeader(String name, int value) {
+			addHeader(name, String.valueOf(value));
+		}
+
+		public void setDateHeader(String name, long date) {
+			setHeader(name, formatDate(date));
+		}
+
+		public void addDateHeader(String name, long date) {
+			addHeader(name, formatDate(date));
+		}
+
+		public boolean containsHeader(String name) {
+			for (String[] header : headers)
+				if (header[0].equalsIgnoreCase(name))
+					return true;
+			return false;
+		}
+
+		public void setStatus(int sc) {
+			cacheable &= sc == SC_OK;
+			super.setStatus(sc);
+		}
+
+		@SuppressWarnings("deprecation")
+		public void setStatus(int sc, String sm) {
+			cacheable &= sc == SC_OK;
+			super.setStatus(sc, sm);
+		}
+
+		public void sendError(int sc) throws IOException {
+			cacheable = false;
+			super.sendError(sc);
+		}
+
+		public void sendError(int sc, String msg) throws IOException {
+			cacheable = false;
+			super.sendError(sc, msg);
+		}
+
+		public void sendRedirect(String location) throws IOException {
+			cacheable = false;
+			super.sendRedirect(location);
+		}
+
+		private void removeHeader(String name) {
+			for (Iterator<String[]> it = headers.iterator(); it.hasNext();)
+				if (it.next()[0].equalsIgnoreCase(name))
+					it.remove();
+		}
+
+		byte[] toByteArray() {
+			if (null != writer)
+				writer.flush();
+			return bytes.toByteArray();
+		}
+
+		/**
+		 * 不能缓存的输出，原样交给真正的响应
+		 */
+		void writeTo(HttpServletResponse resp) throws IOException {
+			for (String[] header : headers)
+				resp.addHeader(header[0], header[1]);
+			byte[] data = toByteArray();
+			if (data.length > 0)
+				resp.getOutputStream().write(data);
+		}
+
+		private static String formatDate(long date) {
+			SimpleDateFormat fmt = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+			fmt.setTimeZone(TimeZone.getTimeZone("GMT"));
+			return fmt.format(new Date(date));
+		}
+	}
+
+}
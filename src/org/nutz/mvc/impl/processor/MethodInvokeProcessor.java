@@ -3,9 +3,17 @@ package org.nutz.mvc.impl.processor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+import org.nutz.lang.reflect.FastClass;
+import org.nutz.lang.reflect.FastClasses;
 import org.nutz.mvc.ActionContext;
+import org.nutz.mvc.ActionInfo;
+import org.nutz.mvc.NutConfig;
 
 /**
+ * 调用入口函数
+ * <p>
+ * 初始化的时候，入口函数会被绑定到模块类的 FastClass 上，每次请求通过生成的字节码直接调用它。<br>
+ * 模块类不是 public 的，或者上下文里的函数被换掉了，才退回到反射调用
  * 
  * @author zozoh(zozohtnt@gmail.com)
  * @author wendal(wendal1985@gmail.com)
@@ -13,10 +21,32 @@ import org.nutz.mvc.ActionContext;
  */
 public class MethodInvokeProcessor extends AbstractProcessor{
 
+	private Method method;
+
+	private FastClass fc;
+
+	private int index = -1;
+
+	@Override
+	public void init(NutConfig config, ActionInfo ai) throws Throwable {
+		method = ai.getMethod();
+		if (null != method && null != ai.getModuleType()) {
+			fc = FastClasses.get(ai.getModuleType());
+			if (null != fc)
+				index = fc.indexOf(method);
+		}
+	}
+
 	public void process(ActionContext ac) throws Throwable {
 		Object module = ac.getModule();
 		Method method = ac.getMethod();
 		Object[] args = ac.getMethodArgs();
+		// 生成的代码会原样抛出入口函数的异常
+		if (index >= 0 && method == this.method) {
+			ac.setMethodReturn(fc.invoke(module, index, args));
+			doNext(ac);
+			return;
+		}
 		try {
 			Object re = method.invoke(module, args);
 			ac.setMethodReturn(re);
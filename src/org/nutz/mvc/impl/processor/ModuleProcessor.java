@@ -59,6 +59,7 @@ public class ModuleProcessor extends AbstractProcessor {
 				 */
 				if (ioc instanceof Ioc2) {
 					reqContext = new RequestIocContext(ac.getRequest());
+					ac.setRequestIocContext(reqContext);
 					SessionIocContext sessionContext = new SessionIocContext(ac.getRequest()
 																				.getSession());
 					IocContext myContext = new ComboContext(reqContext, sessionContext);
@@ -76,8 +77,10 @@ public class ModuleProcessor extends AbstractProcessor {
 			doNext(ac);
 		}
 		finally {
-			if (reqContext != null)
+			// 异步执行的请求，由 AsyncProcessor 在输出视图以后销毁请求的上下文
+			if (reqContext != null && reqContext == ac.getRequestIocContext())
 				try {
+					ac.setRequestIocContext(null);
 					reqContext.depose();
 				}
 				catch (Throwable e) {
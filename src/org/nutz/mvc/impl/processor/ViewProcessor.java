@@ -10,22 +10,31 @@ import org.nutz.mvc.ActionInfo;
 import org.nutz.mvc.NutConfig;
 import org.nutz.mvc.View;
 import org.nutz.mvc.ViewMaker;
+import org.nutz.mvc.view.Compression;
 import org.nutz.mvc.view.ViewWrapper;
 import org.nutz.mvc.view.VoidView;
 
 public class ViewProcessor extends AbstractProcessor {
 
 	protected View view;
+
+	/**
+	 * 如果需要压缩输出，放到请求属性里交给视图
+	 */
+	protected Compression compression;
 	public static final String DEFAULT_ATTRIBUTE = "obj";
 	
 	@Override
 	public void init(NutConfig config, ActionInfo ai) throws Throwable {
 		view = evalView(config, ai, ai.getOkView());
+		compression = Compression.eval(config, ai);
 	}
 
 	public void process(ActionContext ac) throws Throwable {
 		Object re = ac.getMethodReturn();
 		Object err = ac.getError();
+		if (null != compression)
+			ac.getRequest().setAttribute(Compression.ATTR, compression);
 		if (re != null && re instanceof View) {
 			if (re instanceof ViewWrapper)
 				putRequestAttribute(ac.getRequest(), ((ViewWrapper)re).getData());
@@ -0,0 +1,266 @@
+package org.nutz.mvc.view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.nutz.lang.Strings;
+import org.nutz.mvc.ActionInfo;
+import org.nutz.mvc.NutConfig;
+import org.nutz.mvc.annotation.Gzip;
+
+/**
+ * 按照请求的 Accept-Encoding 压缩视图的输出
+ * <p>
+ * 初始化参数 "gzip" 为 true，或者入口函数(或模块)声明了 '@Gzip' 的时候，ViewProcessor 会把一个本类的对象放到请求属性里。<br>
+ * UTF8JsonView 和 RawView 输出文本的时候，如果客户端接受 gzip 或者 deflate，并且内容超过了阈值，就压缩输出。<br>
+ * 阈值由初始化参数 "gzip-threshold" 或者 '@Gzip' 声明，默认为 1024 字节
+ * <p>
+ * 压缩用的 Deflater 会被放回一个池里重复使用，避免每个请求都分配和释放本地内存
+ */
+public class Compression {
+
+	/**
+	 * 本对象在请求属性里的名字
+	 */
+	public static final String ATTR = "nutz.mvc.compression";
+
+	public static final int DEFAULT_THRESHOLD = 1024;
+
+	private int threshold;
+
+	public Compression(int threshold) {
+		this.threshold = threshold;
+	}
+
+	public int getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * 根据初始化参数和 '@Gzip' 决定一个入口函数是否压缩输出，'@Gzip' 优先
+	 *
+	 * @return 如果不需要压缩，返回 null
+	 */
+	public static Compression eval(NutConfig config, ActionInfo ai) {
+		boolean on = false;
+		int threshold = DEFAULT_THRESHOLD;
+		if (null != config) {
+			on = "true".equalsIgnoreCase(Strings.trim(config.getInitParameter("gzip")));
+			String str = Strings.trim(config.getInitParameter("gzip-threshold"));
+			if (!Strings.isBlank(str))
+				threshold = Integer.parseInt(str);
+		}
+		Gzip gzip = null;
+		if (null != ai.getMethod())
+			gzip = ai.getMethod().getAnnotation(Gzip.class);
+		if (null == gzip && null != ai.getModuleType())
+			gzip = ai.getModuleType().getAnnotation(Gzip.class);
+		if (null != gzip) {
+			on = gzip.value();
+			if (gzip.threshold() >= 0)
+				threshold = gzip.threshold();
+		}
+		return on ? new Compression(threshold) : null;
+	}
+
+	/**
+	 * 打开一个压缩的输出流
+	 * <p>
+	 * 它先把内容缓存在内存里，超过阈值才设置 Content-Encoding 并且开始压缩。写完以后必须调用 close，<br>
+	 * 它会写出剩下的内容，但是不会关闭响应的输出流
+	 *
+	 * @param contentType
+	 *            输出的内容类型，只有文本，JSON，JavaScript 和 XML 才会被压缩
+	 * @return 输出流，如果不需要压缩，返回 null
+	 */
+	public static OutputStream open(HttpServletRequest req,
+									HttpServletResponse resp,
+									String contentType) {
+		Compression c = (Compression) req.getAttribute(ATTR);
+		if (null == c || !isCompressible(contentType))
+			return null;
+		String encoding = accept(req);
+		if (null == encoding)
+			return null;
+		return new CompressingStream(resp, encoding, c.threshold);
+	}
+
+	/**
+	 * @return 客户端接受的压缩方式，"gzip" 或者 "deflate"，gzip 优先。都不接受的话，返回 null
+	 */
+	public static String accept(HttpServletRequest req) {
+		String ae = req.getHeader("Accept-Encoding");
+		if (null == ae)
+			return null;
+		boolean deflate = false;
+		for (String token : Strings.splitIgnoreBlank(ae, ",")) {
+			String name = token;
+			int pos = token.indexOf(';');
+			if (pos >= 0) {
+				name = token.substring(0, pos).trim();
+				if (token.substring(pos + 1).replace(" ", "").matches("^q=0(\\.0*)?$"))
+					continue;
+			}
+			if ("gzip".equalsIgnoreCase(name) || "x-gzip".equalsIgnoreCase(name) || "*".equals(name))
+				return "gzip";
+			if ("deflate".equalsIgnoreCase(name))
+				deflate = true;
+		}
+		return deflate ? "deflate" : null;
+	}
+
+	private static boolean isCompressible(String contentType) {
+		if (null == contentType)
+			return false;
+		String ct = contentType.toLowerCase();
+		return ct.startsWith("text/")
+				|| ct.contains("json")
+				|| ct.contains("javascript")
+				|| ct.contains("xml");
+	}
+
+	/*
+	 * Deflater 池，gzip 用不带 zlib 头的 Deflater，deflate 用带 zlib 头的
+	 */
+	private static final int POOL_SIZE = 32;
+
+	private static final BlockingQueue<Deflater> gzipPool = new ArrayBlockingQueue<Deflater>(POOL_SIZE);
+
+	private static final BlockingQueue<Deflater> deflatePool = new ArrayBlockingQueue<Deflater>(POOL_SIZE);
+
+	private static Deflater borrow(boolean gzip) {
+		Deflater def = (gzip ? gzipPool : deflatePool).poll();
+		if (null == def)
+			def = new Deflater(Deflater.DEFAULT_COMPRESSION, gzip);
+		return def;
+	}
+
+	private static void release(Deflater def, boolean gzip) {
+		def.reset();
+		if (!(gzip ? gzipPool : deflatePool).offer(def))
+			def.end();
+	}
+
+	private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+	private static class CompressingStream extends OutputStream {
+
+		private HttpServletResponse resp;
+
+		private String encoding;
+
+		private boolean gzip;
+
+		private byte[] buf;
+
+		private int count;
+
+		private OutputStream out;
+
+		private Deflater def;
+
+		private CRC32 crc;
+
+		private byte[] dbuf;
+
+		private boolean closed;
+
+		CompressingStream(HttpServletResponse resp, String encoding, int threshold) {
+			this.resp = resp;
+			this.encoding = encoding;
+			this.gzip = "gzip".equals(encoding);
+			this.buf = new byte[threshold];
+		}
+
+		public void write(int b) throws IOException {
+			write(new byte[]{(byte) b}, 0, 1);
+		}
+
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (closed)
+				throw new IOException("Stream closed");
+			if (null == out) {
+				if (count + len <= buf.length) {
+					System.arraycopy(b, off, buf, count, len);
+					count += len;
+					return;
+				}
+				start();
+			}
+			deflate(b, off, len);
+		}
+
+		/**
+		 * 内容超过了阈值，开始压缩
+		 */
+		private void start() throws IOException {
+			resp.setHeader("Content-Encoding", encoding);
+			resp.addHeader("Vary", "Accept-Encoding");
+			out = resp.getOutputStream();
+			def = borrow(gzip);
+			dbuf = new byte[8192];
+			if (gzip) {
+				crc = new CRC32();
+				out.write(GZIP_HEADER);
+			}
+			if (count > 0)
+				deflate(buf, 0, count);
+		}
+
+		private void deflate(byte[] b, int off, int len) throws IOException {
+			if (null != crc)
+				crc.update(b, off, len);
+			def.setInput(b, off, len);
+			while (!def.needsInput())
+				drain();
+		}
+
+		private void drain() throws IOException {
+			int n = def.deflate(dbuf, 0, dbuf.length);
+			if (n > 0)
+				out.write(dbuf, 0, n);
+		}
+
+		public void close() throws IOException {
+			if (closed)
+				return;
+			closed = true;
+			// 内容太少，不值得压缩
+			if (null == out) {
+				OutputStream os = resp.getOutputStream();
+				os.write(buf, 0, count);
+				os.flush();
+				return;
+			}
+			try {
+				def.finish();
+				while (!def.finished())
+					drain();
+				if (gzip) {
+					writeInt((int) crc.getValue());
+					writeInt((int) def.getBytesRead());
+				}
+				out.flush();
+			}
+			finally {
+				release(def, gzip);
+				def = null;
+			}
+		}
+
+		private void writeInt(int i) throws IOException {
+			out.write(i & 0xFF);
+			out.write((i >> 8) & 0xFF);
+			out.write((i >> 16) & 0xFF);
+			out.write((i >> 24) & 0xFF);
+		}
+	}
+
+}
@@ -25,6 +25,7 @@ public class DefaultViewMaker implements ViewMaker {
 	public static final String VIEW_FORWARD = "forward";
 	public static final String VIEW_FORWARD2 = "->";
 	public static final String VIEW_RAW = "raw";
+	public static final String VIEW_JSON_STREAM = "json-stream";
 
 	public View make(Ioc ioc, String type, String value) {
 		type = type.toLowerCase();
@@ -35,6 +36,11 @@ public class DefaultViewMaker implements ViewMaker {
 				return new UTF8JsonView(JsonFormat.compact());
 			else
 				return new UTF8JsonView(Json.fromJson(JsonFormat.class, value));
+		if (VIEW_JSON_STREAM.equals(type))
+			if (Strings.isBlank(value))
+				return new JsonStreamView(JsonFormat.compact());
+			else
+				return new JsonStreamView(Json.fromJson(JsonFormat.class, value));
 		if (VIEW_REDIRECT.equals(type) || VIEW_REDIRECT2.equals(type))
 			return new ServerRedirectView(value);
 		if (VIEW_FORWARD.equals(type) || VIEW_FORWARD2.equals(type))
@@ -0,0 +1,67 @@
+package org.nutz.mvc.view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.nutz.json.JsonArrayWriter;
+import org.nutz.json.JsonFormat;
+import org.nutz.mvc.Mvcs;
+import org.nutz.mvc.View;
+
+/**
+ * 将数据一个一个地输出成 JSON 数组的视图
+ * <p>
+ * 与 UTF8JsonView 先把整个对象渲染出来不同，它每写完一个元素就交给响应对象，<br>
+ * 所以输出的内容再多，占用的内存也不会增加。入口函数可以返回:
+ * <ul>
+ * <li>Iterator，集合，数组等任何 Lang.each 可以迭代的对象
+ * <li>JsonStreamView.Source，自己把元素推给 JsonArrayWriter。比如:
+ * 
+ * <pre>
+ * &#064;Ok(&quot;json-stream&quot;)
+ * public Object list() {
+ * 	return new JsonStreamView.Source() {
+ * 		public void writeTo(JsonArrayWriter writer) {
+ * 			dao.each(Pet.class, null, writer.&lt;Pet&gt; each());
+ * 		}
+ * 	};
+ * }
+ * </pre>
+ * 
+ * </ul>
+ */
+public class JsonStreamView implements View {
+
+	/**
+	 * 把元素推给 JsonArrayWriter 的数据源
+	 */
+	public static interface Source {
+		void writeTo(JsonArrayWriter writer);
+	}
+
+	private JsonFormat format;
+
+	public JsonStreamView(JsonFormat format) {
+		this.format = format;
+	}
+
+	public void render(HttpServletRequest req, HttpServletResponse resp, Object obj)
+			throws IOException {
+		resp.setHeader("Cache-Control", "no-cache");
+		resp.setContentType("text/plain");
+
+		OutputStream out = Mvcs.getUtf8OutputStream(resp);
+		JsonArrayWriter writer = null != out	? new JsonArrayWriter(out, format)
+												: new JsonArrayWriter(resp.getWriter(), format);
+		if (obj instanceof Source)
+			((Source) obj).writeTo(writer);
+		else if (null != obj)
+			writer.writeAll(obj);
+		writer.end();
+
+		resp.flushBuffer();
+	}
+}
@@ -1,7 +1,9 @@
 package org.nutz.mvc.view;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.HashMap;
@@ -55,21 +57,33 @@ public class RawView implements View {
 		resp.setContentType(contentType);
 		if (obj == null)
 			return;
+		// 如果需要压缩，写完以后必须关闭它
+		OutputStream zip = Compression.open(req, resp, contentType);
+		try {
+			render(resp, zip, obj);
+		}
+		finally {
+			if (null != zip)
+				zip.close();
+		}
+	}
+
+	private void render(HttpServletResponse resp, OutputStream zip, Object obj) throws Throwable {
 		// 字节数组
 		if (obj instanceof byte[]) {
-			OutputStream os = resp.getOutputStream();
+			OutputStream os = null == zip ? resp.getOutputStream() : zip;
 			os.write((byte[]) obj);
 			os.flush();
 		}
 		// 字符数组
 		else if (obj instanceof char[]) {
-			Writer writer = resp.getWriter();
+			Writer writer = writer(resp, zip);
 			writer.write((char[]) obj);
 			writer.flush();
 		}
 		// 文本流
 		else if (obj instanceof Reader) {
-			Writer w = resp.getWriter();
+			Writer w = writer(resp, zip);
 			Reader r = (Reader) obj;
 			char[] cbuf = new char[8192];
 			int len;
@@ -77,6 +91,7 @@ public class RawView implements View {
 				while (-1 != (len = r.read(cbuf))) {
 					w.write(cbuf, 0, len);
 				}
+				w.flush();
 				resp.flushBuffer();
 			}
 			finally {
@@ -86,7 +101,7 @@ public class RawView implements View {
 		}
 		// 二进制流
 		else if (obj instanceof InputStream) {
-			OutputStream out = resp.getOutputStream();
+			OutputStream out = null == zip ? resp.getOutputStream() : zip;
 			InputStream ins = (InputStream) obj;
 			byte[] buf = new byte[8192];
 			int len;
@@ -102,12 +117,18 @@ public class RawView implements View {
 		}
 		// 普通对象
 		else {
-			Writer writer = resp.getWriter();
+			Writer writer = writer(resp, zip);
 			writer.write(String.valueOf(obj));
 			writer.flush();
 		}
 	}
 
+	private static Writer writer(HttpServletResponse resp, OutputStream zip) throws IOException {
+		if (null == zip)
+			return resp.getWriter();
+		return new OutputStreamWriter(zip, resp.getCharacterEncoding());
+	}
+
 	private static final Map<String, String> contentTypeMap = new HashMap<String, String>();
 
 	static {
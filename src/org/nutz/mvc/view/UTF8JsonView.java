@@ -31,6 +31,6 @@ public class UTF8JsonView implements View {
 
 	public void render(HttpServletRequest req, HttpServletResponse resp, Object obj)
 			throws IOException {
-		Mvcs.write(resp, null == obj ? data : obj, format);
+		Mvcs.write(resp, Compression.open(req, resp, "text/plain"), null == obj ? data : obj, format);
 	}
 }
@@ -27,6 +27,7 @@ public class NutTransaction extends Transaction {
 		DataSource ds;
 		Connection conn;
 		int oldLevel;
+		StatementCache cache;
 	}
 
 	public NutTransaction() {
@@ -68,6 +69,20 @@ public class NutTransaction extends Transaction {
 		return conn;
 	}
 
+	@Override
+	public StatementCache getStatementCache(Connection conn) {
+		int size = Trans.getStatementCacheSize();
+		if (size <= 0)
+			return null;
+		for (ConnInfo p : list)
+			if (p.conn == conn) {
+				if (null == p.cache)
+					p.cache = new StatementCache(conn, size);
+				return p.cache;
+			}
+		return null;
+	}
+
 	@Override
 	public int getId() {
 		return ID++;
@@ -77,6 +92,10 @@ public class NutTransaction extends Transaction {
 	public void close() {
 		ComboException ce = new ComboException();
 		for (ConnInfo cInfo : list) {
+			// 关闭缓存的语句
+			if (null != cInfo.cache)
+				for (SQLException e : cInfo.cache.close())
+					ce.add(e);
 			try {
 				// 试图恢复旧的事务级别
 				if (!cInfo.conn.isClosed()) {
@@ -0,0 +1,171 @@
+package org.nutz.trans;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 缓存一个连接上创建过的 PreparedStatement
+ * <p>
+ * 在一个事务里，同样的 SQL 往往会被执行很多次。如果连接池本身不缓存语句，<br>
+ * 每次执行都要重新 prepareStatement，再关闭它。这个缓存让同一个事务里的同一条 SQL 复用同一个语句对象。
+ * <p>
+ * 语句被取出后，直到 release 之前都不在缓存里，所以嵌套执行同一条 SQL 也不会互相干扰。<br>
+ * 缓存按照最近最少使用的原则淘汰语句，被淘汰的语句会被关闭。事务关闭时，所有语句都会被关闭。
+ * <p>
+ * 一个事务只属于一个线程，所以这个类不是线程安全的
+ *
+ * @see org.nutz.trans.Trans#setStatementCacheSize(int)
+ */
+public class StatementCache {
+
+	private static final AtomicLong totalHits = new AtomicLong();
+
+	private static final AtomicLong totalMisses = new AtomicLong();
+
+	private Connection conn;
+
+	private LinkedHashMap<String, PreparedStatement> map;
+
+	private long hits;
+
+	private long misses;
+
+	public StatementCache(Connection conn, final int maxSize) {
+		this.conn = conn;
+		this.map = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+				if (size() > maxSize) {
+					closeQuietly(eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * 取出一个语句，如果缓存里没有，则创建一个
+	 * <p>
+	 * 用完后，调用 release 把它放回来
+	 *
+	 * @param sql
+	 *            SQL 语句
+	 * @param resultSetType
+	 *            结果集类型
+	 * @param resultSetConcurrency
+	 *            结果集并发类型
+	 * @return 语句对象
+	 */
+	public PreparedStatement prepare(String sql, int resultSetType, int resultSetConcurrency)
+			throws SQLException {
+		PreparedStatement ps = map.remove(key(sql, resultSetType, resultSetConcurrency));
+		if (null != ps) {
+			hits++;
+			totalHits.incrementAndGet();
+			return ps;
+		}
+		misses++;
+		totalMisses.incrementAndGet();
+		return conn.prepareStatement(sql, resultSetType, resultSetConcurrency);
+	}
+
+	/**
+	 * 把用完的语句放回缓存。参数和批处理都会被清除
+	 * <p>
+	 * 如果缓存里已经有一个同样的语句，这个语句会被关闭
+	 */
+	public void release(String sql, int resultSetType, int resultSetConcurrency, PreparedStatement ps) {
+		try {
+			ps.clearParameters();
+			ps.clearBatch();
+		}
+		catch (SQLException e) {
+			closeQuietly(ps);
+			return;
+		}
+		String key = key(sql, resultSetType, resultSetConcurrency);
+		if (map.containsKey(key))
+			closeQuietly(ps);
+		else
+			map.put(key, ps);
+	}
+
+	/**
+	 * 关闭缓存的所有语句
+	 *
+	 * @return 关闭时发生的异常
+	 */
+	public List<SQLException> close() {
+		List<SQLException> errs = new ArrayList<SQLException>(0);
+		for (PreparedStatement ps : map.values())
+			try {
+				ps.close();
+			}
+			catch (SQLException e) {
+				errs.add(e);
+			}
+		map.clear();
+		return errs;
+	}
+
+	public Connection getConnection() {
+		return conn;
+	}
+
+	/**
+	 * @return 当前缓存的语句数量
+	 */
+	public int size() {
+		return map.size();
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return 所有缓存总共的命中次数
+	 */
+	public static long getTotalHits() {
+		return totalHits.get();
+	}
+
+	/**
+	 * @return 所有缓存总共的未命中次数
+	 */
+	public static long getTotalMisses() {
+		return totalMisses.get();
+	}
+
+	/**
+	 * 清除总计数
+	 */
+	public static void resetTotals() {
+		totalHits.set(0);
+		totalMisses.set(0);
+	}
+
+	private static String key(String sql, int resultSetType, int resultSetConcurrency) {
+		return resultSetType + ":" + resultSetConcurrency + ":" + sql;
+	}
+
+	private static void closeQuietly(PreparedStatement ps) {
+		try {
+			ps.close();
+		}
+		catch (SQLException e) {}
+	}
+
+}
@@ -15,6 +15,8 @@ public abstract class Trans {
 
 	private static Class<? extends Transaction> implClass;
 
+	private static int statementCacheSize;
+
 	static ThreadLocal<Transaction> trans = new ThreadLocal<Transaction>();
 	static ThreadLocal<Integer> count = new ThreadLocal<Integer>();
 
@@ -35,6 +37,22 @@ public abstract class Trans {
 		implClass = classOfTransaction;
 	}
 
+	/**
+	 * 让事务为每个连接缓存 PreparedStatement，同一个事务中重复执行的 SQL 不必每次都重新创建语句。<br>
+	 * 语句在事务关闭时被关闭。默认为 0，即不缓存
+	 * 
+	 * @param size
+	 *            每个连接最多缓存多少个语句
+	 * @see org.nutz.trans.StatementCache
+	 */
+	public static void setStatementCacheSize(int size) {
+		statementCacheSize = size;
+	}
+
+	public static int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
 	private static void begain(int level) throws Exception {
 		if (null == trans.get()) {
 			Transaction tn = null == implClass ? new NutTransaction() : Mirror.me(implClass).born();
@@ -28,4 +28,18 @@ public abstract class Transaction {
 
 	public abstract void close();
 
+	/**
+	 * 获取事务中某个连接的语句缓存
+	 * <p>
+	 * 默认的实现不缓存语句，返回 null
+	 * 
+	 * @param conn
+	 *            通过本事务得到的连接
+	 * @return 语句缓存，null 表示不缓存
+	 * @see org.nutz.trans.Trans#setStatementCacheSize(int)
+	 */
+	public StatementCache getStatementCache(Connection conn) {
+		return null;
+	}
+
 }
@@ -2,6 +2,7 @@ package org.nutz.castor;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
@@ -34,6 +35,21 @@ public class CastorTest {
 	/**
 	 * 根据 Issue 272，如果为空串，原生类型的外覆类应该返回 null
 	 */
+	@Test
+	public void test_cached_castor() {
+		Castors cts = Castors.create();
+		Castor<String, Integer> c = cts.find(String.class, Integer.class);
+		assertNotNull(c);
+		assertTrue(c == cts.find(String.class, Integer.class));
+		assertEquals(12, (int) cts.castTo("12", int.class));
+		assertEquals(13, (int) cts.castTo("13", int.class));
+
+		// 可以直接转型的，也要能找到真正的转换器
+		assertTrue(cts.canCast(Integer.class, int.class));
+		assertNotNull(cts.find(Integer.class, Long.class));
+		assertEquals(Long.valueOf(3), cts.castTo(Integer.valueOf(3), Long.class));
+	}
+
 	@Test
 	public void test_cast_blank_to_Long() {
 		assertNull(Castors.me().castTo("", Integer.class));
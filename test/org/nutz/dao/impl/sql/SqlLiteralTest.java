@@ -179,4 +179,32 @@ public class SqlLiteralTest {
 		String expect = "INSERT INTO t_pet(userId,userName,alias,age) VALUES(18,'pet','haha',5)";
 		assertEquals(expect, sql.toString());
 	}
+
+	@Test
+	public void test_literal_cache() {
+		SqlLiteralCache.clear();
+		NutSql a = L("SELECT * FROM t_cache WHERE id=@id AND $cnd");
+		NutSql b = L("SELECT * FROM t_cache WHERE id=@id AND $cnd");
+		assertTrue(a.literal == b.literal);
+		assertEquals(1, SqlLiteralCache.getHits());
+		assertEquals(1, SqlLiteralCache.getMisses());
+
+		// 共享模板，但变量和参数各自独立
+		a.params().set("id", 1);
+		a.vars().set("cnd", "x>0");
+		b.params().set("id", 2);
+		assertEquals("SELECT * FROM t_cache WHERE id=1 AND x>0", a.toString());
+		assertEquals("SELECT * FROM t_cache WHERE id=2 AND ", b.toString());
+
+		// 缓存有上限
+		SqlLiteralCache.setMaxSize(2);
+		try {
+			for (int i = 0; i < 10; i++)
+				L("SELECT * FROM t_cache_" + i);
+			assertTrue(SqlLiteralCache.size() <= 2);
+		}
+		finally {
+			SqlLiteralCache.setMaxSize(1000);
+		}
+	}
 }
@@ -1,11 +1,22 @@
 package org.nutz.dao.test.entity;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
 import org.junit.Test;
 
 import static org.junit.Assert.*;
 
+import org.nutz.dao.Dao;
 import org.nutz.dao.entity.Entity;
 import org.nutz.dao.entity.MappingField;
+import org.nutz.dao.impl.NutDao;
 import org.nutz.dao.impl.entity.field.ManyLinkField;
 import org.nutz.dao.impl.entity.field.ManyManyLinkField;
 import org.nutz.dao.test.DaoCase;
@@ -127,4 +138,38 @@ public class EntityParsingTest extends DaoCase {
 		Entity<?> en = en(TO5.class);
 		assertEquals("toid", en.getField("id").getColumnName());
 	}
+
+	@Test
+	public void test_preload_entities() {
+		Dao dao = new NutDao(ioc.get(DataSource.class, "dataSource"));
+		int n = dao.preloadEntities("org.nutz.dao.test.meta");
+		assertTrue(n > 0);
+		Entity<?> en = dao.getEntity(Base.class);
+		ManyLinkField link = (ManyLinkField) en.getLinkFields("platoons").get(0);
+		assertTrue(link.getLinkedEntity() == dao.getEntity(Platoon.class));
+	}
+
+	@Test
+	public void test_get_entity_concurrently() throws Exception {
+		final Dao dao = new NutDao(ioc.get(DataSource.class, "dataSource"));
+		ExecutorService es = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Entity<?>>> list = new ArrayList<Future<Entity<?>>>();
+			for (int i = 0; i < 32; i++) {
+				final Class<?> type = i % 2 == 0 ? Base.class : Platoon.class;
+				list.add(es.submit(new Callable<Entity<?>>() {
+					public Entity<?> call() throws Exception {
+						return dao.getEntity(type);
+					}
+				}));
+			}
+			for (int i = 0; i < list.size(); i++) {
+				Class<?> type = i % 2 == 0 ? Base.class : Platoon.class;
+				assertTrue(list.get(i).get() == dao.getEntity(type));
+			}
+		}
+		finally {
+			es.shutdown();
+		}
+	}
 }
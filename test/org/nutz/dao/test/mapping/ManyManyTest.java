@@ -6,6 +6,7 @@ import java.util.Iterator;
 
 import org.junit.Test;
 
+import org.nutz.dao.Cnd;
 import org.nutz.dao.impl.entity.field.*;
 
 import org.nutz.dao.test.DaoCase;
@@ -29,6 +30,16 @@ public class ManyManyTest extends DaoCase {
 		assertEquals(1, b.countFighter(Fighter.TYPE.SU_35));
 	}
 
+	@Test
+	public void fetch_links_in_batch() {
+		Base[] bases = dao.query(Base.class, Cnd.orderBy().asc("name"), null).toArray(new Base[2]);
+		dao.fetchLinks(bases, "fighters");
+		assertEquals(7, bases[0].getFighters().size());
+		assertEquals(3, bases[0].countFighter(Fighter.TYPE.F16));
+		assertEquals(6, bases[1].getFighters().size());
+		assertEquals(1, bases[1].countFighter(Fighter.TYPE.SU_35));
+	}
+
 	@Test
 	public void delete_links() {
 		Base b = dao.fetchLinks(dao.fetch(Base.class, "red"), "fighters");
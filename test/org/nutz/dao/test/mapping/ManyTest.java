@@ -3,9 +3,11 @@ package org.nutz.dao.test.mapping;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Iterator;
+import java.util.List;
 
 import org.junit.Test;
 
+import org.nutz.dao.Cnd;
 import org.nutz.dao.test.DaoCase;
 import org.nutz.dao.test.meta.Base;
 import org.nutz.dao.test.meta.Platoon;
@@ -38,6 +40,20 @@ public class ManyTest extends DaoCase {
 		assertEquals(4, b2.getWavebands().size());
 	}
 
+	@Test
+	public void fetch_links_in_batch() {
+		List<Base> list = dao.query(Base.class, Cnd.orderBy().asc("name"), null);
+		dao.fetchLinks(list, "platoons|wavebands");
+		Base blue = list.get(0);
+		Base red = list.get(1);
+		assertEquals(3, red.getPlatoons().size());
+		assertEquals("red", red.getPlatoons().get("ES").getBaseName());
+		assertEquals(3, blue.getPlatoons().size());
+		assertEquals("blue", blue.getPlatoons().get("seals").getBaseName());
+		assertEquals(4, red.getWavebands().size());
+		assertEquals(4, blue.getWavebands().size());
+	}
+
 	@Test
 	public void delete_links() {
 		assertEquals(6, dao.count(Platoon.class));
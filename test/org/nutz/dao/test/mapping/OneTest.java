@@ -1,7 +1,10 @@
 package org.nutz.dao.test.mapping;
 
+import java.util.List;
+
 import org.junit.Test;
 
+import org.nutz.dao.Cnd;
 import org.nutz.dao.test.DaoCase;
 import org.nutz.dao.test.meta.Base;
 import org.nutz.dao.test.meta.Country;
@@ -24,6 +27,15 @@ public class OneTest extends DaoCase {
 		assertEquals("China", b.getCountry().getName());
 	}
 
+	@Test
+	public void fetch_links_in_batch() {
+		List<Base> list = dao.query(Base.class, Cnd.orderBy().asc("name"), null);
+		dao.fetchLinks(list, "country");
+		assertEquals("blue", list.get(0).getName());
+		assertEquals("US", list.get(0).getCountry().getName());
+		assertEquals("China", list.get(1).getCountry().getName());
+	}
+
 	@Test
 	public void delete_links() {
 		Base b = dao.fetchLinks(dao.fetch(Base.class, "red"), "country");
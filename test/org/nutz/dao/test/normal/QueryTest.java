@@ -2,16 +2,34 @@ package org.nutz.dao.test.normal;
 
 import static org.junit.Assert.*;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.junit.Test;
 import org.nutz.dao.Cnd;
+import org.nutz.dao.DaoCursor;
+import org.nutz.dao.QueryResult;
+import org.nutz.dao.entity.Entity;
+import org.nutz.dao.entity.MappingField;
 import org.nutz.dao.entity.Record;
+import org.nutz.dao.impl.jdbc.mysql.MysqlJdbcExpert;
+import org.nutz.dao.impl.jdbc.psql.PsqlJdbcExpert;
+import org.nutz.dao.impl.jdbc.sqlite.SQLieJdbcExpert;
+import org.nutz.dao.impl.sql.NutPojoMaker;
+import org.nutz.dao.jdbc.JdbcExpert;
+import org.nutz.dao.jdbc.ValueAdaptor;
+import org.nutz.dao.pager.Pager;
+import org.nutz.dao.sql.Pojo;
 import org.nutz.dao.test.DaoCase;
 import org.nutz.dao.test.meta.Pet;
 import org.nutz.dao.util.cri.SimpleCriteria;
+import org.nutz.lang.Each;
+import org.nutz.lang.Lang;
 
 public class QueryTest extends DaoCase {
 
@@ -22,6 +40,66 @@ public class QueryTest extends DaoCase {
 			dao.insert(Pet.create("pet" + i));
 	}
 
+	@Test
+	public void query_page_with_count() {
+		Pager pager = dao.createPager(2, 3);
+		QueryResult qr = dao.queryPage(Pet.class, Cnd.orderBy().asc("name"), pager);
+		List<Pet> pets = qr.getList(Pet.class);
+		assertEquals(3, pets.size());
+		assertEquals("pet3", pets.get(0).getName());
+		assertEquals(8, qr.getPager().getRecordCount());
+		assertEquals(3, qr.getPager().getPageCount());
+
+		// 超出范围的页，也能得到总数
+		qr = dao.queryPage(Pet.class, Cnd.where("name", "<>", "pet0"), dao.createPager(10, 3));
+		assertTrue(qr.getList().isEmpty());
+		assertEquals(7, qr.getPager().getRecordCount());
+	}
+
+	@Test
+	public void query_page_sql_of_experts() {
+		Entity<Pet> en = dao.getEntity(Pet.class);
+		Pager pager = dao.createPager(3, 10);
+
+		JdbcExpert expert = new PsqlJdbcExpert(null);
+		Pojo pojo = new NutPojoMaker(expert).makeQuery(en).setPager(pager);
+		assertTrue(pojo == expert.formatQueryWithCount(pojo));
+		assertEquals(	"SELECT COUNT(*) OVER() AS NUTZ_TOTAL_COUNT_, * FROM t_pet LIMIT 10 OFFSET 20",
+						pojo.toPreparedStatement().replaceAll("\\s+", " ").trim());
+
+		expert = new MysqlJdbcExpert(null);
+		pojo = new NutPojoMaker(expert).makeQuery(en).setPager(pager);
+		Pojo counter = expert.formatQueryWithCount(pojo);
+		assertEquals(	"SELECT SQL_CALC_FOUND_ROWS * FROM t_pet LIMIT 20, 10",
+						pojo.toPreparedStatement().replaceAll("\\s+", " ").trim());
+		assertEquals("SELECT FOUND_ROWS()", counter.toPreparedStatement().trim());
+
+		expert = new SQLieJdbcExpert(null);
+		pojo = new NutPojoMaker(expert).makeQuery(en).setPager(pager);
+		assertNull(expert.formatQueryWithCount(pojo));
+	}
+
+	@Test
+	public void query_seek() {
+		List<Pet> pets = dao.querySeek(Pet.class, null, "name", false, null, 3);
+		assertEquals(3, pets.size());
+		assertEquals("pet2", pets.get(2).getName());
+
+		pets = dao.querySeek(Pet.class, null, "name", false, pets.get(2).getName(), 3);
+		assertEquals("pet3", pets.get(0).getName());
+		assertEquals("pet5", pets.get(2).getName());
+
+		pets = dao.querySeek(	Pet.class,
+								Cnd.exps("name", "<>", "pet6"),
+								"name",
+								true,
+								"pet7",
+								10);
+		assertEquals(6, pets.size());
+		assertEquals("pet5", pets.get(0).getName());
+		assertEquals("pet0", pets.get(5).getName());
+	}
+
 	@Test
 	public void query_by_map_idkeyset() {
 		List<Pet> pets = dao.query(Pet.class, null, null);
@@ -136,4 +214,97 @@ public class QueryTest extends DaoCase {
 		assertEquals(4, pet.getId());
 		assertEquals("pet3", pet.getName());
 	}
+
+	@Test
+	public void each_by_class() {
+		final List<String> names = new ArrayList<String>();
+		int n = dao.each(Pet.class, Cnd.where("name", "LIKE", "pet%").asc("name"), new Each<Pet>() {
+			public void invoke(int i, Pet pet, int length) {
+				names.add(pet.getName());
+			}
+		});
+		assertEquals(8, n);
+		assertEquals("pet0", names.get(0));
+		assertEquals("pet7", names.get(7));
+	}
+
+	@Test
+	public void each_by_table_and_break() {
+		final List<Record> re = new ArrayList<Record>();
+		int n = dao.each("t_pet", null, new Each<Record>() {
+			public void invoke(int i, Record rec, int length) {
+				re.add(rec);
+				if (i == 2)
+					Lang.Break();
+			}
+		});
+		assertEquals(3, n);
+		assertEquals(3, re.size());
+	}
+
+	@Test
+	public void each_by_pager() {
+		final int[] count = new int[1];
+		dao.each(Pet.class, null, dao.createPager(2, 3), new Each<Pet>() {
+			public void invoke(int i, Pet pet, int length) {
+				count[0]++;
+			}
+		});
+		assertEquals(3, count[0]);
+	}
+
+	@Test
+	public void cursor_by_class() {
+		DaoCursor<Pet> cursor = dao.cursor(Pet.class, Cnd.orderBy().asc("name"));
+		try {
+			int i = 0;
+			while (cursor.hasNext())
+				assertEquals("pet" + i++, cursor.next().getName());
+			assertEquals(8, i);
+		}
+		finally {
+			cursor.close();
+		}
+	}
+
+	@Test
+	public void cursor_by_table_close_early() {
+		DaoCursor<Record> cursor = dao.cursor("t_pet", Cnd.where("name", "=", "pet3"));
+		try {
+			assertTrue(cursor.hasNext());
+			assertEquals("pet3", cursor.next().getString("name"));
+		}
+		finally {
+			cursor.close();
+		}
+		assertFalse(cursor.hasNext());
+	}
+
+	/**
+	 * 只实现了 ValueAdaptor 的自定义适配器，仍然按列名取值
+	 */
+	@Test
+	public void query_by_name_only_adaptor() {
+		MappingField mf = dao.getEntity(Pet.class).getField("name");
+		ValueAdaptor old = mf.getAdaptor();
+		mf.setAdaptor(new ValueAdaptor() {
+			public Object get(ResultSet rs, String colName) throws SQLException {
+				return "@" + rs.getString(colName);
+			}
+
+			public void set(PreparedStatement stat, Object obj, int index)
+					throws SQLException {
+				stat.setString(index, (String) obj);
+			}
+		});
+		try {
+			List<Pet> pets = dao.query(Pet.class, Cnd.orderBy().asc("name"), null);
+			assertEquals(8, pets.size());
+			assertEquals("@pet0", pets.get(0).getName());
+			assertEquals("@pet7", pets.get(7).getName());
+		}
+		finally {
+			mf.setAdaptor(old);
+		}
+	}
 }
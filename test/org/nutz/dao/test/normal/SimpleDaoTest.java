@@ -137,4 +137,21 @@ public class SimpleDaoTest extends DaoCase {
 		p.setSex("东方不败");
 		dao.update(p);
 	}
+
+	@Test
+	public void test_batch_insert_in_chunks() {
+		Sql sql = Sqls.create("INSERT INTO t_pet (name) VALUES (@name)");
+		for (int i = 0; i < 10; i++) {
+			sql.params().set("name", "pet" + i);
+			sql.addBatch();
+		}
+		sql.params().set("name", "pet10");
+		sql.getContext().setBatchSize(3);
+		sql.getContext().setBatchesPerCommit(2);
+		dao.execute(sql);
+
+		assertEquals(11, sql.getUpdateCount());
+		assertEquals(11, dao.count(Pet.class));
+		assertNotNull(dao.fetch(Pet.class, "pet10"));
+	}
 }
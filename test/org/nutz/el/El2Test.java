@@ -3,11 +3,17 @@ package org.nutz.el;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.nutz.el.El;
+import org.nutz.el.arithmetic.RPN;
+import org.nutz.el.arithmetic.ShuntingYard;
+import org.nutz.el.compile.CompiledNode;
+import org.nutz.el.compile.ElCompiler;
+import org.nutz.el.compile.ElNode;
 import org.nutz.el.speed.SimpleSpeedTest;
 import org.nutz.lang.Lang;
 import org.nutz.lang.util.Context;
@@ -334,4 +340,247 @@ public class El2Test {
 		assertEquals(	true || true && false && true,
 						El.eval(vars, "'A' == 'A' || 'B' == 'B' && 'ABCD' == t &&  'A' == 'A'"));
 	}
+
+	/**
+	 * 同一个预编译的表达式,被多个线程用不同的 context 同时计算
+	 */
+	@Test
+	public void concurrentEval() throws InterruptedException {
+		final El exp = new El("a.name + (i * 2 + 1)");
+		final List<Throwable> errors = new ArrayList<Throwable>();
+		Thread[] ts = new Thread[8];
+		for (int i = 0; i < ts.length; i++) {
+			final int n = i;
+			ts[i] = new Thread() {
+				public void run() {
+					try {
+						Context vars = Lang.context();
+						vars.set("a", Lang.map("{name:'t" + n + "_'}"));
+						for (int j = 0; j < 2000; j++) {
+							vars.set("i", j);
+							assertEquals("t" + n + "_" + (j * 2 + 1), exp.eval(vars));
+						}
+					}
+					catch (Throwable e) {
+						synchronized (errors) {
+							errors.add(e);
+						}
+					}
+				}
+			};
+			ts[i].start();
+		}
+		for (Thread t : ts)
+			t.join();
+		assertTrue(errors.toString(), errors.isEmpty());
+	}
+
+	@Test
+	public void cachedTemplate() {
+		El.clearCache();
+		Context vars = Lang.context();
+		vars.set("i", 3);
+		assertEquals(7, El.eval(vars, "i * 2 + 1"));
+		vars.set("i", 5);
+		assertEquals(11, El.eval(vars, "i * 2 + 1"));
+		assertSame(El.compile("i * 2 + 1"), El.compile("i * 2 + 1"));
+
+		int size = El.getCacheSize();
+		try {
+			El.setCacheSize(0);
+			assertNotSame(El.compile("i * 2 + 1"), El.compile("i * 2 + 1"));
+			assertEquals(11, El.eval(vars, "i * 2 + 1"));
+		}
+		finally {
+			El.setCacheSize(size);
+		}
+	}
+
+	/**
+	 * 多级的属性访问,以及三元表达式里的变量
+	 */
+	@Test
+	public void nestedAccess() {
+		Context context = Lang.context();
+		context.set("a", Lang.map("{b:{c:1, d:[1,2,3]}, c:2}"));
+		context.set("x", "X");
+		context.set("y", "Y");
+		assertEquals(1, El.eval(context, "a.b.c"));
+		assertEquals(3, El.eval(context, "a.b.d.size()"));
+		assertEquals("X", El.eval(context, "a.c > 1 ? x : y"));
+		assertEquals("Y", El.eval(context, "a.c > 2 ? x : y"));
+	}
+
+	public static class Pet {
+		private String name;
+		public int age;
+
+		public Pet(String name, int age) {
+			this.name = name;
+			this.age = age;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String say(String word, int times) {
+			return name + ":" + word + times;
+		}
+	}
+
+	public static class Dog extends Pet {
+		public Dog(String name, int age) {
+			super(name, age);
+		}
+
+		public String getName() {
+			return "dog " + super.getName();
+		}
+	}
+
+	/**
+	 * 编译成执行树以后,计算结果与操作树相同
+	 */
+	@Test
+	public void optimize() {
+		checkOptimize();
+	}
+
+	/**
+	 * 不生成字节码,只使用执行树
+	 */
+	@Test
+	public void optimizeTree() {
+		ElCompiler.setBytecode(false);
+		try {
+			checkOptimize();
+		}
+		finally {
+			ElCompiler.setBytecode(true);
+		}
+	}
+
+	private void checkOptimize() {
+		Context context = Lang.context();
+		context.set("a", Lang.map("{b:{c:1},x:10,y:50,txt:'Hello'}"));
+		context.set("i", 5);
+		context.set("d", 2.5);
+		context.set("s", "abc");
+		context.set("list", new ArrayList<String>(Arrays.asList("p", "q")));
+		context.set("arr", new String[]{"m", "n"});
+		String[] exps = {"a.b.c", "i > 1 ? s : d", "i*2+1", "i/2", "d*i", "-i", "!(i>1)",
+				"1+2*3", "'x'+i", "list.get(1)", "list.size()", "s.length()",
+				"s.substring(1,2)", "arr[1]", "a['x']*10",
+				"a.get('txt')+(a.get('x')-a.get('y'))", "max(i, 3)", "trim('  q ')",
+				"i == 5 && d > 2", "i != 5 || s == 'abc'", "~i", "i<<2", "i % 3",
+				"1.5f*i", "(i+1)*(i-1)", "p.name + p.age", "p.say('hi', i)",
+				// 编译的时候能确定类型的运算
+				"(i > 1 ? 2 : 3) * 4", "(i > 1 ? 2.5 : 1.5) / 2", "(i > 1 ? 2L : 3L) - 1",
+				"(i > 1 ? 1 : 2) < 1.5", "-(i > 1 ? 2.0f : 1f)", "~(i > 1 ? 2 : 3)",
+				"(i > 1 ? 7 : 8) % 3 == 1", "(i > 1) != (d > 3)", "!(i > 1) || d < 3",
+				"(i > 1 ? 6 : 2) >> 1", "(i > 1 ? 5L : 3L) == 5L",
+				// 类型不确定的一边按另外一边的类型计算
+				"i * 2L", "2.5 * i", "d * 2", "i + d", "d >= i", "i - 'x'.length()",
+				"p.age * 10 + i", "arr[0] + i"};
+		// 同一个执行树,先后遇到不同类型的对象
+		Pet[] pets = {new Pet("Tom", 3), new Dog("Max", 4), new Pet("Kitty", 5)};
+		for (Pet pet : pets) {
+			context.set("p", pet);
+			for (String exp : exps) {
+				Object expect = new El(exp).eval(context);
+				Object re = new El(exp).optimize().eval(context);
+				assertEquals(exp, expect, re);
+				assertEquals(exp, expect.getClass(), re.getClass());
+			}
+		}
+		assertEquals("dog Max", new El("p.name").optimize().eval(context.set("p", pets[1])));
+		assertEquals("Max:hi5", new El("p.say('hi', i)").optimize().eval(context));
+
+		// 不认识的对象,仍然报错
+		try {
+			new El("a.a").optimize().eval(Lang.context());
+			fail();
+		}
+		catch (Exception e) {}
+		try {
+			new El("i / 0").optimize().eval(context);
+			fail();
+		}
+		catch (ArithmeticException e) {}
+		try {
+			new El("i > 1 && i").optimize().eval(context);
+			fail();
+		}
+		catch (ElException e) {}
+	}
+
+	/**
+	 * 同一个节点先后遇到不同类型的对象,不再缓存以后结果仍然正确
+	 */
+	@Test
+	public void optimizeMegamorphic() {
+		El name = new El("p.name").optimize();
+		El say = new El("p.say('hi', i)").optimize();
+		Context context = Lang.context();
+		context.set("i", 1);
+		Pet[] pets = {new Pet("Tom", 3), new Dog("Max", 4), new Pet("Kitty", 5), new Dog("Rex", 6)};
+		String[] names = {"Tom", "dog Max", "Kitty", "dog Rex"};
+		for (int i = 0; i < pets.length; i++) {
+			context.set("p", pets[i]);
+			assertEquals(names[i], name.eval(context));
+			assertEquals(pets[i].name + ":hi1", say.eval(context));
+		}
+		context.set("p", Lang.map("{name:'Map'}"));
+		assertEquals("Map", name.eval(context));
+	}
+
+	/**
+	 * 执行树被生成为字节码
+	 */
+	@Test
+	public void bytecode() {
+		assertTrue(compile("a.b * 2 + c") instanceof CompiledNode);
+		assertTrue(compile("x > 1 ? 2 : 3") instanceof CompiledNode);
+		// 常量不用生成
+		assertFalse(compile("1 + 2 * 3") instanceof CompiledNode);
+		// 生成的字节码都能通过校验,不会退回到执行树
+		String[] exps = {"(i > 1 ? 2 : 3) * 4", "(i > 1 ? 2.5 : 1.5) / 2", "(i > 1 ? 2L : 3L) - 1",
+				"(i > 1 ? 1 : 2) < 1.5", "-(i > 1 ? 2.0f : 1f)", "~(i > 1 ? 2 : 3)",
+				"(i > 1 ? 5L : 3L) == 5L", "!(i > 1) || d < 3", "i * 2L", "2.5 * i", "1.5f * i",
+				"i << 2", "s.substring(1, 2)", "arr[1]", "max(i, 3)", "a.b.c"};
+		for (String exp : exps)
+			assertTrue(exp, compile(exp) instanceof CompiledNode);
+
+		Context context = Lang.context();
+		context.set("a", Lang.map("{b:3}"));
+		context.set("c", 1);
+		ElNode node = compile("a.b * 2 + c");
+		assertEquals(7, node.eval(context));
+		context.set("c", 1.5);
+		assertEquals(7.5, node.eval(context));
+		context.set("c", "!");
+		assertEquals("6!", node.eval(context));
+		// 没有 context
+		assertEquals(Boolean.TRUE, compile("x == null").eval(null));
+	}
+
+	private static ElNode compile(String exp) {
+		return ElCompiler.compile(new RPN(new ShuntingYard().parseToRPN(exp)).fetchRoot());
+	}
+
+	@Test
+	public void optimizeCache() {
+		El.setOptimize(true);
+		try {
+			Context vars = Lang.context();
+			vars.set("i", 3);
+			assertEquals(7, El.eval(vars, "i * 2 + 1"));
+			assertEquals(7, El.eval(vars, "i * (1 + 1) + 1"));
+		}
+		finally {
+			El.setOptimize(false);
+		}
+		assertFalse(El.isOptimize());
+	}
 }
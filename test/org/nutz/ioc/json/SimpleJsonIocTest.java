@@ -6,18 +6,25 @@ import static org.nutz.ioc.json.Utils.I;
 import static org.nutz.ioc.json.Utils.J;
 
 import java.io.File;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 import org.nutz.ioc.Ioc;
 import org.nutz.ioc.IocException;
 import org.nutz.ioc.IocLoader;
+import org.nutz.ioc.IocLoading;
 import org.nutz.ioc.ObjectLoadException;
 import org.nutz.ioc.impl.NutIoc;
 import org.nutz.ioc.json.pojo.Animal;
 import org.nutz.ioc.json.pojo.AnimalRace;
 import org.nutz.ioc.json.pojo.IocSelf;
+import org.nutz.ioc.json.pojo.PreloadRace;
 import org.nutz.ioc.loader.json.JsonLoader;
+import org.nutz.ioc.loader.map.MapLoader;
+import org.nutz.ioc.meta.IocObject;
 import org.nutz.lang.Streams;
 
 public class SimpleJsonIocTest {
@@ -50,6 +57,144 @@ public class SimpleJsonIocTest {
 		assertFalse(f3 == f4);
 	}
 
+	@Test
+	public void test_prototype_load_once() {
+		final IocLoader loader = new MapLoader("{"
+												+ J("fox",
+													"type:'org.nutz.ioc.json.pojo.Animal',singleton:false,fields:{name:'Fox'}")
+												+ "}");
+		final AtomicInteger count = new AtomicInteger();
+		Ioc ioc = new NutIoc(new IocLoader() {
+			public String[] getName() {
+				return loader.getName();
+			}
+
+			public IocObject load(IocLoading loading, String name) throws ObjectLoadException {
+				count.incrementAndGet();
+				return loader.load(loading, name);
+			}
+
+			public boolean has(String name) {
+				return loader.has(name);
+			}
+		});
+		Animal f = ioc.get(Animal.class, "fox");
+		Animal f2 = ioc.get(Animal.class, "fox");
+		assertFalse(f == f2);
+		assertEquals("Fox", f2.getName());
+		assertEquals(1, count.get());
+
+		// reset 以后重新读取定义
+		ioc.reset();
+		ioc.get(Animal.class, "fox");
+		assertEquals(2, count.get());
+	}
+
+	@Test
+	public void test_concurrent_get() throws Exception {
+		final Ioc ioc = I(	J("fox", "type:'org.nutz.ioc.json.pojo.Animal',fields:{name:'Fox'}"),
+							J("rabit",
+								"type:'org.nutz.ioc.json.pojo.Animal',singleton:false,"
+										+ "fields:{name:'Rabit',enemies:[{refer:'fox'}]}"));
+		final Animal[] foxes = new Animal[8];
+		final Throwable[] errors = new Throwable[8];
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread() {
+				public void run() {
+					try {
+						for (int j = 0; j < 200; j++) {
+							Animal r = ioc.get(Animal.class, "rabit");
+							assertEquals("Rabit", r.getName());
+							foxes[index] = r.getEnemies()[0];
+						}
+					}
+					catch (Throwable e) {
+						errors[index] = e;
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread t : threads)
+			t.join();
+		Animal fox = ioc.get(Animal.class, "fox");
+		for (int i = 0; i < threads.length; i++) {
+			assertNull(errors[i]);
+			assertTrue(fox == foxes[i]);
+		}
+	}
+
+	@Test
+	public void test_preload() {
+		String t = "type:'org.nutz.ioc.json.pojo.Animal',";
+		NutIoc ioc = (NutIoc) I(J("fox", t + "fields:{name:'Fox'}"),
+								J("rabit", t + "fields:{name:'Rabit',enemies:[{refer:'fox'},{java:'$wolf'}]}"),
+								J("wolf", t + "fields:{name:'Wolf'}"),
+								J("cat", t + "singleton:false,fields:{name:'Cat',enemies:[{refer:'fox'}]}"),
+								J("a", t + "fields:{name:'A',enemies:[{refer:'b'}]}"),
+								J("b", t + "fields:{name:'B',enemies:[{refer:'a'}]}"));
+		Map<String, Long> times = ioc.preload(4);
+		assertEquals(5, times.size());
+		assertFalse(times.containsKey("cat"));
+		assertTrue(times.containsKey("a"));
+
+		// 被依赖的对象先创建
+		String[] names = times.keySet().toArray(new String[5]);
+		int fox = -1, rabit = -1;
+		for (int i = 0; i < names.length; i++)
+			if ("fox".equals(names[i]))
+				fox = i;
+			else if ("rabit".equals(names[i]))
+				rabit = i;
+		assertTrue(fox < rabit);
+
+		Animal r = ioc.get(Animal.class, "rabit");
+		assertTrue(ioc.get(Animal.class, "fox") == r.getEnemies()[0]);
+		assertTrue(ioc.get(Animal.class, "wolf") == r.getEnemies()[1]);
+		Animal a = ioc.get(Animal.class, "a");
+		assertTrue(a == ioc.get(Animal.class, "b").getEnemies()[0]);
+	}
+
+	@Test
+	public void test_preload_get_making() {
+		String t = "type:'org.nutz.ioc.json.pojo.Animal',";
+		String e = "events:{create:'org.nutz.ioc.json.pojo.PreloadRace$";
+		String json = "{"
+						+ J("slow", t + "fields:{name:'Slow'}," + e + "Slow'}")
+						+ ","
+						+ J("watcher", t + "fields:{name:'Watcher'}," + e + "Watcher'}")
+						+ "}";
+		NutIoc ioc = new NutIoc(new MapLoader(json), new PreloadRace.Context(), "app");
+		PreloadRace.ioc = ioc;
+		PreloadRace.born = new CountDownLatch(1);
+		PreloadRace.asked = new CountDownLatch(1);
+		PreloadRace.created = null;
+		ioc.preload(2);
+
+		// watcher 的 create 事件要等 slow 创建完毕，才能拿到它
+		assertTrue(PreloadRace.created);
+		assertEquals("$Slow", ioc.get(Animal.class, "slow").getName());
+	}
+
+	@Test(timeout = 10000)
+	public void test_preload_get_each_other() {
+		String t = "type:'org.nutz.ioc.json.pojo.Animal',";
+		String e = "events:{create:'org.nutz.ioc.json.pojo.PreloadRace$Cycle'}";
+		NutIoc ioc = (NutIoc) I(J("x", t + "fields:{name:'X'}," + e),
+								J("y", t + "fields:{name:'Y'}," + e));
+		PreloadRace.ioc = ioc;
+		PreloadRace.born = new CountDownLatch(2);
+		ioc.preload(2);
+
+		// 两个工作线程互相等待的话会死锁，其中一个要拿走还没有创建完毕的对象
+		Animal x = ioc.get(Animal.class, "x");
+		Animal y = ioc.get(Animal.class, "y");
+		assertSame(y, x.getEnemies()[0]);
+		assertSame(x, y.getEnemies()[0]);
+	}
+
 	@Test
 	public void test_refer() {
 		Ioc ioc = I(J("fox", "type:'org.nutz.ioc.json.pojo.Animal',fields:{name:'Fox'}"),
@@ -164,6 +309,23 @@ public class SimpleJsonIocTest {
 		assertEquals("XiaoBai", xb.getName());
 	}
 
+	@Test
+	public void test_prototype_constant_values() {
+		Ioc ioc = I(J("fox",
+						"type:'org.nutz.ioc.json.pojo.Animal',singleton:false,args:['Fox'],"
+								+ "fields:{age:'10',attact:3,race:'MAMMAL',birthday:'2010-01-01 10:00:00'}"));
+		Animal f = ioc.get(Animal.class, "fox");
+		Animal f2 = ioc.get(Animal.class, "fox");
+		assertFalse(f == f2);
+		assertEquals("Fox", f2.getName());
+		assertEquals(10, f2.getAge());
+		assertEquals(3.0f, f2.getAttact(), 0.001f);
+		assertEquals(AnimalRace.MAMMAL, f2.getRace());
+		// 可变的值不能被共享
+		assertEquals(f.getBirthday(), f2.getBirthday());
+		assertFalse(f.getBirthday() == f2.getBirthday());
+	}
+
 	@Test(expected = IocException.class)
 	public void test_break_parent() {
 		Ioc ioc = I(J("f2", "parent:'f3'"), J("f3", "parent:'f2'"));
@@ -0,0 +1,90 @@
+package org.nutz.ioc.json.pojo;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.nutz.ioc.Ioc;
+import org.nutz.ioc.IocEventTrigger;
+import org.nutz.ioc.ObjectProxy;
+import org.nutz.ioc.impl.ScopeContext;
+import org.nutz.lang.Lang;
+
+/**
+ * 被 preload() 同时创建的对象，在 create 事件里获取另外一个还没有创建完毕的对象
+ */
+public class PreloadRace {
+
+	public static Ioc ioc;
+
+	public static CountDownLatch born;
+
+	public static CountDownLatch asked;
+
+	/**
+	 * 获取到的 slow 对象，在获取的时候 create 事件是否已经执行完毕
+	 */
+	public static volatile Boolean created;
+
+	private static volatile Thread watcher;
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e) {
+			throw Lang.wrapThrow(e);
+		}
+	}
+
+	/**
+	 * watcher 的线程带着容器的锁读取 slow 的时候，说明它已经走到了等待 slow 创建完毕的地方
+	 */
+	public static class Context extends ScopeContext {
+
+		public Context() {
+			super("app");
+		}
+
+		public ObjectProxy fetch(String name) {
+			if ("slow".equals(name) && Thread.currentThread() == watcher && Thread.holdsLock(ioc))
+				asked.countDown();
+			return super.fetch(name);
+		}
+
+	}
+
+	public static class Slow implements IocEventTrigger<Animal> {
+
+		public void trigger(Animal obj) {
+			born.countDown();
+			await(asked);
+			obj.setName("$" + obj.getName());
+		}
+
+	}
+
+	public static class Watcher implements IocEventTrigger<Animal> {
+
+		public void trigger(Animal obj) {
+			await(born);
+			watcher = Thread.currentThread();
+			created = ioc.get(Animal.class, "slow").getName().startsWith("$");
+		}
+
+	}
+
+	/**
+	 * 两个对象在 create 事件里互相获取，preload() 分析不出这样的依赖
+	 */
+	public static class Cycle implements IocEventTrigger<Animal> {
+
+		public void trigger(Animal obj) {
+			born.countDown();
+			await(born);
+			String other = "X".equals(obj.getName()) ? "y" : "x";
+			obj.setEnemies(new Animal[]{ioc.get(Animal.class, other)});
+		}
+
+	}
+
+}
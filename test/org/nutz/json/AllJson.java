@@ -9,5 +9,6 @@ import org.junit.runners.Suite;
 						JsonRecursiveTest.class,
 						CustomizedJsonTest.class,
 						JsonCharsetTest.class,
-						JsonEntityTest.class})
+						JsonEntityTest.class,
+						JsonReaderTest.class})
 public class AllJson {}
@@ -3,6 +3,7 @@ package org.nutz.json;
 import static org.junit.Assert.*;
 
 import org.junit.Test;
+import org.nutz.lang.Lang;
 import org.nutz.json.meta.JENObj;
 
 public class JsonEntityTest {
@@ -25,4 +26,31 @@ public class JsonEntityTest {
 		assertEquals(10, obj.getAge());
 	}
 
+	@Test
+	public void test_fast_access_and_to_json() {
+		JENObj obj = new JENObj();
+		obj.setObjId(1);
+		obj.setName("abc");
+		obj.setAge(10);
+		assertEquals("{\"id\":1,\"name\":\"abc\",\"age\":10}", Json.toJson(obj, JsonFormat.compact()));
+
+		JENField f = new JENField();
+		f.y = "b";
+		assertEquals("{\"x\":3,\"y\":\"b\"}", Json.toJson(f, JsonFormat.compact()));
+
+		assertEquals("[compact, compact]",
+						Json.toJson(Lang.array(new JENToJson(), new JENToJson()), JsonFormat.compact()));
+	}
+
+	public static class JENField {
+		public int x = 3;
+		public String y;
+	}
+
+	public static class JENToJson {
+		public String toJson(JsonFormat fmt) {
+			return fmt.isCompact() ? "compact" : "nice";
+		}
+	}
+
 }
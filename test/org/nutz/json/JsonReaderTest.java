@@ -0,0 +1,77 @@
+package org.nutz.json;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.nutz.lang.Lang;
+import org.nutz.lang.util.NutType;
+
+public class JsonReaderTest {
+
+	@Test
+	public void test_pull_tokens() throws Exception {
+		JsonReader jr = new JsonReader(Lang.inr("var ioc = /*x*/ {a:1, 'b' : [true,null,'x\\u0041'], c:{}}"));
+		assertTrue(jr.begin());
+		jr.beginObject();
+		assertTrue(jr.hasNext());
+		assertEquals("a", jr.nextName());
+		assertEquals(1, jr.nextValue());
+		assertTrue(jr.hasNext());
+		assertEquals("b", jr.nextName());
+		assertEquals('[', jr.peek());
+		jr.beginArray();
+		List<Object> list = new ArrayList<Object>();
+		while (jr.hasNext())
+			list.add(jr.nextValue());
+		jr.endArray();
+		assertEquals(Lang.list(true, null, "xA"), list);
+		assertTrue(jr.hasNext());
+		assertEquals("c", jr.nextName());
+		jr.skipValue();
+		assertFalse(jr.hasNext());
+		jr.endObject();
+		assertEquals(JsonReader.END, jr.peek());
+	}
+
+	@Test
+	public void test_missing_comma() {
+		try {
+			Json.fromJson("[1 2]");
+			fail();
+		}
+		catch (JsonException e) {}
+	}
+
+	@Test
+	public void test_bind_directly() {
+		String str = "{name:'abc', unknown:{x:[1,2,{y:3}]}, tags:['a','b','a'], any:{k:[1,2]}, nums:[1,2,3]}";
+		JRObj obj = Json.fromJson(JRObj.class, str);
+		assertEquals("abc", obj.name);
+		assertEquals(2, obj.tags.size());
+		assertTrue(obj.tags.contains("b"));
+		assertEquals(Lang.list(1, 2), ((Map<?, ?>) obj.any).get("k"));
+		assertArrayEquals(new long[]{1, 2, 3}, obj.nums);
+	}
+
+	@Test
+	public void test_nested_generic() {
+		Object obj = Json.fromJson(	NutType.map(String.class, NutType.list(Long.class)),
+									"{a:[1,2],b:[]}");
+		Map<?, ?> map = (Map<?, ?>) obj;
+		assertEquals(Lang.list(1L, 2L), map.get("a"));
+		assertEquals(0, ((List<?>) map.get("b")).size());
+	}
+
+	public static class JRObj {
+		public String name;
+		public Set<String> tags;
+		public Object any;
+		public long[] nums;
+	}
+
+}
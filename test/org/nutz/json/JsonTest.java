@@ -20,9 +20,13 @@ import org.nutz.ioc.meta.IocValue;
 import org.nutz.json.meta.JA;
 import org.nutz.json.meta.JB;
 import org.nutz.json.meta.JC;
+import org.nutz.json.meta.JENObj;
 import org.nutz.json.meta.JMapItem;
 import org.nutz.json.meta.OuterClass;
+import org.nutz.lang.Each;
+import org.nutz.lang.ExitLoop;
 import org.nutz.lang.Lang;
+import org.nutz.lang.LoopException;
 import org.nutz.lang.Streams;
 import org.nutz.lang.stream.StringInputStream;
 import org.nutz.lang.stream.StringOutputStream;
@@ -659,5 +663,106 @@ public class JsonTest {
 		assertEquals("nutz", list.get(0).name);
 		assertEquals("wendal", list.get(1).name);
 	}
+
+	@Test
+	public void test_to_utf8_stream() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 2000; i++)
+			sb.append("a\"\n\u4e2d\u6587\ud83d\ude00\u00e9");
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+		map.put("s", sb.toString());
+		map.put("a-b", Lang.array(1, 2));
+
+		java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+		Json.toJson(out, map, JsonFormat.compact());
+		assertEquals(Json.toJson(map, JsonFormat.compact()), new String(out.toByteArray(), "UTF-8"));
+		assertEquals(sb.toString(), ((Map<?, ?>) Json.fromJson(out.toString("UTF-8"))).get("s"));
+	}
+
+	@Test
+	public void test_auto_unicode_and_equal_objects() {
+		JsonFormat fmt = JsonFormat.compact().setAutoUnicode(true);
+		assertEquals("\"\\u0100\\u4E2D\"", Json.toJson("\u0100\u4e2d", fmt));
+
+		// 相等但不是同一个的对象不是循环引用
+		List<Object> list = new ArrayList<Object>();
+		list.add(new ArrayList<Object>());
+		list.add(new ArrayList<Object>());
+		assertEquals("[[], []]", Json.toJson(list, JsonFormat.compact()));
+
+		// 循环引用输出为 null
+		list.add(list);
+		assertEquals("[[], [], null]", Json.toJson(list, JsonFormat.compact()));
+	}
+
+	@Test
+	public void test_each_array() {
+		String s = "[{id:1,name:'a'}, {id:2,name:'b',age:3},\n{id:3,name:'c'},]";
+		final List<JENObj> list = new ArrayList<JENObj>();
+		int n = Json.each(Lang.inr(s), JENObj.class, new Each<JENObj>() {
+			public void invoke(int i, JENObj obj, int length) throws ExitLoop, LoopException {
+				assertEquals(-1, length);
+				assertEquals(i + 1, obj.getObjId());
+				list.add(obj);
+			}
+		});
+		assertEquals(3, n);
+		assertEquals("b", list.get(1).getName());
+		assertEquals(3, list.get(1).getAge());
+
+		// 中途退出，后面的内容即使不合法也不会被读到
+		n = Json.each(Lang.inr("[{id:1},{id:2},{id:!!"), JENObj.class, new Each<JENObj>() {
+			public void invoke(int i, JENObj obj, int length) throws ExitLoop, LoopException {
+				if (i == 1)
+					Lang.Break();
+			}
+		});
+		assertEquals(2, n);
+
+		// 不是数组，当作一个元素
+		list.clear();
+		n = Json.each(Lang.inr("{id:9}"), JENObj.class, new Each<JENObj>() {
+			public void invoke(int i, JENObj obj, int length) throws ExitLoop, LoopException {
+				list.add(obj);
+			}
+		});
+		assertEquals(1, n);
+		assertEquals(9, list.get(0).getObjId());
+		assertEquals(0, Json.each(Lang.inr("  "), JENObj.class, null));
+	}
+
+	@Test
+	public void test_array_writer() throws Exception {
+		List<Object> list = new ArrayList<Object>();
+		list.add("a\u4e2d");
+		list.add(Lang.map("{x:1}"));
+		list.add(null);
+		list.add(Lang.array(1, 2));
+
+		StringBuilder sb = new StringBuilder();
+		JsonArrayWriter jaw = new JsonArrayWriter(Lang.opw(sb), JsonFormat.compact());
+		jaw.writeAll(list.iterator()).end();
+		assertEquals(Json.toJson(list, JsonFormat.compact()), sb.toString());
+		assertEquals(4, jaw.getCount());
+
+		java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+		jaw = new JsonArrayWriter(out, JsonFormat.compact());
+		Lang.each(list, jaw.each());
+		jaw.end();
+		assertEquals(sb.toString(), new String(out.toByteArray(), "UTF-8"));
+
+		sb.setLength(0);
+		new JsonArrayWriter(Lang.opw(sb), JsonFormat.compact()).end();
+		assertEquals("[]", sb.toString());
+
+		// 读进来再写出去
+		sb.setLength(0);
+		final JsonArrayWriter w = new JsonArrayWriter(Lang.opw(sb), JsonFormat.compact());
+		Json.each(Lang.inr("[{id:1,name:'a'},{id:2,name:'b'}]"), JENObj.class, w.<JENObj> each());
+		w.end();
+		List<Map<String, Object>> re = (List<Map<String, Object>>) Json.fromJson(sb);
+		assertEquals(2, re.size());
+		assertEquals("b", re.get(1).get("name"));
+	}
 }
 
@@ -5,6 +5,7 @@ import org.junit.runners.Suite;
 import org.nutz.castor.CastorTest;
 import org.nutz.lang.meta.AllMeta;
 import org.nutz.lang.random.AllRandom;
+import org.nutz.lang.reflect.FastClassTest;
 import org.nutz.lang.segment.CharSegmentTest;
 import org.nutz.lang.segment.SegmentsTest;
 import org.nutz.lang.stream.StringOutputStreamTest;
@@ -23,5 +24,6 @@ import org.nutz.lang.util.AllUtil;
 						NumsTest.class,
 						StringsTest.class,
 						StringOutputStreamTest.class,
-						AllMeta.class})
+						AllMeta.class,
+						FastClassTest.class})
 public class AllLang {}
@@ -507,6 +507,41 @@ public class MirrorTest {
 		assertEquals(DB.H2, tb.db);
 	}
 
+	@Test
+	public void test_cached_mirror() throws Exception {
+		Mirror<PClass> mirror = Mirror.me(PClass.class);
+		assertTrue(mirror == Mirror.me(PClass.class));
+		assertTrue(mirror == Mirror.me(new PClass()));
+
+		assertTrue(mirror.getField("longField") == mirror.getField("longField"));
+		assertTrue(mirror.getInjecting("longField") == mirror.getInjecting("longField"));
+		assertTrue(mirror.getEjecting("longField") == mirror.getEjecting("longField"));
+		assertTrue(mirror.getFields() != mirror.getFields());
+		assertEquals(mirror.getFields().length, mirror.getFields().length);
+
+		// 找不到的结果也被缓存，每次都抛出同样的异常
+		for (int i = 0; i < 2; i++)
+			try {
+				mirror.getGetter("longField");
+				fail();
+			}
+			catch (NoSuchMethodException e) {
+				assertTrue(e.getMessage().contains("longField"));
+			}
+
+		// 自定义类型提炼逻辑不会修改共享的 Mirror
+		TypeExtractor te = new TypeExtractor() {
+			public Class<?>[] extract(Mirror<?> mirror) {
+				return new Class<?>[]{String.class};
+			}
+		};
+		Mirror<PClass> m2 = Mirror.me(PClass.class, te);
+		assertTrue(mirror != m2);
+		assertEquals(String.class, m2.extractTypes()[0]);
+		assertEquals(PClass.class, mirror.extractTypes()[0]);
+		assertTrue(mirror.getField("longField") == m2.getField("longField"));
+	}
+
 	@Test
 	public void test_packageClass() {
 		PClass p = new PClass();
@@ -0,0 +1,106 @@
+package org.nutz.lang.reflect;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+public class FastClassTest {
+
+	public static class Pet {
+		public int age;
+		public final String kind = "cat";
+		public static String zoo;
+		private long weight;
+
+		public long getWeight() {
+			return weight;
+		}
+
+		public void setWeight(long weight) {
+			this.weight = weight;
+		}
+
+		public static int twice(int n) {
+			return n * 2;
+		}
+
+		public void fail() throws Exception {
+			throw new Exception("fail");
+		}
+	}
+
+	static class Hidden {}
+
+	@Test
+	public void test_born_and_invoke() throws Exception {
+		FastClass fc = FastClasses.get(ObjA.class);
+		assertNotNull(fc);
+		assertTrue(fc == FastClasses.get(ObjA.class));
+
+		Constructor<ObjA> c = ObjA.class.getConstructor(String.class);
+		ObjA a = (ObjA) fc.born(fc.indexOf(c), "abc");
+		assertEquals("abc", a.getName());
+
+		Method setter = ObjA.class.getMethod("setName", String.class);
+		Method getter = ObjA.class.getMethod("getName");
+		assertNull(fc.invoke(a, fc.indexOf(setter), "xyz"));
+		assertEquals("xyz", fc.invoke(a, fc.indexOf(getter)));
+	}
+
+	@Test
+	public void test_primitive_and_static() throws Exception {
+		FastClass fc = FastClasses.get(Pet.class);
+		Pet pet = (Pet) fc.born(fc.indexOf(Pet.class.getConstructor()));
+
+		// 原生类型的参数可以是任何 Number
+		fc.invoke(pet, fc.indexOf(Pet.class.getMethod("setWeight", long.class)), 12);
+		assertEquals(12L, pet.getWeight());
+		assertEquals(12L, fc.invoke(pet, fc.indexOf(Pet.class.getMethod("getWeight"))));
+		assertEquals(6, fc.invoke(null, fc.indexOf(Pet.class.getMethod("twice", int.class)), 3));
+
+		Field age = Pet.class.getField("age");
+		fc.setField(pet, fc.indexOf(age), 3);
+		assertEquals(3, pet.age);
+		assertEquals(3, fc.getField(pet, fc.indexOf(age)));
+
+		Field zoo = Pet.class.getField("zoo");
+		fc.setField(null, fc.indexOf(zoo), "A");
+		assertEquals("A", Pet.zoo);
+		assertEquals("cat", fc.getField(pet, fc.indexOf(Pet.class.getField("kind"))));
+	}
+
+	@Test
+	public void test_exception_and_bad_index() throws Exception {
+		FastClass fc = FastClasses.get(Pet.class);
+		Pet pet = new Pet();
+		try {
+			fc.invoke(pet, fc.indexOf(Pet.class.getMethod("fail")));
+			fail();
+		}
+		catch (Exception e) {
+			assertEquals("fail", e.getMessage());
+		}
+		try {
+			fc.setField(pet, fc.indexOf(Pet.class.getField("kind")), "dog");
+			fail();
+		}
+		catch (RuntimeException e) {}
+		try {
+			fc.invoke(pet, 9999);
+			fail();
+		}
+		catch (RuntimeException e) {}
+		assertEquals(-1, fc.indexOf(Pet.class.getDeclaredField("weight")));
+	}
+
+	@Test
+	public void test_not_public_class() {
+		assertNull(FastClasses.get(Hidden.class));
+		assertNull(FastClasses.get(int.class));
+	}
+
+}
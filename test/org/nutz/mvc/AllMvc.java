@@ -5,7 +5,10 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.nutz.mvc.adaptor.JsonAdaptorTest;
 import org.nutz.mvc.adaptor.injector.AllInjector;
+import org.nutz.mvc.impl.AsyncProcessorTest;
+import org.nutz.mvc.impl.CacheProcessorTest;
 import org.nutz.mvc.impl.MappingNodeTest;
+import org.nutz.mvc.impl.MethodInvokeProcessorTest;
 import org.nutz.mvc.impl.ViewProcessorTest;
 import org.nutz.mvc.init.AllInit;
 import org.nutz.mvc.testapp.AllApp;
@@ -23,6 +26,9 @@ import org.nutz.mvc.view.DefaultViewMakerTest;
 						JsonAdaptorTest.class,
 						DefaultViewMakerTest.class,
 						ViewProcessorTest.class,
+						MethodInvokeProcessorTest.class,
+						AsyncProcessorTest.class,
+						CacheProcessorTest.class,
 						AllInit.class,
 						AllInjector.class,
 						AllView.class,
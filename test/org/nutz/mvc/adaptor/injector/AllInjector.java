@@ -4,5 +4,6 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({NameInjectorTest.class, ObjectPairInjectorTest.class})
+@Suite.SuiteClasses({NameInjectorTest.class, ObjectPairInjectorTest.class,
+		ObjectNavlPairInjectorTest.class})
 public class AllInjector {}
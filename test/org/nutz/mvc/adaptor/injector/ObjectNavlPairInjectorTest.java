@@ -104,4 +104,50 @@ public class ObjectNavlPairInjectorTest {
 		assertEquals(null, pojoNull.date);
 	}
 
+	public static class Master {
+		public String name;
+		private int age;
+		public Master friend;
+
+		public int getAge() {
+			return age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+	}
+
+	public static class Pet {
+		public String name;
+		public Master master;
+	}
+
+	@Test
+	public void test_nested_object() {
+		MockHttpServletRequest req = Mock.servlet.request();
+		req.setParameter("pet.name", "wendal");
+		req.setParameter("pet.master.name", "zozoh");
+		req.setParameter("pet.master.age", "30");
+		req.setParameter("pet.master.friend.name", "juqkai");
+		req.setParameter("pet.master.nobody.name", "xxx");
+		req.setParameter("other", "xxx");
+
+		Pet pet = (Pet) new ObjectNavlPairInjector("pet.", Pet.class).get(null, req, null, null);
+		assertEquals("wendal", pet.name);
+		assertEquals("zozoh", pet.master.name);
+		assertEquals(30, pet.master.getAge());
+		assertEquals("juqkai", pet.master.friend.name);
+		assertNull(pet.master.friend.friend);
+
+		// 没有前缀的时候，参数名就是字段名，不认识的参数被忽略
+		req = Mock.servlet.request();
+		req.setParameter("name", "zozoh");
+		req.setParameter("friend.age", "12");
+		req.setParameter("other", "xxx");
+		Master m = (Master) inj(Master.class).get(null, req, null, null);
+		assertEquals("zozoh", m.name);
+		assertEquals(12, m.friend.getAge());
+	}
+
 }
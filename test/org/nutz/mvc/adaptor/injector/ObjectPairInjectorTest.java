@@ -104,4 +104,67 @@ public class ObjectPairInjectorTest {
 		assertEquals(null, pojoNull.date);
 	}
 
+	public static class Setters {
+		private long id;
+		private Integer count;
+		public String name;
+
+		public long getId() {
+			return id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public Integer getCount() {
+			return count;
+		}
+
+		public void setCount(Integer count) {
+			this.count = count;
+		}
+	}
+
+	@Test
+	public void test_setter_and_prefix() {
+		MockHttpServletRequest req = Mock.servlet.request();
+		req.setParameter("u.id", "42");
+		req.setParameter("u.count", "7");
+		req.setParameter("u.name", "abc");
+		req.setParameter("id", "1");
+
+		Setters obj = (Setters) new ObjectPairInjector("u.", Setters.class).get(null,
+																				req,
+																				null,
+																				null);
+		assertEquals(42L, obj.getId());
+		assertEquals(7, obj.getCount().intValue());
+		assertEquals("abc", obj.name);
+
+		req = Mock.servlet.request();
+		req.setParameter("count", " ");
+		obj = (Setters) inj(Setters.class).get(null, req, null, null);
+		assertEquals(0L, obj.getId());
+		assertNull(obj.getCount());
+	}
+
+	public static class Defaults {
+		public Integer count = 5;
+		public Long total = 10L;
+	}
+
+	/**
+	 * 空白参数把外覆类型的字段设成 null，覆盖字段的初始值。没有参数的字段保留初始值
+	 */
+	@Test
+	public void test_blank_param_override_default() {
+		MockHttpServletRequest req = Mock.servlet.request();
+		req.setParameter("count", " ");
+
+		Defaults obj = (Defaults) inj(Defaults.class).get(null, req, null, null);
+		assertNull(obj.count);
+		assertEquals(10L, obj.total.longValue());
+	}
+
 }
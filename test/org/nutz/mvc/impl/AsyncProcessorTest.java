@@ -0,0 +1,366 @@
+package org.nutz.mvc.impl;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+import org.nutz.ioc.Ioc;
+import org.nutz.ioc.impl.NutIoc;
+import org.nutz.ioc.loader.map.MapLoader;
+import org.nutz.mock.servlet.MockHttpServletRequest;
+import org.nutz.mock.servlet.MockHttpSession;
+import org.nutz.mock.servlet.MockServletConfig;
+import org.nutz.mock.servlet.MockServletContext;
+import org.nutz.mvc.ActionContext;
+import org.nutz.mvc.ActionInfo;
+import org.nutz.mvc.NutConfig;
+import org.nutz.mvc.annotation.Async;
+import org.nutz.mvc.config.ServletNutConfig;
+import org.nutz.mvc.impl.processor.AbstractProcessor;
+import org.nutz.mvc.impl.processor.AsyncProcessor;
+import org.nutz.mvc.impl.processor.ModuleProcessor;
+
+public class AsyncProcessorTest {
+
+	public static class MyModule {
+		public Callable<String> hello(final String name) {
+			return new Callable<String>() {
+				public String call() throws Exception {
+					return "hello " + name;
+				}
+			};
+		}
+
+		@Async(timeout = 100)
+		public Callable<String> slow() {
+			return new Callable<String>() {
+				public String call() throws Exception {
+					Thread.sleep(5000);
+					return "too late";
+				}
+			};
+		}
+	}
+
+	/**
+	 * 请求范围的模块，请求结束的时候被销毁
+	 */
+	public static class RequestModule {
+		CountDownLatch go = new CountDownLatch(1);
+
+		volatile boolean closed;
+
+		public Callable<String> hello() {
+			return new Callable<String>() {
+				public String call() throws Exception {
+					go.await(5, TimeUnit.SECONDS);
+					return closed ? "closed" : "open";
+				}
+			};
+		}
+
+		public void close() {
+			closed = true;
+		}
+	}
+
+	/**
+	 * 模拟 Servlet 3.0 的 AsyncContext
+	 */
+	public static class MockAsyncContext {
+		CountDownLatch completed = new CountDownLatch(1);
+
+		long timeout = -1;
+
+		public void setTimeout(long timeout) {
+			this.timeout = timeout;
+		}
+
+		public void complete() {
+			completed.countDown();
+		}
+	}
+
+	/**
+	 * 模拟支持异步的请求
+	 */
+	public static class AsyncRequest extends MockHttpServletRequest {
+		MockAsyncContext actx;
+
+		public boolean isAsyncSupported() {
+			return true;
+		}
+
+		public MockAsyncContext startAsync() {
+			actx = new MockAsyncContext();
+			return actx;
+		}
+	}
+
+	/**
+	 * 记录下执行它的线程和入口函数的返回值，代替 ViewProcessor
+	 */
+	static class RecordProcessor extends AbstractProcessor {
+		Object re;
+
+		Thread thread;
+
+		public void process(ActionContext ac) throws Throwable {
+			re = ac.getMethodReturn();
+			thread = Thread.currentThread();
+		}
+	}
+
+	/**
+	 * 调用模块的入口函数，代替 MethodInvokeProcessor
+	 */
+	static class InvokeProcessor extends AbstractProcessor {
+		public void process(ActionContext ac) throws Throwable {
+			ac.setMethodReturn(((RequestModule) ac.getModule()).hello());
+			doNext(ac);
+		}
+	}
+
+	private static AsyncProcessor processor(String methodName, RecordProcessor next)
+			throws Throwable {
+		return processor(null, methodName, next);
+	}
+
+	private static AsyncProcessor processor(NutConfig config,
+											String methodName,
+											RecordProcessor next) throws Throwable {
+		Method method = null;
+		for (Method m : MyModule.class.getMethods())
+			if (m.getName().equals(methodName))
+				method = m;
+		ActionInfo ai = new ActionInfo();
+		ai.setModuleType(MyModule.class);
+		ai.setMethod(method);
+		AsyncProcessor p = new AsyncProcessor();
+		p.init(config, ai);
+		p.setNext(next);
+		return p;
+	}
+
+	/**
+	 * 只有一个线程，队列里只能排一个请求
+	 */
+	private static NutConfig singleThreadConfig() {
+		MockServletContext sc = new MockServletContext();
+		MockServletConfig msc = new MockServletConfig(sc, "nutz");
+		msc.addInitParameter("async-threads", "1");
+		msc.addInitParameter("async-queue", "1");
+		return new ServletNutConfig(msc);
+	}
+
+	/**
+	 * 在 process 之前调用，把入口函数的返回值交给一个新的请求
+	 */
+	private static AsyncRequest request(ActionContext ac, Object re) {
+		AsyncRequest req = new AsyncRequest();
+		ac.setRequest(req);
+		ac.setMethodReturn(re);
+		return req;
+	}
+
+	private static Callable<String> blocking(final CountDownLatch go, final String re) {
+		return new Callable<String>() {
+			public String call() throws Exception {
+				go.await(5, TimeUnit.SECONDS);
+				return re;
+			}
+		};
+	}
+
+	@Test
+	public void test_not_async_request() throws Throwable {
+		RecordProcessor next = new RecordProcessor();
+		AsyncProcessor p = processor("hello", next);
+		ActionContext ac = new ActionContext();
+		ac.setRequest(new MockHttpServletRequest());
+		ac.setMethodReturn(new MyModule().hello("nutz"));
+		p.process(ac);
+		assertEquals("hello nutz", next.re);
+		assertEquals(Thread.currentThread(), next.thread);
+
+		// 普通的返回值直接交给后面的处理器
+		ac.setMethodReturn("abc");
+		p.process(ac);
+		assertEquals("abc", next.re);
+	}
+
+	@Test
+	public void test_async() throws Throwable {
+		RecordProcessor next = new RecordProcessor();
+		AsyncProcessor p = processor("hello", next);
+		AsyncRequest req = new AsyncRequest();
+		ActionContext ac = new ActionContext();
+		ac.setRequest(req);
+		ac.setMethodReturn(new MyModule().hello("nutz"));
+		p.process(ac);
+		assertNotNull(req.actx);
+		assertEquals(0, req.actx.timeout);
+		assertTrue(req.actx.completed.await(5, TimeUnit.SECONDS));
+		assertEquals("hello nutz", next.re);
+		assertNotSame(Thread.currentThread(), next.thread);
+	}
+
+	@Test
+	public void test_async_timeout() throws Throwable {
+		RecordProcessor next = new RecordProcessor();
+		AsyncProcessor p = processor("slow", next);
+		AsyncRequest req = new AsyncRequest();
+		ActionContext ac = new ActionContext();
+		ac.setRequest(req);
+		ac.setMethodReturn(new MyModule().slow());
+		p.process(ac);
+		assertTrue(req.actx.completed.await(2, TimeUnit.SECONDS));
+		assertNull(next.thread);
+		assertTrue(ac.getError() instanceof TimeoutException);
+	}
+
+	@Test
+	public void test_async_request_scope() throws Throwable {
+		Ioc ioc = new NutIoc(new MapLoader("{req:{type:'"
+											+ RequestModule.class.getName()
+											+ "',scope:'request',events:{depose:'close'}}}"));
+		MockServletContext sc = new MockServletContext();
+		sc.setAttribute(Ioc.class.getName(), ioc);
+		AsyncRequest req = new AsyncRequest();
+		req.setSession(new MockHttpSession(sc));
+
+		ActionInfo ai = new ActionInfo();
+		ai.setModuleType(RequestModule.class);
+		ai.setMethod(RequestModule.class.getMethod("hello"));
+		ai.setInjectName("req");
+		ModuleProcessor mp = new ModuleProcessor();
+		mp.init(null, ai);
+		InvokeProcessor ip = new InvokeProcessor();
+		mp.setNext(ip);
+		RecordProcessor next = new RecordProcessor();
+		AsyncProcessor p = new AsyncProcessor();
+		p.init(null, ai);
+		p.setNext(next);
+		ip.setNext(p);
+
+		ActionContext ac = new ActionContext();
+		ac.setRequest(req).setServletContext(sc);
+		mp.process(ac);
+		RequestModule module = (RequestModule) ac.getModule();
+
+		// 容器的线程已经返回了，但是异步执行还没有结束，请求范围的模块不能被销毁
+		assertFalse(module.closed);
+		module.go.countDown();
+		assertTrue(req.actx.completed.await(5, TimeUnit.SECONDS));
+		assertEquals("open", next.re);
+		// 输出视图以后才销毁
+		assertTrue(module.closed);
+		assertNull(ac.getRequestIocContext());
+	}
+
+	@Test
+	public void test_sync_request_scope() throws Throwable {
+		Ioc ioc = new NutIoc(new MapLoader("{req:{type:'"
+											+ RequestModule.class.getName()
+											+ "',scope:'request',events:{depose:'close'}}}"));
+		MockServletContext sc = new MockServletContext();
+		sc.setAttribute(Ioc.class.getName(), ioc);
+		MockHttpServletRequest req = new MockHttpServletRequest();
+		req.setSession(new MockHttpSession(sc));
+
+		ActionInfo ai = new ActionInfo();
+		ai.setModuleType(RequestModule.class);
+		ai.setInjectName("req");
+		ModuleProcessor mp = new ModuleProcessor();
+		mp.init(null, ai);
+		RecordProcessor next = new RecordProcessor();
+		mp.setNext(next);
+
+		ActionContext ac = new ActionContext();
+		ac.setRequest(req).setServletContext(sc);
+		mp.process(ac);
+
+		// 同步的请求，返回的时候就销毁了
+		assertTrue(((RequestModule) ac.getModule()).closed);
+		assertNull(ac.getRequestIocContext());
+	}
+
+	@Test
+	public void test_async_future() throws Throwable {
+		RecordProcessor next = new RecordProcessor();
+		AsyncProcessor p = processor("hello", next);
+		FutureTask<String> future = new FutureTask<String>(new MyModule().hello("future"));
+		ActionContext ac = new ActionContext();
+		AsyncRequest req = request(ac, future);
+		p.process(ac);
+		assertFalse(req.actx.completed.await(50, TimeUnit.MILLISECONDS));
+		future.run();
+		assertTrue(req.actx.completed.await(5, TimeUnit.SECONDS));
+		assertEquals("hello future", next.re);
+	}
+
+	@Test
+	public void test_async_future_timeout() throws Throwable {
+		RecordProcessor next = new RecordProcessor();
+		AsyncProcessor p = processor("slow", next);
+		FutureTask<String> future = new FutureTask<String>(new MyModule().hello("future"));
+		ActionContext ac = new ActionContext();
+		AsyncRequest req = request(ac, future);
+		p.process(ac);
+		assertTrue(req.actx.completed.await(2, TimeUnit.SECONDS));
+		assertNull(next.thread);
+		assertTrue(ac.getError() instanceof TimeoutException);
+		assertTrue(future.isCancelled());
+	}
+
+	/**
+	 * 等待 Future 不占用线程，队列满了以后的请求直接失败
+	 */
+	@Test
+	public void test_async_pool_limit() throws Throwable {
+		NutConfig config = singleThreadConfig();
+		try {
+			CountDownLatch go = new CountDownLatch(1);
+			FutureTask<String> future = new FutureTask<String>(new MyModule().hello("future"));
+			RecordProcessor[] nexts = new RecordProcessor[4];
+			ActionContext[] acs = new ActionContext[4];
+			AsyncRequest[] reqs = new AsyncRequest[4];
+			Object[] res = new Object[]{future,
+										blocking(go, "b"),
+										blocking(go, "c"),
+										blocking(go, "d")};
+			for (int i = 0; i < 4; i++) {
+				nexts[i] = new RecordProcessor();
+				acs[i] = new ActionContext();
+				reqs[i] = request(acs[i], res[i]);
+				processor(config, "hello", nexts[i]).process(acs[i]);
+			}
+			// 唯一的线程被 b 占着，c 在排队，d 没有位置了
+			assertTrue(reqs[3].actx.completed.await(1, TimeUnit.SECONDS));
+			assertNull(nexts[3].thread);
+			assertTrue(acs[3].getError() instanceof RejectedExecutionException);
+
+			go.countDown();
+			assertTrue(reqs[1].actx.completed.await(5, TimeUnit.SECONDS));
+			assertTrue(reqs[2].actx.completed.await(5, TimeUnit.SECONDS));
+			assertEquals("b", nexts[1].re);
+			assertEquals("c", nexts[2].re);
+
+			assertFalse(reqs[0].actx.completed.await(50, TimeUnit.MILLISECONDS));
+			future.run();
+			assertTrue(reqs[0].actx.completed.await(5, TimeUnit.SECONDS));
+			assertEquals("hello future", nexts[0].re);
+		}
+		finally {
+			AsyncProcessor.depose(config);
+		}
+	}
+
+}
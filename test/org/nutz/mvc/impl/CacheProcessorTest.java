@@ -0,0 +1,128 @@
+package org.nutz.mvc.impl;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.nutz.mock.servlet.MockHttpServletRequest;
+import org.nutz.mock.servlet.MockHttpServletResponse;
+import org.nutz.mvc.ActionContext;
+import org.nutz.mvc.ActionInfo;
+import org.nutz.mvc.annotation.Cache;
+import org.nutz.mvc.impl.processor.AbstractProcessor;
+import org.nutz.mvc.impl.processor.CacheProcessor;
+
+public class CacheProcessorTest {
+
+	public static class MyModule {
+		@Cache(params = "id", group = "cache.test")
+		public void hello() {}
+	}
+
+	/**
+	 * 代替后面的处理器，输出 "hello ${id}"，并记录被调用的次数
+	 */
+	static class HelloProcessor extends AbstractProcessor {
+		int count;
+
+		public void process(ActionContext ac) throws Throwable {
+			count++;
+			ac.getResponse().setHeader("X-Count", String.valueOf(count));
+			ac.getResponse().setContentType("text/plain");
+			ac.getResponse()
+				.getWriter()
+				.write("hello " + ac.getRequest().getParameter("id"));
+		}
+	}
+
+	private CacheProcessor processor;
+
+	private HelloProcessor next;
+
+	private MockHttpServletResponse request(String method, String id, String other, String etag)
+			throws Throwable {
+		MockHttpServletRequest req = new MockHttpServletRequest();
+		req.setMethod(method);
+		req.setParameter("id", id);
+		req.setParameter("other", other);
+		if (null != etag)
+			req.setHeader("If-None-Match", etag);
+		MockHttpServletResponse resp = new MockHttpServletResponse();
+		ActionContext ac = new ActionContext();
+		ac.setRequest(req).setResponse(resp).setPath("/hello");
+		processor.process(ac);
+		return resp;
+	}
+
+	@Test
+	public void test_cache() throws Throwable {
+		ActionInfo ai = new ActionInfo();
+		ai.setModuleType(MyModule.class);
+		ai.setMethod(MyModule.class.getMethod("hello"));
+		assertTrue(CacheProcessor.isCached(ai));
+		processor = new CacheProcessor();
+		processor.init(null, ai);
+		next = new HelloProcessor();
+		processor.setNext(next);
+
+		MockHttpServletResponse resp = request("GET", "1", "a", null);
+		assertEquals("hello 1", resp.getAsString());
+		assertEquals("1", resp.getHeader("X-Count"));
+		assertEquals("text/plain", resp.getContentType());
+		assertEquals("7", resp.getHeader("Content-Length"));
+		String etag = resp.getHeader("ETag");
+		assertNotNull(etag);
+
+		// 没有声明的参数不影响缓存
+		resp = request("GET", "1", "b", null);
+		assertEquals("hello 1", resp.getAsString());
+		assertEquals("1", resp.getHeader("X-Count"));
+		assertEquals("text/plain", resp.getContentType());
+		assertEquals(etag, resp.getHeader("ETag"));
+		assertEquals(1, next.count);
+
+		resp = request("GET", "2", "a", null);
+		assertEquals("hello 2", resp.getAsString());
+		assertEquals(2, next.count);
+
+		// If-None-Match
+		resp = request("GET", "1", "a", etag);
+		assertEquals(304, resp.getStatus());
+		assertEquals("", resp.getAsString());
+
+		// POST 不缓存
+		resp = request("POST", "1", "a", null);
+		assertEquals("hello 1", resp.getAsString());
+		assertEquals(3, next.count);
+
+		// 清除一个路径
+		ResponseCache.evict("cache.test", "/hello");
+		resp = request("GET", "1", "a", null);
+		assertEquals("hello 1", resp.getAsString());
+		assertEquals("4", resp.getHeader("X-Count"));
+		request("GET", "1", "a", null);
+		assertEquals(4, next.count);
+
+		// 清除整组
+		ResponseCache.evict("cache.test");
+		request("GET", "1", "a", null);
+		assertEquals(5, next.count);
+	}
+
+	@Test
+	public void test_lru_and_ttl() throws Throwable {
+		ResponseCache cache = new ResponseCache(2, 1000);
+		cache.put("a", new byte[]{1}, null, null);
+		cache.put("b", new byte[]{2}, null, null);
+		cache.get("a");
+		cache.put("c", new byte[]{3}, null, null);
+		assertNotNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertNotNull(cache.get("c"));
+
+		cache = new ResponseCache(2, -1);
+		cache.put("a", new byte[]{1}, null, null);
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.size());
+	}
+
+}
@@ -82,4 +82,28 @@ public class MappingNodeTest {
 
 	}
 
+	@Test
+	public void test_ignore_case_and_many_quesmark() {
+		MappingNode<String> root = new MappingNode<String>();
+		root.add("/a/?/c", "A");
+		root.add("/a/?/d", "B");
+		root.add("/Hello/World", "C");
+		root.compile();
+
+		ActionContext ac = new ActionContext();
+		assertEquals("A", root.get(ac, "/a/x/c"));
+		assertEquals("x", ac.getPathArgs().get(0));
+		assertEquals("B", root.get(ac, "/A/y/D"));
+		assertEquals("y", ac.getPathArgs().get(0));
+		assertEquals("C", root.get(ac, "/hello/world"));
+		assertEquals("C", root.get(ac, "//HELLO/ world /"));
+		assertEquals(0, ac.getPathArgs().size());
+		assertNull(root.get(ac, "/hello/worlds"));
+
+		// 编译以后再增加路径
+		root.add("/a/?/*", "D");
+		assertEquals("D", root.get(ac, "/a/x/e/f"));
+		assertEquals("[x, e, f]", ac.getPathArgs().toString());
+	}
+
 }
@@ -0,0 +1,70 @@
+package org.nutz.mvc.impl;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+import org.nutz.mvc.ActionContext;
+import org.nutz.mvc.ActionInfo;
+import org.nutz.mvc.impl.processor.MethodInvokeProcessor;
+
+public class MethodInvokeProcessorTest {
+
+	public static class MyModule {
+		public int add(int a, int b) {
+			return a + b;
+		}
+
+		public String fail(String msg) throws IOException {
+			throw new IOException(msg);
+		}
+	}
+
+	private static MethodInvokeProcessor processor(Method method) throws Throwable {
+		ActionInfo ai = new ActionInfo();
+		ai.setModuleType(MyModule.class);
+		ai.setMethod(method);
+		MethodInvokeProcessor p = new MethodInvokeProcessor();
+		p.init(null, ai);
+		return p;
+	}
+
+	@Test
+	public void test_invoke() throws Throwable {
+		Method add = MyModule.class.getMethod("add", int.class, int.class);
+		MethodInvokeProcessor p = processor(add);
+		ActionContext ac = new ActionContext();
+		ac.setModule(new MyModule()).setMethod(add).setMethodArgs(new Object[]{3, 4});
+		p.process(ac);
+		assertEquals(7, ac.getMethodReturn());
+
+		// 上下文里的函数被换掉了，退回到反射
+		Method fail = MyModule.class.getMethod("fail", String.class);
+		ac.setMethod(fail).setMethodArgs(new Object[]{"abc"});
+		try {
+			p.process(ac);
+			fail();
+		}
+		catch (IOException e) {
+			assertEquals("abc", e.getMessage());
+		}
+	}
+
+	@Test
+	public void test_checked_exception() throws Throwable {
+		Method fail = MyModule.class.getMethod("fail", String.class);
+		MethodInvokeProcessor p = processor(fail);
+		ActionContext ac = new ActionContext();
+		ac.setModule(new MyModule()).setMethod(fail).setMethodArgs(new Object[]{"xyz"});
+		try {
+			p.process(ac);
+			fail();
+		}
+		catch (IOException e) {
+			assertEquals("xyz", e.getMessage());
+		}
+	}
+
+}
@@ -5,5 +5,6 @@ import org.junit.runners.Suite;
 import org.nutz.mvc.view.redirect.ServerRedirectViewTest;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ServerRedirectViewTest.class, JspViewTest.class})
+@Suite.SuiteClasses({ServerRedirectViewTest.class, JspViewTest.class, JsonStreamViewTest.class,
+						CompressionTest.class})
 public class AllView {}
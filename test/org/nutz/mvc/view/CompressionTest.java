@@ -0,0 +1,124 @@
+package org.nutz.mvc.view;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.Test;
+import org.nutz.json.Json;
+import org.nutz.json.JsonFormat;
+import org.nutz.lang.Lang;
+import org.nutz.lang.Streams;
+import org.nutz.lang.Strings;
+import org.nutz.mock.servlet.MockHttpServletRequest;
+import org.nutz.mock.servlet.MockHttpServletResponse;
+
+public class CompressionTest {
+
+	static class BytesResponse extends MockHttpServletResponse {
+		byte[] getBytes() {
+			return stream.toByteArray();
+		}
+	}
+
+	private static MockHttpServletRequest request(String acceptEncoding, int threshold) {
+		MockHttpServletRequest req = new MockHttpServletRequest();
+		if (null != acceptEncoding)
+			req.setHeader("Accept-Encoding", acceptEncoding);
+		if (threshold >= 0)
+			req.setAttribute(Compression.ATTR, new Compression(threshold));
+		return req;
+	}
+
+	private static byte[] readBytes(InputStream ins) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Streams.write(out, ins);
+		return out.toByteArray();
+	}
+
+	private static String read(InputStream ins) throws Exception {
+		return new String(readBytes(ins), "UTF-8");
+	}
+
+	@Test
+	public void test_accept() {
+		assertEquals("gzip", Compression.accept(request("gzip, deflate", -1)));
+		assertEquals("gzip", Compression.accept(request("deflate, x-gzip", -1)));
+		assertEquals("deflate", Compression.accept(request("deflate;q=0.5, gzip;q=0", -1)));
+		assertEquals("gzip", Compression.accept(request("*", -1)));
+		assertNull(Compression.accept(request("identity", -1)));
+		assertNull(Compression.accept(request(null, -1)));
+	}
+
+	@Test
+	public void test_json_view() throws Exception {
+		List<Object> list = new ArrayList<Object>();
+		for (int i = 0; i < 200; i++)
+			list.add(Lang.map("{id:" + i + ", name:'中文名字'}"));
+		String json = Json.toJson(list, JsonFormat.compact());
+		UTF8JsonView view = new UTF8JsonView(JsonFormat.compact());
+
+		// 两次，第二次会用到池里的 Deflater
+		for (int i = 0; i < 2; i++) {
+			BytesResponse resp = new BytesResponse();
+			resp.setCharacterEncoding("UTF-8");
+			view.render(request("gzip", 1024), resp, list);
+			assertEquals("gzip", resp.getHeader("Content-Encoding"));
+			assertEquals("Accept-Encoding", resp.getHeader("Vary"));
+			byte[] bs = resp.getBytes();
+			assertTrue(bs.length < json.length() / 2);
+			assertEquals(json, read(new GZIPInputStream(new ByteArrayInputStream(bs))));
+		}
+
+		BytesResponse resp = new BytesResponse();
+		resp.setCharacterEncoding("GBK");
+		view.render(request("deflate", 0), resp, list);
+		assertEquals("deflate", resp.getHeader("Content-Encoding"));
+		byte[] bs = readBytes(new InflaterInputStream(new ByteArrayInputStream(resp.getBytes())));
+		assertEquals(json, new String(bs, "GBK"));
+
+		// 不接受压缩，或者没有打开压缩
+		resp = new BytesResponse();
+		resp.setCharacterEncoding("UTF-8");
+		view.render(request(null, 0), resp, list);
+		assertNull(resp.getHeader("Content-Encoding"));
+		assertEquals(json, resp.getAsString());
+
+		resp = new BytesResponse();
+		resp.setCharacterEncoding("UTF-8");
+		view.render(request("gzip", -1), resp, list);
+		assertNull(resp.getHeader("Content-Encoding"));
+		assertEquals(json, resp.getAsString());
+	}
+
+	@Test
+	public void test_raw_view_threshold() throws Throwable {
+		RawView view = new RawView("html");
+		BytesResponse resp = new BytesResponse();
+		view.render(request("gzip", 100), resp, "<b>small</b>");
+		assertNull(resp.getHeader("Content-Encoding"));
+		assertEquals("<b>small</b>", resp.getAsString());
+
+		String html = "<div>" + Strings.dup("abc", 100) + "</div>";
+		resp = new BytesResponse();
+		resp.setCharacterEncoding("UTF-8");
+		view.render(request("gzip", 100), resp, html);
+		assertEquals("gzip", resp.getHeader("Content-Encoding"));
+		assertEquals(html, read(new GZIPInputStream(new ByteArrayInputStream(resp.getBytes()))));
+
+		// 二进制的内容不压缩
+		byte[] data = new byte[1000];
+		view = new RawView("stream");
+		resp = new BytesResponse();
+		view.render(request("gzip", 100), resp, data);
+		assertNull(resp.getHeader("Content-Encoding"));
+		assertEquals(1000, resp.getBytes().length);
+	}
+
+}
@@ -18,6 +18,8 @@ public class DefaultViewMakerTest {
 		assertNotNull(maker.make(null, "json", "{}"));
 		assertNotNull(maker.make(null, "json", "{compact:false,ignoreNull:false}"));
 		assertNotNull(maker.make(null, "json", null));
+		assertNotNull(maker.make(null, "json-stream", null));
+		assertNotNull(maker.make(null, "json-stream", "{quoteName:true}"));
 		assertNotNull(maker.make(null, "void", "void"));
 		assertNotNull(maker.make(null, "redirect", "/auth/login"));
 		assertNotNull(maker.make(null, ">>", "/auth/login"));
@@ -0,0 +1,44 @@
+package org.nutz.mvc.view;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.nutz.json.JsonArrayWriter;
+import org.nutz.json.JsonFormat;
+import org.nutz.lang.Lang;
+import org.nutz.mock.servlet.MockHttpServletResponse;
+
+public class JsonStreamViewTest {
+
+	@Test
+	public void test_render_iterator_and_source() throws Exception {
+		final List<Object> list = new ArrayList<Object>();
+		list.add(Lang.map("{id:1,name:'中'}"));
+		list.add(Lang.map("{id:2}"));
+		JsonStreamView view = new JsonStreamView(JsonFormat.compact());
+
+		MockHttpServletResponse resp = new MockHttpServletResponse();
+		resp.setCharacterEncoding("UTF-8");
+		view.render(null, resp, list.iterator());
+		assertEquals("[{\"id\":1,\"name\":\"中\"}, {\"id\":2}]", resp.getAsString());
+
+		resp = new MockHttpServletResponse();
+		resp.setCharacterEncoding("GBK");
+		view.render(null, resp, new JsonStreamView.Source() {
+			public void writeTo(JsonArrayWriter writer) {
+				for (Object obj : list)
+					writer.write(obj);
+			}
+		});
+		assertEquals("[{\"id\":1,\"name\":\"中\"}, {\"id\":2}]", resp.getAsString());
+
+		resp = new MockHttpServletResponse();
+		resp.setCharacterEncoding("UTF-8");
+		view.render(null, resp, null);
+		assertEquals("[]", resp.getAsString());
+	}
+
+}
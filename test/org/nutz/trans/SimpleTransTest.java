@@ -65,4 +65,27 @@ public class SimpleTransTest extends DaoCase {
 		dao.delete(cat2);
 	}
 
+	@Test
+	public void test_statement_cache() {
+		Trans.setStatementCacheSize(10);
+		StatementCache.resetTotals();
+		try {
+			Trans.exec(new Atom() {
+				public void run() {
+					for (int i = 0; i < 5; i++)
+						dao.insert(Cat.create("cat" + i));
+					for (int i = 0; i < 5; i++)
+						assertEquals("cat" + i, dao.fetch(Cat.class, "cat" + i).getName());
+				}
+			});
+		}
+		finally {
+			Trans.setStatementCacheSize(0);
+		}
+		// 同样的插入和查询语句，只有第一次需要创建
+		assertEquals(2, StatementCache.getTotalMisses());
+		assertEquals(8, StatementCache.getTotalHits());
+		assertEquals(6, dao.count(Cat.class));
+	}
+
 }